@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * This migration creates the GIN indexes of the languages, the formats and the keywords of the
+ * books, stored as arrays since {@code V1.2.0}.
+ * <p>
+ * A GIN index serves the overlap ({@code &&}) and containment ({@code @>}) operators of the
+ * PostgreSQL arrays, used by the filter of the books by language and format. The other databases,
+ * as H2 used in the tests, have no inverted index of the arrays and are left as they are.
+ * <p>
+ * The Java migrations are loaded only from the packages of the locations of the migrations,
+ * hence the package of this class.
+ */
+public class V1_2_1__CreateBookArrayIndexes extends BaseJavaMigration {
+
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        if (!POSTGRESQL.equals(connection.getMetaData().getDatabaseProductName())) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create index book_languages_gin_idx on book using gin (languages)");
+            statement.execute("create index book_formats_gin_idx on book using gin (formats)");
+            statement.execute("create index book_keywords_gin_idx on book using gin (keywords)");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.app.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import it.dontesta.labs.quarkus.graphql.exception.ConcurrencyLimitExceededException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Limits the number of invocations that run concurrently on virtual threads.
+ *
+ * <p>
+ * The platform threads of the worker pool are few, while a virtual thread is started for every
+ * request: without a limit, thousands of them would wait for the connections of the pool of the
+ * datasource, and fail when the acquisition of a connection times out. The invocations wait, in
+ * order of arrival, for one of the {@code max-concurrent} permits, and are rejected with a
+ * {@link ConcurrencyLimitExceededException} when the wait exceeds the {@code acquire-timeout}.
+ *
+ * <p>
+ * A thread that already holds a permit enters again without waiting, so that the nested
+ * invocations of the limited beans never wait for themselves. The invocations on platform
+ * threads are already limited by the size of the worker pool and are not limited again.
+ */
+@ApplicationScoped
+public class ConcurrencyLimiter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Timer wait;
+    private final Counter rejected;
+
+    @Inject
+    public ConcurrencyLimiter(
+            @ConfigProperty(name = "app.concurrency-limit.max-concurrent", defaultValue = "20") int maxConcurrent,
+            @ConfigProperty(name = "app.concurrency-limit.acquire-timeout", defaultValue = "5s") Duration acquireTimeout,
+            MeterRegistry registry) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("The maximum concurrency must be greater than zero");
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+
+        Gauge.builder("concurrency.limiter.active", active, AtomicInteger::get)
+                .description("The invocations running on virtual threads with a permit")
+                .register(registry);
+        Gauge.builder("concurrency.limiter.waiting", waiting, AtomicInteger::get)
+                .description("The invocations on virtual threads waiting for a permit")
+                .register(registry);
+        this.wait = Timer.builder("concurrency.limiter.wait")
+                .description("The time waited for a permit by the invocations on virtual threads")
+                .register(registry);
+        this.rejected = Counter.builder("concurrency.limiter.rejected")
+                .description("The invocations rejected because no permit was free within the timeout")
+                .register(registry);
+    }
+
+    /**
+     * Runs a task, waiting for a permit if it runs on a virtual thread.
+     *
+     * @param task the task
+     * @param <T> the type of the result
+     * @return the result of the task
+     * @throws ConcurrencyLimitExceededException if no permit is free within the timeout
+     * @throws Exception if the task fails
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        int[] held = depth.get();
+        if (!Thread.currentThread().isVirtual() || held[0] > 0) {
+            return task.call();
+        }
+
+        acquire();
+        held[0]++;
+        active.incrementAndGet();
+        try {
+            return task.call();
+        } finally {
+            active.decrementAndGet();
+            held[0]--;
+            permits.release();
+        }
+    }
+
+    private void acquire() throws InterruptedException {
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejected.increment();
+            throw new ConcurrencyLimitExceededException(
+                    "Too many concurrent requests, no permit was free within %d ms"
+                            .formatted(TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos)));
+        }
+    }
+}
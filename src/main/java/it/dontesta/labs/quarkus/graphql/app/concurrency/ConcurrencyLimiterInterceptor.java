@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.app.concurrency;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Runs the invocations of the {@link ConcurrencyLimited} beans through the
+ * {@link ConcurrencyLimiter}. It runs before the transaction interceptor, so that the permit is
+ * held before a connection is requested.
+ */
+@ConcurrencyLimited
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class ConcurrencyLimiterInterceptor {
+
+    private final ConcurrencyLimiter limiter;
+
+    @Inject
+    public ConcurrencyLimiterInterceptor(ConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @AroundInvoke
+    Object limit(InvocationContext context) throws Exception {
+        return limiter.call(context::proceed);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.app.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Detects the virtual threads pinned to their carrier thread, typically while blocking inside
+ * a {@code synchronized} block of the JDBC driver or of the MinIO client, through the
+ * {@code jdk.VirtualThreadPinned} events of the Flight Recorder.
+ *
+ * <p>
+ * Every pinning longer than the threshold is recorded by the {@code virtual.threads.pinned}
+ * metric; the first pinning of every code location is logged with its stack trace. The monitor
+ * runs only when the virtual threads are enabled.
+ */
+@ApplicationScoped
+public class PinnedThreadMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final Timer pinned;
+    private final Set<String> reportedLocations = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream stream;
+
+    @Inject
+    public PinnedThreadMonitor(MeterRegistry registry,
+            @ConfigProperty(name = "quarkus.virtual-threads.enabled", defaultValue = "true") boolean virtualThreads,
+            @ConfigProperty(name = "app.virtual-threads.pinning.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "app.virtual-threads.pinning.threshold", defaultValue = "20ms") Duration threshold) {
+        this.enabled = virtualThreads && enabled;
+        this.threshold = threshold;
+        this.pinned = Timer.builder("virtual.threads.pinned")
+                .description("The time the virtual threads were pinned to their carrier thread while blocked")
+                .register(registry);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::report);
+            stream.startAsync();
+            Log.infof("Reporting the virtual threads pinned for more than %d ms", threshold.toMillis());
+        } catch (RuntimeException | Error e) {
+            // The Flight Recorder is not available, for example in a native image without it
+            Log.warnf("Cannot detect the pinned virtual threads: %s", e.toString());
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void report(RecordedEvent event) {
+        pinned.record(event.getDuration());
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+        String location = frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(PinnedThreadMonitor::describe)
+                .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk.") && !frame.startsWith("sun."))
+                .findFirst()
+                .orElse("unknown location");
+        if (reportedLocations.add(location)) {
+            Log.warnf("Virtual thread pinned for %d ms at %s, further pinnings at this location are only measured:%n  %s",
+                    event.getDuration().toMillis(), location,
+                    frames.stream().limit(LOGGED_FRAMES).map(PinnedThreadMonitor::describe)
+                            .collect(Collectors.joining(System.lineSeparator() + "  ")));
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return "%s.%s(line %d)".formatted(frame.getMethod().getType().getName(), frame.getMethod().getName(),
+                frame.getLineNumber());
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.app.lifecycle.s3;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
+import org.eclipse.microprofile.health.Readiness;
+
+/**
+ * The readiness check of the upload of the book covers after the startup: the application is
+ * not ready, and receives no traffic, until every cover is uploaded, skipped or failed. The
+ * failed covers are reported, they do not keep the application out of service.
+ */
+@Readiness
+@ApplicationScoped
+public class BookCoverBootstrapCheck implements HealthCheck {
+
+    static final String NAME = "Book covers bootstrap";
+
+    private final BookFrontBackCoverLoader loader;
+
+    @Inject
+    public BookCoverBootstrapCheck(BookFrontBackCoverLoader loader) {
+        this.loader = loader;
+    }
+
+    @Override
+    public HealthCheckResponse call() {
+        HealthCheckResponseBuilder response = HealthCheckResponse.named(NAME);
+        return loader.bootstrapResult()
+                .map(result -> response.up()
+                        .withData("uploaded", result.uploaded())
+                        .withData("skipped", result.skipped())
+                        .withData("failed", result.failed()))
+                .orElseGet(response::down)
+                .build();
+    }
+}
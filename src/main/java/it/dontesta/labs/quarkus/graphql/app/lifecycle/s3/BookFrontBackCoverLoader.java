@@ -4,106 +4,269 @@
  */
 package it.dontesta.labs.quarkus.graphql.app.lifecycle.s3;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLConnection;
 import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Event;
 import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.ObservesAsync;
 import jakarta.inject.Inject;
-import jakarta.persistence.EntityManager;
-import jakarta.transaction.Transactional;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.runtime.StartupEvent;
 import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
 import it.dontesta.labs.quarkus.graphql.s3.service.MinioService;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 /**
  * This class handles the uploading of book front and back cover images to Minio
  * from a specified resource folder.
+ * <p>
+ * The covers are uploaded after the startup, on threads of their own and a bounded number at a
+ * time, so that the startup does not wait for them: the readiness check
+ * {@link BookCoverBootstrapCheck} is down until they are all uploaded. Each image is streamed
+ * from the resources with its length, and it is not uploaded again when the ETag of the object
+ * already in the bucket matches the MD5 hash of the image, so that a restart only checks them.
+ * The books are then linked to the keys of their covers by an async observer of the
+ * {@link UploadEvent}, the presigned URLs of the covers are resolved when the books are read.
  */
 @ApplicationScoped
 public class BookFrontBackCoverLoader {
 
+    // List of book front and back cover image files
+    // This file are located in the resources folder
+    // See the quarkus.native.resources.includes configuration in the application.properties file
+    // for the list of resources to be included in the native image
+    static final List<String> IMAGE_FILES = List.of(
+            "data/book/images/9780321967974_the_art_of_software_engineering_back_cover.jpg",
+            "data/book/images/9780321967974_the_art_of_software_engineering_front_cover.jpg",
+            "data/book/images/9780596805190_machine_learning_algorithms_back_cover.jpg",
+            "data/book/images/9780596805190_machine_learning_algorithms_front_cover.jpg",
+            "data/book/images/9780785316371_networked_neural_strategy_back_cover.jpg",
+            "data/book/images/9780785316371_networked_neural_strategy_front_cover.jpg",
+            "data/book/images/9780810885720_algorithmic_pattern_analysis_back_cover.jpg",
+            "data/book/images/9780810885720_algorithmic_pattern_analysis_front_cover.jpg",
+            "data/book/images/9781501582327_introduction_to_data_science_back_cover.jpg",
+            "data/book/images/9781501582327_introduction_to_data_science_front_cover.jpg");
+
+    private static final String CONTENT_TYPE = "image/jpeg";
+
     private final MinioService minioService;
     private final Event<UploadEvent> uploadEvent;
-    private final EntityManager entityManager;
+    private final Event<EntityChangedEvent> entityChanged;
+    private final String bucketName;
+    private final int parallelism;
+    private final Timer bootstraps;
+
+    // Completed when every cover is uploaded, skipped or failed
+    private final CompletableFuture<BootstrapResult> bootstrap = new CompletableFuture<>();
 
     /**
      * Constructor to inject the MinioService and Event.
      *
      * @param minioService the MinioService to be injected
      * @param uploadEvent the Event to be injected
-     * @param entityManager the EntityManager to be injected
+     * @param entityChanged the Event notifying the books linked to their covers
+     * @param registry the registry of the metrics
+     * @param bucketName the bucket where the covers are uploaded
+     * @param parallelism the maximum number of covers uploaded at the same time
      */
     @Inject
-    public BookFrontBackCoverLoader(MinioService minioService, Event<UploadEvent> uploadEvent, EntityManager entityManager) {
+    public BookFrontBackCoverLoader(MinioService minioService, Event<UploadEvent> uploadEvent,
+            Event<EntityChangedEvent> entityChanged,
+            MeterRegistry registry,
+            @ConfigProperty(name = "app.books.covers.bucket", defaultValue = "book-cover") String bucketName,
+            @ConfigProperty(name = "app.books.covers.bootstrap-parallelism", defaultValue = "8") int parallelism) {
         this.minioService = minioService;
         this.uploadEvent = uploadEvent;
-        this.entityManager = entityManager;
+        this.entityChanged = entityChanged;
+        this.bucketName = bucketName;
+        this.parallelism = parallelism;
+        this.bootstraps = Timer.builder("books.covers.bootstrap")
+                .description("The uploads of the book covers after the startup")
+                .register(registry);
     }
 
     /**
      * Event listener method that triggers on application startup to upload book
-     * front and back cover images to Minio.
+     * front and back cover images to Minio, without waiting for them.
      *
      * @param event the startup event
      */
     void onBookFrontCoverUpload(@Observes StartupEvent event) {
-        // This is the bucket name where the book front and back cover images will be uploaded
-        // This value should be getting from the application configuration
-        var bucketName = "book-cover";
-
-        // List of book front and back cover image files
-        // This file are located in the resources folder
-        // See the quarkus.native.resources.includes configuration in the application.properties file
-        // for the list of resources to be included in the native image
-        List<String> imageFiles = List.of(
-                "data/book/images/9780321967974_the_art_of_software_engineering_back_cover.jpg",
-                "data/book/images/9780321967974_the_art_of_software_engineering_front_cover.jpg",
-                "data/book/images/9780596805190_machine_learning_algorithms_back_cover.jpg",
-                "data/book/images/9780596805190_machine_learning_algorithms_front_cover.jpg",
-                "data/book/images/9780785316371_networked_neural_strategy_back_cover.jpg",
-                "data/book/images/9780785316371_networked_neural_strategy_front_cover.jpg",
-                "data/book/images/9780810885720_algorithmic_pattern_analysis_back_cover.jpg",
-                "data/book/images/9780810885720_algorithmic_pattern_analysis_front_cover.jpg",
-                "data/book/images/9781501582327_introduction_to_data_science_back_cover.jpg",
-                "data/book/images/9781501582327_introduction_to_data_science_front_cover.jpg");
-
-        List<String> uploadedFiles = new ArrayList<>();
-
-        for (String imageFilePath : imageFiles) {
-            try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(imageFilePath)) {
-                if (inputStream != null) {
-                    String fileName = Paths.get(imageFilePath).getFileName().toString();
-                    minioService.uploadObject(bucketName, fileName, inputStream.readAllBytes());
-                    uploadedFiles.add(fileName);
-                    Log.debugf("Uploaded book front and back cover image: {%s} to Minio into bucket name {%s}", fileName,
-                            bucketName);
-                } else {
-                    Log.warnf("Resource file not found: {%s}", imageFilePath);
+        Thread.ofPlatform().name("book-cover-bootstrap").daemon().start(this::bootstrap);
+    }
+
+    /**
+     * Returns the result of the upload of the covers, if it is complete.
+     *
+     * @return the result of the upload, or empty while the covers are being uploaded
+     */
+    public Optional<BootstrapResult> bootstrapResult() {
+        return Optional.ofNullable(bootstrap.getNow(null));
+    }
+
+    /**
+     * Waits for the upload of the covers.
+     *
+     * @return the result of the upload
+     * @throws Exception if the thread is interrupted or the wait fails
+     */
+    BootstrapResult awaitBootstrap() throws Exception {
+        return bootstrap.get(30, TimeUnit.SECONDS);
+    }
+
+    private void bootstrap() {
+        long start = System.nanoTime();
+        List<String> presentFiles = new ArrayList<>();
+        int uploaded = 0;
+        int skipped = 0;
+        int failed = 0;
+        CompletionStage<?> linking = CompletableFuture.completedFuture(null);
+        try {
+            // The bucket is checked once, instead of before every upload
+            minioService.ensureBucket(bucketName);
+
+            try (ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, IMAGE_FILES.size()),
+                    Thread.ofPlatform().name("book-cover-upload-", 0).daemon().factory())) {
+                Map<String, Future<Outcome>> outcomes = new LinkedHashMap<>();
+                for (String imageFilePath : IMAGE_FILES) {
+                    outcomes.put(imageFilePath, pool.submit(() -> upload(imageFilePath)));
                 }
-            } catch (Exception e) {
-                Log.errorf("Error uploading book front and back cover image: {%s} to Minio", imageFilePath, e);
+                for (Map.Entry<String, Future<Outcome>> outcome : outcomes.entrySet()) {
+                    try {
+                        Outcome result = outcome.getValue().get();
+                        switch (result) {
+                            case UPLOADED -> uploaded++;
+                            case SKIPPED -> skipped++;
+                            case MISSING -> failed++;
+                        }
+                        if (result != Outcome.MISSING) {
+                            presentFiles.add(fileNameOf(outcome.getKey()));
+                        }
+                    } catch (ExecutionException e) {
+                        failed++;
+                        Log.errorf(e.getCause(), "Error uploading book front and back cover image: {%s} to Minio",
+                                outcome.getKey());
+                    }
+                }
+            }
+
+            // Send the upload event with bucket name and list of uploaded files, to the async observers
+            if (!presentFiles.isEmpty()) {
+                linking = uploadEvent.fireAsync(new UploadEvent(bucketName, presentFiles));
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed = IMAGE_FILES.size() - uploaded - skipped;
+        } catch (Exception e) {
+            failed = IMAGE_FILES.size() - uploaded - skipped;
+            Log.errorf(e, "Error uploading the book front and back cover images to Minio into bucket name {%s}",
+                    bucketName);
+        } finally {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            bootstraps.record(elapsed);
+            Log.infof("Book covers uploaded to bucket {%s} in %d ms: %d uploaded, %d unchanged, %d failed", bucketName,
+                    elapsed.toMillis(), uploaded, skipped, failed);
+            BootstrapResult result = new BootstrapResult(uploaded, skipped, failed);
+            // The bootstrap is complete once the books are linked to their covers
+            linking.whenComplete((event, failure) -> {
+                if (failure != null) {
+                    Log.errorf(failure, "Error linking the books to their covers in bucket name {%s}", bucketName);
+                }
+                bootstrap.complete(result);
+            });
+        }
+    }
+
+    private Outcome upload(String imageFilePath) throws IOException {
+        URL resource = getClass().getClassLoader().getResource(imageFilePath);
+        if (resource == null) {
+            Log.warnf("Resource file not found: {%s}", imageFilePath);
+            return Outcome.MISSING;
+        }
+
+        String fileName = fileNameOf(imageFilePath);
+        String hash = md5Of(resource);
+        if (minioService.getObjectETag(bucketName, fileName).filter(hash::equalsIgnoreCase).isPresent()) {
+            Log.debugf("Book front and back cover image: {%s} already in bucket name {%s}", fileName, bucketName);
+            return Outcome.SKIPPED;
         }
 
-        // Send the upload event with bucket name and list of uploaded files
-        uploadEvent.fire(new UploadEvent(bucketName, uploadedFiles));
+        URLConnection connection = resource.openConnection();
+        try (InputStream inputStream = connection.getInputStream()) {
+            minioService.putObject(bucketName, fileName, inputStream, connection.getContentLengthLong(), CONTENT_TYPE);
+        }
+        Log.debugf("Uploaded book front and back cover image: {%s} to Minio into bucket name {%s}", fileName,
+                bucketName);
+        return Outcome.UPLOADED;
     }
 
     /**
-     * Event listener method to handle the upload event and update Book entities.
+     * Computes the MD5 hash of a resource, the ETag of an object uploaded in a single part,
+     * reading it in a stream.
+     *
+     * @param resource the resource
+     * @return the hex MD5 hash of the content of the resource
+     * @throws IOException if the resource cannot be read
+     */
+    static String md5Of(URL resource) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+        try (InputStream inputStream = new DigestInputStream(resource.openStream(), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String fileNameOf(String imageFilePath) {
+        return Paths.get(imageFilePath).getFileName().toString();
+    }
+
+    /**
+     * Event listener method to handle the upload event and update Book entities, on a thread
+     * of the async observers.
+     * <p>
+     * The books store the keys of their covers, the names of the objects in the bucket, whose
+     * presigned URLs are resolved when the books are read: the books with the ISBNs of the covers
+     * are read with a single query and only the ones whose keys change are updated, in one short
+     * transaction without reading MinIO, whose updates are sent in JDBC batches.
      *
      * @param event the upload event
      */
-    @Transactional
-    void onUploadEvent(@Observes UploadEvent event) {
+    void onUploadEvent(@ObservesAsync UploadEvent event) {
         String bucketName = event.bucketName();
         List<String> uploadedFiles = event.uploadedFiles();
 
@@ -120,28 +283,30 @@ public class BookFrontBackCoverLoader {
                 .collect(Collectors.toMap(
                         entry -> entry.getValue().stream().filter(name -> name.endsWith("front_cover.jpg")).findFirst().orElseThrow(),
                         entry -> entry.getValue().stream().filter(name -> name.endsWith("back_cover.jpg")).findFirst().orElseThrow()));
+        Map<String, String> frontCoversByIsbn = coverPairs.keySet().stream()
+                .collect(Collectors.toMap(frontCover -> frontCover.split("_")[0], Function.identity()));
+        if (frontCoversByIsbn.isEmpty()) {
+            return;
+        }
 
-        // Logic to update Book entities with front and back cover URLs
-        coverPairs.forEach((frontCover, backCover) -> {
-            var isbn = frontCover.split("_")[0];
-
-            Book book = Book.findBookByQuery("isbn", isbn);
-
-            if (book != null) {
-                Map<String, Object> frontCoverDetails = minioService.getObjectDetails(bucketName, frontCover);
-                Map<String, Object> backCoverDetails = minioService.getObjectDetails(bucketName, backCover);
-
-                String frontCoverUrl = frontCoverDetails.get("downloadUrl").toString();
-                String backCoverUrl = backCoverDetails.get("downloadUrl").toString();
-
-                book.frontCoverImageUrl = frontCoverUrl;
-                book.backCoverImageUrl = backCoverUrl;
-
-                // Update the Book entity
-                entityManager.merge(book);
+        // Logic to update Book entities with the keys of the front and back covers, in one short transaction
+        QuarkusTransaction.requiringNew().run(() -> {
+            List<Book> linked = new ArrayList<>();
+            for (Book book : Book.findBooksByIsbns(frontCoversByIsbn.keySet())) {
+                String frontCover = frontCoversByIsbn.get(book.isbn);
+                String backCover = coverPairs.get(frontCover);
+                if (frontCover.equals(book.frontCoverImageKey) && backCover.equals(book.backCoverImageKey)) {
+                    continue;
+                }
+                book.frontCoverImageKey = frontCover;
+                book.backCoverImageKey = backCover;
+                linked.add(book);
 
-                Log.debugf("Updated Book entity with ISBN {%s} with front cover URL {%s} and back cover URL {%s}", isbn,
-                        frontCoverUrl, backCoverUrl);
+                Log.debugf("Updated Book entity with ISBN {%s} with front cover key {%s} and back cover key {%s}",
+                        book.isbn, frontCover, backCover);
+            }
+            if (!linked.isEmpty()) {
+                entityChanged.fire(EntityChangedEvent.changed(Book.class, linked));
             }
         });
     }
@@ -151,4 +316,18 @@ public class BookFrontBackCoverLoader {
      */
     public record UploadEvent(String bucketName, List<String> uploadedFiles) {
     }
+
+    /**
+     * The result of the upload of the covers after the startup.
+     *
+     * @param uploaded the number of covers uploaded
+     * @param skipped the number of covers already in the bucket with the same content
+     * @param failed the number of covers not found or not uploaded
+     */
+    public record BootstrapResult(int uploaded, int skipped, int failed) {
+    }
+
+    private enum Outcome {
+        UPLOADED, SKIPPED, MISSING
+    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.exception;
+
+/**
+ * Exception thrown when a request waits too long for a permit of the concurrency limiter.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    /**
+     * Constructs a new ConcurrencyLimitExceededException with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.exception;
+
+import java.util.List;
+
+/**
+ * Exception thrown when an entity to write references other entities, by their ID, that do
+ * not exist.
+ */
+public class MissingReferenceException extends RuntimeException {
+
+    private final List<String> missing;
+
+    /**
+     * Constructs a new MissingReferenceException with the messages of the missing references.
+     *
+     * @param missing the messages of the missing references, one for each reference
+     */
+    public MissingReferenceException(List<String> missing) {
+        super(String.join("; ", missing));
+        this.missing = List.copyOf(missing);
+    }
+
+    /**
+     * Returns the messages of the missing references.
+     *
+     * @return the messages, one for each reference
+     */
+    public List<String> getMissing() {
+        return missing;
+    }
+}
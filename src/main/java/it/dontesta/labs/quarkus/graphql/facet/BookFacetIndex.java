@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.facet;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import it.dontesta.labs.quarkus.graphql.facet.type.BookFacets;
+import it.dontesta.labs.quarkus.graphql.facet.type.FacetCount;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
+import it.dontesta.labs.quarkus.graphql.pagination.filter.BookCondition;
+import it.dontesta.labs.quarkus.graphql.pagination.keyset.BookKeysetPaginator;
+import it.dontesta.labs.quarkus.graphql.pagination.type.BookSortField;
+import it.dontesta.labs.quarkus.graphql.ws.dto.BookFilter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * In-memory index of the facets of the books: for every genre, language, format and editor, the
+ * compressed bitmap (Roaring) of the IDs of the books with that value.
+ *
+ * <p>
+ * A filter is the intersection of the unions of the bitmaps of its values, and the count of a
+ * value is the cardinality of the intersection of its bitmap with the books that match the
+ * other facets of the filter, so the counts and the matching books are computed in memory,
+ * without running a query for each facet.
+ *
+ * <p>
+ * The bitmaps are built from the database at every startup, before the application serves the
+ * requests, so they miss none of the changes made while the application was stopped. They are
+ * kept in sync with the {@link EntityChangedEvent}s of the books, including the ones of the
+ * other replicas received through the outbox bus: after the commit, the facets of the changed
+ * books are read again by a single thread, and the responses of the books that may have changed
+ * are evicted from the caches once the bitmaps are updated.
+ */
+@ApplicationScoped
+public class BookFacetIndex {
+
+    /**
+     * The facets of the books.
+     */
+    enum Facet {
+        GENRE, LANGUAGE, FORMAT, EDITOR
+    }
+
+    private final Event<EntityChangedEvent> entityChanged;
+    private final int chunkSize;
+    private final int maxInList;
+
+    private final ExecutorService updater = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("book-facet-index").daemon().factory());
+    // The IDs of the books changed by the committed transactions, not yet applied
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    // The bitmaps are read by many requests at once and changed only by the updater
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Facet, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(Facet.class);
+    private final RoaringBitmap all = new RoaringBitmap();
+
+    private final Timer queries;
+    private final Counter updates;
+
+    @Inject
+    public BookFacetIndex(MeterRegistry registry, Event<EntityChangedEvent> entityChanged,
+            @ConfigProperty(name = "app.books.facets.chunk-size", defaultValue = "1000") int chunkSize,
+            @ConfigProperty(name = "app.books.facets.max-in-list", defaultValue = "1000") int maxInList) {
+        this.entityChanged = entityChanged;
+        this.chunkSize = chunkSize;
+        this.maxInList = maxInList;
+        for (Facet facet : Facet.values()) {
+            bitmaps.put(facet, new HashMap<>());
+        }
+
+        this.queries = Timer.builder("books.facets")
+                .description("The facet counts and the filters of the books")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.updates = Counter.builder("books.facets.updates")
+                .description("The books updated or deleted in the facet index after a commit")
+                .register(registry);
+        Gauge.builder("books.facets.bytes", this, BookFacetIndex::sizeInBytes)
+                .description("The memory taken by the bitmaps of the facets of the books")
+                .register(registry);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        long start = System.nanoTime();
+        long indexed = 0;
+        List<Long> ids;
+        Long last = null;
+        do {
+            Long after = last;
+            ids = QuarkusTransaction.requiringNew().call(() -> Book.listIdsAfter(after, chunkSize));
+            if (!ids.isEmpty()) {
+                apply(ids);
+                indexed += ids.size();
+                last = ids.getLast();
+            }
+        } while (ids.size() == chunkSize);
+
+        lock.writeLock().lock();
+        try {
+            all.runOptimize();
+            bitmaps.values().forEach(values -> values.values().forEach(RoaringBitmap::runOptimize));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Log.infof("Facet index of %d books built in %d ms", indexed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    void onStop(@Observes ShutdownEvent event) throws InterruptedException {
+        updater.shutdown();
+        if (!updater.awaitTermination(30, TimeUnit.SECONDS)) {
+            Log.warn("The updates of the facet index of the books did not complete in time");
+        }
+    }
+
+    /**
+     * Schedules the update of the bitmaps for the books changed by a committed transaction.
+     *
+     * @param event the change of the catalog
+     */
+    void onEntityChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) EntityChangedEvent event) {
+        if (event.type() != Book.class || event.ids().isEmpty()) {
+            return;
+        }
+        pending.addAll(event.ids());
+        updater.execute(this::applyPendingUpdates);
+    }
+
+    /**
+     * Counts the books that match a filter, by value of each facet.
+     *
+     * @param filter the filter of the books, or null to count all the books
+     * @return the books that match the filter and the counts of the values of their facets
+     */
+    public BookFacets facets(BookFilter filter) {
+        return queries.record(() -> {
+            lock.readLock().lock();
+            try {
+                Map<Facet, RoaringBitmap> constraints = constraintsOf(filter);
+                Map<Facet, List<FacetCount>> counts = new EnumMap<>(Facet.class);
+                for (Facet facet : Facet.values()) {
+                    // The values of a facet are counted without its own constraint
+                    counts.put(facet, countsOf(bitmaps.get(facet), intersect(constraints, facet)));
+                }
+                return BookFacets.create(counts.get(Facet.GENRE), counts.get(Facet.LANGUAGE),
+                        counts.get(Facet.FORMAT), counts.get(Facet.EDITOR), intersect(constraints, null).clone());
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Finds the books that match a filter.
+     *
+     * @param filter the filter of the books
+     * @return the IDs of the books that match the filter
+     */
+    public RoaringBitmap matching(BookFilter filter) {
+        return queries.record(() -> {
+            lock.readLock().lock();
+            try {
+                return intersect(constraintsOf(filter), null).clone();
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Restricts the pages of the books connection to the books of a bitmap. Sorted by ID, a
+     * page reads only the books of the bitmap that follow its cursor; sorted by another field,
+     * a page reads among all the books of the bitmap, so they must not be more than
+     * {@code max-in-list}.
+     *
+     * @param matching the IDs of the books to read
+     * @return the restriction of the pages
+     */
+    public BookKeysetPaginator.Restriction restrictTo(RoaringBitmap matching) {
+        return (sortField, boundaryId, backward, limit) -> {
+            if (sortField == BookSortField.ID) {
+                return BookCondition.idIn(backward
+                        ? idsBefore(matching, boundaryId, limit)
+                        : idsAfter(matching, boundaryId, limit));
+            }
+            if (matching.getLongCardinality() > maxInList) {
+                throw new IllegalArgumentException(
+                        "More than %d books match the filter, sort them by ID or refine the filter".formatted(maxInList));
+            }
+            return BookCondition.idIn(idsAfter(matching, null, maxInList));
+        };
+    }
+
+    /**
+     * Reads the first IDs of a bitmap that follow a given ID.
+     *
+     * @param bitmap the IDs of the books
+     * @param afterId the ID after which to start reading, or null to start from the first
+     * @param limit the maximum number of IDs to read
+     * @return the IDs, in ascending order
+     */
+    public static List<Long> idsAfter(RoaringBitmap bitmap, Long afterId, int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, bitmap.getCardinality()));
+        if (afterId != null && afterId >= Integer.MAX_VALUE) {
+            return ids;
+        }
+        PeekableIntIterator iterator = bitmap.getIntIterator();
+        if (afterId != null) {
+            iterator.advanceIfNeeded((int) Math.max(0, afterId + 1));
+        }
+        while (ids.size() < limit && iterator.hasNext()) {
+            ids.add((long) iterator.next());
+        }
+        return ids;
+    }
+
+    /**
+     * Waits for the updates scheduled so far.
+     *
+     * @throws Exception if the thread is interrupted or the wait fails
+     */
+    void awaitUpdates() throws Exception {
+        updater.submit(() -> {
+        }).get(30, TimeUnit.SECONDS);
+    }
+
+    private static List<Long> idsBefore(RoaringBitmap bitmap, Long beforeId, int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, bitmap.getCardinality()));
+        if (bitmap.isEmpty() || (beforeId != null && beforeId <= 0)) {
+            return ids;
+        }
+        long id = bitmap.previousValue(beforeId == null ? bitmap.last() : (int) Math.min(beforeId - 1, Integer.MAX_VALUE));
+        while (ids.size() < limit && id >= 0) {
+            ids.add(id);
+            id = id == 0 ? -1 : bitmap.previousValue((int) id - 1);
+        }
+        return ids;
+    }
+
+    private Map<Facet, RoaringBitmap> constraintsOf(BookFilter filter) {
+        Map<Facet, RoaringBitmap> constraints = new EnumMap<>(Facet.class);
+        if (filter != null) {
+            addConstraint(constraints, Facet.GENRE, filter.genres(), Function.identity());
+            addConstraint(constraints, Facet.LANGUAGE, filter.languages(), Function.identity());
+            addConstraint(constraints, Facet.FORMAT, filter.formats(), Function.identity());
+            addConstraint(constraints, Facet.EDITOR, filter.editorIds(), String::valueOf);
+        }
+        return constraints;
+    }
+
+    private <T> void addConstraint(Map<Facet, RoaringBitmap> constraints, Facet facet, List<T> values,
+            Function<T, String> toValue) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        Map<String, RoaringBitmap> facetBitmaps = bitmaps.get(facet);
+        constraints.put(facet, RoaringBitmap.or(values.stream()
+                .map(value -> facetBitmaps.getOrDefault(toValue.apply(value), new RoaringBitmap()))
+                .iterator()));
+    }
+
+    /**
+     * Intersects the constraints of a filter, except the one of a facet. The result is the bitmap
+     * of all the books, not to be modified, when there is no other constraint.
+     */
+    private RoaringBitmap intersect(Map<Facet, RoaringBitmap> constraints, Facet excluded) {
+        RoaringBitmap result = all;
+        for (Map.Entry<Facet, RoaringBitmap> constraint : constraints.entrySet()) {
+            if (constraint.getKey() != excluded) {
+                result = RoaringBitmap.and(result, constraint.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static List<FacetCount> countsOf(Map<String, RoaringBitmap> values, RoaringBitmap books) {
+        List<FacetCount> counts = new ArrayList<>(values.size());
+        for (Map.Entry<String, RoaringBitmap> value : values.entrySet()) {
+            int count = RoaringBitmap.andCardinality(value.getValue(), books);
+            if (count > 0) {
+                counts.add(FacetCount.create(value.getKey(), count));
+            }
+        }
+        counts.sort(Comparator.comparingLong(FacetCount::getCount).reversed().thenComparing(FacetCount::getValue));
+        return counts;
+    }
+
+    private void applyPendingUpdates() {
+        List<Long> ids = new ArrayList<>(pending);
+        if (ids.isEmpty()) {
+            return;
+        }
+        pending.removeAll(ids);
+
+        try {
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                apply(ids.subList(from, Math.min(ids.size(), from + chunkSize)));
+            }
+            updates.increment(ids.size());
+            // The filtered lists cached before the update may miss the changed books
+            entityChanged.fire(EntityChangedEvent.created(Book.class));
+        } catch (Exception e) {
+            // The books are updated again by their next change or at the next startup
+            Log.errorf(e, "Cannot update the books %s in the facet index", ids);
+        }
+    }
+
+    /**
+     * Reads the facets of some books and replaces their IDs in the bitmaps, removing the books
+     * that no longer exist.
+     */
+    private void apply(List<Long> ids) {
+        FacetValues values = QuarkusTransaction.requiringNew().call(() -> new FacetValues(
+                Book.mapGenresByBookIds(ids), Book.mapLanguagesByBookIds(ids),
+                Book.mapFormatsByBookIds(ids), Book.mapEditorIdsByBookIds(ids)));
+
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                int bookId = Math.toIntExact(id);
+                remove(bookId);
+                String genre = values.genres().get(id);
+                // The genre is mandatory, a book without it was deleted
+                if (genre == null) {
+                    continue;
+                }
+                all.add(bookId);
+                add(Facet.GENRE, genre, bookId);
+                values.languages().getOrDefault(id, List.of()).forEach(language -> add(Facet.LANGUAGE, language, bookId));
+                values.formats().getOrDefault(id, List.of()).forEach(format -> add(Facet.FORMAT, format, bookId));
+                Long editorId = values.editorIds().get(id);
+                if (editorId != null) {
+                    add(Facet.EDITOR, String.valueOf(editorId), bookId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Facet facet, String value, int bookId) {
+        bitmaps.get(facet).computeIfAbsent(value, key -> new RoaringBitmap()).add(bookId);
+    }
+
+    private void remove(int bookId) {
+        if (!all.checkedRemove(bookId)) {
+            return;
+        }
+        for (Map<String, RoaringBitmap> values : bitmaps.values()) {
+            values.values().removeIf(bitmap -> bitmap.checkedRemove(bookId) && bitmap.isEmpty());
+        }
+    }
+
+    private double sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = all.getLongSizeInBytes();
+            for (Map<String, RoaringBitmap> values : bitmaps.values()) {
+                for (RoaringBitmap bitmap : values.values()) {
+                    bytes += bitmap.getLongSizeInBytes();
+                }
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The values of the facets of some books, keyed by book ID.
+     */
+    private record FacetValues(Map<Long, String> genres, Map<Long, List<String>> languages,
+            Map<Long, List<String>> formats, Map<Long, Long> editorIds) {
+    }
+}
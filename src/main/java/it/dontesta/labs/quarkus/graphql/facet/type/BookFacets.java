@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.facet.type;
+
+import java.util.List;
+import org.eclipse.microprofile.graphql.Ignore;
+import org.eclipse.microprofile.graphql.Type;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Represents the books that match a filter and the values of their facets.
+ *
+ * <p>
+ * The counts of a facet ignore the values of the same facet given by the filter, so that they
+ * tell how many books each value would add to the ones that match.
+ */
+@Type
+public class BookFacets {
+
+    /**
+     * The number of books that match the filter.
+     */
+    private final long totalCount;
+
+    /**
+     * The number of books by genre.
+     */
+    private final List<FacetCount> genres;
+
+    /**
+     * The number of books by language.
+     */
+    private final List<FacetCount> languages;
+
+    /**
+     * The number of books by format.
+     */
+    private final List<FacetCount> formats;
+
+    /**
+     * The number of books by ID of the editor.
+     */
+    private final List<FacetCount> editors;
+
+    /**
+     * The IDs of the books that match the filter.
+     */
+    private final RoaringBitmap matching;
+
+    /**
+     * Constructs a new BookFacets instance.
+     *
+     * @param genres the number of books by genre
+     * @param languages the number of books by language
+     * @param formats the number of books by format
+     * @param editors the number of books by ID of the editor
+     * @param matching the IDs of the books that match the filter
+     */
+    private BookFacets(List<FacetCount> genres, List<FacetCount> languages, List<FacetCount> formats,
+            List<FacetCount> editors, RoaringBitmap matching) {
+        this.totalCount = matching.getLongCardinality();
+        this.genres = genres;
+        this.languages = languages;
+        this.formats = formats;
+        this.editors = editors;
+        this.matching = matching;
+    }
+
+    /**
+     * Creates a new BookFacets instance.
+     *
+     * @param genres the number of books by genre
+     * @param languages the number of books by language
+     * @param formats the number of books by format
+     * @param editors the number of books by ID of the editor
+     * @param matching the IDs of the books that match the filter
+     * @return a new BookFacets instance
+     */
+    public static BookFacets create(List<FacetCount> genres, List<FacetCount> languages, List<FacetCount> formats,
+            List<FacetCount> editors, RoaringBitmap matching) {
+        return new BookFacets(genres, languages, formats, editors, matching);
+    }
+
+    /**
+     * Returns the number of books that match the filter.
+     *
+     * @return the number of books
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the number of books by genre, the most frequent first.
+     *
+     * @return the number of books by genre
+     */
+    public List<FacetCount> getGenres() {
+        return genres;
+    }
+
+    /**
+     * Returns the number of books by language, the most frequent first.
+     *
+     * @return the number of books by language
+     */
+    public List<FacetCount> getLanguages() {
+        return languages;
+    }
+
+    /**
+     * Returns the number of books by format, the most frequent first.
+     *
+     * @return the number of books by format
+     */
+    public List<FacetCount> getFormats() {
+        return formats;
+    }
+
+    /**
+     * Returns the number of books by ID of the editor, the most frequent first.
+     *
+     * @return the number of books by ID of the editor
+     */
+    public List<FacetCount> getEditors() {
+        return editors;
+    }
+
+    /**
+     * Returns the IDs of the books that match the filter, read by the {@code bookIds} field.
+     *
+     * @return the IDs of the books, not to be modified
+     */
+    @Ignore
+    public RoaringBitmap getMatching() {
+        return matching;
+    }
+}
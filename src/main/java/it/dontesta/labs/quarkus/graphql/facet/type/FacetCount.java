@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.facet.type;
+
+import org.eclipse.microprofile.graphql.Type;
+
+/**
+ * Represents a value of a facet and the number of books with that value.
+ */
+@Type
+public class FacetCount {
+
+    /**
+     * The value of the facet.
+     */
+    private final String value;
+
+    /**
+     * The number of books with the value.
+     */
+    private final long count;
+
+    /**
+     * Constructs a new FacetCount instance.
+     *
+     * @param value the value of the facet
+     * @param count the number of books with the value
+     */
+    private FacetCount(String value, long count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    /**
+     * Creates a new FacetCount instance.
+     *
+     * @param value the value of the facet
+     * @param count the number of books with the value
+     * @return a new FacetCount instance
+     */
+    public static FacetCount create(String value, long count) {
+        return new FacetCount(value, count);
+    }
+
+    /**
+     * Returns the value of the facet.
+     *
+     * @return the value of the facet
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the number of books with the value.
+     *
+     * @return the number of books
+     */
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.orm.panache.batch;
+
+import it.dontesta.labs.quarkus.graphql.exception.MissingReferenceException;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Author;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Editor;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the editor and the authors referenced by ID by the books to write, shared by the
+ * GraphQL mutations and the REST resources.
+ *
+ * <p>
+ * The IDs referenced by all the books of a request, or of a batch of requests, are read with a
+ * single {@code IN} query for the editors and one for the authors, and the detached references
+ * are replaced with the managed entities. The missing IDs are all reported at once. The
+ * references without ID are new entities, left as they are to be persisted by cascade.
+ */
+@ApplicationScoped
+public class BookReferenceResolver {
+
+    /**
+     * Resolves the references of a book.
+     *
+     * @param book the book whose references are to be resolved
+     * @throws MissingReferenceException if any referenced editor or author does not exist
+     */
+    public void resolve(Book book) {
+        List<String> missing = resolveAll(List.of(book)).getFirst();
+        if (!missing.isEmpty()) {
+            throw new MissingReferenceException(missing);
+        }
+    }
+
+    /**
+     * Resolves the references of a batch of books with one query for the editors and one for
+     * the authors.
+     *
+     * @param books the books whose references are to be resolved
+     * @return the messages of the missing references of each book, in the same order of the books
+     */
+    public List<List<String>> resolveAll(List<Book> books) {
+        Set<Long> editorIds = new LinkedHashSet<>();
+        Set<Long> authorIds = new LinkedHashSet<>();
+        for (Book book : books) {
+            if (book.editor != null && book.editor.id != null) {
+                editorIds.add(book.editor.id);
+            }
+            if (book.authors != null) {
+                for (Author author : book.authors) {
+                    if (author != null && author.id != null) {
+                        authorIds.add(author.id);
+                    }
+                }
+            }
+        }
+
+        Map<Long, Editor> editors = Editor.mapEditorsByIds(editorIds);
+        Map<Long, Author> authors = Author.mapAuthorsByIds(authorIds);
+        List<List<String>> missing = new ArrayList<>(books.size());
+        for (Book book : books) {
+            missing.add(resolve(book, editors, authors));
+        }
+        return missing;
+    }
+
+    /**
+     * Reads the authors with the given IDs with a single query.
+     *
+     * @param ids the IDs of the authors
+     * @return the authors, in the order of the IDs, without duplicates
+     * @throws MissingReferenceException if any author does not exist
+     */
+    public List<Author> resolveAuthors(Collection<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        Map<Long, Author> authors = Author.mapAuthorsByIds(distinct);
+        List<Author> resolved = new ArrayList<>(distinct.size());
+        List<String> missing = new ArrayList<>();
+        for (Long id : distinct) {
+            Author author = authors.get(id);
+            if (author == null) {
+                missing.add(authorNotFound(id));
+            } else {
+                resolved.add(author);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new MissingReferenceException(missing);
+        }
+        return resolved;
+    }
+
+    private static List<String> resolve(Book book, Map<Long, Editor> editors, Map<Long, Author> authors) {
+        List<String> missing = new ArrayList<>();
+        if (book.editor != null && book.editor.id != null) {
+            Editor editor = editors.get(book.editor.id);
+            if (editor == null) {
+                missing.add("Editor not found with Id %d".formatted(book.editor.id));
+            }
+            book.editor = editor;
+        }
+
+        if (book.authors != null) {
+            List<Author> resolved = new ArrayList<>(book.authors.size());
+            for (Author author : book.authors) {
+                if (author == null) {
+                    continue;
+                }
+                if (author.id == null) {
+                    resolved.add(author);
+                } else if (authors.containsKey(author.id)) {
+                    resolved.add(authors.get(author.id));
+                } else {
+                    missing.add(authorNotFound(author.id));
+                }
+            }
+            book.authors = resolved;
+        }
+        return missing;
+    }
+
+    private static String authorNotFound(Long id) {
+        return "Author not found with Id %d".formatted(id);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.orm.panache.batch;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks the values of an entity against the {@link Column} mapping of its fields, the
+ * columns that must not be null and the maximum length of the string columns, including the
+ * elements of the {@link ElementCollection}s and of the columns of an array type.
+ *
+ * <p>
+ * The batch mutations check every item before persisting it: a value rejected by the database
+ * while flushing would roll back the whole batch, instead of failing only its item.
+ */
+public final class ColumnConstraints {
+
+    private static final Map<Class<?>, List<Constraint>> CONSTRAINTS = new ConcurrentHashMap<>();
+
+    private ColumnConstraints() {
+    }
+
+    /**
+     * Returns the violations of the column constraints of an entity.
+     *
+     * @param entity the entity
+     * @return the messages of the violations, empty if the entity is valid
+     */
+    public static List<String> violationsOf(Object entity) {
+        List<String> violations = new ArrayList<>();
+        for (Constraint constraint : CONSTRAINTS.computeIfAbsent(entity.getClass(), ColumnConstraints::constraintsOf)) {
+            constraint.check(entity, violations);
+        }
+        return violations;
+    }
+
+    private static List<Constraint> constraintsOf(Class<?> type) {
+        List<Constraint> constraints = new ArrayList<>();
+        // The public fields of the entities are made private by Panache, with generated accessors
+        for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                Column column = field.getAnnotation(Column.class);
+                if (column == null || Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                constraints.add(new Constraint(field, column.nullable(), column.length(),
+                        field.isAnnotationPresent(ElementCollection.class)
+                                || Collection.class.isAssignableFrom(field.getType())));
+            }
+        }
+        return List.copyOf(constraints);
+    }
+
+    private record Constraint(Field field, boolean nullable, int length, boolean elements) {
+
+        void check(Object entity, List<String> violations) {
+            Object value;
+            try {
+                value = field.get(entity);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot read the field " + field.getName(), e);
+            }
+
+            if (!elements) {
+                checkValue(value, violations);
+            } else if (value != null) {
+                // The column of an element collection or of an array applies to every element
+                for (Object element : (Collection<?>) value) {
+                    checkValue(element, violations);
+                }
+            }
+        }
+
+        private void checkValue(Object value, List<String> violations) {
+            if (value == null) {
+                if (!nullable) {
+                    violations.add("%s must not be null".formatted(field.getName()));
+                }
+            } else if (value instanceof String string && string.length() > length) {
+                violations.add("%s must be at most %d characters long".formatted(field.getName(), length));
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.orm.panache.batch;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility methods used by the batched resolvers to group the rows of a single
+ * {@code IN} query by their parent id and to align them back to the parents
+ * in the order requested by the GraphQL engine.
+ */
+public final class KeyedResults {
+
+    /**
+     * The largest batch of parent ids read through the query cache, as many as the books of a
+     * page: the larger batches, such as the chunks of an export or of the facets, are seldom read
+     * again with the same ids and would only evict the other results.
+     */
+    public static final int MAX_CACHEABLE_IDS = 100;
+
+    private KeyedResults() {
+    }
+
+    /**
+     * Tells if the rows of an {@code IN} query of the given ids should be read through the
+     * query cache.
+     *
+     * @param ids the ids of the query
+     * @return true if the batch is at most {@link #MAX_CACHEABLE_IDS} ids
+     */
+    public static boolean isCacheable(Collection<Long> ids) {
+        return ids.size() <= MAX_CACHEABLE_IDS;
+    }
+
+    /**
+     * Returns the distinct, non-null ids of the given entities.
+     *
+     * @param entities the entities
+     * @return the ids of the entities, in encounter order
+     */
+    public static List<Long> idsOf(Collection<? extends PanacheEntity> entities) {
+        LinkedHashSet<Long> ids = new LinkedHashSet<>();
+        for (PanacheEntity entity : entities) {
+            if (entity != null && entity.id != null) {
+                ids.add(entity.id);
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * Groups the rows of a {@code select parent.id, child ...} query by the parent id.
+     *
+     * @param rows the rows of the query, where the first column is the parent id
+     * @param <T> the type of the child
+     * @return a map of the children keyed by the parent id
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Map<Long, List<T>> groupByParent(List<Object[]> rows) {
+        Map<Long, List<T>> grouped = new HashMap<>();
+        for (Object[] row : rows) {
+            grouped.computeIfAbsent((Long) row[0], key -> new ArrayList<>()).add((T) row[1]);
+        }
+        return grouped;
+    }
+
+    /**
+     * Indexes the rows of a {@code select parent.id, child ...} query by the parent id,
+     * for single valued associations.
+     *
+     * @param rows the rows of the query, where the first column is the parent id
+     * @param <T> the type of the child
+     * @return a map of the child keyed by the parent id
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Map<Long, T> indexByParent(List<Object[]> rows) {
+        Map<Long, T> indexed = new HashMap<>();
+        for (Object[] row : rows) {
+            indexed.put((Long) row[0], (T) row[1]);
+        }
+        return indexed;
+    }
+
+    /**
+     * Aligns the results keyed by parent id to the list of parents, as required
+     * by the batched {@code @Source} resolvers.
+     *
+     * @param parents the parents in the order requested by the GraphQL engine
+     * @param results the results keyed by parent id
+     * @param defaultValue the value used for the parents without results
+     * @param <S> the type of the parent
+     * @param <T> the type of the result
+     * @return the results in the same order of the parents
+     */
+    public static <S extends PanacheEntity, T> List<T> alignTo(List<S> parents, Map<Long, T> results,
+            T defaultValue) {
+        List<T> aligned = new ArrayList<>(parents.size());
+        for (S parent : parents) {
+            aligned.add(results.getOrDefault(parent.id, defaultValue));
+        }
+        return aligned;
+    }
+}
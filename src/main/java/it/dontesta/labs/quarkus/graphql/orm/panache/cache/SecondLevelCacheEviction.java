@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.orm.panache.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import io.quarkus.scheduler.Scheduler;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.Optional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+
+/**
+ * Bounds how long the second-level and query cache of Hibernate ORM serve the data changed by
+ * the other replicas of the application.
+ *
+ * <p>
+ * The regions are local to every replica and Hibernate invalidates them only for the changes
+ * committed by the replica itself, while the regions expire only after an idle time: an entity
+ * read often would be served stale as long as the replica runs. Every {@code max-staleness}
+ * all the regions are evicted, as an expiration after write would, which the local cache does
+ * not support. The books created, updated or deleted by another replica are received through
+ * the outbox bus: the results of the queries, and the changed books, are evicted as soon as
+ * they are received.
+ *
+ * <p>
+ * Without {@code max-staleness} the replica is assumed to be the only writer of the database.
+ */
+@ApplicationScoped
+public class SecondLevelCacheEviction {
+
+    private static final String BOOK_AUTHORS = Book.class.getName() + ".authors";
+
+    private final SessionFactory sessionFactory;
+    private final Scheduler scheduler;
+    private final Optional<Duration> maxStaleness;
+
+    private final Counter expired;
+    private final Counter remoteChanges;
+
+    @Inject
+    public SecondLevelCacheEviction(SessionFactory sessionFactory, Scheduler scheduler, MeterRegistry registry,
+            @ConfigProperty(name = "app.orm.cache.max-staleness") Optional<Duration> maxStaleness) {
+        this.sessionFactory = sessionFactory;
+        this.scheduler = scheduler;
+        this.maxStaleness = maxStaleness;
+
+        this.expired = Counter.builder("orm.cache.evictions")
+                .tag("cause", "max-staleness")
+                .description("The evictions of the cache regions of Hibernate ORM")
+                .register(registry);
+        this.remoteChanges = Counter.builder("orm.cache.evictions")
+                .tag("cause", "remote-change")
+                .description("The evictions of the cache regions of Hibernate ORM")
+                .register(registry);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (maxStaleness.isEmpty()) {
+            return;
+        }
+
+        scheduler.newJob(SecondLevelCacheEviction.class.getName() + ".evictAll")
+                .setInterval(maxStaleness.get().toString())
+                .setConcurrentExecution(ConcurrentExecution.SKIP)
+                .setTask(execution -> evictAll())
+                .schedule();
+        Log.infof("The cache regions of Hibernate ORM are evicted every %s", maxStaleness.get());
+    }
+
+    /**
+     * Evicts the entities changed by another replica and the results of the queries, that may
+     * miss the entities it created.
+     *
+     * @param event the change of the catalog
+     */
+    void onEntityChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) EntityChangedEvent event) {
+        if (!event.remote()) {
+            // Already invalidated by Hibernate ORM
+            return;
+        }
+
+        Cache cache = sessionFactory.getCache();
+        if (!event.created()) {
+            for (Long id : event.ids()) {
+                cache.evictEntityData(event.type(), id);
+                if (event.type() == Book.class) {
+                    cache.evictCollectionData(BOOK_AUTHORS, id);
+                }
+            }
+            // The natural id may have changed
+            cache.evictNaturalIdData(event.type());
+        }
+        cache.evictQueryRegions();
+        remoteChanges.increment();
+    }
+
+    private void evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+        expired.increment();
+    }
+}
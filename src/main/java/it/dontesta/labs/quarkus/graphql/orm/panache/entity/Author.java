@@ -6,16 +6,33 @@ package it.dontesta.labs.quarkus.graphql.orm.panache.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import it.dontesta.labs.quarkus.graphql.orm.panache.batch.KeyedResults;
+import it.dontesta.labs.quarkus.graphql.orm.panache.projection.EntityProjection;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.ManyToMany;
 import jakarta.validation.constraints.Pattern;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.graphql.Ignore;
+import org.hibernate.jpa.HibernateHints;
 
 @Entity(name = "author")
+@Cacheable
 public class Author extends PanacheEntity {
 
+    private static final EntityProjection<Author> PROJECTION = EntityProjection.of("author", Author::new)
+            .attribute("id", (author, value) -> author.id = (Long) value)
+            .attribute("firstName", (author, value) -> author.firstName = (String) value)
+            .attribute("lastName", (author, value) -> author.lastName = (String) value)
+            .attribute("sex", (author, value) -> author.sex = (String) value)
+            .attribute("birthDate", (author, value) -> author.birthDate = (LocalDate) value);
+
     @Column(name = "first_name", length = 60, nullable = false)
     public String firstName;
 
@@ -29,6 +46,7 @@ public class Author extends PanacheEntity {
     @Column(name = "birth_date", nullable = false)
     public LocalDate birthDate;
 
+    @Ignore
     @ManyToMany(mappedBy = "authors")
     @JsonBackReference
     public List<Book> books;
@@ -39,7 +57,17 @@ public class Author extends PanacheEntity {
      * @return a list of all authors.
      */
     public static List<Author> findAllAuthors() {
-        return listAll();
+        return findAll().list();
+    }
+
+    /**
+     * Reads the requested columns of all authors.
+     *
+     * @param fields the requested attributes, the id is always read.
+     * @return the authors, not managed, with only the requested attributes.
+     */
+    public static List<Author> projectAllAuthors(Collection<String> fields) {
+        return PROJECTION.list(fields, "", Map.of(), 0, false);
     }
 
     /**
@@ -62,4 +90,35 @@ public class Author extends PanacheEntity {
     public static List<Author> listByAuthorList(String query, List<Long> authorIds) {
         return list(query, authorIds);
     }
-}
\ No newline at end of file
+
+    /**
+     * Finds the authors with the given IDs with a single query.
+     *
+     * @param ids the IDs of the authors.
+     * @return the authors keyed by ID, without the IDs not found.
+     */
+    public static Map<Long, Author> mapAuthorsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return Author.<Author> list("id in ?1", ids).stream()
+                .collect(Collectors.toMap(author -> author.id, Function.identity()));
+    }
+
+    /**
+     * Finds the authors of the given books with a single query.
+     *
+     * @param bookIds the IDs of the books.
+     * @return the authors keyed by book ID.
+     */
+    public static Map<Long, List<Author>> mapAuthorsByBookIds(List<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return Map.of();
+        }
+        return KeyedResults.groupByParent(getEntityManager()
+                .createQuery("select b.id, a from book b join b.authors a where b.id in :ids", Object[].class)
+                .setParameter("ids", bookIds)
+                .setHint(HibernateHints.HINT_CACHEABLE, KeyedResults.isCacheable(bookIds))
+                .getResultList());
+    }
+}
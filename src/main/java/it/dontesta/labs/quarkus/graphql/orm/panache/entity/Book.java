@@ -4,29 +4,74 @@
  */
 package it.dontesta.labs.quarkus.graphql.orm.panache.entity;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import it.dontesta.labs.quarkus.graphql.orm.panache.batch.KeyedResults;
+import it.dontesta.labs.quarkus.graphql.orm.panache.projection.EntityProjection;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Transient;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.eclipse.microprofile.graphql.Ignore;
+import org.hibernate.Session;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.type.SqlTypes;
 
+// The indexes of the table are created by the migrations of the schema (db/migration)
 @Entity(name = "book")
+@Cacheable
+@NaturalIdCache
 public class Book extends PanacheEntity {
+
+    private static final EntityProjection<Book> PROJECTION = EntityProjection.of("book", Book::new)
+            .attribute("id", (book, value) -> book.id = (Long) value)
+            .attribute("title", (book, value) -> book.title = (String) value)
+            .attribute("subTitle", (book, value) -> book.subTitle = (String) value)
+            .attribute("isbn", (book, value) -> book.isbn = (String) value)
+            .attribute("pages", (book, value) -> book.pages = (Integer) value)
+            .attribute("summary", (book, value) -> book.summary = (String) value)
+            .attribute("publication", (book, value) -> book.publication = (LocalDate) value)
+            .attribute("genre", (book, value) -> book.genre = (String) value)
+            .attribute("frontCoverImageKey", (book, value) -> book.frontCoverImageKey = (String) value)
+            .attribute("backCoverImageKey", (book, value) -> book.backCoverImageKey = (String) value)
+            .attribute("languages", (book, value) -> book.languages = valuesOf(value))
+            .attribute("formats", (book, value) -> book.formats = valuesOf(value))
+            .attribute("keywords", (book, value) -> book.keywords = valuesOf(value))
+            .field("frontCoverImageUrl", "frontCoverImageKey")
+            .field("backCoverImageUrl", "backCoverImageKey");
+
+    private static final List<String> PROJECTION_ATTRIBUTES = List.of("title", "subTitle", "isbn", "pages",
+            "summary", "publication", "genre", "frontCoverImageKey", "backCoverImageKey", "languages", "formats",
+            "keywords");
+
     @Column(length = 60, nullable = false)
     public String title;
 
     @Column(name = "sub_title", length = 60)
     public String subTitle;
 
-    @Column(length = 13, nullable = false)
+    @NaturalId
+    @Column(length = 13, nullable = false, unique = true)
     public String isbn;
 
     @Column(length = 4, nullable = false)
@@ -41,32 +86,50 @@ public class Book extends PanacheEntity {
     @Column(length = 20, nullable = false)
     public String genre;
 
-    @Column(length = 512)
+    // The covers are stored as the keys of their objects in the bucket of the covers (V1.3.0), or as
+    // the URLs of external images: the presigned URLs are resolved when the book is read
+    @Column(name = "front_cover_image_key", length = 512)
+    public String frontCoverImageKey;
+
+    @Column(name = "back_cover_image_key", length = 512)
+    public String backCoverImageKey;
+
+    // Resolved by the REST endpoints from the keys of the covers, by the batched resolvers on GraphQL,
+    // and left out of the export, where they would expire. They are read from the requests only to
+    // reject the clients that still set them instead of the keys
+    @Ignore
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public String frontCoverImageUrl;
 
-    @Column(length = 512)
+    @Ignore
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public String backCoverImageUrl;
 
-    @ElementCollection
-    @CollectionTable(name = "book_languages")
-    @Column(name = "language", length = 3, nullable = false)
+    // The languages, the formats and the keywords are arrays stored in the row of the book (V1.2.0):
+    // they are read with the book, also by the projections, and a change rewrites one column instead
+    // of a table of their own
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "languages", length = 3)
     public List<String> languages;
 
-    @ElementCollection
-    @CollectionTable(name = "book_formats")
-    @Column(name = "format", length = 10, nullable = false)
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "formats", length = 10)
     public List<String> formats;
 
-    @ElementCollection
-    @CollectionTable(name = "book_keywords")
-    @Column(name = "keyword", nullable = false)
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "keywords")
     public List<String> keywords;
 
+    @Ignore
     @ManyToMany(cascade = CascadeType.PERSIST)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(name = "book_authors", joinColumns = @JoinColumn(name = "book_id"), inverseJoinColumns = @JoinColumn(name = "author_id"))
     public List<Author> authors;
 
-    @ManyToOne(cascade = CascadeType.ALL)
+    @Ignore
+    @ManyToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "editor_id")
     public Editor editor;
 
@@ -85,7 +148,7 @@ public class Book extends PanacheEntity {
      * @return a list of all books.
      */
     public static List<Book> findAllBooksList() {
-        return listAll();
+        return findAll().list();
     }
 
     /**
@@ -98,6 +161,47 @@ public class Book extends PanacheEntity {
         return findById(id);
     }
 
+    /**
+     * Finds a book by its ISBN, its natural id: the ID of the book is read from the natural id
+     * cache, or else with the unique index of the ISBN, then the book from the second-level
+     * cache, or else by its ID.
+     *
+     * @param isbn the ISBN of the book.
+     * @return the book with the specified ISBN, or null if no such book exists.
+     */
+    public static Book findBookByIsbn(String isbn) {
+        return getEntityManager().unwrap(Session.class).bySimpleNaturalId(Book.class).load(isbn);
+    }
+
+    /**
+     * Finds which of the given ISBNs belong to a book, with a single query on the unique index.
+     *
+     * @param isbns the ISBNs to look for.
+     * @return the ISBNs that belong to a book.
+     */
+    public static Set<String> findExistingIsbns(Collection<String> isbns) {
+        if (isbns.isEmpty()) {
+            return Set.of();
+        }
+        return Set.copyOf(getEntityManager()
+                .createQuery("select isbn from book where isbn in :isbns", String.class)
+                .setParameter("isbns", isbns)
+                .getResultList());
+    }
+
+    /**
+     * Finds the books with the given ISBNs with a single query on the unique index.
+     *
+     * @param isbns the ISBNs of the books.
+     * @return the books, managed, in no particular order, none for the ISBNs without a book.
+     */
+    public static List<Book> findBooksByIsbns(Collection<String> isbns) {
+        if (isbns.isEmpty()) {
+            return List.of();
+        }
+        return list("isbn in ?1", isbns);
+    }
+
     /**
      * Finds a book by a query.
      *
@@ -108,4 +212,277 @@ public class Book extends PanacheEntity {
     public static Book findBookByQuery(String query, Object... params) {
         return find(query, params).firstResult();
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads the requested columns of all books, in order of ID.
+     *
+     * @param fields the requested attributes, the id is always read.
+     * @return the books, not managed, with only the requested attributes.
+     */
+    public static List<Book> projectAllBooks(Collection<String> fields) {
+        // Without an order the database may return the rows in the order of any covering index
+        return PROJECTION.list(fields, "order by id", Map.of(), 0, false);
+    }
+
+    /**
+     * Streams all the columns of all books in order of ID, reading them through a cursor of
+     * the database. The stream must be closed, and consumed inside a transaction.
+     *
+     * @param fetchSize the number of rows fetched from the database in each round trip.
+     * @return the stream of the books, not managed, without their associations.
+     */
+    public static Stream<Book> streamAllBooks(int fetchSize) {
+        return PROJECTION.stream(PROJECTION_ATTRIBUTES, "order by id", Map.of(), fetchSize);
+    }
+
+    /**
+     * Streams the requested columns of the books whose ID is in a range, in order of ID,
+     * reading them through a cursor of the database. The stream must be closed, and consumed
+     * inside a transaction.
+     *
+     * @param fields the requested attributes, the id is always read.
+     * @param fromId the first ID of the range, inclusive.
+     * @param toId the last ID of the range, inclusive.
+     * @param fetchSize the number of rows fetched from the database in each round trip.
+     * @return the stream of the books, not managed, without their associations.
+     */
+    public static Stream<Book> streamBooksByIdRange(Collection<String> fields, long fromId, long toId,
+            int fetchSize) {
+        return PROJECTION.stream(fields, "where id between :fromId and :toId order by id",
+                Map.of("fromId", fromId, "toId", toId), fetchSize);
+    }
+
+    /**
+     * Reads the lowest and the highest ID of the books.
+     *
+     * @return the lowest and the highest ID, or null if there are no books.
+     */
+    public static long[] findIdRange() {
+        Object[] range = getEntityManager()
+                .createQuery("select min(id), max(id) from book", Object[].class)
+                .getSingleResult();
+        return range[0] == null ? null : new long[] { (Long) range[0], (Long) range[1] };
+    }
+
+    /**
+     * Reads the requested columns of the books with the given IDs.
+     *
+     * @param ids the IDs of the books to find.
+     * @param fields the requested attributes, the id is always read.
+     * @return the books found, not managed, with only the requested attributes, in no particular order.
+     */
+    public static List<Book> projectBooksByIds(List<Long> ids, Collection<String> fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // The batches of the facets and of the search index can hold thousands of IDs
+        return PROJECTION.list(fields, "where id in :ids", Map.of("ids", ids), 0, false);
+    }
+
+    /**
+     * Reads the requested columns of a book by its ID.
+     *
+     * @param id the ID of the book to find.
+     * @param fields the requested attributes, the id is always read.
+     * @return the book, not managed, with only the requested attributes, or null if no such book exists.
+     */
+    public static Book projectBookById(Long id, Collection<String> fields) {
+        return PROJECTION.findById(fields, id);
+    }
+
+    /**
+     * Reads the requested columns of a page of books with a keyset (seek) query, that is reading
+     * the rows that follow (or precede) the pair (sort key, id) of a given book, instead of
+     * skipping an offset.
+     *
+     * @param fields the requested attributes, the id and the sort attribute are always read.
+     * @param sortAttribute the name of the attribute used to sort, the id is always the tie-breaker.
+     * @param key the value of the sort attribute of the boundary book, or null to start from the beginning.
+     * @param id the id of the boundary book, or null to start from the beginning.
+     * @param backward true to read the books that precede the boundary in reverse order.
+     * @param limit the maximum number of books to read.
+     * @param condition the JPQL condition that the books must satisfy, or null to read from all the books.
+     * @param conditionParameters the named parameters of the condition.
+     * @return the page of books, not managed, in descending order when reading backward.
+     */
+    public static List<Book> projectBooksByKeyset(Collection<String> fields, String sortAttribute, Object key,
+            Long id, boolean backward, int limit, String condition, Map<String, Object> conditionParameters) {
+        String direction = backward ? "desc" : "asc";
+        String operator = backward ? "<" : ">";
+        boolean sortById = "id".equals(sortAttribute);
+
+        Map<String, Object> parameters = new HashMap<>();
+        List<String> conditions = new ArrayList<>(2);
+        if (id != null && sortById) {
+            conditions.add("id %s :id".formatted(operator));
+            parameters.put("id", id);
+        } else if (id != null) {
+            conditions.add("(%s, id) %s (:key, :id)".formatted(sortAttribute, operator));
+            parameters.put("key", key);
+            parameters.put("id", id);
+        }
+        if (condition != null) {
+            conditions.add("(%s)".formatted(condition));
+            parameters.putAll(conditionParameters);
+        }
+        String where = conditions.isEmpty() ? "" : "where " + String.join(" and ", conditions);
+        String orderBy = sortById
+                ? "order by id " + direction
+                : "order by %s %s, id %s".formatted(sortAttribute, direction, direction);
+
+        List<String> projected = new ArrayList<>(fields);
+        projected.add(sortAttribute);
+        return PROJECTION.list(projected, where + " " + orderBy, parameters, limit, true);
+    }
+
+    /**
+     * Counts the books that satisfy a condition.
+     *
+     * @param condition the JPQL condition that the books must satisfy.
+     * @param parameters the named parameters of the condition.
+     * @return the number of books.
+     */
+    public static long countBooks(String condition, Map<String, Object> parameters) {
+        return count(condition, parameters);
+    }
+
+    /**
+     * Finds the books of the given authors with a single query.
+     *
+     * @param authorIds the IDs of the authors.
+     * @return the books keyed by author ID.
+     */
+    public static Map<Long, List<Book>> mapBooksByAuthorIds(List<Long> authorIds) {
+        return mapByParentIds("select a.id, b from book b join b.authors a where a.id in :ids", authorIds);
+    }
+
+    /**
+     * Finds the books of the given editors with a single query.
+     *
+     * @param editorIds the IDs of the editors.
+     * @return the books keyed by editor ID.
+     */
+    public static Map<Long, List<Book>> mapBooksByEditorIds(List<Long> editorIds) {
+        return mapByParentIds("select b.editor.id, b from book b where b.editor.id in :ids", editorIds);
+    }
+
+    /**
+     * Finds the languages of the given books with a single query.
+     *
+     * @param bookIds the IDs of the books.
+     * @return the languages keyed by book ID.
+     */
+    public static Map<Long, List<String>> mapLanguagesByBookIds(List<Long> bookIds) {
+        return indexArraysByBookIds("select b.id, b.languages from book b where b.id in :ids", bookIds);
+    }
+
+    /**
+     * Finds the formats of the given books with a single query.
+     *
+     * @param bookIds the IDs of the books.
+     * @return the formats keyed by book ID.
+     */
+    public static Map<Long, List<String>> mapFormatsByBookIds(List<Long> bookIds) {
+        return indexArraysByBookIds("select b.id, b.formats from book b where b.id in :ids", bookIds);
+    }
+
+    /**
+     * Finds the genre of the given books with a single query.
+     *
+     * @param bookIds the IDs of the books.
+     * @return the genre keyed by book ID.
+     */
+    public static Map<Long, String> mapGenresByBookIds(List<Long> bookIds) {
+        return indexByParentIds("select b.id, b.genre from book b where b.id in :ids", bookIds);
+    }
+
+    /**
+     * Finds the ID of the editor of the given books with a single query, without reading the editors.
+     *
+     * @param bookIds the IDs of the books.
+     * @return the ID of the editor keyed by book ID, missing for the books without an editor.
+     */
+    public static Map<Long, Long> mapEditorIdsByBookIds(List<Long> bookIds) {
+        return indexByParentIds("select b.id, b.editor.id from book b where b.id in :ids and b.editor is not null",
+                bookIds);
+    }
+
+    /**
+     * Reads the IDs of the books that follow a given ID, in order of ID.
+     *
+     * @param afterId the ID after which to start reading, or null to start from the beginning.
+     * @param limit the maximum number of IDs to read.
+     * @return the IDs of the books.
+     */
+    public static List<Long> listIdsAfter(Long afterId, int limit) {
+        return getEntityManager()
+                .createQuery("select id from book where id > :afterId order by id", Long.class)
+                .setParameter("afterId", afterId == null ? Long.MIN_VALUE : afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Runs a {@code select book.id, array} query of an array attribute and indexes the values by
+     * book ID, the books without values are missing.
+     *
+     * @param query the query to execute, with the {@code ids} named parameter.
+     * @param bookIds the IDs of the books.
+     * @return the values of the array keyed by book ID.
+     */
+    private static Map<Long, List<String>> indexArraysByBookIds(String query, List<Long> bookIds) {
+        Map<Long, List<String>> values = indexByParentIds(query, bookIds);
+        values.values().removeIf(array -> array == null || array.isEmpty());
+        return values;
+    }
+
+    /**
+     * Copies the value of a projected array attribute, the books without values get an empty list.
+     *
+     * @param value the value read by the projection.
+     * @return the values of the array.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<String> valuesOf(Object value) {
+        return value == null ? List.of() : (List<String>) value;
+    }
+
+    /**
+     * Runs a {@code select parent.id, child} query of a single valued attribute and indexes the
+     * child by parent ID.
+     *
+     * @param query the query to execute, with the {@code ids} named parameter.
+     * @param parentIds the IDs of the parents.
+     * @param <T> the type of the child.
+     * @return the child keyed by parent ID.
+     */
+    static <T> Map<Long, T> indexByParentIds(String query, List<Long> parentIds) {
+        if (parentIds.isEmpty()) {
+            return Map.of();
+        }
+        return KeyedResults.indexByParent(getEntityManager()
+                .createQuery(query, Object[].class)
+                .setParameter("ids", parentIds)
+                .setHint(HibernateHints.HINT_CACHEABLE, KeyedResults.isCacheable(parentIds))
+                .getResultList());
+    }
+
+    /**
+     * Runs a {@code select parent.id, child} query and groups the children by parent ID.
+     *
+     * @param query the query to execute, with the {@code ids} named parameter.
+     * @param parentIds the IDs of the parents.
+     * @param <T> the type of the children.
+     * @return the children keyed by parent ID.
+     */
+    static <T> Map<Long, List<T>> mapByParentIds(String query, List<Long> parentIds) {
+        if (parentIds.isEmpty()) {
+            return Map.of();
+        }
+        return KeyedResults.groupByParent(getEntityManager()
+                .createQuery(query, Object[].class)
+                .setParameter("ids", parentIds)
+                .setHint(HibernateHints.HINT_CACHEABLE, KeyedResults.isCacheable(parentIds))
+                .getResultList());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.orm.panache.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.panache.common.Page;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A created book, written in the same transaction as the book so that the other replicas of
+ * the application can deliver it to their {@code bookCreated} subscribers, or the IDs of the
+ * books updated or deleted by a transaction, so that they can update the data derived from
+ * them.
+ *
+ * <p>
+ * Every event records the node that created it, which delivers it to its own subscribers, and
+ * is identified by its ID, which the readers use to discard the events they already delivered.
+ */
+@Entity(name = "book_created_outbox")
+@Table(indexes = @Index(name = "book_created_outbox_created_at_idx", columnList = "created_at, id"))
+public class BookCreatedOutbox extends PanacheEntity {
+
+    /**
+     * The kinds of the events.
+     */
+    public enum Kind {
+        /**
+         * A created book, the payload is a {@code BookCreatedMessage}.
+         */
+        CREATED,
+        /**
+         * Books updated or deleted, the payload is the JSON array of their IDs.
+         */
+        CHANGED
+    }
+
+    @Column(name = "node_id", length = 64, nullable = false)
+    public String nodeId;
+
+    @Column(name = "created_at", nullable = false)
+    public Instant createdAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    public Kind kind = Kind.CREATED;
+
+    @Column(length = 32768, nullable = false)
+    public String payload;
+
+    /**
+     * Reads a page of the events created from a given instant, in order of creation.
+     *
+     * @param since the instant, inclusive
+     * @param afterCreatedAt the creation instant of the last event of the previous page, or null for the first page
+     * @param afterId the ID of the last event of the previous page, or null for the first page
+     * @param limit the maximum number of events to read
+     * @return the events
+     */
+    public static List<BookCreatedOutbox> listCreatedSince(Instant since, Instant afterCreatedAt, Long afterId,
+            int limit) {
+        if (afterCreatedAt == null) {
+            return find("createdAt >= :since", Sort.by("createdAt").and("id"),
+                    Parameters.with("since", since))
+                    .page(Page.ofSize(limit))
+                    .list();
+        }
+        return find("createdAt >= :since and (createdAt, id) > (:createdAt, :id)", Sort.by("createdAt").and("id"),
+                Parameters.with("since", since).and("createdAt", afterCreatedAt).and("id", afterId))
+                .page(Page.ofSize(limit))
+                .list();
+    }
+
+    /**
+     * Deletes the events created before a given instant.
+     *
+     * @param before the instant, exclusive
+     * @return the number of deleted events
+     */
+    public static long deleteCreatedBefore(Instant before) {
+        return delete("createdAt < ?1", before);
+    }
+}
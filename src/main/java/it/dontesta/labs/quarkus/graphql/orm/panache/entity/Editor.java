@@ -7,17 +7,32 @@ package it.dontesta.labs.quarkus.graphql.orm.panache.entity;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import it.dontesta.labs.quarkus.graphql.orm.panache.batch.KeyedResults;
+import it.dontesta.labs.quarkus.graphql.orm.panache.projection.EntityProjection;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.OneToMany;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.graphql.Ignore;
+import org.hibernate.jpa.HibernateHints;
 
 @Entity(name = "editor")
+@Cacheable
 public class Editor extends PanacheEntity {
 
+    private static final EntityProjection<Editor> PROJECTION = EntityProjection.of("editor", Editor::new)
+            .attribute("id", (editor, value) -> editor.id = (Long) value)
+            .attribute("name", (editor, value) -> editor.name = (String) value);
+
     @Column
     public String name;
 
+    @Ignore
     @OneToMany(mappedBy = "editor")
     @JsonBackReference
     public List<Book> books;
@@ -47,6 +62,47 @@ public class Editor extends PanacheEntity {
      * @return a list of all editors.
      */
     public static List<Editor> listAllEditors() {
-        return listAll();
+        return findAllEditors().list();
+    }
+
+    /**
+     * Finds the editors with the given IDs with a single query.
+     *
+     * @param ids the IDs of the editors.
+     * @return the editors keyed by ID, without the IDs not found.
+     */
+    public static Map<Long, Editor> mapEditorsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return Editor.<Editor> list("id in ?1", ids).stream()
+                .collect(Collectors.toMap(editor -> editor.id, Function.identity()));
+    }
+
+    /**
+     * Finds the editors of the given books with a single query.
+     *
+     * @param bookIds the IDs of the books.
+     * @return the editor keyed by book ID.
+     */
+    public static Map<Long, Editor> mapEditorsByBookIds(List<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return Map.of();
+        }
+        return KeyedResults.indexByParent(getEntityManager()
+                .createQuery("select b.id, e from book b join b.editor e where b.id in :ids", Object[].class)
+                .setParameter("ids", bookIds)
+                .setHint(HibernateHints.HINT_CACHEABLE, KeyedResults.isCacheable(bookIds))
+                .getResultList());
+    }
+
+    /**
+     * Reads the requested columns of all editors.
+     *
+     * @param fields the requested attributes, the id is always read.
+     * @return the editors, not managed, with only the requested attributes.
+     */
+    public static List<Editor> projectAllEditors(Collection<String> fields) {
+        return PROJECTION.list(fields, "", Map.of(), 0, false);
     }
-}
\ No newline at end of file
+}
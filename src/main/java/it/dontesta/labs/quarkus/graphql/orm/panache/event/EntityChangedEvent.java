@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.orm.panache.event;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import it.dontesta.labs.quarkus.graphql.orm.panache.batch.KeyedResults;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Event fired by the GraphQL and REST endpoints when they change the catalog, so that the data
+ * derived from it, such as the cached responses, can be discarded after the commit.
+ *
+ * @param type the type of the changed entities
+ * @param created true if entities of the type were created, so that every list of that type may have changed
+ * @param ids the ids of the created, updated or deleted entities, if known
+ * @param remote true if the entities were changed by another replica, and the event received
+ *        through the bus of the replicas
+ */
+public record EntityChangedEvent(Class<? extends PanacheEntity> type, boolean created, List<Long> ids,
+        boolean remote) {
+
+    /**
+     * Creates the event of the creation of entities of a type.
+     *
+     * @param type the type of the created entities
+     * @return the event
+     */
+    public static EntityChangedEvent created(Class<? extends PanacheEntity> type) {
+        return new EntityChangedEvent(type, true, List.of(), false);
+    }
+
+    /**
+     * Creates the event of the creation of entities of a type, with their ids.
+     *
+     * @param type the type of the created entities
+     * @param entities the created entities, with their ids
+     * @return the event
+     */
+    public static EntityChangedEvent created(Class<? extends PanacheEntity> type,
+            Collection<? extends PanacheEntity> entities) {
+        return new EntityChangedEvent(type, true, KeyedResults.idsOf(entities), false);
+    }
+
+    /**
+     * Creates the event of the creation of entities of a type by another replica, with their ids.
+     *
+     * @param type the type of the created entities
+     * @param entities the created entities, with their ids
+     * @return the event
+     */
+    public static EntityChangedEvent createdRemotely(Class<? extends PanacheEntity> type,
+            Collection<? extends PanacheEntity> entities) {
+        return new EntityChangedEvent(type, true, KeyedResults.idsOf(entities), true);
+    }
+
+    /**
+     * Creates the event of the update or deletion of entities.
+     *
+     * @param type the type of the changed entities
+     * @param ids the ids of the changed entities
+     * @return the event
+     */
+    public static EntityChangedEvent changed(Class<? extends PanacheEntity> type, Long... ids) {
+        return new EntityChangedEvent(type, false, List.of(ids), false);
+    }
+
+    /**
+     * Creates the event of the update or deletion of entities by another replica.
+     *
+     * @param type the type of the changed entities
+     * @param ids the ids of the changed entities
+     * @return the event
+     */
+    public static EntityChangedEvent changedRemotely(Class<? extends PanacheEntity> type, List<Long> ids) {
+        return new EntityChangedEvent(type, false, List.copyOf(ids), true);
+    }
+
+    /**
+     * Creates the event of the update or deletion of entities.
+     *
+     * @param type the type of the changed entities
+     * @param entities the changed entities
+     * @return the event
+     */
+    public static EntityChangedEvent changed(Class<? extends PanacheEntity> type,
+            Collection<? extends PanacheEntity> entities) {
+        return new EntityChangedEvent(type, false, KeyedResults.idsOf(entities), false);
+    }
+}
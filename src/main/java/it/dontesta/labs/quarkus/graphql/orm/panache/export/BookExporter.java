@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.orm.panache.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.narayana.jta.QuarkusTransactionException;
+import it.dontesta.labs.quarkus.graphql.app.concurrency.ConcurrencyLimited;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Author;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Editor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.CacheMode;
+
+/**
+ * Writes the whole catalog of books, with their editor, authors and collections, to an output
+ * stream, in a memory that does not depend on the size of the catalog.
+ *
+ * <p>
+ * The books are read through a cursor of the database, {@code fetch-size} rows at a time, as
+ * objects that are not managed, with their languages, formats and keywords. Every
+ * {@code chunk-size} books, their associations are read with one query each, the books are
+ * written and flushed to the output, and the persistence context is cleared. A slow client
+ * blocks the writes, and so the reads, instead of making the books pile up in memory. The
+ * reads bypass the second-level and query caches, which an export would otherwise fill with
+ * entries read only once. The covers are exported with the keys of their objects, without the
+ * presigned URLs, which would expire.
+ */
+@ApplicationScoped
+@ConcurrencyLimited
+public class BookExporter {
+
+    /**
+     * The media type of the newline delimited JSON format.
+     */
+    public static final String NDJSON = "application/x-ndjson";
+
+    /**
+     * The formats of the export.
+     */
+    public enum Format {
+        /**
+         * A JSON object for each book, one per line.
+         */
+        NDJSON,
+        /**
+         * A JSON array of the books.
+         */
+        JSON
+    }
+
+    private final ObjectWriter writer;
+    private final int fetchSize;
+    private final int chunkSize;
+    private final Duration timeout;
+
+    @Inject
+    public BookExporter(ObjectMapper objectMapper,
+            @ConfigProperty(name = "app.books.export.fetch-size", defaultValue = "500") int fetchSize,
+            @ConfigProperty(name = "app.books.export.chunk-size", defaultValue = "500") int chunkSize,
+            @ConfigProperty(name = "app.books.export.timeout", defaultValue = "30M") Duration timeout) {
+        // The output is flushed once for each chunk, not for each book
+        this.writer = objectMapper.writerFor(Book.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+        this.chunkSize = chunkSize;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Writes all the books to the output, in a transaction of its own.
+     *
+     * @param output the output, not closed
+     * @param format the format of the export
+     * @throws IOException if the output cannot be written, for example because the client went away
+     */
+    public void export(OutputStream output, Format format) throws IOException {
+        try {
+            QuarkusTransaction.requiringNew()
+                    .timeout((int) timeout.toSeconds())
+                    .run(() -> write(output, format));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (QuarkusTransactionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void write(OutputStream output, Format format) {
+        Panache.getSession().setCacheMode(CacheMode.IGNORE);
+
+        try (JsonGenerator generator = writer.createGenerator(output);
+                Stream<Book> books = Book.streamAllBooks(fetchSize)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            if (format == Format.JSON) {
+                generator.writeStartArray();
+            }
+
+            List<Book> chunk = new ArrayList<>(chunkSize);
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    writeChunk(generator, chunk, format);
+                    chunk.clear();
+                }
+            }
+
+            if (format == Format.JSON) {
+                generator.writeEndArray();
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeChunk(JsonGenerator generator, List<Book> chunk, Format format) throws IOException {
+        List<Long> ids = chunk.stream().map(book -> book.id).toList();
+        Map<Long, List<Author>> authors = Author.mapAuthorsByBookIds(ids);
+        Map<Long, Editor> editors = Editor.mapEditorsByBookIds(ids);
+
+        for (Book book : chunk) {
+            book.authors = authors.getOrDefault(book.id, List.of());
+            book.editor = editors.get(book.id);
+
+            writer.writeValue(generator, book);
+            if (format == Format.NDJSON) {
+                generator.writeRaw('\n');
+            }
+        }
+        generator.flush();
+
+        // The editors and authors of the chunk are not needed anymore
+        Panache.getEntityManager().clear();
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.orm.panache.projection;
+
+import io.quarkus.hibernate.orm.panache.Panache;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+
+/**
+ * Reads only the requested columns of an entity and copies them into new, not managed,
+ * instances of the entity, used as lightweight read objects.
+ *
+ * <p>
+ * The requested attributes are matched against the attributes registered with
+ * {@link #attribute(String, BiConsumer)}, so that only known columns end up in the select
+ * clause, together with the attributes of the requested fields registered with
+ * {@link #field(String, String...)}. The {@code id} attribute is always read, because it is used by the batched
+ * resolvers of the associations. The callers choose which queries go through the query cache,
+ * which Hibernate invalidates when the tables of the entity are written: only the bounded
+ * reads, like a page or a single entity, are worth caching, while an unbounded list or a large
+ * batch of IDs would fill the cache with entries that are seldom read again.
+ *
+ * @param <T> the type of the entity
+ */
+public final class EntityProjection<T> {
+
+    private static final String ID = "id";
+
+    private final String entityName;
+    private final Supplier<T> factory;
+    private final Map<String, BiConsumer<T, Object>> attributes = new LinkedHashMap<>();
+    private final Map<String, List<String>> fields = new LinkedHashMap<>();
+
+    private EntityProjection(String entityName, Supplier<T> factory) {
+        this.entityName = entityName;
+        this.factory = factory;
+    }
+
+    /**
+     * Creates a new projection for an entity.
+     *
+     * @param entityName the name of the entity, as used in the queries
+     * @param factory the factory of the read objects
+     * @param <T> the type of the entity
+     * @return the new projection
+     */
+    public static <T> EntityProjection<T> of(String entityName, Supplier<T> factory) {
+        return new EntityProjection<>(entityName, factory);
+    }
+
+    /**
+     * Registers an attribute that can be projected.
+     *
+     * @param name the name of the attribute
+     * @param setter the setter used to copy the value into the read object
+     * @return this projection
+     */
+    public EntityProjection<T> attribute(String name, BiConsumer<T, Object> setter) {
+        attributes.put(name, setter);
+        return this;
+    }
+
+    /**
+     * Registers a field that is not an attribute of the entity but is computed from some of its
+     * attributes, so that requesting the field reads them.
+     *
+     * @param name the name of the field
+     * @param attributes the registered attributes the field is computed from
+     * @return this projection
+     */
+    public EntityProjection<T> field(String name, String... attributes) {
+        fields.put(name, List.of(attributes));
+        return this;
+    }
+
+    /**
+     * Reads the requested attributes of the entities that match the given clause.
+     *
+     * @param requested the requested attributes, the unknown ones are ignored
+     * @param clause the where and order by clauses, with named parameters, or an empty string
+     * @param parameters the values of the named parameters
+     * @param maxResults the maximum number of rows to read, or a value less than 1 to read all rows
+     * @param cacheable true to read the rows through the query cache
+     * @return the read objects
+     */
+    public List<T> list(Collection<String> requested, String clause, Map<String, Object> parameters,
+            int maxResults, boolean cacheable) {
+        List<String> selected = select(requested);
+
+        TypedQuery<Tuple> query = Panache.getEntityManager().createQuery(
+                "select %s from %s %s".formatted(String.join(", ", selected), entityName, clause).trim(),
+                Tuple.class);
+        parameters.forEach(query::setParameter);
+        if (cacheable) {
+            query.setHint(HibernateHints.HINT_CACHEABLE, true);
+        }
+        if (maxResults > 0) {
+            query.setMaxResults(maxResults);
+        }
+
+        List<Tuple> rows = query.getResultList();
+        List<T> results = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            T result = factory.get();
+            for (int i = 0; i < selected.size(); i++) {
+                attributes.get(selected.get(i)).accept(result, row.get(i));
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * Streams the requested attributes of the entities that match the given clause, reading the
+     * rows through a forward-only cursor of the database instead of loading them all. The rows
+     * are not cached: the stream is meant to read many rows once, like an export.
+     *
+     * <p>
+     * The stream must be closed, and consumed inside the transaction that opened it.
+     *
+     * @param requested the requested attributes, the unknown ones are ignored
+     * @param clause the where and order by clauses, with named parameters, or an empty string
+     * @param parameters the values of the named parameters
+     * @param fetchSize the number of rows fetched from the database in each round trip
+     * @return the stream of the read objects
+     */
+    public Stream<T> stream(Collection<String> requested, String clause, Map<String, Object> parameters,
+            int fetchSize) {
+        List<String> selected = select(requested);
+
+        TypedQuery<Tuple> query = Panache.getEntityManager().createQuery(
+                "select %s from %s %s".formatted(String.join(", ", selected), entityName, clause).trim(),
+                Tuple.class);
+        parameters.forEach(query::setParameter);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+
+        return query.getResultStream().map(row -> {
+            T result = factory.get();
+            for (int i = 0; i < selected.size(); i++) {
+                attributes.get(selected.get(i)).accept(result, row.get(i));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Reads the requested attributes of the entity with the given id, through the query cache.
+     *
+     * @param requested the requested attributes, the unknown ones are ignored
+     * @param id the id of the entity
+     * @return the read object, or null if no such entity exists
+     */
+    public T findById(Collection<String> requested, Object id) {
+        List<T> results = list(requested, "where id = :id", Map.of(ID, id), 1, true);
+        return results.isEmpty() ? null : results.getFirst();
+    }
+
+    private List<String> select(Collection<String> requested) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(ID);
+        for (String name : requested) {
+            if (attributes.containsKey(name)) {
+                selected.add(name);
+            }
+            selected.addAll(fields.getOrDefault(name, List.of()));
+        }
+        return new ArrayList<>(selected);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.pagination.count;
+
+import io.quarkus.logging.Log;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Service that provides the total number of books for the {@code totalCount} field of the
+ * books connection.
+ *
+ * <p>
+ * By default the count is approximated: on PostgreSQL it is read from the planner statistics
+ * ({@code pg_class.reltuples}), on the other databases it is an exact count cached for the
+ * configured time to live. The exact mode runs a {@code count(*)} on every request. The cached
+ * count is discarded after the commit of every change of the books.
+ */
+@ApplicationScoped
+public class BookCountService {
+
+    private static final String POSTGRESQL_DB_KIND = "postgresql";
+
+    private static final String POSTGRESQL_ESTIMATE_QUERY =
+            "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = to_regclass('book')";
+
+    private final EntityManager entityManager;
+    private final boolean exact;
+    private final Duration cacheTtl;
+    private final boolean postgresql;
+
+    private volatile CachedCount cachedCount;
+
+    // Incremented on every invalidation, so that a count read before a change is not cached after it
+    private final AtomicLong generation = new AtomicLong();
+
+    @Inject
+    public BookCountService(EntityManager entityManager,
+            @ConfigProperty(name = "app.books.total-count.exact", defaultValue = "false") boolean exact,
+            @ConfigProperty(name = "app.books.total-count.cache-ttl", defaultValue = "30S") Duration cacheTtl,
+            @ConfigProperty(name = "quarkus.datasource.db-kind") String dbKind) {
+        this.entityManager = entityManager;
+        this.exact = exact;
+        this.cacheTtl = cacheTtl;
+        this.postgresql = POSTGRESQL_DB_KIND.equals(dbKind);
+    }
+
+    /**
+     * Returns the total number of books, exact or approximated according to the configuration.
+     *
+     * @return the total number of books
+     */
+    public long totalCount() {
+        if (exact) {
+            return Book.count();
+        }
+
+        long now = System.nanoTime();
+        CachedCount current = cachedCount;
+        if (current != null && now - current.computedAt() < cacheTtl.toNanos()) {
+            return current.value();
+        }
+
+        long readGeneration = generation.get();
+        long value = estimate();
+        if (generation.get() == readGeneration) {
+            cachedCount = new CachedCount(value, now);
+        }
+        return value;
+    }
+
+    /**
+     * Discards the cached count, so that the next request reads it again.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        cachedCount = null;
+    }
+
+    /**
+     * Discards the cached count after the commit of a change of the books, so that a count read
+     * concurrently cannot cache the books of before the change.
+     *
+     * @param event the change of the catalog
+     */
+    void onEntityChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) EntityChangedEvent event) {
+        if (event.type() == Book.class) {
+            invalidate();
+        }
+    }
+
+    private long estimate() {
+        if (postgresql) {
+            Number estimate = (Number) entityManager.createNativeQuery(POSTGRESQL_ESTIMATE_QUERY).getSingleResult();
+
+            // The estimate is -1 when the table has never been analyzed or vacuumed
+            if (estimate != null && estimate.longValue() >= 0) {
+                return estimate.longValue();
+            }
+            Log.debug("No planner statistics available for the book table, falling back to count(*)");
+        }
+        return Book.count();
+    }
+
+    /**
+     * The cached count with the instant, as returned by {@link System#nanoTime()}, when it was computed.
+     */
+    private record CachedCount(long value, long computedAt) {
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.pagination.filter;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A condition on the books, written in JPQL on the attributes of the book entity, without an
+ * alias, with its named parameters. It is added to the {@code where} clause of the query of a page.
+ *
+ * @param jpql the condition, or null if every book satisfies it
+ * @param parameters the values of the named parameters of the condition
+ */
+public record BookCondition(String jpql, Map<String, Object> parameters) {
+
+    /**
+     * The condition satisfied by every book.
+     */
+    public static final BookCondition ALL = new BookCondition(null, Map.of());
+
+    /**
+     * The condition satisfied by no book, the pages are empty without running a query.
+     */
+    public static final BookCondition NONE = new BookCondition("1 = 0", Map.of());
+
+    /**
+     * Creates the condition satisfied by the books with the given IDs.
+     *
+     * @param ids the IDs of the books
+     * @return the condition
+     */
+    public static BookCondition idIn(Collection<Long> ids) {
+        return ids.isEmpty() ? NONE : new BookCondition("id in :ids", Map.of("ids", ids));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.pagination.filter;
+
+import it.dontesta.labs.quarkus.graphql.pagination.type.BookSortField;
+import it.dontesta.labs.quarkus.graphql.ws.dto.BookFilter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Compiles a {@link BookFilter} to a single parameterized JPQL condition, added to the query
+ * of the page of the books connection, so that the database filters and sorts the books in the
+ * same statement.
+ *
+ * <p>
+ * The attributes of the book are compared directly, the editor by its foreign key, the languages
+ * and the formats, stored as arrays in the row of the book, by the containment of each value, and the
+ * authors, stored in a table of their own, with a subquery on their table only when they are
+ * filtered, so that no join multiplies the rows of the page.
+ * Every filtered column is the first column of an index (see {@code db/migration}), but an index serves
+ * a range and an order only on the same column: the combinations that the database could only
+ * satisfy by reading and sorting the whole range are rejected.
+ */
+public final class BookFilterCompiler {
+
+    private BookFilterCompiler() {
+    }
+
+    /**
+     * Compiles a filter of the books.
+     *
+     * @param filter the filter of the books
+     * @param sortField the field used to sort the books
+     * @return the condition satisfied by the books that match the filter
+     * @throws IllegalArgumentException if the filter is not valid or cannot be combined with the sort field
+     */
+    public static BookCondition compile(BookFilter filter, BookSortField sortField) {
+        guard(filter, sortField);
+
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (isPresent(filter.genres())) {
+            conditions.add("genre in :genres");
+            parameters.put("genres", filter.genres());
+        }
+        if (isPresent(filter.editorIds())) {
+            conditions.add("editor.id in :editorIds");
+            parameters.put("editorIds", filter.editorIds());
+        }
+        if (isPresent(filter.languages())) {
+            conditions.add(containsAny("languages", filter.languages(), parameters));
+        }
+        if (isPresent(filter.formats())) {
+            conditions.add(containsAny("formats", filter.formats(), parameters));
+        }
+        if (isPresent(filter.authorIds())) {
+            conditions.add("id in (select b.id from book b join b.authors a where a.id in :authorIds)");
+            parameters.put("authorIds", filter.authorIds());
+        }
+        if (filter.publishedFrom() != null) {
+            conditions.add("publication >= :publishedFrom");
+            parameters.put("publishedFrom", filter.publishedFrom());
+        }
+        if (filter.publishedTo() != null) {
+            conditions.add("publication <= :publishedTo");
+            parameters.put("publishedTo", filter.publishedTo());
+        }
+        if (filter.minPages() != null) {
+            conditions.add("pages >= :minPages");
+            parameters.put("minPages", filter.minPages());
+        }
+        if (filter.maxPages() != null) {
+            conditions.add("pages <= :maxPages");
+            parameters.put("maxPages", filter.maxPages());
+        }
+        return conditions.isEmpty() ? BookCondition.ALL : new BookCondition(String.join(" and ", conditions), parameters);
+    }
+
+    private static void guard(BookFilter filter, BookSortField sortField) {
+        boolean publicationRange = filter.publishedFrom() != null || filter.publishedTo() != null;
+        boolean pagesRange = filter.minPages() != null || filter.maxPages() != null;
+        if (publicationRange && pagesRange) {
+            throw new IllegalArgumentException("The books can be filtered by the range of the publication or of the pages, not both");
+        }
+        if (publicationRange && sortField != BookSortField.PUBLICATION) {
+            throw new IllegalArgumentException("The books filtered by the range of the publication must be sorted by PUBLICATION");
+        }
+        if (pagesRange && sortField != BookSortField.PAGES) {
+            throw new IllegalArgumentException("The books filtered by the range of the pages must be sorted by PAGES");
+        }
+        if (filter.minPages() != null && filter.minPages() < 0) {
+            throw new IllegalArgumentException("The minimum number of pages must not be negative");
+        }
+    }
+
+    /**
+     * Builds the condition satisfied by the books whose array contains at least one of the values,
+     * with a parameter of its own for each value.
+     *
+     * @param attribute the array attribute of the book
+     * @param values the values, at least one
+     * @param parameters the parameters of the condition, where the values are added
+     * @return the condition
+     */
+    private static String containsAny(String attribute, List<String> values, Map<String, Object> parameters) {
+        StringJoiner condition = new StringJoiner(" or ", "(", ")");
+        for (int i = 0; i < values.size(); i++) {
+            String parameter = attribute + i;
+            condition.add("array_contains(%s, :%s)".formatted(attribute, parameter));
+            parameters.put(parameter, values.get(i));
+        }
+        return condition.toString();
+    }
+
+    private static boolean isPresent(List<?> values) {
+        return values != null && !values.isEmpty();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.pagination.keyset;
+
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.pagination.type.BookSortField;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * The opaque cursor of the books connection. It carries the sort key and the id
+ * of a book, so that the next page can be read with a keyset (seek) query.
+ *
+ * <p>
+ * When sorting by {@link BookSortField#ID} the cursor is the Base64 encoding of the
+ * book id only, as in the previous versions. For the other fields the cursor is the
+ * Base64 encoding of {@code <field>:<id>:<key>}.
+ *
+ * @param sortField the field used to sort the connection
+ * @param key the value of the sort field
+ * @param id the id of the book
+ */
+public record BookCursor(BookSortField sortField, Object key, Long id) {
+
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Creates the cursor of the given book.
+     *
+     * @param sortField the field used to sort the connection
+     * @param book the book
+     * @return the cursor of the book
+     */
+    public static BookCursor of(BookSortField sortField, Book book) {
+        return new BookCursor(sortField, sortField.keyOf(book), book.id);
+    }
+
+    /**
+     * Decodes a cursor.
+     *
+     * @param cursor the encoded cursor
+     * @param sortField the field used to sort the connection
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the cursor is malformed or was created for another sort field
+     */
+    public static BookCursor decode(String cursor, BookSortField sortField) {
+        String decoded = new String(Base64.getDecoder().decode(cursor), StandardCharsets.UTF_8);
+
+        if (sortField == BookSortField.ID) {
+            Long id = Long.valueOf(decoded);
+            return new BookCursor(sortField, id, id);
+        }
+
+        String[] parts = decoded.split(SEPARATOR, 3);
+        if (parts.length != 3 || !sortField.name().equals(parts[0])) {
+            throw new IllegalArgumentException("The cursor was not created for the sort field " + sortField);
+        }
+        return new BookCursor(sortField, sortField.parseKey(parts[2]), Long.valueOf(parts[1]));
+    }
+
+    /**
+     * Encodes this cursor.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String value = sortField == BookSortField.ID
+                ? String.valueOf(id)
+                : String.join(SEPARATOR, sortField.name(), String.valueOf(id), String.valueOf(key));
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.pagination.keyset;
+
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.pagination.filter.BookCondition;
+import it.dontesta.labs.quarkus.graphql.pagination.type.BookConnection;
+import it.dontesta.labs.quarkus.graphql.pagination.type.BookEdge;
+import it.dontesta.labs.quarkus.graphql.pagination.type.BookSortField;
+import it.dontesta.labs.quarkus.graphql.pagination.type.PageInfo;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds the pages of the books connection with keyset (seek) pagination.
+ *
+ * <p>
+ * Each page is read with {@code WHERE (key, id) > (?, ?) ORDER BY key, id LIMIT first + 1}
+ * (or the reverse when paging backward), so the cost of a page does not depend on its
+ * position and the pages are stable under concurrent inserts. The extra row is only used
+ * to know if there is another page, without counting the whole table. The size of a page is
+ * bounded by a maximum, so that a client cannot read the whole table at once.
+ */
+public final class BookKeysetPaginator {
+
+    private BookKeysetPaginator() {
+    }
+
+    /**
+     * Reads a page of the books connection.
+     *
+     * @param first the number of books to read forward, or null when paging backward
+     * @param after the cursor after which to start reading forward, or null to start from the beginning
+     * @param last the number of books to read backward, or null when paging forward
+     * @param before the cursor before which to start reading backward, or null to start from the end
+     * @param sortField the field used to sort the books
+     * @param fields the attributes of the books to read
+     * @param maxSize the maximum number of books of a page
+     * @return the page of the books connection
+     * @throws IllegalArgumentException if the arguments or the cursor are not valid
+     */
+    public static BookConnection paginate(Integer first, String after, Integer last, String before,
+            BookSortField sortField, Collection<String> fields, int maxSize) {
+        return paginate(first, after, last, before, sortField, fields, maxSize, null);
+    }
+
+    /**
+     * Reads a page of the books connection, only among the books allowed by a restriction.
+     *
+     * @param first the number of books to read forward, or null when paging backward
+     * @param after the cursor after which to start reading forward, or null to start from the beginning
+     * @param last the number of books to read backward, or null when paging forward
+     * @param before the cursor before which to start reading backward, or null to start from the end
+     * @param sortField the field used to sort the books
+     * @param fields the attributes of the books to read
+     * @param maxSize the maximum number of books of a page
+     * @param restriction the restriction of the books to read, or null to read from all the books
+     * @return the page of the books connection
+     * @throws IllegalArgumentException if the arguments or the cursor are not valid, or the
+     *         restriction does not allow to sort the books by the field
+     */
+    public static BookConnection paginate(Integer first, String after, Integer last, String before,
+            BookSortField sortField, Collection<String> fields, int maxSize, Restriction restriction) {
+        validate(first, after, last, before, maxSize);
+
+        boolean backward = last != null;
+        int size = backward ? last : first;
+        BookCursor boundary = decode(backward ? before : after, sortField);
+        Long boundaryId = boundary == null ? null : boundary.id();
+
+        BookCondition condition = restriction == null
+                ? BookCondition.ALL
+                : restriction.conditionOf(sortField, boundaryId, backward, size + 1);
+        List<Book> rows = condition == BookCondition.NONE
+                ? List.of()
+                : Book.projectBooksByKeyset(fields, sortField.getAttribute(),
+                        boundary == null ? null : boundary.key(),
+                        boundaryId, backward, size + 1, condition.jpql(), condition.parameters());
+
+        boolean hasMore = rows.size() > size;
+        List<Book> books = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        if (backward) {
+            Collections.reverse(books);
+        }
+
+        List<BookEdge> edges = books.stream()
+                .map(book -> BookEdge.create(book, BookCursor.of(sortField, book).encode()))
+                .toList();
+
+        String startCursor = edges.isEmpty() ? null : edges.getFirst().getCursor();
+        String endCursor = edges.isEmpty() ? null : edges.getLast().getCursor();
+        boolean hasNextPage = backward ? boundary != null : hasMore;
+        boolean hasPreviousPage = backward ? hasMore : boundary != null;
+
+        return BookConnection.create(edges, PageInfo.create(hasNextPage, hasPreviousPage, startCursor, endCursor));
+    }
+
+    /**
+     * Restricts the books read by the pages, for example to the books that match a filter.
+     */
+    @FunctionalInterface
+    public interface Restriction {
+
+        /**
+         * Returns the condition of the books that a page may read. The page reads the first books
+         * that satisfy it in the order of the field, after (or before) the cursor, so when sorting
+         * by ID it is enough to allow the IDs that follow (or precede) the one of the cursor.
+         *
+         * @param sortField the field used to sort the books
+         * @param boundaryId the ID of the book of the cursor, or null without a cursor
+         * @param backward true when paging backward
+         * @param limit the number of books that the page reads
+         * @return the condition of the books that the page may read
+         * @throws IllegalArgumentException if the books cannot be sorted by the field
+         */
+        BookCondition conditionOf(BookSortField sortField, Long boundaryId, boolean backward, int limit);
+    }
+
+    private static void validate(Integer first, String after, Integer last, String before, int maxSize) {
+        if ((first == null) == (last == null)) {
+            throw new IllegalArgumentException("Exactly one of the arguments first or last must be specified");
+        }
+        if ((first != null && first < 0) || (last != null && last < 0)) {
+            throw new IllegalArgumentException("The arguments first and last must not be negative");
+        }
+        if ((first != null && first > maxSize) || (last != null && last > maxSize)) {
+            throw new IllegalArgumentException("The arguments first and last must be at most %d".formatted(maxSize));
+        }
+        if ((first != null && before != null) || (last != null && after != null)) {
+            throw new IllegalArgumentException("The argument after requires first and the argument before requires last");
+        }
+    }
+
+    private static BookCursor decode(String cursor, BookSortField sortField) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            return BookCursor.decode(cursor, sortField);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor format", e);
+        }
+    }
+}
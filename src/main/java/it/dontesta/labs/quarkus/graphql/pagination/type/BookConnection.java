@@ -4,8 +4,10 @@
  */
 package it.dontesta.labs.quarkus.graphql.pagination.type;
 
+import org.eclipse.microprofile.graphql.Ignore;
 import org.eclipse.microprofile.graphql.Type;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Represents a connection to a list of Book edges with pagination information.
@@ -23,15 +25,22 @@ public class BookConnection {
      */
     private final PageInfo pageInfo;
 
+    /**
+     * Counts the books of a filtered connection, or null.
+     */
+    private final Supplier<Long> filteredCount;
+
     /**
      * Constructs a new BookConnection instance.
      *
      * @param edges a list of Book edges
      * @param pageInfo pagination information for the connection
+     * @param filteredCount counts the books of a filtered connection, or null
      */
-    private BookConnection(List<BookEdge> edges, PageInfo pageInfo) {
+    private BookConnection(List<BookEdge> edges, PageInfo pageInfo, Supplier<Long> filteredCount) {
         this.edges = edges;
         this.pageInfo = pageInfo;
+        this.filteredCount = filteredCount;
     }
 
     /**
@@ -42,7 +51,17 @@ public class BookConnection {
      * @return a new BookConnection instance
      */
     public static BookConnection create(List<BookEdge> edges, PageInfo pageInfo) {
-        return new BookConnection(edges, pageInfo);
+        return new BookConnection(edges, pageInfo, null);
+    }
+
+    /**
+     * Returns a copy of this connection that counts the books that match its filter.
+     *
+     * @param filteredCount counts the books that match the filter, only if the count is requested
+     * @return a new BookConnection instance
+     */
+    public BookConnection withFilteredCount(Supplier<Long> filteredCount) {
+        return new BookConnection(edges, pageInfo, filteredCount);
     }
 
     /**
@@ -62,4 +81,14 @@ public class BookConnection {
     public PageInfo getPageInfo() {
         return pageInfo;
     }
+
+    /**
+     * Returns the count of the books of a filtered connection, run by the {@code totalCount} field.
+     *
+     * @return counts the books that match the filter, or null if the connection is not filtered
+     */
+    @Ignore
+    public Supplier<Long> getFilteredCount() {
+        return filteredCount;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.pagination.type;
+
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import java.time.LocalDate;
+import java.util.function.Function;
+import org.eclipse.microprofile.graphql.Description;
+import org.eclipse.microprofile.graphql.Enum;
+
+/**
+ * The fields that can be used to sort the books connection.
+ *
+ * <p>
+ * Only not nullable columns are admitted, because the keyset pagination compares
+ * the pair (sort key, id) of the last row of a page with the next rows.
+ */
+@Enum("BookSortField")
+@Description("The fields that can be used to sort the books")
+public enum BookSortField {
+
+    ID("id", book -> book.id, Long::valueOf),
+    TITLE("title", book -> book.title, value -> value),
+    ISBN("isbn", book -> book.isbn, value -> value),
+    GENRE("genre", book -> book.genre, value -> value),
+    PAGES("pages", book -> book.pages, Integer::valueOf),
+    PUBLICATION("publication", book -> book.publication, LocalDate::parse);
+
+    private final String attribute;
+    private final Function<Book, Object> extractor;
+    private final Function<String, Object> parser;
+
+    BookSortField(String attribute, Function<Book, Object> extractor, Function<String, Object> parser) {
+        this.attribute = attribute;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    /**
+     * Returns the name of the entity attribute used to sort.
+     *
+     * @return the name of the entity attribute
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Returns the sort key of the given book.
+     *
+     * @param book the book
+     * @return the value of the sort attribute of the book
+     */
+    public Object keyOf(Book book) {
+        return extractor.apply(book);
+    }
+
+    /**
+     * Parses the sort key carried by a cursor.
+     *
+     * @param value the string representation of the sort key
+     * @return the sort key
+     * @throws IllegalArgumentException if the value is not valid for this field
+     */
+    public Object parseKey(String value) {
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid sort key '%s' for field %s".formatted(value, name()), e);
+        }
+    }
+}
@@ -17,6 +17,16 @@ public class PageInfo {
      */
     private final boolean hasNextPage;
 
+    /**
+     * Indicates if there is a previous page.
+     */
+    private final boolean hasPreviousPage;
+
+    /**
+     * The start cursor for the current page.
+     */
+    private final String startCursor;
+
     /**
      * The end cursor for the current page.
      */
@@ -26,10 +36,14 @@ public class PageInfo {
      * Constructs a new PageInfo instance.
      *
      * @param hasNextPage indicates if there is a next page
+     * @param hasPreviousPage indicates if there is a previous page
+     * @param startCursor the start cursor for the current page
      * @param endCursor the end cursor for the current page
      */
-    private PageInfo(boolean hasNextPage, String endCursor) {
+    private PageInfo(boolean hasNextPage, boolean hasPreviousPage, String startCursor, String endCursor) {
         this.hasNextPage = hasNextPage;
+        this.hasPreviousPage = hasPreviousPage;
+        this.startCursor = startCursor;
         this.endCursor = endCursor;
     }
 
@@ -41,7 +55,21 @@ public class PageInfo {
      * @return a new PageInfo instance
      */
     public static PageInfo create(boolean hasNextPage, String endCursor) {
-        return new PageInfo(hasNextPage, endCursor);
+        return new PageInfo(hasNextPage, false, null, endCursor);
+    }
+
+    /**
+     * Creates a new PageInfo instance.
+     *
+     * @param hasNextPage indicates if there is a next page
+     * @param hasPreviousPage indicates if there is a previous page
+     * @param startCursor the start cursor for the current page
+     * @param endCursor the end cursor for the current page
+     * @return a new PageInfo instance
+     */
+    public static PageInfo create(boolean hasNextPage, boolean hasPreviousPage, String startCursor,
+            String endCursor) {
+        return new PageInfo(hasNextPage, hasPreviousPage, startCursor, endCursor);
     }
 
     /**
@@ -53,6 +81,24 @@ public class PageInfo {
         return hasNextPage;
     }
 
+    /**
+     * Returns if there is a previous page.
+     *
+     * @return true if there is a previous page, false otherwise
+     */
+    public boolean isHasPreviousPage() {
+        return hasPreviousPage;
+    }
+
+    /**
+     * Returns the start cursor for the current page.
+     *
+     * @return the start cursor
+     */
+    public String getStartCursor() {
+        return startCursor;
+    }
+
     /**
      * Returns the end cursor for the current page.
      *
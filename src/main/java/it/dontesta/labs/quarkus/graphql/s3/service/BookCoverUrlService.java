@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.s3.service;
+
+import io.quarkus.logging.Log;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Resolves the URLs of the covers of the books from the keys stored with them, when the books
+ * are read.
+ *
+ * <p>
+ * A key is the name of an object in the bucket of the covers, whose presigned URL is read from
+ * the {@link PresignedUrlService}, or the absolute URL of an external image, returned as it is.
+ * A cover whose URL cannot be signed, for example because MinIO is not configured, has no URL,
+ * instead of failing the read of the whole page of books.
+ *
+ * <p>
+ * The keys sent by the clients are checked with {@link #violationsOf(Book)} before the book is
+ * saved: the name of an object must be the one of a cover of the same book, as the covers are
+ * uploaded by the {@code BookFrontBackCoverLoader}, {@code <isbn>_<title>_front_cover.jpg} or
+ * {@code <isbn>_<title>_back_cover.jpg}, so that a client cannot get the presigned URL of any
+ * other object of the bucket.
+ */
+@ApplicationScoped
+public class BookCoverUrlService {
+
+    // The name of an object in the root of the bucket, without any path
+    private static final Pattern OBJECT_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*");
+
+    private final PresignedUrlService presignedUrls;
+    private final String bucketName;
+
+    @Inject
+    public BookCoverUrlService(PresignedUrlService presignedUrls,
+            @ConfigProperty(name = "app.books.covers.bucket", defaultValue = "book-cover") String bucketName) {
+        this.presignedUrls = presignedUrls;
+        this.bucketName = bucketName;
+    }
+
+    /**
+     * Returns the URL of a cover.
+     *
+     * @param coverKey the key of the cover, the name of its object or an absolute URL
+     * @return the URL of the cover, or null if the book has no such cover or its URL cannot be signed
+     */
+    public String urlOf(String coverKey) {
+        if (coverKey == null || coverKey.isBlank()) {
+            return null;
+        }
+        if (coverKey.startsWith("http://") || coverKey.startsWith("https://")) {
+            return coverKey;
+        }
+        try {
+            return presignedUrls.urlOf(bucketName, coverKey);
+        } catch (RuntimeException e) {
+            Log.warnf("Cannot sign the URL of the book cover {%s} in bucket name {%s}: %s", coverKey, bucketName,
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the URLs of the front covers of a page of books.
+     *
+     * @param books the books
+     * @return the URL of the front cover of each book, in the same order of the books
+     */
+    public List<String> frontCoverUrlsOf(List<Book> books) {
+        return urlsOf(books, book -> book.frontCoverImageKey);
+    }
+
+    /**
+     * Returns the URLs of the back covers of a page of books.
+     *
+     * @param books the books
+     * @return the URL of the back cover of each book, in the same order of the books
+     */
+    public List<String> backCoverUrlsOf(List<Book> books) {
+        return urlsOf(books, book -> book.backCoverImageKey);
+    }
+
+    /**
+     * Sets the URLs of the covers of a book, as they are serialized by the REST endpoints.
+     *
+     * @param book the book, or null
+     * @return the same book
+     */
+    public Book resolve(Book book) {
+        if (book != null) {
+            book.frontCoverImageUrl = urlOf(book.frontCoverImageKey);
+            book.backCoverImageUrl = urlOf(book.backCoverImageKey);
+        }
+        return book;
+    }
+
+    /**
+     * Sets the URLs of the covers of some books, as they are serialized by the REST endpoints.
+     *
+     * @param books the books
+     * @param <C> the type of the collection
+     * @return the same books
+     */
+    public <C extends Collection<Book>> C resolve(C books) {
+        books.forEach(this::resolve);
+        return books;
+    }
+
+    /**
+     * Checks the keys of the covers of a book to save.
+     *
+     * @param book the book
+     * @return the messages of the keys that are not a cover of the book, empty if the keys are valid
+     */
+    public List<String> violationsOf(Book book) {
+        List<String> violations = new ArrayList<>();
+        if (!isCoverKey(book.frontCoverImageKey, book.isbn, "front")) {
+            violations.add(invalidKey("frontCoverImageKey", book.frontCoverImageKey, book.isbn, "front"));
+        }
+        if (!isCoverKey(book.backCoverImageKey, book.isbn, "back")) {
+            violations.add(invalidKey("backCoverImageKey", book.backCoverImageKey, book.isbn, "back"));
+        }
+        return violations;
+    }
+
+    private static boolean isCoverKey(String coverKey, String isbn, String side) {
+        if (coverKey == null || coverKey.isBlank()
+                || coverKey.startsWith("http://") || coverKey.startsWith("https://")) {
+            return true;
+        }
+        return isbn != null && OBJECT_NAME.matcher(coverKey).matches() && !coverKey.contains("..")
+                && coverKey.startsWith(isbn + "_") && coverKey.endsWith("_%s_cover.jpg".formatted(side));
+    }
+
+    private static String invalidKey(String name, String coverKey, String isbn, String side) {
+        return "%s %s is not the %s cover of the book with ISBN %s, expected %s_<title>_%s_cover.jpg or an absolute URL"
+                .formatted(name, coverKey, side, isbn, isbn, side);
+    }
+
+    private List<String> urlsOf(List<Book> books, Function<Book, String> coverKey) {
+        // Stream.toList accepts the null URLs of the books without a cover
+        return books.stream().map(book -> urlOf(coverKey.apply(book))).toList();
+    }
+}
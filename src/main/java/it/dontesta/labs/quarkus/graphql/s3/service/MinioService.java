@@ -9,9 +9,11 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -23,10 +25,12 @@ import io.minio.GetObjectArgs;
 import io.minio.GetPresignedObjectUrlArgs;
 import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
+import io.minio.ObjectWriteArgs;
 import io.minio.RemoveObjectArgs;
 import io.minio.StatObjectArgs;
 import io.minio.StatObjectResponse;
 import io.minio.UploadObjectArgs;
+import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
 import io.quarkus.logging.Log;
 import it.dontesta.labs.quarkus.graphql.exception.MinioServiceException;
@@ -38,6 +42,9 @@ import org.jboss.resteasy.reactive.multipart.FileUpload;
 @ApplicationScoped
 public class MinioService {
 
+    // The code of the error answered by MinIO for an object that does not exist
+    private static final String NO_SUCH_KEY = "NoSuchKey";
+
     private final MinioClient minioClient;
 
     @Inject
@@ -127,6 +134,76 @@ public class MinioService {
         }
     }
 
+    /**
+     * Uploads an object to a specified bucket in MinIO, streaming its content instead of
+     * buffering it. The bucket must exist, see {@link #ensureBucket(String)}.
+     *
+     * @param bucketName the name of the bucket
+     * @param objectName the name of the object
+     * @param content the content of the object, not closed
+     * @param size the length of the content, or -1 if unknown
+     * @param contentType the content type of the object
+     * @throws MinioServiceException if an error occurs during the upload
+     */
+    public void putObject(@NotEmpty @NotNull String bucketName,
+            @NotEmpty @NotNull String objectName,
+            @NotNull InputStream content, long size, @NotEmpty @NotNull String contentType) {
+
+        Log.debugf("Uploading object '%s' with %d bytes of streamed content to bucket '%s'...", objectName, size,
+                bucketName);
+
+        try {
+            // A content of unknown length is uploaded in parts of the minimum size
+            minioClient.putObject(
+                    PutObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .stream(content, size, size < 0 ? ObjectWriteArgs.MIN_MULTIPART_SIZE : -1)
+                            .contentType(contentType)
+                            .build());
+            Log.debugf("Uploaded object '%s' to bucket '%s'", objectName, bucketName);
+        } catch (Exception e) {
+            throw new MinioServiceException("Failed to upload object to MinIO", e);
+        }
+    }
+
+    /**
+     * Creates a bucket in MinIO if it does not exist yet.
+     *
+     * @param bucketName the name of the bucket
+     * @throws MinioServiceException if an error occurs during the check or the creation
+     */
+    public void ensureBucket(@NotEmpty @NotNull String bucketName) {
+        if (!bucketExists(bucketName)) {
+            makeBucket(bucketName);
+            Log.debugf("Created bucket '%s'", bucketName);
+        }
+    }
+
+    /**
+     * Retrieves the ETag of an object from a specified bucket in MinIO, without its content.
+     * The ETag of an object uploaded in a single part is the hex MD5 hash of its content.
+     *
+     * @param bucketName the name of the bucket
+     * @param objectName the name of the object
+     * @return the ETag of the object, without quotes, or empty if the object does not exist
+     * @throws MinioServiceException if an error occurs during the retrieval
+     */
+    public Optional<String> getObjectETag(@NotEmpty @NotNull String bucketName, @NotEmpty @NotNull String objectName) {
+        try {
+            StatObjectResponse stat = minioClient.statObject(
+                    StatObjectArgs.builder().bucket(bucketName).object(objectName).build());
+            return Optional.ofNullable(stat.etag()).map(etag -> etag.replace("\"", ""));
+        } catch (ErrorResponseException e) {
+            if (NO_SUCH_KEY.equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            throw new MinioServiceException("Failed to retrieve object details from MinIO", e);
+        } catch (Exception e) {
+            throw new MinioServiceException("Failed to retrieve object details from MinIO", e);
+        }
+    }
+
     /**
      * Retrieves an object from a specified bucket in MinIO.
      *
@@ -217,6 +294,34 @@ public class MinioService {
         }
     }
 
+    /**
+     * Builds a presigned URL to download an object from a specified bucket in MinIO. The URL is
+     * signed locally with the given region, without reading the region of the bucket from MinIO
+     * and without checking that the object exists.
+     *
+     * @param bucketName the name of the bucket
+     * @param objectName the name of the object
+     * @param region the region of the bucket
+     * @param expiry how long the URL is valid, at most 7 days
+     * @return the presigned URL
+     * @throws MinioServiceException if the URL cannot be signed
+     */
+    public String getPresignedObjectUrl(@NotEmpty @NotNull String bucketName, @NotEmpty @NotNull String objectName,
+            @NotEmpty @NotNull String region, @NotNull Duration expiry) {
+        try {
+            return minioClient.getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .method(Method.GET)
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .region(region)
+                            .expiry((int) expiry.toSeconds())
+                            .build());
+        } catch (Exception e) {
+            throw new MinioServiceException("Failed to sign the URL of the object", e);
+        }
+    }
+
     /**
      * Retrieves the details of an object from a specified bucket in MinIO.
      *
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.s3.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import it.dontesta.labs.quarkus.graphql.exception.MinioServiceException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Bounded cache of the presigned URLs to download the objects of MinIO.
+ *
+ * <p>
+ * The URLs are signed locally with the configured region, so that signing does not read the
+ * region of the bucket from MinIO, and each URL is reused until it is valid for less than the
+ * minimum validity: a served URL is always valid for at least that long, which should cover the
+ * time to live of the cached responses. Shortly before, the first read of a URL signs it again
+ * in the background and keeps serving the current one meanwhile, so the objects read often are
+ * never signed while reading them. The hits and the misses are exposed by the
+ * {@code s3.presigned-urls} cache metrics.
+ */
+@ApplicationScoped
+public class PresignedUrlService {
+
+    private final LoadingCache<ObjectRef, String> urls;
+
+    @Inject
+    public PresignedUrlService(MinioService minioService, MeterRegistry registry,
+            @ConfigProperty(name = "app.s3.presigned-urls.region", defaultValue = "us-east-1") String region,
+            @ConfigProperty(name = "app.s3.presigned-urls.expiry", defaultValue = "1H") Duration expiry,
+            @ConfigProperty(name = "app.s3.presigned-urls.min-validity", defaultValue = "10M") Duration minValidity,
+            @ConfigProperty(name = "app.s3.presigned-urls.refresh-ahead", defaultValue = "10M") Duration refreshAhead,
+            @ConfigProperty(name = "app.s3.presigned-urls.max-size", defaultValue = "10000") long maxSize) {
+        this(minioService, registry, region, expiry, minValidity, refreshAhead, maxSize, Ticker.systemTicker(),
+                ForkJoinPool.commonPool());
+    }
+
+    PresignedUrlService(MinioService minioService, MeterRegistry registry, String region, Duration expiry,
+            Duration minValidity, Duration refreshAhead, long maxSize, Ticker ticker, Executor executor) {
+        Duration reuse = expiry.minus(minValidity);
+        Duration refreshAfter = reuse.minus(refreshAhead);
+        if (!refreshAfter.isPositive()) {
+            throw new IllegalArgumentException(
+                    "The expiry of the presigned URLs must be longer than their minimum validity plus the refresh ahead");
+        }
+
+        this.urls = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(reuse)
+                .refreshAfterWrite(refreshAfter)
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build(object -> minioService.getPresignedObjectUrl(object.bucketName(), object.objectName(), region,
+                        expiry));
+
+        CaffeineCacheMetrics.monitor(registry, urls, "s3.presigned-urls");
+    }
+
+    /**
+     * Returns a presigned URL to download an object, signed when it is not cached or about to
+     * expire. The object is not checked to exist.
+     *
+     * @param bucketName the name of the bucket
+     * @param objectName the name of the object
+     * @return the presigned URL, valid for at least the minimum validity
+     * @throws MinioServiceException if the URL cannot be signed
+     */
+    public String urlOf(String bucketName, String objectName) {
+        return urls.get(new ObjectRef(bucketName, objectName));
+    }
+
+    /**
+     * Forgets the URL of an object, for example because the object was removed.
+     *
+     * @param bucketName the name of the bucket
+     * @param objectName the name of the object
+     */
+    public void invalidate(String bucketName, String objectName) {
+        urls.invalidate(new ObjectRef(bucketName, objectName));
+    }
+
+    private record ObjectRef(String bucketName, String objectName) {
+    }
+}
@@ -0,0 +1,484 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.CacheMode;
+
+/**
+ * Embedded full-text index of the books, on the title, the subtitle, the summary and the
+ * keywords, stored by Lucene in a directory of the local file system.
+ *
+ * <p>
+ * The searches are ranked by relevance (BM25), with the title weighing more than the subtitle
+ * and the keywords, which weigh more than the summary, and report the matching passages of the
+ * fields. They read a near-real-time view of the index, refreshed after every update, without
+ * waiting for the updates.
+ *
+ * <p>
+ * The index is kept in sync with the {@link EntityChangedEvent}s of the books: after the
+ * commit, the changed books are read again and their documents are replaced, or deleted if the
+ * books no longer exist, including the changes of the other replicas received through the
+ * outbox bus. The updates are applied by a single thread, in the order of the commits, and the
+ * updates that pile up while it is busy are applied together.
+ *
+ * <p>
+ * Every commit records the highest ID of the indexed books. The index is rebuilt at startup,
+ * before the application serves the requests, when it is stale: when the number of its books or
+ * that ID differ from the ones of the database, as after the books created or deleted while the
+ * application was stopped. The updates of that time are not detected: the index is rebuilt
+ * always if {@code rebuild-on-startup} is enabled, and on demand. A rebuild reads and indexes
+ * the ranges of IDs of the books in parallel.
+ */
+@ApplicationScoped
+public class BookSearchIndex {
+
+    static final String ID = "id";
+    static final String TITLE = "title";
+    static final String SUB_TITLE = "subTitle";
+    static final String SUMMARY = "summary";
+    static final String KEYWORDS = "keywords";
+
+    // The key of the highest ID of the indexed books in the data of the commits
+    static final String MAX_BOOK_ID = "maxBookId";
+
+    private static final String[] HIGHLIGHTED_FIELDS = { TITLE, SUB_TITLE, SUMMARY, KEYWORDS };
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(TITLE, 4f, SUB_TITLE, 2f, KEYWORDS, 2f, SUMMARY, 1f);
+    private static final List<String> INDEXED_ATTRIBUTES = List.of(TITLE, SUB_TITLE, SUMMARY, KEYWORDS);
+
+    // The offsets in the postings let the highlighter find the passages without analyzing the text again
+    private static final FieldType TEXT_TYPE = new FieldType(TextField.TYPE_STORED);
+
+    static {
+        TEXT_TYPE.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        TEXT_TYPE.freeze();
+    }
+
+    private final Optional<Path> directoryPath;
+    private final boolean rebuildOnStartup;
+    private final int rebuildThreads;
+    private final int chunkSize;
+    private final int maxPassages;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final ExecutorService updater = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("book-search-index").daemon().factory());
+    // The IDs of the books changed by the committed transactions, not yet applied
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    private final Timer searches;
+    private final Timer rebuilds;
+    private final Counter updates;
+
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    // Changed only by the updater, and by the startup before it runs
+    private long maxBookId;
+
+    @Inject
+    public BookSearchIndex(MeterRegistry registry,
+            @ConfigProperty(name = "app.books.search.index-directory") Optional<Path> directoryPath,
+            @ConfigProperty(name = "app.books.search.rebuild-on-startup", defaultValue = "false") boolean rebuildOnStartup,
+            @ConfigProperty(name = "app.books.search.rebuild-threads", defaultValue = "4") int rebuildThreads,
+            @ConfigProperty(name = "app.books.search.chunk-size", defaultValue = "500") int chunkSize,
+            @ConfigProperty(name = "app.books.search.max-passages", defaultValue = "2") int maxPassages) {
+        this.directoryPath = directoryPath;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.rebuildThreads = rebuildThreads;
+        this.chunkSize = chunkSize;
+        this.maxPassages = maxPassages;
+
+        this.searches = Timer.builder("books.search")
+                .description("The full-text searches of the books")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.rebuilds = Timer.builder("books.search.rebuild")
+                .description("The rebuilds of the full-text index of the books")
+                .register(registry);
+        this.updates = Counter.builder("books.search.updates")
+                .description("The books updated or deleted in the full-text index after a commit")
+                .register(registry);
+        Gauge.builder("books.search.documents", this, BookSearchIndex::documents)
+                .description("The books in the full-text index")
+                .register(registry);
+    }
+
+    void onStart(@Observes StartupEvent event) throws IOException, InterruptedException {
+        Directory directory;
+        if (directoryPath.isPresent()) {
+            Files.createDirectories(directoryPath.get());
+            directory = FSDirectory.open(directoryPath.get());
+        } else {
+            directory = new ByteBuffersDirectory();
+        }
+        open(directory);
+
+        Log.infof("Full-text index of the books opened in %s",
+                directoryPath.map(Path::toString).orElse("memory"));
+        if (rebuildOnStartup) {
+            rebuild();
+        } else if (isStale()) {
+            Log.info("The full-text index of the books is stale, rebuilding it");
+            rebuild();
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) throws IOException, InterruptedException {
+        updater.shutdown();
+        if (!updater.awaitTermination(30, TimeUnit.SECONDS)) {
+            Log.warn("The updates of the full-text index of the books did not complete in time");
+        }
+        if (writer != null) {
+            searcherManager.close();
+            writer.close();
+        }
+    }
+
+    /**
+     * Schedules the update of the index for the books changed by a committed transaction.
+     *
+     * @param event the change of the catalog
+     */
+    void onEntityChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) EntityChangedEvent event) {
+        if (event.type() != Book.class || event.ids().isEmpty()) {
+            return;
+        }
+        pending.addAll(event.ids());
+        updater.execute(this::applyPendingUpdates);
+    }
+
+    /**
+     * Searches the books.
+     *
+     * @param text the searched text: all of its words must match, with the syntax of the
+     *        Lucene simple query parser, for example {@code "exact phrase"}, {@code prefix*}
+     *        or {@code a | b}
+     * @param offset the number of the most relevant books to skip
+     * @param limit the maximum number of books to return
+     * @return the books found, in order of relevance
+     */
+    public BookSearchResult search(String text, int offset, int limit) {
+        return searches.record(() -> {
+            Query query = parse(text);
+            try {
+                IndexSearcher searcher = searcherManager.acquire();
+                try {
+                    // One more book tells if there is a next page
+                    TopDocs top = searcher.search(query, offset + limit + 1);
+                    ScoreDoc[] page = top.scoreDocs.length <= offset
+                            ? new ScoreDoc[0]
+                            : Arrays.copyOfRange(top.scoreDocs, offset, Math.min(top.scoreDocs.length, offset + limit));
+                    return new BookSearchResult(hitsOf(searcher, query, new TopDocs(top.totalHits, page)),
+                            top.totalHits.value, top.scoreDocs.length > offset + limit);
+                } finally {
+                    searcherManager.release(searcher);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Rebuilds the whole index from the database, after the pending updates.
+     *
+     * @return the number of indexed books
+     * @throws InterruptedException if the thread is interrupted while waiting for the rebuild
+     */
+    public long rebuild() throws InterruptedException {
+        Future<Long> rebuild = updater.submit(this::rebuildIndex);
+        try {
+            return rebuild.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Cannot rebuild the full-text index of the books", e.getCause());
+        }
+    }
+
+    /**
+     * Tells if the index missed some books created or deleted in the database: if the number of
+     * its books or the highest ID recorded by its last commit differ from the ones of the
+     * database.
+     *
+     * @return true if the index is stale
+     */
+    boolean isStale() {
+        long[] state = QuarkusTransaction.requiringNew().call(() -> {
+            long[] range = Book.findIdRange();
+            return new long[] { Book.count(), range == null ? 0 : range[1] };
+        });
+        Long committedMaxBookId = committedMaxBookId();
+        return committedMaxBookId == null
+                || writer.getDocStats().numDocs != state[0]
+                || committedMaxBookId != state[1];
+    }
+
+    /**
+     * Waits for the updates and the rebuilds scheduled so far.
+     *
+     * @throws Exception if the thread is interrupted or the wait fails
+     */
+    void awaitUpdates() throws Exception {
+        updater.submit(() -> {
+        }).get(30, TimeUnit.SECONDS);
+    }
+
+    private Query parse(String text) {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(text);
+        // The text made only of operators or of words removed by the analyzer matches nothing
+        return query == null ? new MatchNoDocsQuery() : query;
+    }
+
+    private List<BookSearchResult.Hit> hitsOf(IndexSearcher searcher, Query query, TopDocs page) throws IOException {
+        if (page.scoreDocs.length == 0) {
+            return List.of();
+        }
+
+        UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer)
+                .withMaxNoHighlightPassages(0)
+                .build();
+        int[] passages = new int[HIGHLIGHTED_FIELDS.length];
+        Arrays.fill(passages, maxPassages);
+        Map<String, String[]> fragments = highlighter.highlightFields(HIGHLIGHTED_FIELDS, query, page, passages);
+
+        List<BookSearchResult.Hit> hits = new ArrayList<>(page.scoreDocs.length);
+        for (int i = 0; i < page.scoreDocs.length; i++) {
+            ScoreDoc scoreDoc = page.scoreDocs[i];
+            String id = searcher.storedFields().document(scoreDoc.doc, Set.of(ID)).get(ID);
+
+            Map<String, List<String>> highlights = new LinkedHashMap<>();
+            for (String field : HIGHLIGHTED_FIELDS) {
+                String fragment = fragments.get(field)[i];
+                if (fragment != null) {
+                    highlights.put(field, List.of(fragment));
+                }
+            }
+            hits.add(new BookSearchResult.Hit(Long.valueOf(id), scoreDoc.score, highlights));
+        }
+        return hits;
+    }
+
+    private void applyPendingUpdates() {
+        List<Long> ids = new ArrayList<>(pending);
+        if (ids.isEmpty()) {
+            return;
+        }
+        pending.removeAll(ids);
+
+        try {
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + chunkSize));
+                Map<Long, Document> documents = QuarkusTransaction.requiringNew().call(() -> documentsOf(
+                        Book.projectBooksByIds(chunk, INDEXED_ATTRIBUTES)));
+                for (Long id : chunk) {
+                    Document document = documents.get(id);
+                    if (document == null) {
+                        writer.deleteDocuments(new Term(ID, String.valueOf(id)));
+                    } else {
+                        writer.updateDocument(new Term(ID, String.valueOf(id)), document);
+                        maxBookId = Math.max(maxBookId, id);
+                    }
+                }
+            }
+            commit();
+            updates.increment(ids.size());
+        } catch (Exception e) {
+            // The books are updated again by their next change or by the next rebuild
+            Log.errorf(e, "Cannot update the books %s in the full-text index", ids);
+        }
+    }
+
+    private long rebuildIndex() throws Exception {
+        long start = System.nanoTime();
+        long[] range = QuarkusTransaction.requiringNew().call(Book::findIdRange);
+
+        long indexed = 0;
+        try {
+            writer.deleteAll();
+            // The books created during the rebuild are indexed by their pending updates
+            maxBookId = range == null ? 0 : range[1];
+            if (range != null) {
+                int parts = (int) Math.max(1, Math.min(rebuildThreads, range[1] - range[0] + 1));
+                long width = (range[1] - range[0]) / parts + 1;
+                try (ExecutorService pool = Executors.newFixedThreadPool(parts,
+                        Thread.ofPlatform().name("book-search-rebuild-", 0).daemon().factory())) {
+                    List<Future<Long>> futures = new ArrayList<>(parts);
+                    for (long from = range[0]; from <= range[1]; from += width) {
+                        long fromId = from;
+                        long toId = Math.min(range[1], from + width - 1);
+                        futures.add(pool.submit(() -> QuarkusTransaction.requiringNew()
+                                .call(() -> indexRange(fromId, toId))));
+                    }
+                    for (Future<Long> future : futures) {
+                        indexed += future.get();
+                    }
+                }
+            }
+            commit();
+        } catch (Exception e) {
+            // The deletion and the ranges indexed so far are discarded, the index keeps its last commit
+            try {
+                reopen();
+            } catch (IOException reopenFailure) {
+                e.addSuppressed(reopenFailure);
+            }
+            throw e;
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        rebuilds.record(elapsed);
+        Log.infof("Full-text index of the books rebuilt: %d books in %d ms", indexed, elapsed.toMillis());
+        return indexed;
+    }
+
+    private long indexRange(long fromId, long toId) throws IOException {
+        // A rebuild reads every book once, it would only fill the caches
+        Panache.getSession().setCacheMode(CacheMode.IGNORE);
+
+        long indexed = 0;
+        try (Stream<Book> books = Book.streamBooksByIdRange(INDEXED_ATTRIBUTES, fromId, toId, chunkSize)) {
+            List<Book> chunk = new ArrayList<>(chunkSize);
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    writer.addDocuments(documentsOf(chunk).values());
+                    indexed += chunk.size();
+                    chunk.clear();
+                    Panache.getEntityManager().clear();
+                }
+            }
+        }
+        return indexed;
+    }
+
+    private Map<Long, Document> documentsOf(List<Book> books) {
+        Map<Long, Document> documents = new LinkedHashMap<>();
+        for (Book book : books) {
+            Document document = new Document();
+            document.add(new StringField(ID, String.valueOf(book.id), Field.Store.YES));
+            addText(document, TITLE, book.title);
+            addText(document, SUB_TITLE, book.subTitle);
+            addText(document, SUMMARY, book.summary);
+            for (String keyword : book.keywords) {
+                addText(document, KEYWORDS, keyword);
+            }
+            documents.put(book.id, document);
+        }
+        return documents;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new Field(field, value, TEXT_TYPE));
+        }
+    }
+
+    private void open(Directory directory) throws IOException {
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        Long committed = committedMaxBookId();
+        maxBookId = committed == null ? 0 : committed;
+    }
+
+    /**
+     * Reads the highest ID of the indexed books recorded by the last commit.
+     *
+     * @return the ID, or null if the index was not committed with it
+     */
+    private Long committedMaxBookId() {
+        Iterable<Map.Entry<String, String>> data = writer.getLiveCommitData();
+        if (data != null) {
+            for (Map.Entry<String, String> entry : data) {
+                if (MAX_BOOK_ID.equals(entry.getKey())) {
+                    return Long.valueOf(entry.getValue());
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Rolls back the changes not committed, closing the writer, and opens the index again.
+     */
+    private void reopen() throws IOException {
+        Directory directory = writer.getDirectory();
+        SearcherManager previous = searcherManager;
+        writer.rollback();
+        open(directory);
+        previous.close();
+    }
+
+    private void commit() throws IOException {
+        writer.setLiveCommitData(Map.of(MAX_BOOK_ID, String.valueOf(maxBookId)).entrySet());
+        writer.commit();
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    private double documents() {
+        IndexWriter current = writer;
+        return current == null || !current.isOpen() ? 0 : current.getDocStats().numDocs;
+    }
+}
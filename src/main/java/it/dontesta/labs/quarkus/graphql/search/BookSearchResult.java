@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The books found by a search of the {@link BookSearchIndex}.
+ *
+ * @param hits the books found, in order of relevance
+ * @param totalHits the number of books found, exact up to a thousand books and a lower bound beyond
+ * @param hasMore true if more books were found after the returned ones
+ */
+public record BookSearchResult(List<Hit> hits, long totalHits, boolean hasMore) {
+
+    /**
+     * A book found by a search.
+     *
+     * @param id the ID of the book
+     * @param score the relevance of the book, the higher the more relevant
+     * @param highlights the matching passages of each matching field, with the matching terms
+     *        enclosed in {@code <b>} tags
+     */
+    public record Hit(Long id, float score, Map<String, List<String>> highlights) {
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.search;
+
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.pagination.type.PageInfo;
+import it.dontesta.labs.quarkus.graphql.search.type.BookSearchConnection;
+import it.dontesta.labs.quarkus.graphql.search.type.BookSearchEdge;
+import it.dontesta.labs.quarkus.graphql.search.type.BookSearchHighlight;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Service that searches the books in the {@link BookSearchIndex} and builds the pages of the
+ * results, shared by the GraphQL and the REST API.
+ *
+ * <p>
+ * The cursor of a result is the Base64 encoding of {@code search:<position>}, its position in
+ * the order of relevance: a page reads the index again up to its last book, which costs little
+ * for the first pages, the ones read by the clients of a search.
+ */
+@ApplicationScoped
+public class BookSearchService {
+
+    private static final String CURSOR_PREFIX = "search:";
+
+    private final BookSearchIndex index;
+    private final int defaultResults;
+    private final int maxResults;
+    private final int maxPosition;
+
+    @Inject
+    public BookSearchService(BookSearchIndex index,
+            @ConfigProperty(name = "app.books.search.default-results", defaultValue = "10") int defaultResults,
+            @ConfigProperty(name = "app.books.search.max-results", defaultValue = "100") int maxResults,
+            @ConfigProperty(name = "app.books.search.max-position", defaultValue = "10000") int maxPosition) {
+        this.index = index;
+        this.defaultResults = defaultResults;
+        this.maxResults = maxResults;
+        this.maxPosition = maxPosition;
+    }
+
+    /**
+     * Searches the books and returns a page of the results.
+     *
+     * @param text the searched text
+     * @param first the number of books to return, or null for the default number
+     * @param after the cursor after which to start returning books, or null to start from the most relevant
+     * @param loader reads the books with the given IDs, in any order
+     * @return the page of the books found, in order of relevance
+     * @throws IllegalArgumentException if the arguments or the cursor are not valid
+     */
+    public BookSearchConnection search(String text, Integer first, String after,
+            Function<List<Long>, List<Book>> loader) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("The searched text must not be blank");
+        }
+        int size = first == null ? defaultResults : first;
+        if (size < 0 || size > maxResults) {
+            throw new IllegalArgumentException("The argument first must be between 0 and %d".formatted(maxResults));
+        }
+        int offset = after == null ? 0 : decode(after) + 1;
+        if (offset + size > maxPosition) {
+            throw new IllegalArgumentException(
+                    "Only the first %d books found can be read, refine the search".formatted(maxPosition));
+        }
+
+        BookSearchResult result = index.search(text, offset, size);
+        List<Long> ids = result.hits().stream().map(BookSearchResult.Hit::id).toList();
+        Map<Long, Book> books = ids.isEmpty()
+                ? Map.of()
+                : loader.apply(ids).stream().collect(Collectors.toMap(book -> book.id, Function.identity()));
+
+        List<BookSearchEdge> edges = new ArrayList<>(result.hits().size());
+        for (int i = 0; i < result.hits().size(); i++) {
+            BookSearchResult.Hit hit = result.hits().get(i);
+            Book book = books.get(hit.id());
+            // The book deleted after the search, and not yet removed from the index
+            if (book == null) {
+                continue;
+            }
+            List<BookSearchHighlight> highlights = hit.highlights().entrySet().stream()
+                    .map(entry -> BookSearchHighlight.create(entry.getKey(), entry.getValue()))
+                    .toList();
+            edges.add(BookSearchEdge.create(book, encode(offset + i), hit.score(), highlights));
+        }
+
+        String startCursor = edges.isEmpty() ? null : edges.getFirst().getCursor();
+        String endCursor = edges.isEmpty() ? null : edges.getLast().getCursor();
+        return BookSearchConnection.create(edges,
+                PageInfo.create(result.hasMore(), offset > 0, startCursor, endCursor), result.totalHits());
+    }
+
+    private static String encode(int position) {
+        return Base64.getEncoder().encodeToString((CURSOR_PREFIX + position).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("The cursor was not created by a search");
+            }
+            int position = Integer.parseInt(decoded.substring(CURSOR_PREFIX.length()));
+            if (position < 0) {
+                throw new IllegalArgumentException("The cursor was not created by a search");
+            }
+            return position;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The cursor was not created by a search", e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.search.type;
+
+import it.dontesta.labs.quarkus.graphql.pagination.type.PageInfo;
+import java.util.List;
+import org.eclipse.microprofile.graphql.Description;
+import org.eclipse.microprofile.graphql.Type;
+
+/**
+ * Represents a page of the books found by a search, in order of relevance.
+ */
+@Type
+public class BookSearchConnection {
+
+    /**
+     * A list of the edges of the found books.
+     */
+    private final List<BookSearchEdge> edges;
+
+    /**
+     * Pagination information for the connection.
+     */
+    private final PageInfo pageInfo;
+
+    /**
+     * The number of books found.
+     */
+    private final long totalCount;
+
+    /**
+     * Constructs a new BookSearchConnection instance.
+     *
+     * @param edges a list of the edges of the found books
+     * @param pageInfo pagination information for the connection
+     * @param totalCount the number of books found
+     */
+    private BookSearchConnection(List<BookSearchEdge> edges, PageInfo pageInfo, long totalCount) {
+        this.edges = edges;
+        this.pageInfo = pageInfo;
+        this.totalCount = totalCount;
+    }
+
+    /**
+     * Creates a new BookSearchConnection instance.
+     *
+     * @param edges a list of the edges of the found books
+     * @param pageInfo pagination information for the connection
+     * @param totalCount the number of books found
+     * @return a new BookSearchConnection instance
+     */
+    public static BookSearchConnection create(List<BookSearchEdge> edges, PageInfo pageInfo, long totalCount) {
+        return new BookSearchConnection(edges, pageInfo, totalCount);
+    }
+
+    /**
+     * Returns the list of the edges of the found books.
+     *
+     * @return the list of the edges
+     */
+    public List<BookSearchEdge> getEdges() {
+        return edges;
+    }
+
+    /**
+     * Returns the pagination information for the connection.
+     *
+     * @return the pagination information
+     */
+    public PageInfo getPageInfo() {
+        return pageInfo;
+    }
+
+    /**
+     * Returns the number of books found, exact up to a thousand books and a lower bound beyond.
+     *
+     * @return the number of books found
+     */
+    @Description("The number of books found, exact up to a thousand books and a lower bound beyond")
+    public long getTotalCount() {
+        return totalCount;
+    }
+}
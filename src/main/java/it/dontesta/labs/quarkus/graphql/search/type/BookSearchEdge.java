@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.search.type;
+
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import java.util.List;
+import org.eclipse.microprofile.graphql.Type;
+
+/**
+ * Represents a book found by a search, with its relevance and its matching passages.
+ */
+@Type
+public class BookSearchEdge {
+
+    /**
+     * The node of type Book.
+     */
+    private final Book node;
+
+    /**
+     * The cursor for this edge.
+     */
+    private final String cursor;
+
+    /**
+     * The relevance of the book, the higher the more relevant.
+     */
+    private final float score;
+
+    /**
+     * The passages of the fields of the book that match the searched text.
+     */
+    private final List<BookSearchHighlight> highlights;
+
+    /**
+     * Constructs a new BookSearchEdge instance.
+     *
+     * @param node the Book node
+     * @param cursor the cursor for this edge
+     * @param score the relevance of the book
+     * @param highlights the matching passages
+     */
+    private BookSearchEdge(Book node, String cursor, float score, List<BookSearchHighlight> highlights) {
+        this.node = node;
+        this.cursor = cursor;
+        this.score = score;
+        this.highlights = highlights;
+    }
+
+    /**
+     * Creates a new BookSearchEdge instance.
+     *
+     * @param node the Book node
+     * @param cursor the cursor for this edge
+     * @param score the relevance of the book
+     * @param highlights the matching passages
+     * @return a new BookSearchEdge instance
+     */
+    public static BookSearchEdge create(Book node, String cursor, float score, List<BookSearchHighlight> highlights) {
+        return new BookSearchEdge(node, cursor, score, highlights);
+    }
+
+    /**
+     * Returns the Book node.
+     *
+     * @return the Book node
+     */
+    public Book getNode() {
+        return node;
+    }
+
+    /**
+     * Returns the cursor for this edge.
+     *
+     * @return the cursor
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Returns the relevance of the book, the higher the more relevant.
+     *
+     * @return the relevance of the book
+     */
+    public float getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the passages of the fields of the book that match the searched text.
+     *
+     * @return the matching passages
+     */
+    public List<BookSearchHighlight> getHighlights() {
+        return highlights;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.search.type;
+
+import java.util.List;
+import org.eclipse.microprofile.graphql.Type;
+
+/**
+ * Represents the passages of a field of a book that match the searched text.
+ */
+@Type
+public class BookSearchHighlight {
+
+    /**
+     * The name of the field.
+     */
+    private final String field;
+
+    /**
+     * The matching passages, with the matching terms enclosed in {@code <b>} tags.
+     */
+    private final List<String> fragments;
+
+    /**
+     * Constructs a new BookSearchHighlight instance.
+     *
+     * @param field the name of the field
+     * @param fragments the matching passages
+     */
+    private BookSearchHighlight(String field, List<String> fragments) {
+        this.field = field;
+        this.fragments = fragments;
+    }
+
+    /**
+     * Creates a new BookSearchHighlight instance.
+     *
+     * @param field the name of the field
+     * @param fragments the matching passages
+     * @return a new BookSearchHighlight instance
+     */
+    public static BookSearchHighlight create(String field, List<String> fragments) {
+        return new BookSearchHighlight(field, fragments);
+    }
+
+    /**
+     * Returns the name of the field.
+     *
+     * @return the name of the field
+     */
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * Returns the matching passages, with the matching terms enclosed in {@code <b>} tags.
+     *
+     * @return the matching passages
+     */
+    public List<String> getFragments() {
+        return fragments;
+    }
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.dto;
+
+import org.eclipse.microprofile.graphql.Description;
+import org.eclipse.microprofile.graphql.NonNull;
+import org.eclipse.microprofile.graphql.Type;
+
+/**
+ * GraphQL type describing why an item of a batch mutation was not created.
+ *
+ * @param index the position of the item in the input list, starting from zero
+ * @param message the reason of the failure
+ */
+@Type("BatchItemError")
+@Description("An item of a batch mutation that was not created")
+public record BatchItemError(
+        @NonNull @Description("The position of the item in the input list, starting from zero") int index,
+        @NonNull @Description("The reason of the failure") String message) {
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.eclipse.microprofile.graphql.Description;
+import org.eclipse.microprofile.graphql.Ignore;
+import org.eclipse.microprofile.graphql.Input;
+
+/**
+ * GraphQL input used to filter the books.
+ *
+ * <p>
+ * A book matches a list when it has any of its values, and it matches the filter when it
+ * matches every given list and range. A missing or empty list, or a missing bound, does not
+ * constrain the books.
+ *
+ * @param genres the genres of the books
+ * @param languages the languages of the books
+ * @param formats the formats of the books
+ * @param editorIds the IDs of the editors of the books
+ * @param authorIds the IDs of the authors of the books
+ * @param publishedFrom the first date of publication of the books, included
+ * @param publishedTo the last date of publication of the books, included
+ * @param minPages the minimum number of pages of the books, included
+ * @param maxPages the maximum number of pages of the books, included
+ */
+@Input("BookFilter")
+@Description("The books to read: any value of a list and every list and range must match")
+public record BookFilter(List<String> genres, List<String> languages, List<String> formats, List<Long> editorIds,
+        List<Long> authorIds, LocalDate publishedFrom, LocalDate publishedTo, Integer minPages, Integer maxPages) {
+
+    /**
+     * Tells if the filter constrains only the facets of the books: the genre, the language, the
+     * format and the editor.
+     *
+     * @return true if the filter constrains only the facets
+     */
+    @Ignore
+    public boolean isOnlyFacets() {
+        return (authorIds == null || authorIds.isEmpty()) && publishedFrom == null && publishedTo == null
+                && minPages == null && maxPages == null;
+    }
+}
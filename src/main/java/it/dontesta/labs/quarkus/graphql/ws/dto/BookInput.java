@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.dto;
+
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Author;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Editor;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.microprofile.graphql.Description;
+import org.eclipse.microprofile.graphql.Input;
+
+/**
+ * GraphQL input used to create a book.
+ *
+ * <p>
+ * The associations of the {@link Book} entity are resolved on output by the batched
+ * {@code @Source} resolvers, so they are excluded from the entity type and exposed here.
+ *
+ * <p>
+ * The covers are set by their keys. The URLs of the covers, set before the keys were stored,
+ * are still accepted in the input so that an older client gets an error instead of a book
+ * created without its covers.
+ */
+@Input("BookInput")
+@Description("The data of the book to create")
+public record BookInput(String title, String subTitle, String isbn, Integer pages, String summary,
+        LocalDate publication, String genre, String frontCoverImageKey, String backCoverImageKey,
+        List<String> languages, List<String> formats, List<String> keywords, List<Author> authors,
+        Editor editor,
+        @Description("Deprecated, not supported anymore: set the frontCoverImageKey") String frontCoverImageUrl,
+        @Description("Deprecated, not supported anymore: set the backCoverImageKey") String backCoverImageUrl) {
+
+    /**
+     * Checks that the input does not set the URLs of the covers, which are not supported anymore.
+     *
+     * @return the messages of the URLs set, empty if the input sets the keys of the covers only
+     */
+    public List<String> violations() {
+        List<String> violations = new ArrayList<>();
+        if (frontCoverImageUrl != null) {
+            violations.add("frontCoverImageUrl is not supported anymore, set the frontCoverImageKey");
+        }
+        if (backCoverImageUrl != null) {
+            violations.add("backCoverImageUrl is not supported anymore, set the backCoverImageKey");
+        }
+        return violations;
+    }
+
+    /**
+     * Creates a new, not yet persisted, Book entity from this input.
+     *
+     * @return the Book entity
+     */
+    public Book toEntity() {
+        Book book = new Book();
+        book.title = title;
+        book.subTitle = subTitle;
+        book.isbn = isbn;
+        book.pages = pages;
+        book.summary = summary;
+        book.publication = publication;
+        book.genre = genre;
+        book.frontCoverImageKey = frontCoverImageKey;
+        book.backCoverImageKey = backCoverImageKey;
+        book.languages = languages;
+        book.formats = formats;
+        book.keywords = keywords;
+        book.authors = authors;
+        book.editor = editor;
+        return book;
+    }
+}
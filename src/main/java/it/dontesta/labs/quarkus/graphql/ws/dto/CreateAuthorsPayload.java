@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.dto;
+
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Author;
+import java.util.List;
+import org.eclipse.microprofile.graphql.Description;
+import org.eclipse.microprofile.graphql.NonNull;
+import org.eclipse.microprofile.graphql.Type;
+
+/**
+ * GraphQL type returned by the {@code createAuthors} mutation.
+ *
+ * @param authors the created authors, in the order of the input, with null for the items not created
+ * @param errors the items not created
+ */
+@Type("CreateAuthorsPayload")
+@Description("The result of the createAuthors mutation")
+public record CreateAuthorsPayload(
+        @NonNull @Description("The created authors, in the order of the input, null for the items not created") List<Author> authors,
+        @NonNull @Description("The items not created") List<@NonNull BatchItemError> errors) {
+}
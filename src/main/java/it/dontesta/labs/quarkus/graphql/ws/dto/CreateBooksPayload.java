@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.dto;
+
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import java.util.List;
+import org.eclipse.microprofile.graphql.Description;
+import org.eclipse.microprofile.graphql.NonNull;
+import org.eclipse.microprofile.graphql.Type;
+
+/**
+ * GraphQL type returned by the {@code createBooks} mutation.
+ *
+ * @param books the created books, in the order of the input, with null for the items not created
+ * @param errors the items not created
+ */
+@Type("CreateBooksPayload")
+@Description("The result of the createBooks mutation")
+public record CreateBooksPayload(
+        @NonNull @Description("The created books, in the order of the input, null for the items not created") List<Book> books,
+        @NonNull @Description("The items not created") List<@NonNull BatchItemError> errors) {
+}
@@ -4,21 +4,54 @@
  */
 package it.dontesta.labs.quarkus.graphql.ws.graphql.api;
 
+import io.smallrye.graphql.api.Context;
+import it.dontesta.labs.quarkus.graphql.app.concurrency.ConcurrencyLimited;
+import it.dontesta.labs.quarkus.graphql.orm.panache.batch.ColumnConstraints;
+import it.dontesta.labs.quarkus.graphql.orm.panache.batch.KeyedResults;
 import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Author;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
+import it.dontesta.labs.quarkus.graphql.ws.dto.BatchItemError;
+import it.dontesta.labs.quarkus.graphql.ws.dto.CreateAuthorsPayload;
+import it.dontesta.labs.quarkus.graphql.ws.graphql.selection.SelectedFields;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.graphql.*;
 
 import java.util.List;
 
 @GraphQLApi
 @ApplicationScoped
+@ConcurrencyLimited
 public class AuthorGraphQL {
 
+    private final Context context;
+    private final Event<EntityChangedEvent> entityChanged;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final int maxBatchItems;
+
+    @Inject
+    public AuthorGraphQL(Context context, Event<EntityChangedEvent> entityChanged, EntityManager entityManager,
+            Validator validator,
+            @ConfigProperty(name = "app.graphql.batch.max-items", defaultValue = "1000") int maxBatchItems) {
+        this.context = context;
+        this.entityChanged = entityChanged;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.maxBatchItems = maxBatchItems;
+    }
+
     @Query
     @Description("Get all authors")
     public List<Author> allAuthors() {
-        return Author.findAllAuthors();
+        return Author.projectAllAuthors(SelectedFields.of(context));
     }
 
     @Query
@@ -35,9 +68,55 @@ public class AuthorGraphQL {
         // because it is a Panache entity.
         // Extend this method to handle the detached entity as needed.
         author.persist();
+        entityChanged.fire(EntityChangedEvent.created(Author.class));
         return author;
     }
 
+    /**
+     * Creates many authors in a single transaction, with the inserts sent to the database in
+     * JDBC batches when the transaction commits. An author whose values are not valid is not
+     * created and is reported in the errors, without affecting the other authors.
+     *
+     * @param authors the authors to create
+     * @return the created authors and the errors of the authors not created
+     * @throws GraphQLException if there are more authors than the maximum of a batch
+     */
+    @Mutation
+    @Description("Create many authors in one transaction, reporting the authors not created")
+    @Transactional
+    public CreateAuthorsPayload createAuthors(@Name("authors") @NonNull List<@NonNull Author> authors)
+            throws GraphQLException {
+        if (authors.size() > maxBatchItems) {
+            throw new GraphQLException("Too many authors in the batch, the maximum is %d".formatted(maxBatchItems));
+        }
+
+        List<Author> results = new ArrayList<>(authors.size());
+        List<BatchItemError> errors = new ArrayList<>();
+        for (int i = 0; i < authors.size(); i++) {
+            Author author = authors.get(i);
+            // Checked here, a value rejected while flushing would fail the whole batch
+            List<String> violations = new ArrayList<>(ColumnConstraints.violationsOf(author));
+            if (author.id != null) {
+                violations.add("id must not be set on a new author");
+            }
+            validator.validate(author).forEach(violation -> violations.add(
+                    "%s %s".formatted(violation.getPropertyPath(), violation.getMessage())));
+            if (!violations.isEmpty()) {
+                errors.add(new BatchItemError(i, String.join("; ", violations)));
+                results.add(null);
+                continue;
+            }
+
+            entityManager.persist(author);
+            results.add(author);
+        }
+
+        if (errors.size() < authors.size()) {
+            entityChanged.fire(EntityChangedEvent.created(Author.class));
+        }
+        return new CreateAuthorsPayload(results, errors);
+    }
+
     @Mutation
     @Description("Delete an author by id")
     @Transactional
@@ -52,6 +131,18 @@ public class AuthorGraphQL {
         author.sex = authorData.sex;
         author.birthDate = authorData.birthDate;
         author.persist();
+        entityChanged.fire(EntityChangedEvent.changed(Author.class, author.id));
         return author;
     }
-}
\ No newline at end of file
+
+    /**
+     * Resolves the books of a list of authors with a single query.
+     *
+     * @param authors the authors whose books are to be resolved
+     * @return the books of each author, in the same order of the authors
+     */
+    @Description("The books of the author")
+    public List<List<Book>> books(@Source List<Author> authors) {
+        return KeyedResults.alignTo(authors, Book.mapBooksByAuthorIds(KeyedResults.idsOf(authors)), List.of());
+    }
+}
@@ -4,94 +4,233 @@
  */
 package it.dontesta.labs.quarkus.graphql.ws.graphql.api;
 
-import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.smallrye.graphql.api.Context;
 import io.smallrye.graphql.api.Subscription;
 import io.smallrye.mutiny.Multi;
-import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+import it.dontesta.labs.quarkus.graphql.app.concurrency.ConcurrencyLimited;
+import it.dontesta.labs.quarkus.graphql.exception.MissingReferenceException;
+import it.dontesta.labs.quarkus.graphql.facet.BookFacetIndex;
+import it.dontesta.labs.quarkus.graphql.facet.type.BookFacets;
+import it.dontesta.labs.quarkus.graphql.orm.panache.batch.BookReferenceResolver;
+import it.dontesta.labs.quarkus.graphql.orm.panache.batch.ColumnConstraints;
+import it.dontesta.labs.quarkus.graphql.orm.panache.batch.KeyedResults;
 import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Author;
 import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
 import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Editor;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
+import it.dontesta.labs.quarkus.graphql.pagination.count.BookCountService;
+import it.dontesta.labs.quarkus.graphql.pagination.filter.BookCondition;
+import it.dontesta.labs.quarkus.graphql.pagination.filter.BookFilterCompiler;
+import it.dontesta.labs.quarkus.graphql.pagination.keyset.BookKeysetPaginator;
 import it.dontesta.labs.quarkus.graphql.pagination.type.BookConnection;
-import it.dontesta.labs.quarkus.graphql.pagination.type.BookEdge;
-import it.dontesta.labs.quarkus.graphql.pagination.type.PageInfo;
+import it.dontesta.labs.quarkus.graphql.pagination.type.BookSortField;
+import it.dontesta.labs.quarkus.graphql.s3.service.BookCoverUrlService;
+import it.dontesta.labs.quarkus.graphql.search.BookSearchService;
+import it.dontesta.labs.quarkus.graphql.search.type.BookSearchConnection;
+import it.dontesta.labs.quarkus.graphql.ws.dto.BatchItemError;
+import it.dontesta.labs.quarkus.graphql.ws.dto.BookFilter;
+import it.dontesta.labs.quarkus.graphql.ws.dto.BookInput;
+import it.dontesta.labs.quarkus.graphql.ws.dto.CreateBooksPayload;
+import it.dontesta.labs.quarkus.graphql.ws.graphql.cache.NoResponseCache;
+import it.dontesta.labs.quarkus.graphql.ws.graphql.selection.SelectedFields;
+import it.dontesta.labs.quarkus.graphql.ws.graphql.subscription.BookCreatedBroadcaster;
+import it.dontesta.labs.quarkus.graphql.ws.graphql.subscription.BookCreatedFilter;
+import it.dontesta.labs.quarkus.graphql.ws.graphql.subscription.bus.BookEventBus;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
-import jakarta.validation.constraints.NotEmpty;
-import jakarta.validation.constraints.NotNull;
+import jakarta.validation.Validator;
 import java.util.ArrayList;
-import java.util.Base64;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.graphql.*;
+import org.roaringbitmap.RoaringBitmap;
 
 import java.util.List;
 
 @GraphQLApi
 @ApplicationScoped
+@ConcurrencyLimited
 public class BookGraphQL {
 
     private final EntityManager entityManager;
+    private final BookCountService bookCountService;
+    private final Context context;
+    private final Event<EntityChangedEvent> entityChanged;
+    private final BookCreatedBroadcaster bookCreatedBroadcaster;
+    private final BookEventBus bookEventBus;
+    private final BookReferenceResolver referenceResolver;
+    private final BookSearchService bookSearchService;
+    private final BookFacetIndex bookFacetIndex;
+    private final BookCoverUrlService bookCoverUrls;
+    private final Validator validator;
+    private final int maxBatchItems;
+    private final int maxFacetIds;
+    private final int maxPageSize;
 
     @Inject
-    public BookGraphQL(EntityManager entityManager) {
+    public BookGraphQL(EntityManager entityManager, BookCountService bookCountService, Context context,
+            Event<EntityChangedEvent> entityChanged, BookCreatedBroadcaster bookCreatedBroadcaster,
+            BookEventBus bookEventBus, BookReferenceResolver referenceResolver,
+            BookSearchService bookSearchService, BookFacetIndex bookFacetIndex, BookCoverUrlService bookCoverUrls,
+            Validator validator,
+            @ConfigProperty(name = "app.graphql.batch.max-items", defaultValue = "1000") int maxBatchItems,
+            @ConfigProperty(name = "app.books.facets.max-ids", defaultValue = "1000") int maxFacetIds,
+            @ConfigProperty(name = "app.books.max-page-size", defaultValue = "100") int maxPageSize) {
         this.entityManager = entityManager;
+        this.bookCountService = bookCountService;
+        this.context = context;
+        this.entityChanged = entityChanged;
+        this.bookCreatedBroadcaster = bookCreatedBroadcaster;
+        this.bookEventBus = bookEventBus;
+        this.referenceResolver = referenceResolver;
+        this.bookSearchService = bookSearchService;
+        this.bookFacetIndex = bookFacetIndex;
+        this.bookCoverUrls = bookCoverUrls;
+        this.validator = validator;
+        this.maxBatchItems = maxBatchItems;
+        this.maxFacetIds = maxFacetIds;
+        this.maxPageSize = maxPageSize;
     }
 
     /**
-     * Retrieves a paginated list of books.
+     * Retrieves a page of books with keyset pagination. The books that match a filter of only the
+     * facets are found in the bitmaps of the {@link BookFacetIndex}, then only the books of the
+     * page are read; any other filter is compiled by the {@link BookFilterCompiler} and pushed
+     * down to the query of the page.
      *
-     * @param first the number of books to retrieve
+     * @param first the number of books to retrieve after the cursor
      * @param after the cursor after which to start retrieving books
+     * @param last the number of books to retrieve before the cursor
+     * @param before the cursor before which to start retrieving books
+     * @param orderBy the field used to sort the books
+     * @param filter the books to retrieve, or null for all the books
      * @return a BookConnection containing the list of books and pagination information
-     * @throws GraphQLException if an error occurs during retrieval
+     * @throws GraphQLException if the arguments or the cursor are not valid
      */
     @Query
-    public BookConnection books(@Name("first") int first,
-            @NotEmpty @NotNull @Name("after") String after)
+    public BookConnection books(@Name("first") Integer first,
+            @Name("after") String after,
+            @Name("last") Integer last,
+            @Name("before") String before,
+            @Name("orderBy") @DefaultValue("ID") BookSortField orderBy,
+            @Name("filter") BookFilter filter)
             throws GraphQLException {
-
-        int startIndex;
-
-        // Decode the cursor to get the start index
         try {
-            String decoded = new String(Base64.getDecoder().decode(after));
-            startIndex = Integer.parseInt(decoded) + 1;
+            if (filter == null) {
+                return BookKeysetPaginator.paginate(first, after, last, before, orderBy,
+                        SelectedFields.of(context, "edges/node/*"), maxPageSize);
+            }
+            if (filter.isOnlyFacets()) {
+                RoaringBitmap matching = bookFacetIndex.matching(filter);
+                return BookKeysetPaginator.paginate(first, after, last, before, orderBy,
+                        SelectedFields.of(context, "edges/node/*"), maxPageSize, bookFacetIndex.restrictTo(matching))
+                        .withFilteredCount(matching::getLongCardinality);
+            }
+            BookCondition condition = BookFilterCompiler.compile(filter, orderBy);
+            return BookKeysetPaginator.paginate(first, after, last, before, orderBy,
+                    SelectedFields.of(context, "edges/node/*"), maxPageSize,
+                    (sortField, boundaryId, backward, limit) -> condition)
+                    .withFilteredCount(() -> Book.countBooks(condition.jpql(), condition.parameters()));
         } catch (IllegalArgumentException e) {
-            throw new GraphQLException("Invalid cursor format", e);
+            throw new GraphQLException(e.getMessage(), e);
         }
+    }
 
-        // Query Panache to get the books
-        PanacheQuery<Book> query = Book.findAllBooks();
-        List<Book> books = query.range(startIndex, startIndex + first - 1).list();
+    /**
+     * Retrieves the total number of books of the connection. Being a source field, the count
+     * runs only when {@code totalCount} is in the selection set.
+     *
+     * @param connection the books connection
+     * @return the total number of books
+     */
+    @Description("The total number of books, approximated unless the exact count is enabled or the books are filtered")
+    public Long totalCount(@Source BookConnection connection) {
+        if (connection.getFilteredCount() != null) {
+            return connection.getFilteredCount().get();
+        }
+        return bookCountService.totalCount();
+    }
 
-        // Create the edges response with the cursor
-        List<BookEdge> edges = books.stream()
-                .map(book -> {
-                    String cursor = Base64.getEncoder().encodeToString(String.valueOf(book.id).getBytes());
-                    return BookEdge.create(book, cursor);
-                })
-                .toList();
+    /**
+     * Counts the books that match a filter by genre, language, format and editor, in memory on
+     * the bitmaps of the {@link BookFacetIndex}. The bitmaps are updated right after the commit
+     * of the changes, so the responses are not cached.
+     *
+     * @param filter the values of the facets of the books to count, or null for all the books
+     * @return the number of the books that match the filter, by value of each facet
+     * @throws GraphQLException if the filter constrains more than the facets
+     */
+    @Query
+    @Description("Count the books that match a filter by genre, language, format and editor")
+    @NoResponseCache
+    public BookFacets bookFacets(@Name("filter") BookFilter filter) throws GraphQLException {
+        if (filter != null && !filter.isOnlyFacets()) {
+            throw new GraphQLException("The facets are filtered only by genre, language, format and editor");
+        }
+        return bookFacetIndex.facets(filter);
+    }
 
-        // Check if there are more pages
-        String endCursor = edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor();
-        boolean hasNextPage = (startIndex + first) < query.count();
+    /**
+     * Retrieves the IDs of the books that match the filter of the facets, in ascending order.
+     *
+     * @param facets the facets of the books
+     * @param first the maximum number of IDs to retrieve
+     * @return the IDs of the books
+     * @throws GraphQLException if first is not valid
+     */
+    @Description("The IDs of the books that match the filter, in ascending order")
+    public List<Long> bookIds(@Source BookFacets facets, @Name("first") @DefaultValue("100") int first)
+            throws GraphQLException {
+        if (first < 0 || first > maxFacetIds) {
+            throw new GraphQLException("The argument first must be between 0 and %d".formatted(maxFacetIds));
+        }
+        return BookFacetIndex.idsAfter(facets.getMatching(), null, first);
+    }
 
-        return BookConnection.create(edges, PageInfo.create(hasNextPage, endCursor));
+    /**
+     * Searches the books by the words of their title, subtitle, summary and keywords, in order
+     * of relevance, reading only the columns selected by the client. The index of the search
+     * is updated right after the commit of the changes, so the responses are not cached.
+     *
+     * @param text the searched text, all of its words must match
+     * @param first the number of books to retrieve after the cursor
+     * @param after the cursor after which to start retrieving books
+     * @return a BookSearchConnection containing the books found, their relevance and their matching passages
+     * @throws GraphQLException if the arguments or the cursor are not valid
+     */
+    @Query
+    @Description("Search the books by the words of their title, subtitle, summary and keywords")
+    @NoResponseCache
+    public BookSearchConnection searchBooks(@Name("text") @NonNull String text,
+            @Name("first") Integer first,
+            @Name("after") String after)
+            throws GraphQLException {
+        try {
+            return bookSearchService.search(text, first, after,
+                    ids -> Book.projectBooksByIds(ids, SelectedFields.of(context, "edges/node/*")));
+        } catch (IllegalArgumentException e) {
+            throw new GraphQLException(e.getMessage(), e);
+        }
     }
 
     /**
-     * Retrieves all books.
+     * Retrieves all books, reading only the columns selected by the client.
      *
      * @return a list of all books
      */
     @Query
     @Description("Get all books")
     public List<Book> allBooks() {
-        return Book.findAllBooksList();
+        return Book.projectAllBooks(SelectedFields.of(context));
     }
 
     /**
-     * Retrieves a book by its ID.
+     * Retrieves a book by its ID, reading only the columns selected by the client.
      *
      * @param id the ID of the book to retrieve
      * @return the book with the specified ID
@@ -99,35 +238,141 @@ public class BookGraphQL {
     @Query
     @Description("Get a book by id")
     public Book getBook(@Name("bookId") Long id) {
-        return Book.findBookById(id);
+        return Book.projectBookById(id, SelectedFields.of(context));
+    }
+
+    /**
+     * Retrieves a book by its ISBN, from the natural id cache or with the unique index of the ISBN.
+     *
+     * @param isbn the ISBN of the book to retrieve
+     * @return the book with the specified ISBN, or null if no such book exists
+     */
+    @Query
+    @Description("Get a book by ISBN")
+    public Book getBookByIsbn(@Name("isbn") @NonNull String isbn) {
+        return Book.findBookByIsbn(isbn);
     }
 
     /**
      * Creates a new book and notifies subscribers.
      *
-     * @param book the book to create
+     * @param bookInput the book to create
      * @return the created book
-     * @throws GraphQLException if an error occurs during creation
+     * @throws GraphQLException if an error occurs during creation, or if a key of a cover is not
+     *         a cover of the book
      */
     @Mutation
     @Description("Create a new book")
     @Transactional
-    public Book createBook(Book book) throws GraphQLException {
+    public Book createBook(@Name("book") BookInput bookInput) throws GraphQLException {
+        Book book = bookInput.toEntity();
+        List<String> violations = new ArrayList<>(bookInput.violations());
+        violations.addAll(bookCoverUrls.violationsOf(book));
+        if (!violations.isEmpty()) {
+            throw new GraphQLException(String.join("; ", violations));
+        }
+        boolean newEditor = book.editor != null && book.editor.id == null;
+        boolean newAuthors = book.authors != null && book.authors.stream().anyMatch(author -> author.id == null);
 
-        // Handle the editor and authors
-        handleEditor(book);
-        handleAuthors(book);
+        // Replace the editor and authors referenced by ID with the managed entities
+        try {
+            referenceResolver.resolve(book);
+        } catch (MissingReferenceException e) {
+            throw new GraphQLException(e.getMessage(), e);
+        }
+        if (book.isbn != null && Book.findBookByIsbn(book.isbn) != null) {
+            throw new GraphQLException(duplicateIsbn(book.isbn));
+        }
 
         // Persist the book and flush to get the ID
         entityManager.persist(book);
         entityManager.flush();
+        entityChanged.fire(EntityChangedEvent.created(Book.class, List.of(book)));
+        if (newEditor) {
+            entityChanged.fire(EntityChangedEvent.created(Editor.class));
+        }
+        if (newAuthors) {
+            entityChanged.fire(EntityChangedEvent.created(Author.class));
+        }
 
-        // Notify subscribers
-        processor.onNext(book);
+        // Notify the subscribers of every replica after the commit, without waiting for the delivery
+        bookEventBus.publish(book);
 
         return book;
     }
 
+    /**
+     * Creates many books in a single transaction. The editors and authors referenced by ID are
+     * read with one query each, every book is checked before being persisted and the inserts
+     * are sent to the database in JDBC batches when the transaction commits.
+     *
+     * <p>
+     * A book that references a missing editor or author, or whose values are not valid, is not
+     * created and is reported in the errors, without affecting the other books.
+     *
+     * @param bookInputs the books to create
+     * @return the created books and the errors of the books not created
+     * @throws GraphQLException if there are more books than the maximum of a batch
+     */
+    @Mutation
+    @Description("Create many books in one transaction, reporting the books not created")
+    @Transactional
+    public CreateBooksPayload createBooks(@Name("books") @NonNull List<@NonNull BookInput> bookInputs)
+            throws GraphQLException {
+        if (bookInputs.size() > maxBatchItems) {
+            throw new GraphQLException("Too many books in the batch, the maximum is %d".formatted(maxBatchItems));
+        }
+
+        List<Book> books = bookInputs.stream().map(BookInput::toEntity).toList();
+        List<List<String>> missingReferences = referenceResolver.resolveAll(books);
+        Set<String> isbns = new HashSet<>(Book.findExistingIsbns(books.stream()
+                .map(book -> book.isbn).filter(Objects::nonNull).distinct().toList()));
+
+        List<Book> created = new ArrayList<>(books.size());
+        List<Book> results = new ArrayList<>(books.size());
+        List<BatchItemError> errors = new ArrayList<>();
+        boolean newEditors = false;
+        boolean newAuthors = false;
+        for (int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            List<String> violations = missingReferences.get(i);
+            if (violations.isEmpty()) {
+                violations = bookInputs.get(i).violations();
+            }
+            if (violations.isEmpty()) {
+                violations = violationsOf(book);
+            }
+            // The ISBN of a book already in the catalog or earlier in the batch
+            if (violations.isEmpty() && book.isbn != null && !isbns.add(book.isbn)) {
+                violations = List.of(duplicateIsbn(book.isbn));
+            }
+            if (!violations.isEmpty()) {
+                errors.add(new BatchItemError(i, String.join("; ", violations)));
+                results.add(null);
+                continue;
+            }
+
+            newEditors |= book.editor != null && book.editor.id == null;
+            newAuthors |= book.authors != null && book.authors.stream().anyMatch(author -> author.id == null);
+            // The ID comes from the pooled sequence, the insert waits for the batched flush
+            entityManager.persist(book);
+            created.add(book);
+            results.add(book);
+        }
+
+        if (!created.isEmpty()) {
+            entityChanged.fire(EntityChangedEvent.created(Book.class, created));
+            if (newEditors) {
+                entityChanged.fire(EntityChangedEvent.created(Editor.class));
+            }
+            if (newAuthors) {
+                entityChanged.fire(EntityChangedEvent.created(Author.class));
+            }
+            bookEventBus.publishAll(created);
+        }
+        return new CreateBooksPayload(results, errors);
+    }
+
     /**
      * Adds authors to a book by its ID.
      *
@@ -141,65 +386,118 @@ public class BookGraphQL {
     @Transactional
     public Book addAuthorsToBook(@Name("bookId") Long bookId, List<Long> authorIds)
             throws GraphQLException {
-        Book book = getBook(bookId);
+        Book book = Book.findBookById(bookId);
         if (book == null) {
             throw new GraphQLException("Book not found with Id %d".formatted(bookId));
         }
-        List<Author> authors = Author.listByAuthorList("id in ?1", authorIds);
+        List<Author> authors;
+        try {
+            authors = referenceResolver.resolveAuthors(authorIds);
+        } catch (MissingReferenceException e) {
+            throw new GraphQLException(e.getMessage(), e);
+        }
         book.authors.addAll(authors);
+        entityChanged.fire(EntityChangedEvent.changed(Book.class, bookId));
+        entityChanged.fire(EntityChangedEvent.changed(Author.class, authors));
         return book;
     }
 
     /**
-     * Subscription method to notify subscribers when a new book is created.
+     * Subscription method to notify subscribers when a new book is created. The books are
+     * filtered on the server: a book is delivered when it matches every given argument.
      *
+     * @param genre the genre of the books
+     * @param editorId the ID of the editor of the books
+     * @param authorIds the IDs of the authors, the books must have at least one of them
+     * @param keywords the keywords, the books must have at least one of them
+     * @param language the language the books must be available in
      * @return a Multi stream of Book objects representing the created books
      */
     @Subscription
-    public Multi<Book> bookCreated() {
-        return processor;
+    public Multi<Book> bookCreated(@Name("genre") String genre,
+            @Name("editorId") Long editorId,
+            @Name("authorIds") List<Long> authorIds,
+            @Name("keywords") List<String> keywords,
+            @Name("language") String language) {
+        return bookCreatedBroadcaster.subscribe(
+                new BookCreatedFilter(genre, editorId, authorIds, keywords, language));
     }
 
     /**
-     * Handles the editor of a book.
+     * Resolves the authors of a page of books with a single query.
      *
-     * @param book the book whose editor is to be handled
-     * @throws GraphQLException if the editor is not found
+     * @param books the books whose authors are to be resolved
+     * @return the authors of each book, in the same order of the books
      */
-    private void handleEditor(Book book) throws GraphQLException {
-        if (book.editor != null && book.editor.id != null) {
-            Editor foundEditor = Editor.findEditorById(book.editor.id);
-            if (foundEditor == null) {
-                throw new GraphQLException("Editor not found with Id %d".formatted(book.editor.id));
-            }
-            book.editor = foundEditor;
-        }
+    @Description("The authors of the book")
+    public List<List<Author>> authors(@Source List<Book> books) {
+        return KeyedResults.alignTo(books, Author.mapAuthorsByBookIds(KeyedResults.idsOf(books)), List.of());
     }
 
     /**
-     * Handles the authors of a book.
+     * Resolves the editor of a page of books with a single query.
      *
-     * @param book the book whose authors are to be handled
-     * @throws GraphQLException if any author is not found
+     * @param books the books whose editor is to be resolved
+     * @return the editor of each book, in the same order of the books
      */
-    private void handleAuthors(Book book) throws GraphQLException {
+    @Description("The editor of the book")
+    public List<Editor> editor(@Source List<Book> books) {
+        return KeyedResults.alignTo(books, Editor.mapEditorsByBookIds(KeyedResults.idsOf(books)), null);
+    }
+
+    /**
+     * Resolves the URLs of the front covers of a page of books, presigned from the keys of the
+     * covers without reading MinIO.
+     *
+     * @param books the books whose front cover is to be resolved
+     * @return the URL of the front cover of each book, in the same order of the books
+     */
+    @Description("The URL of the front cover of the book, valid for a limited time")
+    public List<String> frontCoverImageUrl(@Source List<Book> books) {
+        return bookCoverUrls.frontCoverUrlsOf(books);
+    }
+
+    /**
+     * Resolves the URLs of the back covers of a page of books, presigned from the keys of the
+     * covers without reading MinIO.
+     *
+     * @param books the books whose back cover is to be resolved
+     * @return the URL of the back cover of each book, in the same order of the books
+     */
+    @Description("The URL of the back cover of the book, valid for a limited time")
+    public List<String> backCoverImageUrl(@Source List<Book> books) {
+        return bookCoverUrls.backCoverUrlsOf(books);
+    }
+
+    private static String duplicateIsbn(String isbn) {
+        return "A book with ISBN %s already exists".formatted(isbn);
+    }
+
+    /**
+     * Checks a book, and its new editor and authors, against the column constraints and the
+     * bean validation constraints, which would otherwise fail the whole batch while flushing,
+     * and the keys of its covers.
+     *
+     * @param book the book to check
+     * @return the messages of the violations
+     */
+    private List<String> violationsOf(Book book) {
+        List<Object> entities = new ArrayList<>();
+        entities.add(book);
+        if (book.editor != null && book.editor.id == null) {
+            entities.add(book.editor);
+        }
         if (book.authors != null) {
-            List<Author> updatedAuthors = new ArrayList<>();
-            for (Author author : book.authors) {
-                if (author.id != null) {
-                    Author foundAuthor = Author.findAuthorById(author.id);
-                    if (foundAuthor == null) {
-                        throw new GraphQLException("Author not found with Id %d".formatted(author.id));
-                    }
-                    updatedAuthors.add(foundAuthor);
-                }
-            }
-            if (!updatedAuthors.isEmpty()) {
-                book.authors = updatedAuthors;
-            }
+            book.authors.stream().filter(author -> author.id == null).forEach(entities::add);
         }
-    }
 
-    // Broadcast processor to notify subscribers
-    private final BroadcastProcessor<Book> processor = BroadcastProcessor.create();
-}
\ No newline at end of file
+        List<String> violations = new ArrayList<>();
+        for (Object entity : entities) {
+            violations.addAll(ColumnConstraints.violationsOf(entity));
+            validator.validate(entity).forEach(violation -> violations.add(
+                    "%s %s".formatted(violation.getPropertyPath(), violation.getMessage())));
+        }
+        violations.addAll(bookCoverUrls.violationsOf(book));
+        return violations;
+    }
+}
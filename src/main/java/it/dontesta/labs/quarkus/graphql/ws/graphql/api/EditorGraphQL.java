@@ -4,8 +4,16 @@
  */
 package it.dontesta.labs.quarkus.graphql.ws.graphql.api;
 
+import io.smallrye.graphql.api.Context;
+import it.dontesta.labs.quarkus.graphql.app.concurrency.ConcurrencyLimited;
+import it.dontesta.labs.quarkus.graphql.orm.panache.batch.KeyedResults;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
 import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Editor;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
+import it.dontesta.labs.quarkus.graphql.ws.graphql.selection.SelectedFields;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
 import org.eclipse.microprofile.graphql.*;
@@ -14,12 +22,22 @@ import java.util.List;
 
 @GraphQLApi
 @ApplicationScoped
+@ConcurrencyLimited
 public class EditorGraphQL {
 
+    private final Context context;
+    private final Event<EntityChangedEvent> entityChanged;
+
+    @Inject
+    public EditorGraphQL(Context context, Event<EntityChangedEvent> entityChanged) {
+        this.context = context;
+        this.entityChanged = entityChanged;
+    }
+
     @Query
     @Description("Get all editors")
     public List<Editor> allEditors() {
-        return Editor.listAllEditors();
+        return Editor.projectAllEditors(SelectedFields.of(context));
     }
 
     @Query
@@ -36,6 +54,7 @@ public class EditorGraphQL {
         // because it is a Panache entity.
         // Extend this method to handle the detached entity as needed.
         editor.persist();
+        entityChanged.fire(EntityChangedEvent.created(Editor.class));
         return editor;
     }
 
@@ -49,6 +68,18 @@ public class EditorGraphQL {
         }
         editor.name = editorData.name;
         editor.persist();
+        entityChanged.fire(EntityChangedEvent.changed(Editor.class, editor.id));
         return editor;
     }
-}
\ No newline at end of file
+
+    /**
+     * Resolves the books of a list of editors with a single query.
+     *
+     * @param editors the editors whose books are to be resolved
+     * @return the books of each editor, in the same order of the editors
+     */
+    @Description("The books of the editor")
+    public List<List<Book>> books(@Source List<Editor> editors) {
+        return KeyedResults.alignTo(editors, Book.mapBooksByEditorIds(KeyedResults.idsOf(editors)), List.of());
+    }
+}
@@ -8,6 +8,7 @@ import io.smallrye.mutiny.Uni;
 import it.dontesta.labs.quarkus.graphql.exception.MinioServiceException;
 import it.dontesta.labs.quarkus.graphql.s3.service.MinioService;
 import it.dontesta.labs.quarkus.graphql.ws.dto.FileDTO;
+import it.dontesta.labs.quarkus.graphql.ws.graphql.cache.NoResponseCache;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import java.util.Base64;
@@ -32,6 +33,7 @@ public class FileGraphQL {
 
     @Query("getFile")
     @Description("Obtain a file from the S3 bucket")
+    @NoResponseCache
     public Uni<FileDTO> getFile(@Name("objectName") String objectName,
             @Name("bucketName") String bucketName) {
 
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.cache;
+
+import graphql.ExecutionResult;
+import graphql.execution.AsyncExecutionStrategy;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionStrategy;
+import graphql.execution.ExecutionStrategyParameters;
+import io.smallrye.graphql.execution.error.ExceptionHandler;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Execution strategy of the queries that answers from the {@link ResponseCache} and stores
+ * the results of the cacheable operations, delegating the execution to the strategy
+ * configured by SmallRye GraphQL.
+ *
+ * <p>
+ * It extends {@link AsyncExecutionStrategy}, so that graphql-java keeps dispatching the data
+ * loaders of the batched resolvers level by level. The selections of the nested objects are
+ * executed by this strategy, so their errors are handled by the exception handler of SmallRye
+ * GraphQL, as in the delegate, which hides the messages of the unexpected exceptions.
+ */
+class CachingExecutionStrategy extends AsyncExecutionStrategy {
+
+    private final ResponseCache cache;
+    private final ExecutionStrategy delegate;
+
+    CachingExecutionStrategy(ResponseCache cache, ExecutionStrategy delegate) {
+        super(new ExceptionHandler());
+        this.cache = cache;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> execute(ExecutionContext executionContext,
+            ExecutionStrategyParameters parameters) {
+        if (!cache.isCacheable(executionContext)) {
+            return delegate.execute(executionContext, parameters);
+        }
+
+        String key = cache.keyOf(executionContext);
+        ExecutionResult cached = cache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        long generation = cache.generation();
+        Set<String> tags = ConcurrentHashMap.newKeySet();
+        executionContext.getGraphQLContext().put(ResponseCache.TAGS_KEY, tags);
+
+        return delegate.execute(executionContext, parameters).thenApply(result -> {
+            if (result.getErrors().isEmpty()) {
+                cache.put(key, result, tags, generation);
+            }
+            return result;
+        });
+    }
+}
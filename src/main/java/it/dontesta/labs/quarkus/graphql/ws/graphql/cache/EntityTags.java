@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.cache;
+
+import graphql.execution.DataFetcherResult;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLOutputType;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.hibernate.proxy.HibernateProxy;
+
+/**
+ * Utility methods to compute the tags of the cached responses.
+ *
+ * <p>
+ * A response is tagged with {@code <type>:<id>} for every entity it contains, for example
+ * {@code book:3}, and with {@code <type>} for every list of entities or missing entity of
+ * that type, for example {@code book} for {@code allBooks} or for the {@code books}
+ * connection, which may change when an entity of that type is created.
+ */
+final class EntityTags {
+
+    private static final String SEPARATOR = ":";
+    private static final String CONNECTION_SUFFIX = "Connection";
+    private static final List<String> CONTAINER_SUFFIXES = List.of(CONNECTION_SUFFIX, "Edge");
+
+    private EntityTags() {
+    }
+
+    /**
+     * Adds the tags of the value fetched for a field.
+     *
+     * @param fieldType the output type of the field
+     * @param value the fetched value
+     * @param tags the tags of the response
+     */
+    static void collect(GraphQLOutputType fieldType, Object value, Set<String> tags) {
+        GraphQLType type = GraphQLTypeUtil.unwrapAll(fieldType);
+        if (type instanceof GraphQLObjectType objectType
+                && (value == null || GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(fieldType))
+                        || objectType.getName().endsWith(CONNECTION_SUFFIX))) {
+            tags.add(typeTag(objectType.getName()));
+        }
+        collectEntities(value, tags);
+    }
+
+    /**
+     * Returns the tags to invalidate for a change of the catalog.
+     *
+     * @param event the change of the catalog
+     * @return the tags of the responses to invalidate
+     */
+    static List<String> of(EntityChangedEvent event) {
+        String typeTag = typeTag(event.type().getSimpleName());
+
+        List<String> tags = new ArrayList<>(event.ids().size() + 1);
+        if (event.created()) {
+            tags.add(typeTag);
+        }
+        for (Long id : event.ids()) {
+            tags.add(typeTag + SEPARATOR + id);
+        }
+        return tags;
+    }
+
+    private static void collectEntities(Object value, Set<String> tags) {
+        if (value instanceof DataFetcherResult<?> result) {
+            collectEntities(result.getData(), tags);
+        } else if (value instanceof Iterable<?> values) {
+            for (Object element : values) {
+                collectEntities(element, tags);
+            }
+        } else if (value instanceof HibernateProxy proxy) {
+            // Read the type and the id without initializing the proxy
+            tags.add(typeTag(proxy.getHibernateLazyInitializer().getPersistentClass().getSimpleName())
+                    + SEPARATOR + proxy.getHibernateLazyInitializer().getIdentifier());
+        } else if (value instanceof PanacheEntity entity && entity.id != null) {
+            tags.add(typeTag(entity.getClass().getSimpleName()) + SEPARATOR + entity.id);
+        }
+    }
+
+    private static String typeTag(String typeName) {
+        String name = typeName;
+        for (String suffix : CONTAINER_SUFFIXES) {
+            if (name.endsWith(suffix)) {
+                name = name.substring(0, name.length() - suffix.length());
+            }
+        }
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.cache;
+
+import static io.smallrye.graphql.api.DirectiveLocation.FIELD_DEFINITION;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import io.smallrye.graphql.api.Directive;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import org.eclipse.microprofile.graphql.Description;
+
+/**
+ * Excludes a query from the response cache: the operations that select the annotated field
+ * are always executed. The annotation is exposed in the schema as the
+ * {@code @noResponseCache} directive.
+ */
+@Directive(on = FIELD_DEFINITION)
+@Description("The operations that select this field are not cached")
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface NoResponseCache {
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
+import graphql.GraphQL;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.language.AstPrinter;
+import graphql.language.Field;
+import graphql.language.Selection;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLOutputType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.logging.Log;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
+import it.dontesta.labs.quarkus.graphql.ws.graphql.persisted.PersistedQueryStore;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Opt-in cache of the responses of the GraphQL queries.
+ *
+ * <p>
+ * The responses are keyed by the normalized document, the operation name and the variables,
+ * and tagged with the entities they contain (see {@link EntityTags}). When the GraphQL or REST
+ * endpoints change the catalog they fire an {@link EntityChangedEvent} and, after the commit,
+ * only the responses with the affected tags are evicted. The cache is bounded in size and in
+ * time to live, the hits and the misses are exposed by the {@code graphql.responses} cache
+ * metrics. The queries that select a field annotated with {@link NoResponseCache} are never
+ * cached.
+ *
+ * <p>
+ * The key does not include the identity of the caller, so the cache must not be enabled for
+ * operations whose result depends on it.
+ */
+@ApplicationScoped
+public class ResponseCache {
+
+    static final String TAGS_KEY = ResponseCache.class.getName() + ".tags";
+
+    private static final String DIRECTIVE_NAME = "noResponseCache";
+
+    private final boolean enabled;
+    private final Cache<String, CachedResponse> responses;
+    private final Map<String, Set<String>> keysByTag = new ConcurrentHashMap<>();
+
+    // Incremented on every invalidation, so that a response read before a change is not cached after it
+    private final AtomicLong generation = new AtomicLong();
+
+    @Inject
+    public ResponseCache(MeterRegistry registry,
+            @ConfigProperty(name = "app.graphql.response-cache.enabled", defaultValue = "false") boolean enabled,
+            @ConfigProperty(name = "app.graphql.response-cache.max-size", defaultValue = "500") long maxSize,
+            @ConfigProperty(name = "app.graphql.response-cache.ttl", defaultValue = "5M") Duration ttl) {
+        this.enabled = enabled;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .executor(Runnable::run)
+                .removalListener((String key, CachedResponse response, RemovalCause cause) -> {
+                    // A replaced response is indexed again with the tags of the new one
+                    if (key != null && response != null && cause != RemovalCause.REPLACED) {
+                        unindex(key, response.tags());
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(registry, responses, "graphql.responses");
+    }
+
+    /**
+     * Sets the caching strategy of the queries and the instrumentation that collects the tags
+     * of the responses on the GraphQL builder.
+     *
+     * <p>
+     * Every observer of the builder wraps the strategy set by the observers before it: the
+     * execution on virtual threads or the reactive one ({@code APPLICATION}), then the
+     * incremental delivery ({@code APPLICATION + 100}) and last the response cache
+     * ({@code APPLICATION + 200}). The caching strategy is the outermost, so that a cached
+     * response is answered without admitting the operation or moving it to another thread.
+     *
+     * @param builder the GraphQL builder, before the GraphQL instance is built
+     */
+    void register(@Observes @Priority(Interceptor.Priority.APPLICATION + 200) GraphQL.Builder builder) {
+        if (!enabled) {
+            return;
+        }
+
+        GraphQL current = builder.build();
+        builder.queryExecutionStrategy(new CachingExecutionStrategy(this, current.getQueryStrategy()));
+        builder.instrumentation(new ChainedInstrumentation(current.getInstrumentation(), new TagsInstrumentation()));
+        Log.info("GraphQL response cache enabled");
+    }
+
+    /**
+     * Evicts the responses affected by a change of the catalog, after the commit of the transaction.
+     *
+     * @param event the change of the catalog
+     */
+    void onEntityChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) EntityChangedEvent event) {
+        invalidate(EntityTags.of(event));
+    }
+
+    /**
+     * Evicts the responses with any of the given tags.
+     *
+     * @param tags the tags, for example {@code book} or {@code book:3}
+     */
+    public void invalidate(Collection<String> tags) {
+        generation.incrementAndGet();
+        for (String tag : tags) {
+            Set<String> keys = keysByTag.remove(tag);
+            if (keys != null) {
+                responses.invalidateAll(keys);
+            }
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    boolean isCacheable(ExecutionContext executionContext) {
+        // The deferred fragments are resolved after the strategy, they would be missing from the cached response
+        if (executionContext.getGraphQLContext().getBoolean(ExperimentalApi.ENABLE_INCREMENTAL_SUPPORT, false)) {
+            return false;
+        }
+        for (Selection<?> selection : executionContext.getOperationDefinition().getSelectionSet().getSelections()) {
+            if (!(selection instanceof Field field)) {
+                return false;
+            }
+            GraphQLFieldDefinition definition = executionContext.getGraphQLSchema().getQueryType()
+                    .getFieldDefinition(field.getName());
+            // SmallRye GraphQL attaches the directives of the schema with the legacy API
+            if (definition != null && definition.getDirective(DIRECTIVE_NAME) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String keyOf(ExecutionContext executionContext) {
+        String key = String.join("\n",
+                AstPrinter.printAstCompact(executionContext.getDocument()),
+                String.valueOf(executionContext.getOperationDefinition().getName()),
+                new TreeMap<>(executionContext.getCoercedVariables().toMap()).toString());
+        return PersistedQueryStore.hashOf(key);
+    }
+
+    ExecutionResult get(String key) {
+        CachedResponse response = responses.getIfPresent(key);
+        return response == null ? null : response.result();
+    }
+
+    long generation() {
+        return generation.get();
+    }
+
+    void put(String key, ExecutionResult result, Set<String> tags, long readGeneration) {
+        Set<String> responseTags = Set.copyOf(tags);
+        for (String tag : responseTags) {
+            keysByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        responses.put(key, new CachedResponse(result, responseTags));
+
+        // The catalog changed while the response was being read
+        if (generation.get() != readGeneration) {
+            responses.invalidate(key);
+        }
+    }
+
+    private void unindex(String key, Set<String> tags) {
+        for (String tag : tags) {
+            keysByTag.computeIfPresent(tag, (t, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    /**
+     * A cached response with its tags.
+     */
+    private record CachedResponse(ExecutionResult result, Set<String> tags) {
+    }
+
+    /**
+     * Collects the tags of the values fetched by the operations being cached.
+     */
+    private static final class TagsInstrumentation extends SimplePerformantInstrumentation {
+
+        @Override
+        public InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters,
+                InstrumentationState state) {
+            Set<String> tags = parameters.getExecutionContext().getGraphQLContext().get(TAGS_KEY);
+            if (tags == null) {
+                return SimpleInstrumentationContext.noOp();
+            }
+
+            GraphQLOutputType type = parameters.getField().getType();
+            return SimpleInstrumentationContext.whenCompleted((value, throwable) -> EntityTags.collect(type, value, tags));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.cost;
+
+/**
+ * The static cost of a GraphQL operation, estimated before its execution.
+ *
+ * @param depth the maximum depth of the selected fields
+ * @param cost the number of field resolutions that may hit the database, weighted by the size of the lists
+ * @param nodes the estimated number of values in the response
+ */
+public record QueryCost(int depth, long cost, long nodes) {
+}
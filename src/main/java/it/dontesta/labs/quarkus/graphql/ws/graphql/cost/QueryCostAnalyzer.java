@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.cost;
+
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.CoercedVariables;
+import graphql.language.Document;
+import graphql.schema.GraphQLOutputType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeUtil;
+import graphql.util.TraversalControl;
+
+/**
+ * Static analyzer that estimates the {@link QueryCost} of a GraphQL operation from its
+ * document, without executing it.
+ *
+ * <p>
+ * Every field is resolved once for each element of the lists that contain it. The size of a
+ * list field is the value of its {@code first} or {@code last} argument, or of the argument of
+ * the parent field for the {@code edges} of a connection, otherwise the configured expected
+ * size. The cost counts one unit for each resolution of a field that returns an object or a
+ * list, the fields that may read the database; the scalar fields are free. The nodes are all
+ * the values of the response. The introspection fields are not counted.
+ */
+public class QueryCostAnalyzer {
+
+    private static final String FIRST = "first";
+    private static final String LAST = "last";
+    private static final String INTROSPECTION_PREFIX = "__";
+
+    private final int expectedListSize;
+
+    /**
+     * Creates a new analyzer.
+     *
+     * @param expectedListSize the size of the list fields without a {@code first} or {@code last} argument
+     */
+    public QueryCostAnalyzer(int expectedListSize) {
+        this.expectedListSize = expectedListSize;
+    }
+
+    /**
+     * Estimates the cost of an operation.
+     *
+     * @param schema the schema
+     * @param document the parsed document
+     * @param operationName the name of the operation to analyze, or null if the document has only one
+     * @param variables the coerced variables of the operation
+     * @return the cost of the operation
+     */
+    public QueryCost analyze(GraphQLSchema schema, Document document, String operationName,
+            CoercedVariables variables) {
+        QueryTraverser traverser = QueryTraverser.newQueryTraverser()
+                .schema(schema)
+                .document(document)
+                .operationName(operationName)
+                .coercedVariables(variables)
+                .build();
+
+        Totals totals = new Totals();
+        traverser.visitPreOrder(new QueryVisitorStub() {
+            @Override
+            public TraversalControl visitFieldWithControl(QueryVisitorFieldEnvironment environment) {
+                if (environment.getField().getName().startsWith(INTROSPECTION_PREFIX)) {
+                    return TraversalControl.ABORT;
+                }
+                totals.add(environment);
+                return TraversalControl.CONTINUE;
+            }
+        });
+        return new QueryCost(totals.depth, totals.cost, totals.nodes);
+    }
+
+    private long instancesOf(QueryVisitorFieldEnvironment environment) {
+        long instances = 1;
+        for (QueryVisitorFieldEnvironment parent = environment.getParentEnvironment(); parent != null;
+                parent = parent.getParentEnvironment()) {
+            instances = multiply(instances, sizeOf(parent));
+        }
+        return instances;
+    }
+
+    private long sizeOf(QueryVisitorFieldEnvironment environment) {
+        if (!GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(environment.getFieldDefinition().getType()))) {
+            return 1;
+        }
+
+        Integer size = pageSizeOf(environment);
+        if (size == null && environment.getParentEnvironment() != null) {
+            size = pageSizeOf(environment.getParentEnvironment());
+        }
+        return size == null ? expectedListSize : Math.max(size, 0);
+    }
+
+    private static Integer pageSizeOf(QueryVisitorFieldEnvironment environment) {
+        Object first = environment.getArguments().get(FIRST);
+        Object last = environment.getArguments().get(LAST);
+        Object size = first != null ? first : last;
+        return size instanceof Number number ? number.intValue() : null;
+    }
+
+    private static int depthOf(QueryVisitorFieldEnvironment environment) {
+        int depth = 0;
+        for (QueryVisitorFieldEnvironment current = environment; current != null;
+                current = current.getParentEnvironment()) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private static long multiply(long a, long b) {
+        try {
+            return Math.multiplyExact(a, b);
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static long add(long a, long b) {
+        try {
+            return Math.addExact(a, b);
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * The running totals of the analysis.
+     */
+    private final class Totals {
+        private int depth;
+        private long cost;
+        private long nodes;
+
+        void add(QueryVisitorFieldEnvironment environment) {
+            GraphQLOutputType type = environment.getFieldDefinition().getType();
+            long instances = instancesOf(environment);
+
+            depth = Math.max(depth, depthOf(environment));
+            nodes = QueryCostAnalyzer.add(nodes, multiply(instances, sizeOf(environment)));
+            if (!GraphQLTypeUtil.isLeaf(type) || GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(type))) {
+                cost = QueryCostAnalyzer.add(cost, instances);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.cost;
+
+import graphql.ErrorClassification;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Admission control of the GraphQL operations based on their static cost.
+ *
+ * <p>
+ * Before an operation is executed its cost is estimated by the {@link QueryCostAnalyzer} and
+ * compared with the configured limits of depth, cost and response nodes. An operation over
+ * budget is rejected before any resolver runs, with an error whose extensions carry the
+ * {@code QUERY_COST_LIMIT_EXCEEDED} code, the exceeded limit and the estimated cost. The cost
+ * of every operation is recorded in the {@code graphql.operation.cost} distribution summary,
+ * tagged with the type of the operation, and the rejections in the
+ * {@code graphql.operation.rejected} counter. The name of the operation, chosen by the client,
+ * is only logged: as a tag it would let any client create new time series.
+ *
+ * <p>
+ * The instrumentation is chained to the ones configured by SmallRye GraphQL (for example the
+ * {@code max-query-depth} and {@code max-query-complexity} instrumentations) when the GraphQL
+ * instance is built.
+ */
+@ApplicationScoped
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+
+    static final String ERROR_CODE = "QUERY_COST_LIMIT_EXCEEDED";
+
+    private static final String ANONYMOUS_OPERATION = "anonymous";
+
+    private final MeterRegistry registry;
+    private final QueryCostAnalyzer analyzer;
+    private final boolean enabled;
+    private final int maxDepth;
+    private final long maxCost;
+    private final long maxNodes;
+
+    @Inject
+    public QueryCostInstrumentation(MeterRegistry registry,
+            @ConfigProperty(name = "app.graphql.cost.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "app.graphql.cost.max-depth", defaultValue = "10") int maxDepth,
+            @ConfigProperty(name = "app.graphql.cost.max-cost", defaultValue = "2000") long maxCost,
+            @ConfigProperty(name = "app.graphql.cost.max-nodes", defaultValue = "20000") long maxNodes,
+            @ConfigProperty(name = "app.graphql.cost.expected-list-size", defaultValue = "20") int expectedListSize) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.maxDepth = maxDepth;
+        this.maxCost = maxCost;
+        this.maxNodes = maxNodes;
+        this.analyzer = new QueryCostAnalyzer(expectedListSize);
+    }
+
+    /**
+     * Chains this instrumentation to the ones already set on the GraphQL builder.
+     *
+     * @param builder the GraphQL builder, before the GraphQL instance is built
+     */
+    void register(@Observes GraphQL.Builder builder) {
+        if (!enabled) {
+            return;
+        }
+
+        // The builder does not expose the instrumentation set by SmallRye GraphQL, the built
+        // instance does
+        Instrumentation current = builder.build().getInstrumentation();
+        builder.instrumentation(new ChainedInstrumentation(current, this));
+        Log.infof("GraphQL cost limits enabled: max depth %d, max cost %d, max nodes %d",
+                maxDepth, maxCost, maxNodes);
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        ExecutionContext executionContext = parameters.getExecutionContext();
+        String operationName = executionContext.getOperationDefinition().getName();
+
+        QueryCost cost = analyzer.analyze(executionContext.getGraphQLSchema(), executionContext.getDocument(),
+                operationName, executionContext.getCoercedVariables());
+
+        String operation = operationName == null ? ANONYMOUS_OPERATION : operationName;
+        String type = executionContext.getOperationDefinition().getOperation().name().toLowerCase(Locale.ROOT);
+        DistributionSummary.builder("graphql.operation.cost")
+                .description("The static cost of the GraphQL operations")
+                .tag("type", type)
+                .register(registry)
+                .record(cost.cost());
+
+        if (cost.depth() > maxDepth) {
+            throw reject(operation, type, cost, "depth", maxDepth, cost.depth());
+        }
+        if (cost.cost() > maxCost) {
+            throw reject(operation, type, cost, "cost", maxCost, cost.cost());
+        }
+        if (cost.nodes() > maxNodes) {
+            throw reject(operation, type, cost, "nodes", maxNodes, cost.nodes());
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    private AbortExecutionException reject(String operation, String type, QueryCost cost, String limit, long max,
+            long actual) {
+        Counter.builder("graphql.operation.rejected")
+                .description("The GraphQL operations rejected because over the cost limits")
+                .tag("type", type)
+                .tag("limit", limit)
+                .register(registry)
+                .increment();
+        Log.debugf("GraphQL operation %s rejected: %s %d exceeds the maximum %d", operation, limit, actual, max);
+
+        Map<String, Object> extensions = new LinkedHashMap<>();
+        extensions.put("code", ERROR_CODE);
+        extensions.put("limit", limit);
+        extensions.put("maximum", max);
+        extensions.put("actual", actual);
+        extensions.put("depth", cost.depth());
+        extensions.put("cost", cost.cost());
+        extensions.put("nodes", cost.nodes());
+
+        GraphQLError error = GraphqlErrorBuilder.newError()
+                .message("The operation %s exceeds the maximum %s: %d > %d", operation, limit, actual, max)
+                .errorType(ErrorClassification.errorClassification(ERROR_CODE))
+                .extensions(extensions)
+                .build();
+        return new AbortExecutionException(List.of(error));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.execution;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The permits of the operations executed concurrently, acquired without blocking a thread.
+ *
+ * <p>
+ * An operation that finds no free permit waits in order of arrival as a future, completed when
+ * a permit is released, or failed with a {@link java.util.concurrent.TimeoutException} when the
+ * wait exceeds the timeout. A permit released is handed over to the first operation still
+ * waiting, skipping the ones that timed out.
+ */
+class OperationPermits {
+
+    private final int maxConcurrent;
+    private final long acquireTimeoutNanos;
+    private final Deque<CompletableFuture<Void>> queue = new ArrayDeque<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private int active;
+
+    OperationPermits(int maxConcurrent, Duration acquireTimeout) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("The maximum concurrency must be greater than zero");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    /**
+     * Acquires a permit.
+     *
+     * @return a future completed when the permit is acquired
+     */
+    CompletableFuture<Void> acquire() {
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        synchronized (this) {
+            if (active < maxConcurrent) {
+                active++;
+                permit.complete(null);
+                return permit;
+            }
+            queue.add(permit);
+        }
+        waiting.incrementAndGet();
+        permit.whenComplete((ignored, failure) -> waiting.decrementAndGet());
+        return permit.orTimeout(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Releases a permit, handing it over to the first operation waiting for one.
+     */
+    void release() {
+        while (true) {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                next = queue.poll();
+                if (next == null) {
+                    active--;
+                    return;
+                }
+            }
+            // Fails if the operation timed out in the meantime
+            if (next.complete(null)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of operations waiting for a permit.
+     *
+     * @return the number of operations waiting
+     */
+    int waiting() {
+        return waiting.get();
+    }
+
+    /**
+     * Returns the number of permits acquired.
+     *
+     * @return the number of operations running
+     */
+    synchronized int active() {
+        return active;
+    }
+}
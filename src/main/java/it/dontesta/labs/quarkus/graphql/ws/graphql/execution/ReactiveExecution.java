@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.execution;
+
+import graphql.GraphQL;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+import io.quarkus.virtual.threads.VirtualThreads;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Executes the GraphQL queries and mutations reactively, when {@code app.graphql.execution} is
+ * {@code reactive}.
+ *
+ * <p>
+ * In the default {@code blocking} execution every operation holds a thread of the worker pool,
+ * or a virtual thread, from the read of the request to the response, also while it waits for a
+ * connection of the datasource: at high concurrency the threads run out long before the CPU or
+ * the database. In the {@code reactive} execution an operation waits for one of the
+ * {@code app.concurrency-limit.max-concurrent} permits as a pending {@code Uni}, without a
+ * thread, and only the admitted operations run their resolvers, on the worker pool or on
+ * virtual threads when they are enabled. The operations that wait longer than the
+ * {@code app.concurrency-limit.acquire-timeout} are rejected.
+ *
+ * <p>
+ * The entities are read with Hibernate ORM and JDBC in both executions: Hibernate Reactive
+ * cannot share the persistence unit of the Panache entities and has no driver for H2.
+ */
+@ApplicationScoped
+public class ReactiveExecution {
+
+    private final OperationPermits permits;
+    private final Executor executor;
+    private final boolean enabled;
+    private final Timer wait;
+    private final Counter rejected;
+
+    @Inject
+    public ReactiveExecution(@VirtualThreads ExecutorService virtualThreads,
+            @ConfigProperty(name = "quarkus.virtual-threads.enabled", defaultValue = "true") boolean virtualThreadsEnabled,
+            @ConfigProperty(name = "app.graphql.execution", defaultValue = "blocking") String execution,
+            @ConfigProperty(name = "app.concurrency-limit.max-concurrent", defaultValue = "20") int maxConcurrent,
+            @ConfigProperty(name = "app.concurrency-limit.acquire-timeout", defaultValue = "5s") Duration acquireTimeout,
+            MeterRegistry registry) {
+        this.enabled = isReactive(execution);
+        this.permits = new OperationPermits(maxConcurrent, acquireTimeout);
+        this.executor = virtualThreadsEnabled ? virtualThreads : Infrastructure.getDefaultWorkerPool();
+
+        Gauge.builder("graphql.execution.active", permits, OperationPermits::active)
+                .description("The GraphQL operations admitted by the reactive execution")
+                .register(registry);
+        Gauge.builder("graphql.execution.waiting", permits, OperationPermits::waiting)
+                .description("The GraphQL operations waiting to be admitted by the reactive execution")
+                .register(registry);
+        this.wait = Timer.builder("graphql.execution.wait")
+                .description("The time waited by the GraphQL operations to be admitted by the reactive execution")
+                .register(registry);
+        this.rejected = Counter.builder("graphql.execution.rejected")
+                .description("The GraphQL operations rejected because they were not admitted within the timeout")
+                .register(registry);
+    }
+
+    /**
+     * Tells whether an execution is the reactive one.
+     *
+     * @param execution the value of {@code app.graphql.execution}
+     * @return true if the execution is {@code reactive}
+     * @throws IllegalArgumentException if the execution is neither {@code blocking} nor {@code reactive}
+     */
+    static boolean isReactive(String execution) {
+        return switch (execution) {
+            case "blocking" -> false;
+            case "reactive" -> true;
+            default -> throw new IllegalArgumentException(
+                    "Unknown GraphQL execution " + execution + ", expected blocking or reactive");
+        };
+    }
+
+    /**
+     * Sets the strategies that admit the queries and the mutations reactively on the GraphQL
+     * builder.
+     *
+     * @param builder the GraphQL builder, before the GraphQL instance is built
+     */
+    void register(@Observes @Priority(Interceptor.Priority.APPLICATION) GraphQL.Builder builder) {
+        if (!enabled) {
+            return;
+        }
+
+        GraphQL current = builder.build();
+        builder.queryExecutionStrategy(
+                new ReactiveExecutionStrategy(permits, executor, current.getQueryStrategy(), wait, rejected));
+        builder.mutationExecutionStrategy(
+                new ReactiveExecutionStrategy(permits, executor, current.getMutationStrategy(), wait, rejected));
+        Log.info("GraphQL operations run reactively");
+    }
+}
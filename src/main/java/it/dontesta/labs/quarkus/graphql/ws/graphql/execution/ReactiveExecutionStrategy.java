@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.execution;
+
+import graphql.ExecutionResult;
+import graphql.execution.AsyncExecutionStrategy;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionStrategy;
+import graphql.execution.ExecutionStrategyParameters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.graphql.execution.error.ExceptionHandler;
+import io.smallrye.mutiny.Uni;
+import it.dontesta.labs.quarkus.graphql.exception.ConcurrencyLimitExceededException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Execution strategy that admits the operation when one of the permits is free, without
+ * holding a thread while it waits, then runs it on the executor, delegating the execution to the
+ * strategy configured by SmallRye GraphQL.
+ *
+ * <p>
+ * The data fetchers of SmallRye GraphQL run the blocking resolvers on the worker pool, unless
+ * the {@code runBlocking} entry of the GraphQL context tells them that the operation already
+ * runs on a thread that can block: the entry is set, so that the resolvers run in place on the
+ * thread of the admitted operation. The selections of the nested objects are executed by the
+ * same strategy, in place once the operation is admitted, and their errors are handled by the
+ * exception handler of SmallRye GraphQL, as in the delegate.
+ */
+class ReactiveExecutionStrategy extends AsyncExecutionStrategy {
+
+    // The entry of the GraphQL context read by the data fetchers of SmallRye GraphQL
+    static final String RUN_BLOCKING_KEY = "runBlocking";
+
+    // The entry of the GraphQL context set when the operation holds a permit
+    static final String ADMITTED_KEY = ReactiveExecutionStrategy.class.getName() + ".admitted";
+
+    private final OperationPermits permits;
+    private final Executor executor;
+    private final ExecutionStrategy delegate;
+    private final Timer wait;
+    private final Counter rejected;
+
+    ReactiveExecutionStrategy(OperationPermits permits, Executor executor, ExecutionStrategy delegate, Timer wait,
+            Counter rejected) {
+        super(new ExceptionHandler());
+        this.permits = permits;
+        this.executor = executor;
+        this.delegate = delegate;
+        this.wait = wait;
+        this.rejected = rejected;
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> execute(ExecutionContext executionContext,
+            ExecutionStrategyParameters parameters) {
+        if (executionContext.getGraphQLContext().hasKey(ADMITTED_KEY)) {
+            return delegate.execute(executionContext, parameters);
+        }
+
+        Timer.Sample sample = Timer.start();
+        return Uni.createFrom().completionStage(permits::acquire)
+                .onItemOrFailure().invoke(() -> sample.stop(wait))
+                .onFailure(TimeoutException.class).transform(e -> {
+                    rejected.increment();
+                    return new ConcurrencyLimitExceededException(
+                            "Too many concurrent operations, no permit was free in time");
+                })
+                // The permit is often released by the thread of another operation, the resolvers run on the executor
+                .emitOn(executor)
+                .chain(() -> {
+                    executionContext.getGraphQLContext().put(ADMITTED_KEY, true);
+                    executionContext.getGraphQLContext().put(RUN_BLOCKING_KEY, true);
+                    return Uni.createFrom().completionStage(() -> delegate.execute(executionContext, parameters))
+                            .eventually(permits::release);
+                })
+                .subscribeAsCompletionStage();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.execution;
+
+import graphql.GraphQL;
+import io.quarkus.logging.Log;
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import java.util.concurrent.ExecutorService;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Runs the GraphQL queries and mutations on virtual threads, when the virtual threads are
+ * enabled with {@code quarkus.virtual-threads.enabled}.
+ *
+ * <p>
+ * SmallRye GraphQL executes the blocking resolvers on the thread that executes the operation,
+ * a thread of the worker pool: the operation is executed on a new virtual thread instead, and
+ * the worker thread is released as soon as the request is read. The REST resources run on
+ * virtual threads with {@code @RunOnVirtualThread}, which SmallRye GraphQL does not support.
+ *
+ * <p>
+ * In the reactive execution the {@link ReactiveExecution} runs the admitted operations on the
+ * virtual threads instead.
+ *
+ * <p>
+ * The observer runs before the one of the response cache, so that the cached responses are
+ * answered without starting a virtual thread.
+ */
+@ApplicationScoped
+public class VirtualThreadExecution {
+
+    private final ExecutorService executor;
+    private final boolean enabled;
+
+    @Inject
+    public VirtualThreadExecution(@VirtualThreads ExecutorService executor,
+            @ConfigProperty(name = "quarkus.virtual-threads.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "app.graphql.execution", defaultValue = "blocking") String execution) {
+        this.executor = executor;
+        this.enabled = enabled && !ReactiveExecution.isReactive(execution);
+    }
+
+    /**
+     * Sets the strategies that run the queries and the mutations on virtual threads on the
+     * GraphQL builder.
+     *
+     * @param builder the GraphQL builder, before the GraphQL instance is built
+     */
+    void register(@Observes @Priority(Interceptor.Priority.APPLICATION) GraphQL.Builder builder) {
+        if (!enabled) {
+            return;
+        }
+
+        GraphQL current = builder.build();
+        builder.queryExecutionStrategy(new VirtualThreadExecutionStrategy(executor, current.getQueryStrategy()));
+        builder.mutationExecutionStrategy(new VirtualThreadExecutionStrategy(executor, current.getMutationStrategy()));
+        Log.info("GraphQL operations run on virtual threads");
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.execution;
+
+import graphql.ExecutionResult;
+import graphql.execution.AsyncExecutionStrategy;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionStrategy;
+import graphql.execution.ExecutionStrategyParameters;
+import io.smallrye.graphql.execution.error.ExceptionHandler;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Execution strategy that runs the operation on a virtual thread, delegating the execution to
+ * the strategy configured by SmallRye GraphQL.
+ *
+ * <p>
+ * The data fetchers of SmallRye GraphQL run the blocking resolvers on the worker pool, unless
+ * the {@code runBlocking} entry of the GraphQL context tells them that the operation already
+ * runs on a thread that can block: the entry is set, so that the resolvers run in place, on the
+ * virtual thread of the operation. The strategy of the queries executes the selections of the
+ * nested objects too: they are already on the virtual thread and are executed in place, and
+ * their errors are handled by the exception handler of SmallRye GraphQL, as in the delegate.
+ */
+class VirtualThreadExecutionStrategy extends AsyncExecutionStrategy {
+
+    // The entry of the GraphQL context read by the data fetchers of SmallRye GraphQL
+    static final String RUN_BLOCKING_KEY = "runBlocking";
+
+    private final Executor executor;
+    private final ExecutionStrategy delegate;
+
+    VirtualThreadExecutionStrategy(Executor executor, ExecutionStrategy delegate) {
+        super(new ExceptionHandler());
+        this.executor = executor;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> execute(ExecutionContext executionContext,
+            ExecutionStrategyParameters parameters) {
+        if (Thread.currentThread().isVirtual()) {
+            return delegate.execute(executionContext, parameters);
+        }
+
+        executionContext.getGraphQLContext().put(RUN_BLOCKING_KEY, true);
+        return CompletableFuture
+                .supplyAsync(() -> delegate.execute(executionContext, parameters), executor)
+                .thenCompose(Function.identity());
+    }
+}
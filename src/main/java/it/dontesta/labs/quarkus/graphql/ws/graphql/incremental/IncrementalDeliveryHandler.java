@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.incremental;
+
+import graphql.Directives;
+import graphql.ExperimentalApi;
+import graphql.GraphQL;
+import graphql.incremental.DelayedIncrementalPartialResult;
+import graphql.incremental.IncrementalExecutionResult;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.InjectableContext.ContextState;
+import io.quarkus.arc.ManagedContext;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.configuration.MemorySize;
+import io.smallrye.graphql.execution.ExecutionResponse;
+import io.smallrye.graphql.execution.ExecutionResponseWriter;
+import io.smallrye.graphql.execution.ExecutionService;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.BodyHandler;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import jakarta.json.Json;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Handler of the incremental delivery of the GraphQL queries, with the {@code @defer} directive.
+ *
+ * <p>
+ * The fragments of a query marked with {@code @defer} are resolved after the rest of the query:
+ * the client receives the initial result as soon as it is ready, and then every deferred
+ * fragment as soon as it is resolved, as the parts of a {@code multipart/mixed} response. The
+ * handler takes only the requests that accept {@code multipart/mixed} and use {@code @defer};
+ * the other requests go on to the GraphQL endpoint, where {@code @defer} is ignored and the
+ * deferred fragments are part of the single result.
+ *
+ * <p>
+ * The operations are executed by SmallRye GraphQL, with the incremental support of graphql-java
+ * enabled, on a thread of the worker pool, where the resolvers run in place. graphql-java
+ * supports {@code @defer} only, not {@code @stream}: the large lists are read a page at a time
+ * with the connections, or exported as a stream by the REST API.
+ */
+@ApplicationScoped
+public class IncrementalDeliveryHandler {
+
+    static final String MULTIPART_MIXED = "multipart/mixed";
+
+    private static final String CONTENT_TYPE = MULTIPART_MIXED + "; boundary=\"-\"; deferSpec=20220824";
+    private static final String PART = "\r\n---\r\nContent-Type: application/json; charset=utf-8\r\n\r\n";
+    private static final String END = "\r\n-----\r\n";
+
+    private static final Pattern DEFER = Pattern.compile("@defer\\b");
+
+    // Together with the handler of the persisted queries, that runs first, before the route of the GraphQL endpoint
+    private static final int ROUTE_ORDER = -1;
+
+    private final Instance<ExecutionService> executionService;
+    private final boolean enabled;
+    private final String path;
+    private final MemorySize maxBodySize;
+
+    @Inject
+    public IncrementalDeliveryHandler(Instance<ExecutionService> executionService,
+            @ConfigProperty(name = "app.graphql.incremental-delivery.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "quarkus.smallrye-graphql.root-path") String rootPath,
+            @ConfigProperty(name = "quarkus.http.limits.max-body-size", defaultValue = "10240K") MemorySize maxBodySize) {
+        this.executionService = executionService;
+        this.enabled = enabled;
+        this.path = rootPath.startsWith("/") ? rootPath : "/" + rootPath;
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * Adds the {@code @defer} directive to the schema executed by graphql-java and the strategy
+     * that executes the deferred queries.
+     *
+     * <p>
+     * The strategy wraps the one of the execution on virtual threads or of the reactive execution,
+     * whose observers run first, and is wrapped by the one of the response cache, whose observer
+     * runs after it.
+     *
+     * @param builder the GraphQL builder, before the GraphQL instance is built
+     */
+    void register(@Observes @Priority(Interceptor.Priority.APPLICATION + 100) GraphQL.Builder builder) {
+        if (!enabled) {
+            return;
+        }
+
+        GraphQL current = builder.build();
+        builder.schema(current.getGraphQLSchema()
+                .transform(schema -> schema.additionalDirective(Directives.DeferDirective)));
+        builder.queryExecutionStrategy(new IncrementalExecutionStrategy(current.getQueryStrategy()));
+        Log.info("GraphQL incremental delivery (@defer) enabled");
+    }
+
+    /**
+     * Registers the handler on the POST requests of the GraphQL endpoint.
+     *
+     * @param router the router of the HTTP server
+     */
+    void register(@Observes @Priority(Interceptor.Priority.APPLICATION + 600) Router router) {
+        if (!enabled) {
+            return;
+        }
+
+        BodyHandler bodyHandler = BodyHandler.create().setBodyLimit(maxBodySize.asLongValue());
+        router.post(path)
+                .order(ROUTE_ORDER)
+                .handler(context -> {
+                    // The body is already read by the handler of the persisted queries, when enabled
+                    if (context.body().available()) {
+                        context.next();
+                        return;
+                    }
+                    context.request().resume();
+                    bodyHandler.handle(context);
+                })
+                .handler(this::handle);
+    }
+
+    void handle(RoutingContext context) {
+        String accept = context.request().getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || !accept.contains(MULTIPART_MIXED)) {
+            context.next();
+            return;
+        }
+
+        JsonObject request;
+        try {
+            request = context.body().asJsonObject();
+        } catch (DecodeException | ClassCastException e) {
+            context.next();
+            return;
+        }
+        if (request == null || !(request.getValue("query") instanceof String query) || !DEFER.matcher(query).find()) {
+            context.next();
+            return;
+        }
+
+        Map<String, List<String>> headers = new HashMap<>();
+        context.request().headers().names().forEach(name -> headers.put(name, context.request().headers().getAll(name)));
+        context.vertx().executeBlocking(() -> {
+            execute(context.response(), request, headers);
+            return null;
+        }, false);
+    }
+
+    private void execute(HttpServerResponse response, JsonObject request, Map<String, List<String>> headers) {
+        ManagedContext requestContext = Arc.container().requestContext();
+        ContextState state = requestContext.activate();
+
+        // The same metadata of the GraphQL endpoint, read by the data fetchers of SmallRye GraphQL
+        Map<String, Object> metadata = new ConcurrentHashMap<>();
+        metadata.put("runBlocking", true);
+        metadata.put("httpHeaders", headers);
+        metadata.put("state", state);
+        metadata.put(ExperimentalApi.ENABLE_INCREMENTAL_SUPPORT, true);
+
+        MultipartWriter writer = new MultipartWriter(response, () -> requestContext.destroy(state));
+        try {
+            executionService.get().executeAsync(Json.createReader(new StringReader(request.encode())).readObject(),
+                    metadata, writer);
+        } finally {
+            requestContext.deactivate();
+        }
+    }
+
+    /**
+     * Writes the initial result and then every deferred result as a part of the response.
+     */
+    private static final class MultipartWriter implements ExecutionResponseWriter,
+            Subscriber<DelayedIncrementalPartialResult> {
+
+        private final HttpServerResponse response;
+        private final Runnable onEnd;
+        private Subscription subscription;
+
+        MultipartWriter(HttpServerResponse response, Runnable onEnd) {
+            this.response = response;
+            this.onEnd = onEnd;
+        }
+
+        @Override
+        public void write(ExecutionResponse executionResponse) {
+            response.setChunked(true).putHeader(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE);
+
+            JsonObject initial = new JsonObject(executionResponse.getExecutionResultAsString());
+            if (executionResponse.getExecutionResult() instanceof IncrementalExecutionResult incremental
+                    && incremental.hasNext()) {
+                response.write(PART + initial.put("hasNext", true).encode());
+                incremental.getIncrementalItemPublisher().subscribe(this);
+            } else {
+                response.write(PART + initial.put("hasNext", false).encode());
+                end();
+            }
+        }
+
+        @Override
+        public void fail(Throwable t) {
+            Log.errorf(t, "Incremental delivery of a GraphQL operation failed");
+            if (!response.headWritten()) {
+                response.setStatusCode(500);
+            }
+            end();
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(DelayedIncrementalPartialResult result) {
+            response.write(PART + new JsonObject(result.toSpecification()).encode());
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            fail(t);
+        }
+
+        @Override
+        public void onComplete() {
+            end();
+        }
+
+        private void end() {
+            try {
+                if (response.headWritten()) {
+                    response.end(END);
+                } else {
+                    response.end();
+                }
+            } finally {
+                onEnd.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.incremental;
+
+import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
+import graphql.execution.AsyncExecutionStrategy;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionStrategy;
+import graphql.execution.ExecutionStrategyParameters;
+import graphql.execution.instrumentation.dataloader.FallbackDataLoaderDispatchStrategy;
+import io.smallrye.graphql.execution.error.ExceptionHandler;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Execution strategy that dispatches the data loaders of the operations with the incremental
+ * support enabled as soon as they are called, delegating the execution to the strategy
+ * configured by SmallRye GraphQL.
+ *
+ * <p>
+ * The batched resolvers of SmallRye GraphQL, with a list of {@code @Source}, are data loaders:
+ * graphql-java dispatches them once for each level of the query, but it cannot do so for the
+ * deferred fields and rejects them. The operations without {@code @defer} keep the dispatch for
+ * each level, the deferred operations load the batched fields of each object on their own.
+ *
+ * <p>
+ * The selections of the nested objects and the deferred fragments are executed by this
+ * strategy, so their errors are handled by the exception handler of SmallRye GraphQL, as in the
+ * delegate.
+ */
+class IncrementalExecutionStrategy extends AsyncExecutionStrategy {
+
+    private final ExecutionStrategy delegate;
+
+    IncrementalExecutionStrategy(ExecutionStrategy delegate) {
+        super(new ExceptionHandler());
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> execute(ExecutionContext executionContext,
+            ExecutionStrategyParameters parameters) {
+        if (Boolean.TRUE.equals(executionContext.getGraphQLContext().get(ExperimentalApi.ENABLE_INCREMENTAL_SUPPORT))) {
+            executionContext.setDataLoaderDispatcherStrategy(new FallbackDataLoaderDispatchStrategy(executionContext));
+        }
+        return delegate.execute(executionContext, parameters);
+    }
+}
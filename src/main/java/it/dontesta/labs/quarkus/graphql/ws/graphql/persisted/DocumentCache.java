@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.persisted;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Bounded cache (Window TinyLFU) of the parsed and validated GraphQL documents, keyed by the
+ * SHA-256 hash of the query, as for the persisted queries.
+ *
+ * <p>
+ * Only the valid documents are cached, so that the invalid queries cannot evict the operations
+ * of the clients. The hits and the misses are exposed by the {@code graphql.documents} cache
+ * metrics.
+ */
+@ApplicationScoped
+public class DocumentCache implements PreparsedDocumentProvider {
+
+    private final Cache<String, PreparsedDocumentEntry> documents;
+
+    @Inject
+    public DocumentCache(MeterRegistry registry,
+            @ConfigProperty(name = "app.graphql.document-cache.max-size", defaultValue = "1000") long maxSize) {
+        this.documents = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(registry, documents, "graphql.documents");
+    }
+
+    /**
+     * Replaces the document provider of SmallRye GraphQL, keyed by the text of the query, with this cache.
+     *
+     * @param builder the GraphQL builder, before the GraphQL instance is built
+     */
+    void register(@Observes GraphQL.Builder builder) {
+        builder.preparsedDocumentProvider(this);
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput,
+            Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        String hash = PersistedQueryStore.hashOf(executionInput.getQuery());
+
+        PreparsedDocumentEntry entry = documents.getIfPresent(hash);
+        if (entry == null) {
+            entry = parseAndValidateFunction.apply(executionInput);
+            if (!entry.hasErrors()) {
+                documents.put(hash, entry);
+            }
+        }
+        return CompletableFuture.completedFuture(entry);
+    }
+}
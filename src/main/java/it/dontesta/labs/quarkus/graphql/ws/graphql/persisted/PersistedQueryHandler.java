@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.persisted;
+
+import io.quarkus.runtime.configuration.MemorySize;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.BodyHandler;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Handler of the automatic persisted queries of the GraphQL endpoint.
+ *
+ * <p>
+ * The client sends the SHA-256 hash of the query in the {@code extensions.persistedQuery}
+ * object of the request, without the query. If the hash is known the query is added to the
+ * request, which goes on to the GraphQL endpoint as usual, otherwise the request is answered
+ * with the {@code PERSISTED_QUERY_NOT_FOUND} error and the client sends the hash again together
+ * with the query, which is registered. In the allow-list mode the unknown queries are rejected
+ * with the {@code PERSISTED_QUERY_NOT_ALLOWED} error.
+ *
+ * <p>
+ * In the allow-list mode every request that could reach the GraphQL endpoint is checked: the
+ * queries sent as {@code application/graphql} and, when the GET requests are enabled, the ones
+ * of the {@code query} parameter too. The other bodies that are not a JSON object are rejected
+ * with {@code 415 Unsupported Media Type}, since the GraphQL endpoint could read a query from
+ * them that the handler does not see.
+ */
+@ApplicationScoped
+public class PersistedQueryHandler {
+
+    static final String NOT_FOUND = "PERSISTED_QUERY_NOT_FOUND";
+    static final String NOT_ALLOWED = "PERSISTED_QUERY_NOT_ALLOWED";
+    static final String NOT_SUPPORTED = "PERSISTED_QUERY_NOT_SUPPORTED";
+    static final String HASH_MISMATCH = "PERSISTED_QUERY_HASH_MISMATCH";
+
+    private static final int SUPPORTED_VERSION = 1;
+
+    private static final String APPLICATION_GRAPHQL = "application/graphql";
+
+    // Removed by the GraphQL endpoint from the body and from the query parameter before they are read
+    private static final Pattern NEWLINE_OR_TAB = Pattern.compile("[\n\t\r]");
+
+    // Before the route of the GraphQL endpoint, that reads the body of the request again only if not already read
+    private static final int ROUTE_ORDER = -1;
+
+    private final PersistedQueryStore store;
+    private final boolean enabled;
+    private final String path;
+    private final MemorySize maxBodySize;
+    private final boolean getEnabled;
+
+    @Inject
+    public PersistedQueryHandler(PersistedQueryStore store,
+            @ConfigProperty(name = "app.graphql.persisted-queries.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "quarkus.smallrye-graphql.root-path") String rootPath,
+            @ConfigProperty(name = "quarkus.http.limits.max-body-size", defaultValue = "10240K") MemorySize maxBodySize,
+            @ConfigProperty(name = "quarkus.smallrye-graphql.http.get.enabled", defaultValue = "false") boolean getEnabled) {
+        this.store = store;
+        this.enabled = enabled;
+        this.path = rootPath.startsWith("/") ? rootPath : "/" + rootPath;
+        this.maxBodySize = maxBodySize;
+        this.getEnabled = getEnabled;
+    }
+
+    /**
+     * Registers the handler on the POST requests of the GraphQL endpoint and, in the allow-list
+     * mode, on the GET requests when they are enabled.
+     *
+     * @param router the router of the HTTP server
+     */
+    void register(@Observes Router router) {
+        if (!enabled) {
+            return;
+        }
+
+        BodyHandler bodyHandler = BodyHandler.create().setBodyLimit(maxBodySize.asLongValue());
+        router.post(path)
+                .order(ROUTE_ORDER)
+                .handler(context -> {
+                    context.request().resume();
+                    bodyHandler.handle(context);
+                })
+                .handler(this::handle);
+
+        if (getEnabled && store.isAllowListOnly()) {
+            router.get(path)
+                    .order(ROUTE_ORDER)
+                    .handler(this::handleGet);
+        }
+    }
+
+    void handle(RoutingContext context) {
+        String contentType = context.request().getHeader(HttpHeaders.CONTENT_TYPE);
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(APPLICATION_GRAPHQL)) {
+            handleGraphQL(context);
+            return;
+        }
+
+        JsonObject request;
+        try {
+            request = context.body().asJsonObject();
+        } catch (DecodeException | ClassCastException e) {
+            request = null;
+        }
+        if (request == null) {
+            // Not a JSON object, left to the GraphQL endpoint only outside the allow-list mode
+            if (store.isAllowListOnly()) {
+                context.response().setStatusCode(415);
+                fail(context, NOT_ALLOWED, "PersistedQueryNotAllowed");
+                return;
+            }
+            context.next();
+            return;
+        }
+
+        JsonObject extensions = request.getValue("extensions") instanceof JsonObject value ? value : null;
+        JsonObject persistedQuery = extensions == null ? null : extensions.getJsonObject("persistedQuery");
+        String query = request.getValue("query") instanceof String value ? value : null;
+
+        if (persistedQuery == null) {
+            if (query != null && !store.isAllowed(query)) {
+                fail(context, NOT_ALLOWED, "PersistedQueryNotAllowed");
+                return;
+            }
+            context.next();
+            return;
+        }
+
+        if (persistedQuery.getInteger("version", 0) != SUPPORTED_VERSION
+                || !(persistedQuery.getValue("sha256Hash") instanceof String value)) {
+            fail(context, NOT_SUPPORTED, "PersistedQueryNotSupported");
+            return;
+        }
+        String hash = value.toLowerCase(Locale.ROOT);
+
+        if (query == null) {
+            query = store.lookup(hash);
+            if (query == null) {
+                fail(context, store.isAllowListOnly() ? NOT_ALLOWED : NOT_FOUND,
+                        store.isAllowListOnly() ? "PersistedQueryNotAllowed" : "PersistedQueryNotFound");
+                return;
+            }
+            setBody(context, request.put("query", query));
+        } else {
+            try {
+                store.register(hash, query);
+            } catch (IllegalArgumentException e) {
+                fail(context, HASH_MISMATCH, e.getMessage());
+                return;
+            }
+            if (!store.isAllowed(query)) {
+                fail(context, NOT_ALLOWED, "PersistedQueryNotAllowed");
+                return;
+            }
+        }
+        context.next();
+    }
+
+    /**
+     * Handles a POST request whose body is the query, sent as {@code application/graphql}: in
+     * the allow-list mode the query must be allowed.
+     */
+    private void handleGraphQL(RoutingContext context) {
+        String query = queryOfBody(context.body().asString());
+        if (store.isAllowListOnly() && (query == null || !store.isAllowed(query))) {
+            fail(context, NOT_ALLOWED, "PersistedQueryNotAllowed");
+            return;
+        }
+        context.next();
+    }
+
+    /**
+     * Handles a GET request in the allow-list mode: the query of the {@code query} parameter must
+     * be allowed.
+     */
+    void handleGet(RoutingContext context) {
+        String query = queryOfParameter(context.queryParams().get("query"));
+        if (query == null || !store.isAllowed(query)) {
+            fail(context, NOT_ALLOWED, "PersistedQueryNotAllowed");
+            return;
+        }
+        context.next();
+    }
+
+    /**
+     * Returns the query of an {@code application/graphql} body, as the GraphQL endpoint reads it.
+     *
+     * @param body the body of the request, or null
+     * @return the query, or null if the body is empty
+     */
+    static String queryOfBody(String body) {
+        return body == null || body.isEmpty() ? null : NEWLINE_OR_TAB.matcher(body).replaceAll("");
+    }
+
+    /**
+     * Returns the query of the {@code query} parameter of a GET request, as the GraphQL endpoint
+     * reads it, decoding it once more.
+     *
+     * @param parameter the decoded value of the parameter, or null
+     * @return the query, or null if the parameter is missing, empty or cannot be decoded
+     */
+    static String queryOfParameter(String parameter) {
+        if (parameter == null || parameter.isEmpty()) {
+            return null;
+        }
+        try {
+            return URLDecoder.decode(NEWLINE_OR_TAB.matcher(parameter).replaceAll(""), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // RequestBody has no setter: the deprecated setBody is the only way to change the body read by the GraphQL endpoint
+    @SuppressWarnings("deprecation")
+    private static void setBody(RoutingContext context, JsonObject request) {
+        context.setBody(request.toBuffer());
+    }
+
+    private static void fail(RoutingContext context, String code, String message) {
+        JsonObject error = new JsonObject()
+                .put("message", message)
+                .put("extensions", new JsonObject().put("code", code));
+        context.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .end(new JsonObject().put("errors", new JsonArray().add(error)).encode());
+    }
+}
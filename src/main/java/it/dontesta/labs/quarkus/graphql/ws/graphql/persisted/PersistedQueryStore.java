@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.persisted;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.logging.Log;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * The registry of the persisted queries, the GraphQL documents identified by the SHA-256 hash
+ * of their text.
+ *
+ * <p>
+ * The queries registered by the clients with the automatic persisted queries protocol are kept
+ * in a bounded cache (Window TinyLFU), so that the most used operations stay in memory. The
+ * queries of the optional manifest, in the Apollo persisted query manifest format, are always
+ * known and, in the allow-list mode, they are the only queries that can be executed.
+ */
+@ApplicationScoped
+public class PersistedQueryStore {
+
+    private static final String SHA_256 = "SHA-256";
+
+    private final Cache<String, String> queries;
+    private final Map<String, String> manifest;
+    private final boolean allowListOnly;
+
+    @Inject
+    public PersistedQueryStore(MeterRegistry registry,
+            @ConfigProperty(name = "app.graphql.persisted-queries.max-size", defaultValue = "1000") long maxSize,
+            @ConfigProperty(name = "app.graphql.persisted-queries.allow-list-only", defaultValue = "false") boolean allowListOnly,
+            @ConfigProperty(name = "app.graphql.persisted-queries.manifest") Optional<String> manifestResource) {
+        this.queries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.manifest = manifestResource.map(PersistedQueryStore::loadManifest).orElse(Map.of());
+        this.allowListOnly = allowListOnly;
+
+        CaffeineCacheMetrics.monitor(registry, queries, "graphql.persisted-queries");
+        Log.infof("Persisted queries: %d from the manifest, allow-list only %s", manifest.size(), allowListOnly);
+    }
+
+    /**
+     * Returns the text of a persisted query.
+     *
+     * @param hash the SHA-256 hash of the query, in hexadecimal
+     * @return the text of the query, or null if the hash is unknown or not allowed
+     */
+    public String lookup(String hash) {
+        String query = manifest.get(hash);
+        if (query != null || allowListOnly) {
+            return query;
+        }
+        return queries.getIfPresent(hash);
+    }
+
+    /**
+     * Registers a query sent by a client with its hash.
+     *
+     * @param hash the SHA-256 hash of the query, in hexadecimal
+     * @param query the text of the query
+     * @throws IllegalArgumentException if the hash does not match the query
+     */
+    public void register(String hash, String query) {
+        if (!hash.equalsIgnoreCase(hashOf(query))) {
+            throw new IllegalArgumentException("The provided sha256Hash does not match the query");
+        }
+        if (!manifest.containsKey(hash) && !allowListOnly) {
+            queries.put(hash, query);
+        }
+    }
+
+    /**
+     * Checks if a query can be executed: in the allow-list mode only the queries of the manifest are allowed.
+     *
+     * @param query the text of the query
+     * @return true if the query can be executed
+     */
+    public boolean isAllowed(String query) {
+        return !allowListOnly || manifest.containsKey(hashOf(query));
+    }
+
+    /**
+     * Returns true if only the queries of the manifest can be executed.
+     *
+     * @return true in the allow-list mode
+     */
+    public boolean isAllowListOnly() {
+        return allowListOnly;
+    }
+
+    /**
+     * Computes the hash that identifies a query.
+     *
+     * @param query the text of the query
+     * @return the SHA-256 hash of the query, in lowercase hexadecimal
+     */
+    public static String hashOf(String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(SHA_256);
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The SHA-256 algorithm is not available", e);
+        }
+    }
+
+    private static Map<String, String> loadManifest(String resource) {
+        try (InputStream input = Thread.currentThread().getContextClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new IllegalStateException("The persisted query manifest %s does not exist".formatted(resource));
+            }
+
+            JsonArray operations = new JsonObject(new String(input.readAllBytes(), StandardCharsets.UTF_8))
+                    .getJsonArray("operations", new JsonArray());
+            Map<String, String> queries = new HashMap<>();
+            for (int i = 0; i < operations.size(); i++) {
+                String body = operations.getJsonObject(i).getString("body");
+                queries.put(hashOf(body), body);
+            }
+            return Map.copyOf(queries);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read the persisted query manifest " + resource, e);
+        }
+    }
+}
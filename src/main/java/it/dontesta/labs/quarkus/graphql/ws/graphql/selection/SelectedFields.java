@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.selection;
+
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.SelectedField;
+import io.smallrye.graphql.api.Context;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Utility methods to read the names of the fields selected by the client for the
+ * field being resolved, so that the queries can read only the requested columns.
+ */
+public final class SelectedFields {
+
+    private SelectedFields() {
+    }
+
+    /**
+     * Returns the names of the fields directly selected on the field being resolved.
+     *
+     * @param context the GraphQL context of the request
+     * @return the names of the selected fields
+     */
+    public static Set<String> of(Context context) {
+        return of(context, "*");
+    }
+
+    /**
+     * Returns the names of the selected fields that match the given glob pattern, for example
+     * {@code edges/node/*} for the nodes of a connection.
+     *
+     * @param context the GraphQL context of the request
+     * @param glob the glob pattern of the qualified names of the fields
+     * @return the names of the selected fields
+     */
+    public static Set<String> of(Context context, String glob) {
+        DataFetchingEnvironment environment = context.unwrap(DataFetchingEnvironment.class);
+
+        Set<String> names = new LinkedHashSet<>();
+        for (SelectedField field : environment.getSelectionSet().getFields(glob)) {
+            names.add(field.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.subscription;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.List;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Delivers the created books to the subscribers of {@code bookCreated} whose filter matches
+ * them, found through a {@link BookFilterIndex}, with the buffer size, the overflow strategy and
+ * the maximum number of subscribers configured by the
+ * {@code app.graphql.subscriptions.book-created.*} properties.
+ */
+@ApplicationScoped
+public class BookCreatedBroadcaster {
+
+    private final Broadcaster<Book, BookCreatedFilter> broadcaster;
+
+    @Inject
+    public BookCreatedBroadcaster(MeterRegistry registry,
+            @ConfigProperty(name = "app.graphql.subscriptions.book-created.buffer-size", defaultValue = "256") int bufferSize,
+            @ConfigProperty(name = "app.graphql.subscriptions.book-created.overflow", defaultValue = "DROP_OLDEST") OverflowStrategy overflow,
+            @ConfigProperty(name = "app.graphql.subscriptions.book-created.max-subscribers", defaultValue = "1000") int maxSubscribers) {
+        this.broadcaster = new Broadcaster<>("bookCreated", bufferSize, overflow, maxSubscribers,
+                Infrastructure.getDefaultWorkerPool(), registry, new BookFilterIndex<>());
+    }
+
+    /**
+     * Returns a new subscription to the books created from now on that match a filter.
+     *
+     * @param filter the filter, or null to receive every created book
+     * @return the stream of the created books
+     */
+    public Multi<Book> subscribe(BookCreatedFilter filter) {
+        return broadcaster.subscribe(filter);
+    }
+
+    /**
+     * Delivers a created book to the subscribers, without waiting for its delivery.
+     *
+     * @param book the created book
+     */
+    public void publish(Book book) {
+        broadcaster.publish(book);
+    }
+
+    /**
+     * Delivers a batch of created books to the subscribers, without waiting for their delivery.
+     *
+     * @param books the created books, in order
+     */
+    public void publishAll(List<Book> books) {
+        broadcaster.publishAll(books);
+    }
+}
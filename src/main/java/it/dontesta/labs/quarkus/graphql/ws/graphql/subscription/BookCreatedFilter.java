@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.subscription;
+
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The filter of a subscriber of {@code bookCreated}. A book matches when it matches every
+ * given criterion; the null or empty criteria match every book.
+ *
+ * @param genre the genre of the book
+ * @param editorId the ID of the editor of the book
+ * @param authorIds the IDs of the authors, the book must have at least one of them
+ * @param keywords the keywords, the book must have at least one of them
+ * @param language the language, the book must be available in it
+ */
+public record BookCreatedFilter(String genre, Long editorId, List<Long> authorIds, List<String> keywords,
+        String language) {
+
+    /**
+     * Creates a filter, without the null or empty criteria.
+     */
+    public BookCreatedFilter {
+        authorIds = authorIds == null ? List.of() : authorIds.stream().filter(Objects::nonNull).toList();
+        keywords = keywords == null ? List.of() : keywords.stream().filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Checks whether a book matches every criterion of the filter.
+     *
+     * @param book the book
+     * @return true if the book matches the filter
+     */
+    public boolean matches(Book book) {
+        return (genre == null || genre.equals(book.genre))
+                && (editorId == null || book.editor != null && editorId.equals(book.editor.id))
+                && (authorIds.isEmpty() || book.authors != null
+                        && book.authors.stream().anyMatch(author -> author != null && authorIds.contains(author.id)))
+                && (keywords.isEmpty() || book.keywords != null && keywords.stream().anyMatch(book.keywords::contains))
+                && (language == null || book.languages != null && book.languages.contains(language));
+    }
+
+    /**
+     * Returns the number of the given criteria.
+     *
+     * @return the number of criteria, zero if the filter matches every book
+     */
+    public int criteriaCount() {
+        int count = 0;
+        count += genre == null ? 0 : 1;
+        count += editorId == null ? 0 : 1;
+        count += authorIds.isEmpty() ? 0 : 1;
+        count += keywords.isEmpty() ? 0 : 1;
+        count += language == null ? 0 : 1;
+        return count;
+    }
+}
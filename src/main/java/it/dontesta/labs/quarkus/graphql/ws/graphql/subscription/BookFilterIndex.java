@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.subscription;
+
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Author;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Inverted index of the {@link BookCreatedFilter filters} of the subscribers of
+ * {@code bookCreated}.
+ *
+ * <p>
+ * Every subscriber is indexed under the values of only one of its criteria, the most selective
+ * one in the order editor, authors, keywords, genre and language. A new book is looked up with
+ * its own values of each criterion, and only the subscribers found are checked against the rest
+ * of their filter. So the cost of a lookup is proportional to the subscribers that match the
+ * most selective of their criteria, not to all the subscribers. The subscribers without
+ * criteria are kept apart and always match.
+ *
+ * @param <S> the type of the subscribers
+ */
+final class BookFilterIndex<S> implements SubscriptionIndex<Book, BookCreatedFilter, S> {
+
+    private final Set<S> unfiltered = ConcurrentHashMap.newKeySet();
+    private final Map<S, BookCreatedFilter> filters = new ConcurrentHashMap<>();
+
+    private final Criterion<Long, S> editors = new Criterion<>();
+    private final Criterion<Long, S> authors = new Criterion<>();
+    private final Criterion<String, S> keywords = new Criterion<>();
+    private final Criterion<String, S> genres = new Criterion<>();
+    private final Criterion<String, S> languages = new Criterion<>();
+
+    @Override
+    public void add(BookCreatedFilter filter, S subscriber) {
+        if (filter == null || filter.criteriaCount() == 0) {
+            unfiltered.add(subscriber);
+            return;
+        }
+
+        filters.put(subscriber, filter);
+        index(filter, subscriber, true);
+    }
+
+    @Override
+    public void remove(BookCreatedFilter filter, S subscriber) {
+        if (filter == null || filter.criteriaCount() == 0) {
+            unfiltered.remove(subscriber);
+            return;
+        }
+
+        index(filter, subscriber, false);
+        filters.remove(subscriber);
+    }
+
+    @Override
+    public void forEachMatch(Book book, Consumer<S> action) {
+        unfiltered.forEach(action);
+        if (filters.isEmpty()) {
+            return;
+        }
+
+        Consumer<S> check = subscriber -> {
+            BookCreatedFilter filter = filters.get(subscriber);
+            if (filter != null && filter.matches(book)) {
+                action.accept(subscriber);
+            }
+        };
+        editors.forEach(single(book.editor == null ? null : book.editor.id), check);
+        authors.forEach(authorIdsOf(book), check);
+        keywords.forEach(book.keywords, check);
+        genres.forEach(single(book.genre), check);
+        languages.forEach(book.languages, check);
+    }
+
+    private void index(BookCreatedFilter filter, S subscriber, boolean add) {
+        if (filter.editorId() != null) {
+            editors.update(single(filter.editorId()), subscriber, add);
+        } else if (!filter.authorIds().isEmpty()) {
+            authors.update(filter.authorIds(), subscriber, add);
+        } else if (!filter.keywords().isEmpty()) {
+            keywords.update(filter.keywords(), subscriber, add);
+        } else if (filter.genre() != null) {
+            genres.update(single(filter.genre()), subscriber, add);
+        } else {
+            languages.update(single(filter.language()), subscriber, add);
+        }
+    }
+
+    private static <V> List<V> single(V value) {
+        return value == null ? List.of() : List.of(value);
+    }
+
+    private static List<Long> authorIdsOf(Book book) {
+        if (book.authors == null) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(book.authors.size());
+        for (Author author : book.authors) {
+            if (author != null && author.id != null) {
+                ids.add(author.id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * The subscribers indexed under a criterion, keyed by the requested value.
+     *
+     * @param <V> the type of the values
+     * @param <S> the type of the subscribers
+     */
+    private static final class Criterion<V, S> {
+
+        private final Map<V, Set<S>> subscribersByValue = new ConcurrentHashMap<>();
+
+        void update(Collection<V> values, S subscriber, boolean add) {
+            for (V value : values) {
+                if (add) {
+                    subscribersByValue.compute(value, (v, subscribers) -> {
+                        Set<S> result = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+                        result.add(subscriber);
+                        return result;
+                    });
+                } else {
+                    subscribersByValue.computeIfPresent(value, (v, subscribers) -> {
+                        subscribers.remove(subscriber);
+                        return subscribers.isEmpty() ? null : subscribers;
+                    });
+                }
+            }
+        }
+
+        /**
+         * Calls the action once for every subscriber indexed under at least one of the values.
+         */
+        void forEach(Collection<V> values, Consumer<S> action) {
+            if (values == null || values.isEmpty() || subscribersByValue.isEmpty()) {
+                return;
+            }
+
+            // A subscriber indexed under several values must be found only once
+            Set<S> seen = values.size() > 1 ? new HashSet<>() : null;
+            for (V value : values) {
+                Set<S> subscribers = value == null ? null : subscribersByValue.get(value);
+                if (subscribers == null) {
+                    continue;
+                }
+                for (S subscriber : subscribers) {
+                    if (seen == null || seen.add(subscriber)) {
+                        action.accept(subscriber);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.subscription;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.helpers.Subscriptions;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.graphql.GraphQLException;
+
+/**
+ * Delivers the events of a GraphQL subscription to its subscribers, each with its own bounded
+ * buffer.
+ *
+ * <p>
+ * {@link #publish(Object)} only appends the event to the buffers of the subscribers whose
+ * filter matches it, as found by the {@link SubscriptionIndex}, and schedules the delivery on
+ * the executor, so the thread that publishes is never blocked by a slow subscriber. Every
+ * subscriber receives the events as fast as it requests them; when its buffer is full the
+ * {@link OverflowStrategy} decides which events are lost, or whether the subscriber is
+ * disconnected. The number of subscribers is limited.
+ *
+ * <p>
+ * The subscribers, the buffered events, the depth of the buffers, the dropped events and the
+ * delivery lag are exposed by the {@code graphql.subscription.*} metrics, tagged with the name
+ * of the subscription.
+ *
+ * @param <T> the type of the events
+ * @param <F> the type of the filters of the subscribers
+ */
+public final class Broadcaster<T, F> {
+
+    private static final String SUBSCRIPTION_TAG = "subscription";
+
+    private final String name;
+    private final int bufferSize;
+    private final OverflowStrategy overflowStrategy;
+    private final int maxSubscribers;
+    private final Executor executor;
+    private final SubscriptionIndex<T, F, SubscriberBuffer<T, F>> index;
+
+    private final Set<SubscriberBuffer<T, F>> subscribers = ConcurrentHashMap.newKeySet();
+    private final Object subscribersLock = new Object();
+
+    private final DistributionSummary queueDepth;
+    private final Counter dropped;
+    private final Counter disconnected;
+    private final Counter rejected;
+    private final Timer lag;
+
+    /**
+     * Creates a new broadcaster that delivers every event to every subscriber.
+     *
+     * @param name the name of the subscription, used in the metrics
+     * @param bufferSize the maximum number of events buffered for each subscriber
+     * @param overflowStrategy what to do when the buffer of a subscriber is full
+     * @param maxSubscribers the maximum number of subscribers
+     * @param executor the executor that delivers the events to the subscribers
+     * @param registry the registry of the metrics
+     */
+    public Broadcaster(String name, int bufferSize, OverflowStrategy overflowStrategy, int maxSubscribers,
+            Executor executor, MeterRegistry registry) {
+        this(name, bufferSize, overflowStrategy, maxSubscribers, executor, registry, SubscriptionIndex.unfiltered());
+    }
+
+    /**
+     * Creates a new broadcaster that delivers the events to the subscribers whose filter
+     * matches them.
+     *
+     * @param name the name of the subscription, used in the metrics
+     * @param bufferSize the maximum number of events buffered for each subscriber
+     * @param overflowStrategy what to do when the buffer of a subscriber is full
+     * @param maxSubscribers the maximum number of subscribers
+     * @param executor the executor that delivers the events to the subscribers
+     * @param registry the registry of the metrics
+     * @param index the index of the filters of the subscribers
+     */
+    Broadcaster(String name, int bufferSize, OverflowStrategy overflowStrategy, int maxSubscribers,
+            Executor executor, MeterRegistry registry, SubscriptionIndex<T, F, SubscriberBuffer<T, F>> index) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("The buffer size must be greater than zero");
+        }
+        this.name = name;
+        this.bufferSize = bufferSize;
+        this.overflowStrategy = overflowStrategy;
+        this.maxSubscribers = maxSubscribers;
+        this.executor = executor;
+        this.index = index;
+
+        Tags tags = Tags.of(SUBSCRIPTION_TAG, name);
+        Gauge.builder("graphql.subscription.subscribers", subscribers, Set::size)
+                .tags(tags)
+                .description("The number of subscribers")
+                .register(registry);
+        Gauge.builder("graphql.subscription.buffered", this, Broadcaster::bufferedCount)
+                .tags(tags)
+                .description("The number of events buffered for all the subscribers")
+                .register(registry);
+        this.queueDepth = DistributionSummary.builder("graphql.subscription.queue.depth")
+                .tags(tags)
+                .description("The depth of the buffer of a subscriber after an event is appended")
+                .register(registry);
+        this.dropped = Counter.builder("graphql.subscription.dropped")
+                .tags(tags.and("strategy", overflowStrategy.name()))
+                .description("The events discarded because the buffer of a subscriber was full")
+                .register(registry);
+        this.disconnected = Counter.builder("graphql.subscription.disconnected")
+                .tags(tags)
+                .description("The subscribers disconnected because their buffer was full")
+                .register(registry);
+        this.rejected = Counter.builder("graphql.subscription.rejected")
+                .tags(tags)
+                .description("The subscriptions rejected because of the maximum number of subscribers")
+                .register(registry);
+        this.lag = Timer.builder("graphql.subscription.lag")
+                .tags(tags)
+                .description("The time from the publication of an event to its delivery to a subscriber")
+                .register(registry);
+    }
+
+    /**
+     * Returns a new subscription to all the events published from now on.
+     *
+     * @return the stream of the events, that fails if there are too many subscribers
+     */
+    public Multi<T> subscribe() {
+        return subscribe(null);
+    }
+
+    /**
+     * Returns a new subscription to the events published from now on that match a filter.
+     *
+     * @param filter the filter, or null to receive every event
+     * @return the stream of the events, that fails if there are too many subscribers
+     */
+    public Multi<T> subscribe(F filter) {
+        return Multi.createFrom().publisher(subscriber -> {
+            SubscriberBuffer<T, F> buffer = new SubscriberBuffer<>(this, filter, subscriber);
+            synchronized (subscribersLock) {
+                if (subscribers.size() >= maxSubscribers) {
+                    rejected.increment();
+                    subscriber.onSubscribe(Subscriptions.CANCELLED);
+                    subscriber.onError(new GraphQLException(
+                            "Too many subscribers of %s, the maximum is %d".formatted(name, maxSubscribers)));
+                    return;
+                }
+                subscribers.add(buffer);
+            }
+            index.add(filter, buffer);
+            subscriber.onSubscribe(buffer);
+        });
+    }
+
+    /**
+     * Appends an event to the buffers of the matching subscribers, without waiting for its
+     * delivery.
+     *
+     * @param event the event
+     */
+    public void publish(T event) {
+        SubscriberBuffer.Envelope<T> envelope = new SubscriberBuffer.Envelope<>(event, System.nanoTime());
+        index.forEachMatch(event, buffer -> buffer.offer(envelope));
+    }
+
+    /**
+     * Appends a batch of events to the buffers of the matching subscribers, without waiting for
+     * their delivery. Every subscriber receives its matching events of the batch in order, with
+     * a single delivery.
+     *
+     * @param events the events, in order
+     */
+    public void publishAll(List<T> events) {
+        if (events.size() == 1) {
+            publish(events.getFirst());
+            return;
+        }
+
+        long publishedAt = System.nanoTime();
+        Map<SubscriberBuffer<T, F>, List<SubscriberBuffer.Envelope<T>>> batches = new LinkedHashMap<>();
+        for (T event : events) {
+            SubscriberBuffer.Envelope<T> envelope = new SubscriberBuffer.Envelope<>(event, publishedAt);
+            index.forEachMatch(event, buffer -> batches.computeIfAbsent(buffer, b -> new ArrayList<>()).add(envelope));
+        }
+        batches.forEach(SubscriberBuffer::offerAll);
+    }
+
+    /**
+     * Returns the number of subscribers.
+     *
+     * @return the number of subscribers
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    String name() {
+        return name;
+    }
+
+    int bufferSize() {
+        return bufferSize;
+    }
+
+    OverflowStrategy overflowStrategy() {
+        return overflowStrategy;
+    }
+
+    Executor executor() {
+        return executor;
+    }
+
+    void remove(SubscriberBuffer<T, F> buffer) {
+        if (subscribers.remove(buffer)) {
+            index.remove(buffer.filter(), buffer);
+        }
+    }
+
+    void recordDepth(int depth) {
+        queueDepth.record(depth);
+    }
+
+    void recordDropped(int count) {
+        dropped.increment(count);
+    }
+
+    void recordDisconnected() {
+        disconnected.increment();
+    }
+
+    void recordLag(long nanos) {
+        lag.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private double bufferedCount() {
+        long count = 0;
+        for (SubscriberBuffer<T, F> buffer : subscribers) {
+            count += buffer.size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.subscription;
+
+/**
+ * What a {@link Broadcaster} does when the buffer of a subscriber is full.
+ */
+public enum OverflowStrategy {
+
+    /**
+     * Discards the oldest buffered event to make room for the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Discards all the buffered events and keeps only the new one.
+     */
+    KEEP_LATEST,
+
+    /**
+     * Terminates the subscription with an error.
+     */
+    DISCONNECT
+}
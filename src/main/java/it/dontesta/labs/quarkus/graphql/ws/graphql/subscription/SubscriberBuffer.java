@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.subscription;
+
+import io.smallrye.mutiny.helpers.Subscriptions;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.microprofile.graphql.GraphQLException;
+
+/**
+ * The bounded buffer of a subscriber of a {@link Broadcaster}, drained on the executor of the
+ * broadcaster as the subscriber requests the events.
+ *
+ * @param <T> the type of the events
+ * @param <F> the type of the filters
+ */
+final class SubscriberBuffer<T, F> implements Flow.Subscription {
+
+    private final Broadcaster<T, F> owner;
+    private final F filter;
+    private final Flow.Subscriber<? super T> downstream;
+    private final ArrayDeque<Envelope<T>> queue = new ArrayDeque<>();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private volatile boolean cancelled;
+    private volatile Throwable failure;
+
+    SubscriberBuffer(Broadcaster<T, F> owner, F filter, Flow.Subscriber<? super T> downstream) {
+        this.owner = owner;
+        this.filter = filter;
+        this.downstream = downstream;
+    }
+
+    F filter() {
+        return filter;
+    }
+
+    void offer(Envelope<T> envelope) {
+        offerAll(List.of(envelope));
+    }
+
+    /**
+     * Appends a batch of events to the buffer, scheduling a single delivery.
+     *
+     * @param envelopes the events, in order
+     */
+    void offerAll(List<Envelope<T>> envelopes) {
+        int depth;
+        synchronized (queue) {
+            for (Envelope<T> envelope : envelopes) {
+                if (queue.size() == owner.bufferSize()) {
+                    switch (owner.overflowStrategy()) {
+                        case DROP_OLDEST -> {
+                            queue.poll();
+                            owner.recordDropped(1);
+                        }
+                        case KEEP_LATEST -> {
+                            owner.recordDropped(queue.size());
+                            queue.clear();
+                        }
+                        case DISCONNECT -> {
+                            failure = new GraphQLException(
+                                    "The subscriber of %s did not keep up with the events and was disconnected"
+                                            .formatted(owner.name()));
+                            queue.clear();
+                            owner.recordDisconnected();
+                            owner.remove(this);
+                            schedule();
+                            return;
+                        }
+                    }
+                }
+                queue.offer(envelope);
+            }
+            depth = queue.size();
+        }
+        owner.recordDepth(depth);
+        schedule();
+    }
+
+    int size() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            failure = Subscriptions.getInvalidRequestException();
+            owner.remove(this);
+        } else {
+            Subscriptions.add(requested, n);
+        }
+        schedule();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        owner.remove(this);
+    }
+
+    private void schedule() {
+        if (wip.getAndIncrement() == 0) {
+            owner.executor().execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            long demand = requested.get();
+            long emitted = 0;
+            while (!cancelled) {
+                Throwable error = failure;
+                if (error != null) {
+                    cancelled = true;
+                    downstream.onError(error);
+                    return;
+                }
+                if (emitted == demand) {
+                    break;
+                }
+
+                Envelope<T> envelope;
+                synchronized (queue) {
+                    envelope = queue.poll();
+                }
+                if (envelope == null) {
+                    break;
+                }
+                owner.recordLag(System.nanoTime() - envelope.publishedAt());
+                downstream.onNext(envelope.event());
+                emitted++;
+            }
+            if (emitted != 0 && demand != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * An event with the time of its publication.
+     *
+     * @param event the event
+     * @param publishedAt the time of the publication, from {@link System#nanoTime()}
+     * @param <T> the type of the event
+     */
+    record Envelope<T>(T event, long publishedAt) {
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.subscription;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Finds the subscribers interested in an event, given the filter of every subscriber.
+ *
+ * <p>
+ * The implementations must be thread safe: the subscribers are added and removed while the
+ * events are published.
+ *
+ * @param <T> the type of the events
+ * @param <F> the type of the filters
+ * @param <S> the type of the subscribers
+ */
+public interface SubscriptionIndex<T, F, S> {
+
+    /**
+     * Adds a subscriber.
+     *
+     * @param filter the filter of the subscriber, or null to receive every event
+     * @param subscriber the subscriber
+     */
+    void add(F filter, S subscriber);
+
+    /**
+     * Removes a subscriber.
+     *
+     * @param filter the filter the subscriber was added with
+     * @param subscriber the subscriber
+     */
+    void remove(F filter, S subscriber);
+
+    /**
+     * Calls the action once for every subscriber whose filter matches the event.
+     *
+     * @param event the event
+     * @param action the action
+     */
+    void forEachMatch(T event, Consumer<S> action);
+
+    /**
+     * Returns an index that ignores the filters and matches every subscriber with every event.
+     *
+     * @param <T> the type of the events
+     * @param <F> the type of the filters
+     * @param <S> the type of the subscribers
+     * @return the new index
+     */
+    static <T, F, S> SubscriptionIndex<T, F, S> unfiltered() {
+        Set<S> subscribers = ConcurrentHashMap.newKeySet();
+        return new SubscriptionIndex<>() {
+            @Override
+            public void add(F filter, S subscriber) {
+                subscribers.add(subscriber);
+            }
+
+            @Override
+            public void remove(F filter, S subscriber) {
+                subscribers.remove(subscriber);
+            }
+
+            @Override
+            public void forEachMatch(T event, Consumer<S> action) {
+                subscribers.forEach(action);
+            }
+        };
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.subscription.bus;
+
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Author;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Editor;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The serialized form of a created book, exchanged between the replicas of the application.
+ * It carries the attributes of the book and the identity of its editor and authors, which is
+ * what the subscription filters and the batched resolvers need.
+ */
+public record BookCreatedMessage(Long id, String title, String subTitle, String isbn, Integer pages,
+        String summary, LocalDate publication, String genre, String frontCoverImageKey, String backCoverImageKey,
+        List<String> languages, List<String> formats, List<String> keywords, EditorRef editor,
+        List<AuthorRef> authors) {
+
+    /**
+     * The identity of the editor of the book.
+     */
+    public record EditorRef(Long id, String name) {
+    }
+
+    /**
+     * The identity of an author of the book.
+     */
+    public record AuthorRef(Long id, String firstName, String lastName) {
+    }
+
+    /**
+     * Creates the message of a created book.
+     *
+     * @param book the created book
+     * @return the message
+     */
+    public static BookCreatedMessage of(Book book) {
+        EditorRef editor = book.editor == null ? null : new EditorRef(book.editor.id, book.editor.name);
+        List<AuthorRef> authors = new ArrayList<>();
+        if (book.authors != null) {
+            for (Author author : book.authors) {
+                authors.add(new AuthorRef(author.id, author.firstName, author.lastName));
+            }
+        }
+        return new BookCreatedMessage(book.id, book.title, book.subTitle, book.isbn, book.pages, book.summary,
+                book.publication, book.genre, book.frontCoverImageKey, book.backCoverImageKey,
+                copyOf(book.languages), copyOf(book.formats), copyOf(book.keywords), editor, authors);
+    }
+
+    /**
+     * Creates a new, not managed, book from the message.
+     *
+     * @return the book
+     */
+    public Book toBook() {
+        Book book = new Book();
+        book.id = id;
+        book.title = title;
+        book.subTitle = subTitle;
+        book.isbn = isbn;
+        book.pages = pages;
+        book.summary = summary;
+        book.publication = publication;
+        book.genre = genre;
+        book.frontCoverImageKey = frontCoverImageKey;
+        book.backCoverImageKey = backCoverImageKey;
+        book.languages = copyOf(languages);
+        book.formats = copyOf(formats);
+        book.keywords = copyOf(keywords);
+        if (editor != null) {
+            book.editor = new Editor();
+            book.editor.id = editor.id();
+            book.editor.name = editor.name();
+        }
+        book.authors = new ArrayList<>();
+        if (authors != null) {
+            for (AuthorRef ref : authors) {
+                Author author = new Author();
+                author.id = ref.id();
+                author.firstName = ref.firstName();
+                author.lastName = ref.lastName();
+                book.authors.add(author);
+            }
+        }
+        return book;
+    }
+
+    private static List<String> copyOf(List<String> values) {
+        return values == null ? new ArrayList<>() : new ArrayList<>(values);
+    }
+}
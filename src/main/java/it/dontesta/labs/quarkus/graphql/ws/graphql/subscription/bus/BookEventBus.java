@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.subscription.bus;
+
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import java.util.List;
+
+/**
+ * Carries the created books to the {@code bookCreated} subscribers of every replica of the
+ * application.
+ *
+ * <p>
+ * The implementation is selected by the {@code app.graphql.subscriptions.book-created.bus}
+ * property: {@code in-process} (default) delivers the books only to the subscribers of the
+ * replica that created them, {@code outbox} also delivers them to the other replicas that
+ * share the database.
+ */
+public interface BookEventBus {
+
+    /**
+     * Publishes a created book. It must be called in the transaction that creates the book:
+     * the book is delivered only if the transaction commits.
+     *
+     * @param book the created book
+     */
+    void publish(Book book);
+
+    /**
+     * Publishes the books created in the same transaction. They are delivered, in order, only
+     * if the transaction commits.
+     *
+     * @param books the created books
+     */
+    default void publishAll(List<Book> books) {
+        books.forEach(this::publish);
+    }
+
+    /**
+     * Publishes the IDs of the books updated or deleted by a transaction to the other replicas,
+     * if supported. It must be called in that transaction: the IDs are delivered only if the
+     * transaction commits.
+     *
+     * @param bookIds the IDs of the updated or deleted books
+     */
+    default void publishChanged(List<Long> bookIds) {
+    }
+
+    /**
+     * Starts receiving the books published by the other replicas, if supported.
+     */
+    default void start() {
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.subscription.bus;
+
+import io.quarkus.runtime.StartupEvent;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.Produces;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Produces the {@link BookEventBus} selected by the
+ * {@code app.graphql.subscriptions.book-created.bus} property, starts it with the application
+ * and publishes to it the books updated or deleted by this replica.
+ */
+@ApplicationScoped
+public class BookEventBusProducer {
+
+    @Produces
+    @ApplicationScoped
+    BookEventBus bookEventBus(
+            @ConfigProperty(name = "app.graphql.subscriptions.book-created.bus", defaultValue = "in-process") String bus,
+            Instance<InProcessBookEventBus> inProcess, Instance<OutboxBookEventBus> outbox) {
+        return switch (bus) {
+            case "in-process" -> inProcess.get();
+            case "outbox" -> outbox.get();
+            default -> throw new IllegalArgumentException(
+                    "Unknown bookCreated bus %s, the admitted values are: in-process, outbox".formatted(bus));
+        };
+    }
+
+    void start(@Observes StartupEvent event, BookEventBus bus) {
+        bus.start();
+    }
+
+    /**
+     * Publishes the books updated or deleted by this replica, in the transaction that changes
+     * them.
+     *
+     * @param event the change of the catalog
+     * @param bus the bus of the books
+     */
+    void onEntityChanged(@Observes EntityChangedEvent event, BookEventBus bus) {
+        if (event.type() == Book.class && !event.created() && !event.remote() && !event.ids().isEmpty()) {
+            bus.publishChanged(event.ids());
+        }
+    }
+}
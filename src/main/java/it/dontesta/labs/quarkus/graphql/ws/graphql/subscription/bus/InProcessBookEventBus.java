@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.subscription.bus;
+
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.ws.graphql.subscription.BookCreatedBroadcaster;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Typed;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.util.List;
+
+/**
+ * Delivers the created books to the subscribers of this replica, once the transaction that
+ * creates them commits.
+ */
+@ApplicationScoped
+@Typed(InProcessBookEventBus.class)
+public class InProcessBookEventBus implements BookEventBus {
+
+    private final BookCreatedBroadcaster broadcaster;
+    private final TransactionSynchronizationRegistry transactions;
+
+    @Inject
+    public InProcessBookEventBus(BookCreatedBroadcaster broadcaster, TransactionSynchronizationRegistry transactions) {
+        this.broadcaster = broadcaster;
+        this.transactions = transactions;
+    }
+
+    @Override
+    public void publish(Book book) {
+        afterCommit(() -> broadcaster.publish(book));
+    }
+
+    @Override
+    public void publishAll(List<Book> books) {
+        if (!books.isEmpty()) {
+            afterCommit(() -> broadcaster.publishAll(books));
+        }
+    }
+
+    private void afterCommit(Runnable delivery) {
+        if (transactions.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            delivery.run();
+            return;
+        }
+
+        transactions.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    delivery.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.subscription.bus;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import io.quarkus.scheduler.Scheduler;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.BookCreatedOutbox;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
+import it.dontesta.labs.quarkus.graphql.ws.graphql.subscription.BookCreatedBroadcaster;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.inject.Typed;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Delivers the created books to the subscribers of every replica through a transactional
+ * outbox table, {@link BookCreatedOutbox}, shared by the replicas.
+ *
+ * <p>
+ * The book is serialized once, by the replica that creates it, and written in the same
+ * transaction, so only the committed books are delivered. That replica delivers the book to
+ * its own subscribers after the commit; every replica polls the table and delivers the books
+ * created by the other replicas to its subscribers, one batch for each page read.
+ *
+ * <p>
+ * Every poll reads again the events created in the {@code lookback} window before the newest
+ * event read, so that the transactions committed late are not missed, and discards the events
+ * already delivered by their ID. The lookback must be longer than the transactions that create
+ * the books and than the difference between the clocks of the replicas. The events older than
+ * the retention are deleted.
+ *
+ * <p>
+ * The books created by the other replicas are also fired as remote {@link EntityChangedEvent}s,
+ * so that the data of this replica derived from the catalog, such as the cached queries and the
+ * indexes of the books, take them into account. The IDs of the books updated or deleted by a
+ * replica are written to the table in the same way, and fired as remote events by the others.
+ */
+@ApplicationScoped
+@Typed(OutboxBookEventBus.class)
+public class OutboxBookEventBus implements BookEventBus {
+
+    private final InProcessBookEventBus local;
+    private final BookCreatedBroadcaster broadcaster;
+    private final Event<EntityChangedEvent> entityChanged;
+    private final ObjectMapper objectMapper;
+    private final Scheduler scheduler;
+
+    private final String nodeId;
+    private final String pollInterval;
+    private final int batchSize;
+    private final Duration lookback;
+    private final Duration retention;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    // The IDs of the events read in the lookback window
+    private final Map<Long, Instant> delivered = new ConcurrentHashMap<>();
+    private volatile Instant watermark = Instant.now();
+
+    private final Counter published;
+    private final Counter received;
+    private final Counter duplicates;
+
+    @Inject
+    public OutboxBookEventBus(InProcessBookEventBus local, BookCreatedBroadcaster broadcaster,
+            Event<EntityChangedEvent> entityChanged, ObjectMapper objectMapper, Scheduler scheduler, MeterRegistry registry,
+            @ConfigProperty(name = "app.graphql.subscriptions.book-created.outbox.node-id") Optional<String> nodeId,
+            @ConfigProperty(name = "app.graphql.subscriptions.book-created.outbox.poll-interval", defaultValue = "1s") String pollInterval,
+            @ConfigProperty(name = "app.graphql.subscriptions.book-created.outbox.batch-size", defaultValue = "100") int batchSize,
+            @ConfigProperty(name = "app.graphql.subscriptions.book-created.outbox.lookback", defaultValue = "10s") Duration lookback,
+            @ConfigProperty(name = "app.graphql.subscriptions.book-created.outbox.retention", defaultValue = "1h") Duration retention) {
+        this.local = local;
+        this.broadcaster = broadcaster;
+        this.entityChanged = entityChanged;
+        this.objectMapper = objectMapper;
+        this.scheduler = scheduler;
+        this.nodeId = nodeId.orElseGet(() -> UUID.randomUUID().toString());
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        this.lookback = lookback;
+        this.retention = retention;
+
+        this.published = Counter.builder("graphql.subscription.bus.published")
+                .tag("bus", "outbox")
+                .description("The created books written to the outbox")
+                .register(registry);
+        this.received = Counter.builder("graphql.subscription.bus.received")
+                .tag("bus", "outbox")
+                .description("The created books read from the outbox and delivered to the local subscribers")
+                .register(registry);
+        this.duplicates = Counter.builder("graphql.subscription.bus.duplicates")
+                .tag("bus", "outbox")
+                .description("The created books read again from the outbox and discarded")
+                .register(registry);
+    }
+
+    @Override
+    public void publish(Book book) {
+        write(book);
+        local.publish(book);
+    }
+
+    @Override
+    public void publishAll(List<Book> books) {
+        books.forEach(this::write);
+        local.publishAll(books);
+    }
+
+    @Override
+    public void publishChanged(List<Long> bookIds) {
+        BookCreatedOutbox event = new BookCreatedOutbox();
+        event.nodeId = nodeId;
+        event.createdAt = Instant.now();
+        event.kind = BookCreatedOutbox.Kind.CHANGED;
+        event.payload = serialize(bookIds);
+        event.persist();
+    }
+
+    @Override
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+
+        watermark = Instant.now();
+        scheduler.newJob(OutboxBookEventBus.class.getName() + ".poll")
+                .setInterval(pollInterval)
+                .setConcurrentExecution(ConcurrentExecution.SKIP)
+                .setTask(execution -> poll())
+                .schedule();
+        scheduler.newJob(OutboxBookEventBus.class.getName() + ".cleanup")
+                .setInterval("1m")
+                .setConcurrentExecution(ConcurrentExecution.SKIP)
+                .setTask(execution -> cleanup())
+                .schedule();
+        Log.infof("bookCreated outbox bus started on node %s", nodeId);
+    }
+
+    /**
+     * Reads the events created from the lookback window on and delivers the new ones created
+     * by the other nodes, one batch for each page, together with the changed books.
+     */
+    void poll() {
+        Instant since = watermark.minus(lookback);
+        Instant newest = watermark;
+        Instant afterCreatedAt = null;
+        Long afterId = null;
+        List<BookCreatedOutbox> page;
+        do {
+            Instant pageCreatedAt = afterCreatedAt;
+            Long pageId = afterId;
+            page = QuarkusTransaction.requiringNew()
+                    .call(() -> BookCreatedOutbox.listCreatedSince(since, pageCreatedAt, pageId, batchSize));
+
+            List<Book> books = new ArrayList<>(page.size());
+            List<Long> changed = new ArrayList<>();
+            for (BookCreatedOutbox event : page) {
+                afterCreatedAt = event.createdAt;
+                afterId = event.id;
+                if (event.createdAt.isAfter(newest)) {
+                    newest = event.createdAt;
+                }
+                if (nodeId.equals(event.nodeId)) {
+                    // Already delivered by this node after the commit
+                    continue;
+                }
+                if (delivered.putIfAbsent(event.id, event.createdAt) != null) {
+                    duplicates.increment();
+                    continue;
+                }
+                if (event.kind == BookCreatedOutbox.Kind.CHANGED) {
+                    changed.addAll(deserializeIds(event));
+                } else {
+                    deserialize(event).ifPresent(books::add);
+                }
+            }
+
+            if (!books.isEmpty()) {
+                broadcaster.publishAll(books);
+                entityChanged.fire(EntityChangedEvent.createdRemotely(Book.class, books));
+                received.increment(books.size());
+            }
+            if (!changed.isEmpty()) {
+                entityChanged.fire(EntityChangedEvent.changedRemotely(Book.class, changed));
+            }
+        } while (page.size() == batchSize);
+
+        watermark = newest;
+        // The events before the next window are never read again
+        Instant nextSince = newest.minus(lookback);
+        delivered.values().removeIf(createdAt -> createdAt.isBefore(nextSince));
+    }
+
+    private void write(Book book) {
+        BookCreatedOutbox event = new BookCreatedOutbox();
+        event.nodeId = nodeId;
+        event.createdAt = Instant.now();
+        event.payload = serialize(BookCreatedMessage.of(book));
+        event.persist();
+        published.increment();
+    }
+
+    private void cleanup() {
+        long deleted = QuarkusTransaction.requiringNew()
+                .call(() -> BookCreatedOutbox.deleteCreatedBefore(Instant.now().minus(retention)));
+        if (deleted > 0) {
+            Log.debugf("Deleted %d bookCreated outbox events older than %s", deleted, retention);
+        }
+    }
+
+    private String serialize(BookCreatedMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize the created book %d".formatted(message.id()), e);
+        }
+    }
+
+    private String serialize(List<Long> bookIds) {
+        try {
+            return objectMapper.writeValueAsString(bookIds);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize the changed books %s".formatted(bookIds), e);
+        }
+    }
+
+    private List<Long> deserializeIds(BookCreatedOutbox event) {
+        try {
+            return List.of(objectMapper.readValue(event.payload, Long[].class));
+        } catch (JsonProcessingException e) {
+            Log.warnf(e, "Discarding the changed books outbox event %d of node %s", event.id, event.nodeId);
+            return List.of();
+        }
+    }
+
+    private Optional<Book> deserialize(BookCreatedOutbox event) {
+        try {
+            return Optional.of(objectMapper.readValue(event.payload, BookCreatedMessage.class).toBook());
+        } catch (JsonProcessingException e) {
+            Log.warnf(e, "Discarding the bookCreated outbox event %d of node %s", event.id, event.nodeId);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.mappers.errors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import it.dontesta.labs.quarkus.graphql.exception.ConcurrencyLimitExceededException;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * This exception mapper answers with a service unavailable, asking the client to retry, when
+ * the request waited too long for a permit of the concurrency limiter. The body has the same
+ * shape of the one of the {@link GenericExceptionMapper}.
+ */
+@Provider
+public class ConcurrencyLimitExceededExceptionMapper implements ExceptionMapper<ConcurrencyLimitExceededException> {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public ConcurrencyLimitExceededExceptionMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Response toResponse(ConcurrencyLimitExceededException exception) {
+        int code = Response.Status.SERVICE_UNAVAILABLE.getStatusCode();
+
+        ObjectNode exceptionJson = objectMapper.createObjectNode();
+        exceptionJson.put("code", code);
+        exceptionJson.put("exceptionType", exception.getClass().getName());
+        exceptionJson.put("error", exception.getMessage());
+
+        return Response.status(code)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .entity(exceptionJson)
+                .build();
+    }
+}
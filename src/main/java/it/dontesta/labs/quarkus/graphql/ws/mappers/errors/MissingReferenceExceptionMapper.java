@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.mappers.errors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import it.dontesta.labs.quarkus.graphql.exception.MissingReferenceException;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * This exception mapper answers with a bad request, listing every missing reference, when the
+ * entity to write references entities that do not exist. The body has the same shape of the
+ * one of the {@link GenericExceptionMapper}.
+ */
+@Provider
+public class MissingReferenceExceptionMapper implements ExceptionMapper<MissingReferenceException> {
+
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public MissingReferenceExceptionMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Response toResponse(MissingReferenceException exception) {
+        int code = Response.Status.BAD_REQUEST.getStatusCode();
+
+        ObjectNode exceptionJson = objectMapper.createObjectNode();
+        exceptionJson.put("code", code);
+        exceptionJson.put("exceptionType", exception.getClass().getName());
+        exceptionJson.put("error", exception.getMessage());
+        exception.getMissing().forEach(exceptionJson.putArray("missing")::add);
+
+        return Response.status(code).entity(exceptionJson).build();
+    }
+}
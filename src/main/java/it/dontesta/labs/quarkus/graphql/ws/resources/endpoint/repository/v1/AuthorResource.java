@@ -4,7 +4,12 @@
  */
 package it.dontesta.labs.quarkus.graphql.ws.resources.endpoint.repository.v1;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import it.dontesta.labs.quarkus.graphql.app.concurrency.ConcurrencyLimited;
 import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Author;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
@@ -15,8 +20,17 @@ import java.util.List;
 @Path("/authors")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+@ConcurrencyLimited
 public class AuthorResource {
 
+    private final Event<EntityChangedEvent> entityChanged;
+
+    @Inject
+    public AuthorResource(Event<EntityChangedEvent> entityChanged) {
+        this.entityChanged = entityChanged;
+    }
+
     @GET
     public List<Author> list() {
         return Author.findAllAuthors();
@@ -36,6 +50,7 @@ public class AuthorResource {
     @Transactional
     public Response create(Author author) {
         author.persist();
+        entityChanged.fire(EntityChangedEvent.created(Author.class));
         return Response.created(URI.create("/authors/" + author.id)).build();
     }
 
@@ -54,6 +69,7 @@ public class AuthorResource {
 
         //... update other fields
         existingAuthor.persist();
+        entityChanged.fire(EntityChangedEvent.changed(Author.class, id));
         return existingAuthor;
     }
 
@@ -66,5 +82,6 @@ public class AuthorResource {
             throw new NotFoundException();
         }
         author.delete();
+        entityChanged.fire(EntityChangedEvent.changed(Author.class, id));
     }
 }
\ No newline at end of file
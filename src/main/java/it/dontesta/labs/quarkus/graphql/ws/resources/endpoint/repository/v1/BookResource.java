@@ -4,11 +4,26 @@
  */
 package it.dontesta.labs.quarkus.graphql.ws.resources.endpoint.repository.v1;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import it.dontesta.labs.quarkus.graphql.app.concurrency.ConcurrencyLimited;
+import it.dontesta.labs.quarkus.graphql.orm.panache.batch.BookReferenceResolver;
 import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Author;
 import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Editor;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
+import it.dontesta.labs.quarkus.graphql.orm.panache.export.BookExporter;
+import it.dontesta.labs.quarkus.graphql.s3.service.BookCoverUrlService;
+import it.dontesta.labs.quarkus.graphql.search.BookSearchIndex;
+import it.dontesta.labs.quarkus.graphql.search.BookSearchService;
+import it.dontesta.labs.quarkus.graphql.search.type.BookSearchConnection;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ClientErrorException;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.POST;
@@ -16,19 +31,104 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Path("/books")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+@ConcurrencyLimited
 public class BookResource {
 
+    private final Event<EntityChangedEvent> entityChanged;
+    private final BookReferenceResolver referenceResolver;
+    private final BookExporter bookExporter;
+    private final BookSearchService bookSearchService;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookCoverUrlService bookCoverUrls;
+
+    @Inject
+    public BookResource(Event<EntityChangedEvent> entityChanged,
+            BookReferenceResolver referenceResolver, BookExporter bookExporter,
+            BookSearchService bookSearchService, BookSearchIndex bookSearchIndex,
+            BookCoverUrlService bookCoverUrls) {
+        this.entityChanged = entityChanged;
+        this.referenceResolver = referenceResolver;
+        this.bookExporter = bookExporter;
+        this.bookSearchService = bookSearchService;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookCoverUrls = bookCoverUrls;
+    }
+
     @GET
     public List<Book> list() {
-        return Book.findAllBooksList();
+        // The URLs of the covers are presigned when the books are read, from the keys of the covers
+        return bookCoverUrls.resolve(Book.findAllBooksList());
+    }
+
+    /**
+     * Exports the whole catalog, streaming the books to the client while they are read, in a
+     * memory that does not depend on the size of the catalog.
+     *
+     * @param format {@code ndjson} (default) for a JSON object for each book, one per line,
+     *        or {@code json} for a JSON array of the books
+     * @return the streamed books
+     */
+    @GET
+    @Path("/export")
+    @Produces({ BookExporter.NDJSON, MediaType.APPLICATION_JSON })
+    public Response export(@QueryParam("format") @DefaultValue("ndjson") String format) {
+        BookExporter.Format exportFormat;
+        try {
+            exportFormat = BookExporter.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown export format " + format + ", expected ndjson or json");
+        }
+
+        StreamingOutput books = output -> bookExporter.export(output, exportFormat);
+        return Response.ok(books, exportFormat == BookExporter.Format.NDJSON
+                ? BookExporter.NDJSON
+                : MediaType.APPLICATION_JSON).build();
+    }
+
+    /**
+     * Searches the books by the words of their title, subtitle, summary and keywords, in order
+     * of relevance.
+     *
+     * @param text the searched text, all of its words must match
+     * @param first the number of books to return
+     * @param after the cursor after which to start returning books
+     * @return the books found, their relevance and their matching passages
+     */
+    @GET
+    @Path("/search")
+    public BookSearchConnection search(@QueryParam("q") String text, @QueryParam("first") Integer first,
+            @QueryParam("after") String after) {
+        try {
+            return bookSearchService.search(text, first, after, ids -> bookCoverUrls.resolve(Book.<Book>list("id in ?1", ids)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the full-text index of the books from the database.
+     *
+     * @return the number of indexed books
+     * @throws InterruptedException if the thread is interrupted while waiting for the rebuild
+     */
+    @POST
+    @Path("/search/index")
+    public Map<String, Long> rebuildSearchIndex() throws InterruptedException {
+        return Map.of("indexed", bookSearchIndex.rebuild());
     }
 
     @GET
@@ -38,7 +138,18 @@ public class BookResource {
         if (book == null) {
             throw new NotFoundException();
         }
-        return book;
+        return bookCoverUrls.resolve(book);
+    }
+
+    @GET
+    @Path("/isbn/{isbn}")
+    public Book getByIsbn(@PathParam("isbn") String isbn) {
+        // Served by the natural id cache or by the unique index of the ISBN
+        Book book = Book.findBookByIsbn(isbn);
+        if (book == null) {
+            throw new NotFoundException();
+        }
+        return bookCoverUrls.resolve(book);
     }
 
     @POST
@@ -47,7 +158,15 @@ public class BookResource {
         // The book is persisted automatically by Panache
         // because it is a Panache entity.
         // Extend this method to handle the detached entity as needed.
+        // The editor and authors referenced by ID are replaced with the managed entities.
+        checkCovers(book);
+        referenceResolver.resolve(book);
+        if (book.isbn != null && Book.findBookByIsbn(book.isbn) != null) {
+            throw new ClientErrorException("A book with ISBN %s already exists".formatted(book.isbn),
+                    Response.Status.CONFLICT);
+        }
         book.persist();
+        entityChanged.fire(EntityChangedEvent.created(Book.class, List.of(book)));
         return Response.created(URI.create("/books/" + book.id)).build();
     }
 
@@ -63,6 +182,16 @@ public class BookResource {
         if (entity == null) {
             throw new NotFoundException();
         }
+        // The editor and authors referenced by ID are replaced with the managed entities
+        referenceResolver.resolve(book);
+
+        // The previous authors and editor lose the book
+        if (entity.authors != null) {
+            entityChanged.fire(EntityChangedEvent.changed(Author.class, entity.authors));
+        }
+        if (entity.editor != null) {
+            entityChanged.fire(EntityChangedEvent.changed(Editor.class, entity.editor.id));
+        }
 
         // Update the entity with the new values
         // Extend this method to handle the updated entity as needed.
@@ -72,7 +201,15 @@ public class BookResource {
         entity.languages = book.languages;
         entity.formats = book.formats;
         entity.keywords = book.keywords;
-        return entity;
+
+        entityChanged.fire(EntityChangedEvent.changed(Book.class, id));
+        if (entity.authors != null) {
+            entityChanged.fire(EntityChangedEvent.changed(Author.class, entity.authors));
+        }
+        if (entity.editor != null && entity.editor.id != null) {
+            entityChanged.fire(EntityChangedEvent.changed(Editor.class, entity.editor.id));
+        }
+        return bookCoverUrls.resolve(entity);
     }
 
     @DELETE
@@ -82,6 +219,7 @@ public class BookResource {
         Book entity = Book.findBookById(id);
         if (entity != null) {
             entity.delete();
+            entityChanged.fire(EntityChangedEvent.changed(Book.class, id));
         }
     }
 
@@ -94,8 +232,32 @@ public class BookResource {
             throw new NotFoundException("Book not found");
         }
 
-        List<Author> authors = Author.listByAuthorList("id in ?1", authorIds);
+        List<Author> authors = referenceResolver.resolveAuthors(authorIds);
         book.authors.addAll(authors);
-        return book;
+        entityChanged.fire(EntityChangedEvent.changed(Book.class, id));
+        entityChanged.fire(EntityChangedEvent.changed(Author.class, authors));
+        return bookCoverUrls.resolve(book);
+    }
+
+    /**
+     * Rejects the URLs of the covers of a new book, which are resolved from their keys and cannot
+     * be set, and the keys that are not a cover of the book. The covers are not changed by the
+     * update, which accepts a book read from this endpoint, with the URLs of its covers.
+     *
+     * @param book the book sent by the client
+     * @throws BadRequestException if the book sets the URL of a cover or an invalid key
+     */
+    private void checkCovers(Book book) {
+        List<String> violations = new ArrayList<>();
+        if (book.frontCoverImageUrl != null) {
+            violations.add("frontCoverImageUrl is not supported anymore, set the frontCoverImageKey");
+        }
+        if (book.backCoverImageUrl != null) {
+            violations.add("backCoverImageUrl is not supported anymore, set the backCoverImageKey");
+        }
+        violations.addAll(bookCoverUrls.violationsOf(book));
+        if (!violations.isEmpty()) {
+            throw new BadRequestException(String.join("; ", violations));
+        }
     }
-}
\ No newline at end of file
+}
@@ -4,7 +4,12 @@
  */
 package it.dontesta.labs.quarkus.graphql.ws.resources.endpoint.repository.v1;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import it.dontesta.labs.quarkus.graphql.app.concurrency.ConcurrencyLimited;
 import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Editor;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
@@ -15,8 +20,17 @@ import java.util.List;
 @Path("/editors")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+@ConcurrencyLimited
 public class EditorResource {
 
+    private final Event<EntityChangedEvent> entityChanged;
+
+    @Inject
+    public EditorResource(Event<EntityChangedEvent> entityChanged) {
+        this.entityChanged = entityChanged;
+    }
+
     @GET
     public List<Editor> list() {
         return Editor.listAllEditors();
@@ -36,6 +50,7 @@ public class EditorResource {
     @Transactional
     public Response create(Editor editor) {
         editor.persist();
+        entityChanged.fire(EntityChangedEvent.created(Editor.class));
         return Response.created(URI.create("/editors/" + editor.id)).build();
     }
 
@@ -49,6 +64,7 @@ public class EditorResource {
         }
         existingEditor.name = editor.name;
         existingEditor.persist();
+        entityChanged.fire(EntityChangedEvent.changed(Editor.class, id));
         return existingEditor;
     }
 
@@ -61,5 +77,6 @@ public class EditorResource {
             throw new NotFoundException();
         }
         editor.delete();
+        entityChanged.fire(EntityChangedEvent.changed(Editor.class, id));
     }
 }
\ No newline at end of file
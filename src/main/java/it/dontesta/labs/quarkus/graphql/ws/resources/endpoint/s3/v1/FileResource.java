@@ -4,6 +4,7 @@
  */
 package it.dontesta.labs.quarkus.graphql.ws.resources.endpoint.s3.v1;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import it.dontesta.labs.quarkus.graphql.s3.service.MinioService;
 import jakarta.inject.Inject;
 import jakarta.validation.constraints.NotEmpty;
@@ -23,6 +24,7 @@ import org.jboss.resteasy.reactive.RestForm;
 import org.jboss.resteasy.reactive.multipart.FileUpload;
 
 @Path("/s3/files")
+@RunOnVirtualThread
 public class FileResource {
 
     private final MinioService minioService;
@@ -0,0 +1,73 @@
+-- The schema of the catalog, as created by Hibernate ORM before the versioned migrations
+
+create sequence author_SEQ start with 1 increment by 50;
+create sequence book_SEQ start with 1 increment by 50;
+create sequence editor_SEQ start with 1 increment by 50;
+create sequence book_created_outbox_SEQ start with 1 increment by 50;
+
+create table author (
+    id bigint not null,
+    first_name varchar(60) not null,
+    last_name varchar(60) not null,
+    sex varchar(1) not null,
+    birth_date date not null,
+    primary key (id)
+);
+
+create table editor (
+    id bigint not null,
+    name varchar(255),
+    primary key (id)
+);
+
+create table book (
+    id bigint not null,
+    title varchar(60) not null,
+    sub_title varchar(60),
+    isbn varchar(13) not null,
+    pages integer not null,
+    summary varchar(255) not null,
+    publication_date date not null,
+    genre varchar(20) not null,
+    frontCoverImageUrl varchar(512),
+    backCoverImageUrl varchar(512),
+    editor_id bigint,
+    primary key (id),
+    constraint book_editor_id_fk foreign key (editor_id) references editor (id)
+);
+
+create table book_languages (
+    book_id bigint not null,
+    language varchar(3) not null,
+    constraint book_languages_book_id_fk foreign key (book_id) references book (id)
+);
+
+create table book_formats (
+    book_id bigint not null,
+    format varchar(10) not null,
+    constraint book_formats_book_id_fk foreign key (book_id) references book (id)
+);
+
+create table book_keywords (
+    book_id bigint not null,
+    keyword varchar(255) not null,
+    constraint book_keywords_book_id_fk foreign key (book_id) references book (id)
+);
+
+create table book_authors (
+    book_id bigint not null,
+    author_id bigint not null,
+    constraint book_authors_book_id_fk foreign key (book_id) references book (id),
+    constraint book_authors_author_id_fk foreign key (author_id) references author (id)
+);
+
+create table book_created_outbox (
+    id bigint not null,
+    created_at timestamp(6) with time zone not null,
+    kind varchar(16) not null,
+    node_id varchar(64) not null,
+    payload varchar(32768) not null,
+    primary key (id)
+);
+
+create index book_created_outbox_created_at_idx on book_created_outbox (created_at, id);
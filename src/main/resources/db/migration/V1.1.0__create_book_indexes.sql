@@ -0,0 +1,16 @@
+-- The indexes of the lookups, of the sort fields and of the filters of the books.
+-- The id ends the indexes of the sort fields, it breaks the ties of the keyset pagination.
+
+-- The ISBN is the natural id of the book
+create unique index book_isbn_uk on book (isbn);
+
+create index book_title_idx on book (title, id);
+create index book_genre_idx on book (genre, id);
+create index book_pages_idx on book (pages, id);
+create index book_publication_date_idx on book (publication_date, id);
+create index book_editor_id_idx on book (editor_id, id);
+
+-- The reverse side of the associations, from the value to the books
+create index book_authors_author_id_idx on book_authors (author_id, book_id);
+create index book_languages_language_idx on book_languages (language, book_id);
+create index book_formats_format_idx on book_formats (format, book_id);
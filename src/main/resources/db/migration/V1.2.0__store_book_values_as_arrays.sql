@@ -0,0 +1,17 @@
+-- The languages, the formats and the keywords of the books move from tables of their own to
+-- array columns of the book: one book is read with one row and a change of its keywords
+-- rewrites one column instead of deleting and inserting every keyword again.
+-- The GIN indexes of the arrays are created on PostgreSQL by V1_2_1__CreateBookArrayIndexes.
+
+alter table book add column languages varchar(3) array;
+alter table book add column formats varchar(10) array;
+alter table book add column keywords varchar(255) array;
+
+update book set
+    languages = (select array_agg(l.language) from book_languages l where l.book_id = book.id),
+    formats = (select array_agg(f.format) from book_formats f where f.book_id = book.id),
+    keywords = (select array_agg(k.keyword) from book_keywords k where k.book_id = book.id);
+
+drop table book_languages;
+drop table book_formats;
+drop table book_keywords;
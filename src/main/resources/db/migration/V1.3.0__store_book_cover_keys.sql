@@ -0,0 +1,15 @@
+-- The covers of the books are stored as the keys of their objects in the bucket of the covers,
+-- instead of presigned URLs that expire: the URLs are signed when the books are read.
+-- The presigned URLs stored so far are dropped, the bootstrap of the covers links the books again;
+-- the other URLs, such as the ones of external images, are kept and returned as they are.
+
+alter table book add column front_cover_image_key varchar(512);
+alter table book add column back_cover_image_key varchar(512);
+
+update book set front_cover_image_key = frontCoverImageUrl
+    where frontCoverImageUrl not like '%X-Amz-Signature=%';
+update book set back_cover_image_key = backCoverImageUrl
+    where backCoverImageUrl not like '%X-Amz-Signature=%';
+
+alter table book drop column frontCoverImageUrl;
+alter table book drop column backCoverImageUrl;
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.app.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.dontesta.labs.quarkus.graphql.exception.ConcurrencyLimitExceededException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ConcurrencyLimiter limiter(int maxConcurrent, Duration acquireTimeout) {
+        return new ConcurrencyLimiter(maxConcurrent, acquireTimeout, registry);
+    }
+
+    @Test
+    void virtualThreadsRunAtMostTheMaximumConcurrency() throws Exception {
+        ConcurrencyLimiter limiter = limiter(3, Duration.ofSeconds(30));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                int task = i;
+                results.add(executor.submit(() -> limiter.call(() -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(5);
+                    running.decrementAndGet();
+                    return task;
+                })));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i, results.get(i).get());
+            }
+        }
+
+        assertEquals(3, peak.get());
+        assertEquals(50, registry.get("concurrency.limiter.wait").timer().count());
+        assertEquals(0, registry.get("concurrency.limiter.active").gauge().value());
+    }
+
+    @Test
+    void virtualThreadsAreRejectedWhenNoPermitIsFreeWithinTheTimeout() throws Exception {
+        ConcurrencyLimiter limiter = limiter(1, Duration.ofMillis(50));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Void> holder = executor.submit(() -> limiter.call(() -> {
+                holding.countDown();
+                release.await();
+                return null;
+            }));
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+            Future<Void> rejected = executor.submit(() -> limiter.call(() -> null));
+            ExecutionException failure = assertThrows(ExecutionException.class, rejected::get);
+            assertInstanceOf(ConcurrencyLimitExceededException.class, failure.getCause());
+
+            release.countDown();
+            holder.get();
+        }
+
+        assertEquals(1, registry.get("concurrency.limiter.rejected").counter().count());
+    }
+
+    @Test
+    void nestedInvocationsOfAVirtualThreadDoNotWaitForAnotherPermit() throws Exception {
+        ConcurrencyLimiter limiter = limiter(1, Duration.ofMillis(50));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> result = executor.submit(() -> limiter.call(() -> limiter.call(() -> "nested")));
+            assertEquals("nested", result.get());
+        }
+
+        assertEquals(0, registry.get("concurrency.limiter.rejected").counter().count());
+    }
+
+    @Test
+    void platformThreadsAreNotLimited() throws Exception {
+        ConcurrencyLimiter limiter = limiter(1, Duration.ofMillis(50));
+
+        assertEquals("platform", limiter.call(() -> limiter.call(() -> "platform")));
+        assertEquals(0, registry.get("concurrency.limiter.wait").timer().count());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.app.lifecycle.s3;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import it.dontesta.labs.quarkus.graphql.app.lifecycle.s3.BookFrontBackCoverLoader.BootstrapResult;
+import it.dontesta.labs.quarkus.graphql.app.lifecycle.s3.BookFrontBackCoverLoader.UploadEvent;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@QuarkusTest
+class BookFrontBackCoverLoaderTest {
+
+    @Inject
+    BookFrontBackCoverLoader loader;
+
+    @Inject
+    Event<UploadEvent> uploadEvent;
+
+    @Inject
+    Event<EntityChangedEvent> entityChanged;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    void bootstrap_accountsForEveryCoverAndMakesTheApplicationReady() throws Exception {
+        BootstrapResult result = loader.awaitBootstrap();
+
+        assertEquals(BookFrontBackCoverLoader.IMAGE_FILES.size(), result.uploaded() + result.skipped() + result.failed());
+        // The other readiness checks, as the one of MinIO, may be down
+        given()
+                .when().get("/q/health/ready")
+                .then()
+                .body("checks.find { it.name == '" + BookCoverBootstrapCheck.NAME + "' }.status", is("UP"))
+                .body("checks.find { it.name == '" + BookCoverBootstrapCheck.NAME + "' }.data.failed",
+                        is(result.failed()));
+    }
+
+    @Test
+    void onUploadEvent_linksTheBooksToTheKeysOfTheirCovers() throws Exception {
+        loader.awaitBootstrap();
+        String frontCover = "9780321967974_the_art_of_software_engineering_front_cover.jpg";
+        String backCover = "9780321967974_the_art_of_software_engineering_back_cover.jpg";
+        UploadEvent event = new UploadEvent("book-cover", List.of(frontCover, backCover,
+                "0000000000000_unknown_front_cover.jpg", "0000000000000_unknown_back_cover.jpg"));
+        Book before = QuarkusTransaction.requiringNew().call(() -> Book.findBookById(15L));
+
+        try {
+            // The books are linked without reading MinIO, the ISBNs without a book are left out
+            uploadEvent.fireAsync(event).toCompletableFuture().get(30, TimeUnit.SECONDS);
+
+            Book book = QuarkusTransaction.requiringNew().call(() -> Book.findBookById(15L));
+            assertEquals(frontCover, book.frontCoverImageKey);
+            assertEquals(backCover, book.backCoverImageKey);
+
+            // The books already linked to the same covers are not updated again
+            long updates = sessionFactory.getStatistics().getEntityUpdateCount();
+            uploadEvent.fireAsync(event).toCompletableFuture().get(30, TimeUnit.SECONDS);
+            assertEquals(updates, sessionFactory.getStatistics().getEntityUpdateCount());
+        } finally {
+            QuarkusTransaction.requiringNew().run(() -> {
+                Book book = Book.findBookById(15L);
+                book.frontCoverImageKey = before.frontCoverImageKey;
+                book.backCoverImageKey = before.backCoverImageKey;
+                entityChanged.fire(EntityChangedEvent.changed(Book.class, book.id));
+            });
+        }
+    }
+
+    @Test
+    void md5Of_hashesTheResourceAsTheETagOfASinglePartUpload() throws Exception {
+        URL resource = getClass().getClassLoader().getResource(BookFrontBackCoverLoader.IMAGE_FILES.getFirst());
+        byte[] content;
+        try (InputStream inputStream = resource.openStream()) {
+            content = inputStream.readAllBytes();
+        }
+
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content)),
+                BookFrontBackCoverLoader.md5Of(resource));
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.facet;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+
+@QuarkusTest
+class BookFacetIntegrationTest {
+
+    @Inject
+    BookFacetIndex bookFacetIndex;
+
+    private static String bookFacets(String filter) {
+        return "{\"query\": \"{ bookFacets(filter: " + filter + ") { totalCount bookIds "
+                + "genres { value count } languages { value count } formats { value count } editors { value count } } }\"}";
+    }
+
+    private static String books(String arguments) {
+        return "{\"query\": \"{ books(" + arguments + ") { totalCount edges { node { id title } } "
+                + "pageInfo { hasNextPage hasPreviousPage endCursor } } }\"}";
+    }
+
+    @BeforeEach
+    void awaitTheIndex() throws Exception {
+        // The bitmaps are updated after the commits, on a thread of their own
+        bookFacetIndex.awaitUpdates();
+    }
+
+    @Test
+    void bookFacets_countsTheValuesOfEachFacetWithoutItsOwnConstraint() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(bookFacets("{genres: [\\\"AI\\\"]}"))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", is((Object) null))
+                .body("data.bookFacets.totalCount", is(3))
+                .body("data.bookFacets.bookIds", contains(3, 5, 7))
+                .body("data.bookFacets.languages.find { it.value == 'eng' }.count", is(3))
+                .body("data.bookFacets.languages.find { it.value == 'deu' }.count", is(1))
+                .body("data.bookFacets.formats.find { it.value == 'EPUB' }.count", is(3))
+                .body("data.bookFacets.editors.value", contains("3", "5", "7"))
+                // The other genres are counted as if the genre were not constrained
+                .body("data.bookFacets.genres.find { it.value == 'AI' }.count", is(3))
+                .body("data.bookFacets.genres.find { it.value == 'Technology' }.count", greaterThanOrEqualTo(3));
+    }
+
+    @Test
+    void bookFacets_intersectsTheFacetsAndUnitesTheirValues() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(bookFacets("{genres: [\\\"AI\\\", \\\"Technology\\\"], languages: [\\\"deu\\\", \\\"spa\\\"]}"))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", is((Object) null))
+                .body("data.bookFacets.totalCount", is(2))
+                .body("data.bookFacets.bookIds", contains(3, 4));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(bookFacets("{genres: [\\\"Unknown\\\"]}"))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.bookFacets.totalCount", is(0))
+                .body("data.bookFacets.bookIds", empty());
+    }
+
+    @Test
+    void books_pagesThroughTheFilteredBooks() {
+        String filter = "filter: {genres: [\\\"AI\\\"]}";
+        String endCursor = given()
+                .contentType(ContentType.JSON)
+                .body(books("first: 2, " + filter))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", is((Object) null))
+                .body("data.books.totalCount", is(3))
+                .body("data.books.edges.node.id", contains(3, 5))
+                .body("data.books.pageInfo.hasNextPage", is(true))
+                .extract().path("data.books.pageInfo.endCursor");
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(books("first: 2, after: \\\"" + endCursor + "\\\", " + filter))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.books.edges.node.id", contains(7))
+                .body("data.books.pageInfo.hasNextPage", is(false))
+                .body("data.books.pageInfo.hasPreviousPage", is(true));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(books("last: 2, " + filter))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.books.edges.node.id", contains(5, 7))
+                .body("data.books.pageInfo.hasPreviousPage", is(true));
+    }
+
+    @Test
+    void books_sortsTheFilteredBooksByAnotherField() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(books("first: 5, orderBy: TITLE, filter: {genres: [\\\"AI\\\"]}"))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", is((Object) null))
+                .body("data.books.edges.node.title", contains("Algorithmic pattern analysis",
+                        "Networked neural strategy", "Optimized data throughput"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(books("first: 5, orderBy: TITLE, filter: {languages: [\\\"eng\\\"]}"))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors[0].message", containsString("sort them by ID or refine the filter"));
+    }
+
+    @Test
+    void facets_followTheCreatedAndTheDeletedBooks() throws Exception {
+        String filter = "{genres: [\\\"Bitmaps\\\"]}";
+        // Cached before the creation, the filtered list must be evicted once the bitmaps are updated
+        given()
+                .contentType(ContentType.JSON)
+                .body(books("first: 5, filter: " + filter))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.books.edges", empty());
+
+        String location = given()
+                .contentType(ContentType.JSON)
+                .body("{\"title\": \"Compressed bitmaps\", \"isbn\": \"9781234567880\", \"pages\": 120, "
+                        + "\"summary\": \"Roaring explained\", \"publication\": \"2024-05-01\", \"genre\": \"Bitmaps\", "
+                        + "\"languages\": [\"lat\"], \"formats\": [\"PDF\"]}")
+                .when()
+                .post("/api/books")
+                .then()
+                .statusCode(201)
+                .extract().header("Location");
+        String bookId = location.substring(location.lastIndexOf('/') + 1);
+        bookFacetIndex.awaitUpdates();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(bookFacets(filter))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.bookFacets.totalCount", is(1))
+                .body("data.bookFacets.bookIds", contains(Integer.parseInt(bookId)))
+                .body("data.bookFacets.languages.value", contains("lat"))
+                .body("data.bookFacets.formats.value", hasItem("PDF"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(books("first: 5, filter: " + filter))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.books.edges.node.id", contains(Integer.parseInt(bookId)));
+
+        given()
+                .when()
+                .delete("/api/books/" + bookId)
+                .then()
+                .statusCode(204);
+        bookFacetIndex.awaitUpdates();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(bookFacets(filter))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.bookFacets.totalCount", is(0))
+                .body("data.bookFacets.languages", empty());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.orm.panache.batch;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import it.dontesta.labs.quarkus.graphql.exception.MissingReferenceException;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Author;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Editor;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class BookReferenceResolverTest {
+
+    @Inject
+    BookReferenceResolver resolver;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    private static Book book(Long editorId, Long... authorIds) {
+        Book book = new Book();
+        book.editor = new Editor();
+        book.editor.id = editorId;
+        book.authors = new ArrayList<>();
+        for (Long authorId : authorIds) {
+            Author author = new Author();
+            author.id = authorId;
+            book.authors.add(author);
+        }
+        return book;
+    }
+
+    @Test
+    void resolveAll_readsTheReferencesOfEveryBookWithOneQueryEach() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<Book> books = List.of(book(3L, 3L, 4L), book(4L, 4L, 5L), book(999L, 5L, 998L, 999L), book(null));
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            long statements = statistics.getPrepareStatementCount();
+            List<List<String>> missing = resolver.resolveAll(books);
+
+            assertEquals(2, statistics.getPrepareStatementCount() - statements);
+            assertEquals(List.of(), missing.get(0));
+            assertEquals(List.of(), missing.get(1));
+            assertEquals(List.of("Editor not found with Id 999", "Author not found with Id 998",
+                    "Author not found with Id 999"), missing.get(2));
+            assertEquals(List.of(), missing.get(3));
+
+            // The references are replaced with the managed entities, shared by the books
+            assertTrue(Editor.getEntityManager().contains(books.get(0).editor));
+            assertSame(books.get(0).authors.get(1), books.get(1).authors.get(0));
+            assertEquals(List.of(5L), books.get(2).authors.stream().map(author -> author.id).toList());
+            // A new editor is left to be persisted by cascade
+            assertNull(books.get(3).editor.id);
+        });
+    }
+
+    @Test
+    void resolveAuthors_reportsEveryMissingAuthor() {
+        MissingReferenceException exception = QuarkusTransaction.requiringNew().call(() ->
+                assertThrows(MissingReferenceException.class, () -> resolver.resolveAuthors(List.of(3L, 998L, 999L))));
+
+        assertEquals(List.of("Author not found with Id 998", "Author not found with Id 999"), exception.getMissing());
+    }
+}
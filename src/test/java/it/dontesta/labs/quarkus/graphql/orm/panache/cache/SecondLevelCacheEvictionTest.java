@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.orm.panache.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.BookCreatedOutbox;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Editor;
+import it.dontesta.labs.quarkus.graphql.ws.graphql.subscription.bus.BookCreatedMessage;
+import jakarta.inject.Inject;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@TestProfile(SecondLevelCacheEvictionTest.ReplicasProfile.class)
+class SecondLevelCacheEvictionTest {
+
+    private static final Long EDITOR_ID = 7L; // Assumes an editor with ID 7 exists
+    private static final Duration TIMEOUT = Duration.ofSeconds(15);
+
+    public static class ReplicasProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "app.orm.cache.max-staleness", "1S",
+                    "app.graphql.subscriptions.book-created.bus", "outbox",
+                    "app.graphql.subscriptions.book-created.outbox.node-id", "test-node",
+                    "app.graphql.subscriptions.book-created.outbox.poll-interval", "1s");
+        }
+    }
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    private double evictions(String cause) {
+        return registry.get("orm.cache.evictions").tag("cause", cause).counter().count();
+    }
+
+    private static String editorName() {
+        return QuarkusTransaction.requiringNew().call(() -> Editor.findEditorById(EDITOR_ID).name);
+    }
+
+    /**
+     * Changes the name of the editor without Hibernate ORM, as another replica would.
+     */
+    private void renameEditor(String name) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement update = connection.prepareStatement("update editor set name = ? where id = ?")) {
+            update.setString(1, name);
+            update.setLong(2, EDITOR_ID);
+            assertEquals(1, update.executeUpdate());
+        }
+    }
+
+    @Test
+    void changeOfAnotherReplica_isReadWithinTheMaxStaleness() throws Exception {
+        String name = editorName();
+
+        renameEditor("Renamed by another replica");
+        try {
+            long deadline = System.nanoTime() + TIMEOUT.toNanos();
+            while (!"Renamed by another replica".equals(editorName()) && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            assertEquals("Renamed by another replica", editorName());
+        } finally {
+            renameEditor(name);
+            sessionFactory.getCache().evictEntityData(Editor.class, EDITOR_ID);
+        }
+    }
+
+    @Test
+    void bookCreatedByAnotherReplica_evictsTheResultsOfTheQueries() throws Exception {
+        double evictions = evictions("remote-change");
+
+        Book book = new Book();
+        book.id = 10_100L;
+        book.title = "Created on another replica";
+        book.genre = "cache-remote";
+        book.publication = LocalDate.of(2025, 1, 28);
+        book.languages = List.of("IT");
+        String payload = objectMapper.writeValueAsString(BookCreatedMessage.of(book));
+        QuarkusTransaction.requiringNew().run(() -> {
+            BookCreatedOutbox event = new BookCreatedOutbox();
+            event.nodeId = "other-node";
+            event.createdAt = Instant.now();
+            event.payload = payload;
+            event.persist();
+        });
+
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (evictions("remote-change") == evictions && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(evictions("remote-change") > evictions);
+    }
+}
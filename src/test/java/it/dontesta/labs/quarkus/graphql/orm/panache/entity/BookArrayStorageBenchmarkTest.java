@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.orm.panache.entity;
+
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.EntityManager;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the cost of reading a book with its languages, formats and keywords and of adding a
+ * keyword to it, with the values stored as arrays in the row of the book and with the values
+ * stored in tables of their own, as they were before {@code V1.2.0}.
+ * <p>
+ * The mapping of {@link Book} is checked to read a book and to write its keywords with a single
+ * statement each. The tables of the values are then reproduced, and dropped at the end, and both layouts
+ * are timed with the statements that Hibernate issues for each of them: the time per book is
+ * logged, the assertions do not depend on the speed of the machine. The timing is tagged
+ * {@code benchmark}, it runs only with {@code -Dbenchmark}.
+ */
+@QuarkusTest
+class BookArrayStorageBenchmarkTest {
+
+    private static final Logger LOG = Logger.getLogger(BookArrayStorageBenchmarkTest.class);
+
+    private static final int ROUNDS = 200;
+
+    private static final List<String> VALUES = List.of("languages", "formats", "keywords");
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    @TestTransaction
+    void book_isReadAndWrittenWithASingleStatement() {
+        Statistics statistics = sessionFactory.getStatistics();
+
+        long statements = statistics.getPrepareStatementCount();
+        Book book = entityManager.find(Book.class, 5L,
+                Map.of("jakarta.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS));
+        assertTrue(book.languages.size() + book.formats.size() + book.keywords.size() > 0);
+        assertEquals(1, statistics.getPrepareStatementCount() - statements);
+
+        // The change is rolled back at the end of the test
+        statements = statistics.getPrepareStatementCount();
+        List<String> keywords = new ArrayList<>(book.keywords);
+        keywords.add("benchmark");
+        book.keywords = keywords;
+        entityManager.flush();
+        assertEquals(1, statistics.getPrepareStatementCount() - statements);
+    }
+
+    @Test
+    @TestTransaction
+    void projectBooksByIds_readsTheArraysWithTheBooks() {
+        Statistics statistics = sessionFactory.getStatistics();
+
+        long statements = statistics.getPrepareStatementCount();
+        List<Book> books = Book.projectBooksByIds(List.of(5L, 6L, 7L), VALUES);
+        // At most the query of the books, that may come from the query cache
+        assertTrue(statistics.getPrepareStatementCount() - statements <= 1);
+        assertEquals(3, books.size());
+        for (Book book : books) {
+            Book entity = entityManager.find(Book.class, book.id);
+            assertEquals(entity.languages, book.languages);
+            assertEquals(entity.formats, book.formats);
+            assertEquals(entity.keywords, book.keywords);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void arraysAndTables_areReadAndWrittenForEveryBook() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            List<Long> bookIds = createTheTables(connection);
+            connection.setAutoCommit(false);
+            try {
+                // A round of warm up of each layout, then the measured rounds
+                read(connection, bookIds, true);
+                read(connection, bookIds, false);
+                long tablesReadNanos = read(connection, bookIds, false);
+                long arraysReadNanos = read(connection, bookIds, true);
+                write(connection, bookIds, true);
+                write(connection, bookIds, false);
+                long tablesWriteNanos = write(connection, bookIds, false);
+                long arraysWriteNanos = write(connection, bookIds, true);
+
+                long reads = (long) ROUNDS * bookIds.size();
+                LOG.infof("Read of a book: arrays 1 statement %,d ns, tables %d statements %,d ns (%.1fx)",
+                        arraysReadNanos / reads, 1 + VALUES.size(), tablesReadNanos / reads,
+                        (double) tablesReadNanos / arraysReadNanos);
+                LOG.infof("Write of a keyword: arrays 1 statement %,d ns, tables delete and insert %,d ns (%.1fx)",
+                        arraysWriteNanos / reads, tablesWriteNanos / reads, (double) tablesWriteNanos / arraysWriteNanos);
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    for (String values : VALUES) {
+                        statement.execute("drop table benchmark_book_" + values);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a table of its own for each array of the books, with the values of the arrays.
+     */
+    private static List<Long> createTheTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String values : VALUES) {
+                statement.execute("create table benchmark_book_" + values
+                        + " (book_id bigint not null, item varchar(255) not null)");
+                statement.execute("create index benchmark_book_" + values + "_idx on benchmark_book_"
+                        + values + " (book_id)");
+            }
+        }
+        List<Long> bookIds = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet books = statement.executeQuery("select id, languages, formats, keywords from book order by id")) {
+            while (books.next()) {
+                long bookId = books.getLong(1);
+                bookIds.add(bookId);
+                for (int i = 0; i < VALUES.size(); i++) {
+                    insert(connection, VALUES.get(i), bookId, books.getArray(i + 2));
+                }
+            }
+        }
+        return bookIds;
+    }
+
+    private static void insert(Connection connection, String values, long bookId, Array array) throws SQLException {
+        if (array == null) {
+            return;
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into benchmark_book_" + values + " (book_id, item) values (?, ?)")) {
+            for (Object value : (Object[]) array.getArray()) {
+                insert.setLong(1, bookId);
+                insert.setString(2, (String) value);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static long read(Connection connection, List<Long> bookIds, boolean arrays) throws SQLException {
+        String book = arrays
+                ? "select id, title, isbn, languages, formats, keywords from book where id = ?"
+                : "select id, title, isbn from book where id = ?";
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (long bookId : bookIds) {
+                query(connection, book, bookId);
+                if (!arrays) {
+                    for (String values : VALUES) {
+                        query(connection, "select item from benchmark_book_" + values + " where book_id = ?", bookId);
+                    }
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void query(Connection connection, String sql, long bookId) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(sql)) {
+            select.setLong(1, bookId);
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    rows.getObject(1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the keywords of each book with the same keywords and one more, as Hibernate does:
+     * an update of the column of the array, or a delete and an insert of each keyword of the bag.
+     */
+    private static long write(Connection connection, List<Long> bookIds, boolean arrays) throws SQLException {
+        String[] keywords = {"key1", "key2", "key3", "benchmark"};
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (long bookId : bookIds) {
+                if (arrays) {
+                    try (PreparedStatement update = connection.prepareStatement(
+                            "update book set keywords = ? where id = ?")) {
+                        update.setArray(1, connection.createArrayOf("VARCHAR", keywords));
+                        update.setLong(2, bookId);
+                        update.executeUpdate();
+                    }
+                } else {
+                    try (PreparedStatement delete = connection.prepareStatement(
+                            "delete from benchmark_book_keywords where book_id = ?")) {
+                        delete.setLong(1, bookId);
+                        delete.executeUpdate();
+                    }
+                    try (PreparedStatement insert = connection.prepareStatement(
+                            "insert into benchmark_book_keywords (book_id, item) values (?, ?)")) {
+                        for (String keyword : keywords) {
+                            insert.setLong(1, bookId);
+                            insert.setString(2, keyword);
+                            insert.addBatch();
+                        }
+                        insert.executeBatch();
+                    }
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
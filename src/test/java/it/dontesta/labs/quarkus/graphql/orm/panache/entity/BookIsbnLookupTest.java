@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.orm.panache.entity;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@QuarkusTest
+class BookIsbnLookupTest {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    private static String book(String title, String isbn) {
+        return "{title: \\\"" + title + "\\\", isbn: \\\"" + isbn + "\\\", pages: 120, summary: \\\"Summary\\\", "
+                + "publication: \\\"2025-01-28\\\", genre: \\\"Isbn\\\", languages: [\\\"IT\\\"], formats: [\\\"PDF\\\"], "
+                + "keywords: [\\\"isbn\\\"], authors: [{id: 5}], editor: {id: 5}}";
+    }
+
+    @Test
+    void findBookByIsbn_readsTheBookFromTheNaturalIdCacheOnceResolved() {
+        Statistics statistics = sessionFactory.getStatistics();
+
+        QuarkusTransaction.requiringNew().run(() -> assertNotNull(Book.findBookByIsbn("9780321967974")));
+        QuarkusTransaction.requiringNew().run(() -> {
+            long statements = statistics.getPrepareStatementCount();
+            long hits = statistics.getNaturalIdCacheHitCount();
+            Book book = Book.findBookByIsbn("9780321967974");
+
+            assertEquals(15L, book.id);
+            assertEquals(0, statistics.getPrepareStatementCount() - statements);
+            assertEquals(1, statistics.getNaturalIdCacheHitCount() - hits);
+            assertNull(Book.findBookByIsbn("0000000000000"));
+            assertEquals(Set.of("9780321967974"), Book.findExistingIsbns(List.of("9780321967974", "0000000000000")));
+        });
+    }
+
+    @Test
+    void findBooksByIsbns_readsTheBooksWithASingleQuery() {
+        Statistics statistics = sessionFactory.getStatistics();
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            long statements = statistics.getPrepareStatementCount();
+            List<Book> books = Book.findBooksByIsbns(List.of("9780321967974", "9780596805190", "0000000000000"));
+
+            assertEquals(1, statistics.getPrepareStatementCount() - statements);
+            Map<String, Long> ids = books.stream().collect(Collectors.toMap(book -> book.isbn, book -> book.id));
+            assertEquals(Long.valueOf(15L), ids.get("9780321967974"));
+            assertEquals(Set.of("9780321967974", "9780596805190"), ids.keySet());
+        });
+    }
+
+    @Test
+    void bookByIsbn_returnsTheBookWithTheIsbn() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"{ bookByIsbn(isbn: \\\"9780321967974\\\") { id title } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.bookByIsbn.id", is(15))
+                .body("data.bookByIsbn.title", is("The Art of Software Engineering"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"{ bookByIsbn(isbn: \\\"0000000000000\\\") { id } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.bookByIsbn", nullValue());
+    }
+
+    @Test
+    void getByIsbn_returnsTheBookOrNotFound() {
+        given()
+                .when().get("/api/books/isbn/9780321967974")
+                .then()
+                .statusCode(200)
+                .body("id", is(15))
+                .body("isbn", is("9780321967974"));
+
+        given()
+                .when().get("/api/books/isbn/0000000000000")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    void create_rejectsADuplicateIsbn() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"title\": \"Another art\", \"isbn\": \"9780321967974\", \"pages\": 120, "
+                        + "\"summary\": \"Summary\", \"publication\": \"2025-01-28\", \"genre\": \"Isbn\"}")
+                .when()
+                .post("/api/books")
+                .then()
+                .statusCode(409)
+                .body("error", equalTo("A book with ISBN 9780321967974 already exists"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"mutation { createBook(book: " + book("Another art", "9780321967974") + ") { id } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors[0].message", containsString("A book with ISBN 9780321967974 already exists"));
+    }
+
+    @Test
+    void createBooks_reportsTheIsbnsAlreadyTakenInTheCatalogOrInTheBatch() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"mutation { createBooks(books: ["
+                        + book("Unique isbn", "9781111111111") + ", "
+                        + book("Taken by the catalog", "9780321967974") + ", "
+                        + book("Taken by the batch", "9781111111111")
+                        + "]) { books { id } errors { index message } } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.createBooks.books[0].id", notNullValue())
+                .body("data.createBooks.books[1]", nullValue())
+                .body("data.createBooks.books[2]", nullValue())
+                .body("data.createBooks.errors.index", contains(1, 2))
+                .body("data.createBooks.errors.message", contains("A book with ISBN 9780321967974 already exists",
+                        "A book with ISBN 9781111111111 already exists"));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.orm.panache.entity;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import it.dontesta.labs.quarkus.graphql.orm.panache.batch.KeyedResults;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SecondLevelCacheTest {
+
+    private static final Long EDITOR_ID = 7L; // Assumes an editor with ID 7 exists
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    private long hits(Class<?> entityClass) {
+        Statistics statistics = sessionFactory.getStatistics();
+        return statistics.getDomainDataRegionStatistics(entityClass.getName()).getHitCount();
+    }
+
+    private long queryCacheReads() {
+        Statistics statistics = sessionFactory.getStatistics();
+        return statistics.getQueryCachePutCount() + statistics.getQueryCacheHitCount();
+    }
+
+    @Test
+    @Order(1)
+    void findEditorById_isServedFromTheCache() {
+        QuarkusTransaction.requiringNew().run(() -> Editor.findEditorById(EDITOR_ID));
+        long hits = hits(Editor.class);
+
+        Editor editor = QuarkusTransaction.requiringNew().call(() -> Editor.findEditorById(EDITOR_ID));
+
+        assertEquals(EDITOR_ID, editor.id);
+        assertTrue(hits(Editor.class) > hits);
+    }
+
+    @Test
+    @Order(2)
+    void update_isVisibleToTheNextRead() {
+        String name = QuarkusTransaction.requiringNew().call(() -> Editor.findEditorById(EDITOR_ID).name);
+
+        QuarkusTransaction.requiringNew().run(() -> Editor.findEditorById(EDITOR_ID).name = "Digital Reads Cached");
+        assertEquals("Digital Reads Cached",
+                QuarkusTransaction.requiringNew().call(() -> Editor.findEditorById(EDITOR_ID).name));
+
+        QuarkusTransaction.requiringNew().run(() -> Editor.findEditorById(EDITOR_ID).name = name);
+    }
+
+    @Test
+    @Order(3)
+    void metrics_exposeTheCacheRegions() {
+        given()
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .body(containsString("hibernate_second_level_cache_requests_total"))
+                .body(containsString("region=\"" + Editor.class.getName() + "\""));
+    }
+
+    @Test
+    @Order(4)
+    void batchOfAPage_isReadThroughTheQueryCache() {
+        long reads = queryCacheReads();
+
+        QuarkusTransaction.requiringNew().run(() -> Author.mapAuthorsByBookIds(List.of(1L, 2L, 3L)));
+
+        assertTrue(queryCacheReads() > reads);
+    }
+
+    @Test
+    @Order(5)
+    void largerBatch_bypassesTheQueryCache() {
+        List<Long> bookIds = LongStream.rangeClosed(1, KeyedResults.MAX_CACHEABLE_IDS + 1).boxed().toList();
+        long reads = queryCacheReads();
+
+        QuarkusTransaction.requiringNew().run(() -> Author.mapAuthorsByBookIds(bookIds));
+
+        assertEquals(reads, queryCacheReads());
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.pagination.count;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@QuarkusTest
+class BookCountServiceTest {
+
+    @Inject
+    BookCountService bookCountService;
+
+    @Test
+    void totalCount_isDiscardedAfterTheCommitOfTheChanges() {
+        // Cached for the time to live, until a change of the books is committed
+        long count = bookCountService.totalCount();
+
+        String location = given()
+                .contentType(ContentType.JSON)
+                .body("{\"title\": \"Counted once\", \"isbn\": \"9781234567811\", \"pages\": 100, "
+                        + "\"summary\": \"Count me\", \"publication\": \"2024-05-01\", \"genre\": \"Counting\"}")
+                .when()
+                .post("/api/books")
+                .then()
+                .statusCode(201)
+                .extract().header("Location");
+        assertEquals(count + 1, bookCountService.totalCount());
+
+        given()
+                .when()
+                .delete("/api/books/" + location.substring(location.lastIndexOf('/') + 1))
+                .then()
+                .statusCode(204);
+        assertEquals(count, bookCountService.totalCount());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.pagination.filter;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import it.dontesta.labs.quarkus.graphql.pagination.keyset.BookKeysetPaginator;
+import it.dontesta.labs.quarkus.graphql.pagination.type.BookConnection;
+import it.dontesta.labs.quarkus.graphql.pagination.type.BookSortField;
+import it.dontesta.labs.quarkus.graphql.ws.dto.BookFilter;
+import jakarta.inject.Inject;
+import java.time.LocalDate;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@QuarkusTest
+class BookFilterPushdownTest {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    private static String books(String arguments) {
+        return "{\"query\": \"{ books(" + arguments + ") { totalCount edges { node { id publication } } "
+                + "pageInfo { hasNextPage } } }\"}";
+    }
+
+    @Test
+    void paginate_readsAPageOfFilteredBooksWithASingleStatement() {
+        BookFilter filter = new BookFilter(List.of("AI", "Technology", "Robotics", "Biotech"), List.of("eng"),
+                List.of("EPUB", "PDF", "MOBI", "AZW3"), List.of(3L, 4L, 9L, 10L), List.of(3L, 4L),
+                LocalDate.of(2022, 1, 1), null, null, null);
+        Statistics statistics = sessionFactory.getStatistics();
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            BookCondition condition = BookFilterCompiler.compile(filter, BookSortField.PUBLICATION);
+            long statements = statistics.getPrepareStatementCount();
+            BookConnection connection = BookKeysetPaginator.paginate(5, null, null, null, BookSortField.PUBLICATION,
+                    List.of("title"), 100, (sortField, boundaryId, backward, limit) -> condition);
+
+            assertEquals(1, statistics.getPrepareStatementCount() - statements);
+            assertEquals(List.of(10L, 3L, 9L), connection.getEdges().stream().map(edge -> edge.getNode().id).toList());
+        });
+    }
+
+    @Test
+    void books_pushesTheFilterDownToTheQueryOfThePage() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(books("first: 2, orderBy: PUBLICATION, filter: {authorIds: [3, 4], publishedFrom: \\\"2022-01-01\\\"}"))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", is((Object) null))
+                .body("data.books.totalCount", is(3))
+                .body("data.books.edges.node.id", contains(10, 3))
+                .body("data.books.pageInfo.hasNextPage", is(true));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(books("first: 5, orderBy: PAGES, filter: {genres: [\\\"AI\\\"], minPages: 450, maxPages: 700}"))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", is((Object) null))
+                .body("data.books.edges.node.id", contains(7, 5));
+    }
+
+    @Test
+    void books_rejectsARangeThatNoIndexCanServeInTheOrderOfTheSort() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(books("first: 5, orderBy: TITLE, filter: {minPages: 400}"))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors[0].message", equalTo("The books filtered by the range of the pages must be sorted by PAGES"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(books("first: 5, orderBy: PAGES, filter: {minPages: 400, publishedTo: \\\"2020-01-01\\\"}"))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors[0].message",
+                        equalTo("The books can be filtered by the range of the publication or of the pages, not both"));
+    }
+
+    @Test
+    void compile_joinsTheTablesOfTheCollectionsOnlyWhenFiltered() {
+        BookCondition condition = BookFilterCompiler.compile(
+                new BookFilter(List.of("AI"), null, List.of(), List.of(3L), null, null, null, null, null),
+                BookSortField.ID);
+
+        assertEquals("genre in :genres and editor.id in :editorIds", condition.jpql());
+        assertEquals(BookCondition.ALL, BookFilterCompiler.compile(
+                new BookFilter(null, null, null, null, null, null, null, null, null), BookSortField.TITLE));
+        assertThrows(IllegalArgumentException.class, () -> BookFilterCompiler.compile(
+                new BookFilter(null, null, null, null, null, LocalDate.of(2020, 1, 1), null, null, null),
+                BookSortField.ID));
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.pagination.keyset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.pagination.type.BookSortField;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+class BookCursorTest {
+
+    @Test
+    void encodeByIdKeepsTheIdOnlyFormat() {
+        Book book = new Book();
+        book.id = 0L;
+
+        assertEquals("MA==", BookCursor.of(BookSortField.ID, book).encode());
+    }
+
+    @Test
+    void decodeRoundTripsTheSortKeyAndTheId() {
+        Book book = new Book();
+        book.id = 15L;
+        book.publication = LocalDate.of(2021, 3, 15);
+
+        String cursor = BookCursor.of(BookSortField.PUBLICATION, book).encode();
+        BookCursor decoded = BookCursor.decode(cursor, BookSortField.PUBLICATION);
+
+        assertEquals(LocalDate.of(2021, 3, 15), decoded.key());
+        assertEquals(15L, decoded.id());
+    }
+
+    @Test
+    void decodeKeepsSeparatorsInTheSortKey() {
+        Book book = new Book();
+        book.id = 7L;
+        book.title = "Java: The Good Parts";
+
+        String cursor = BookCursor.of(BookSortField.TITLE, book).encode();
+
+        assertEquals("Java: The Good Parts", BookCursor.decode(cursor, BookSortField.TITLE).key());
+    }
+
+    @Test
+    void decodeThrowsExceptionForCursorOfAnotherSortField() {
+        assertThrows(IllegalArgumentException.class, () -> BookCursor.decode("MA==", BookSortField.TITLE));
+    }
+}
@@ -78,4 +78,14 @@ class BookConnectionTest {
 
         assertEquals(true, pageInfo.isHasNextPage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void createPageInfoWithPreviousPageAndStartCursor() {
+        PageInfo pageInfo = PageInfo.create(false, true, "Mw==", "NA==");
+
+        assertEquals(false, pageInfo.isHasNextPage());
+        assertEquals(true, pageInfo.isHasPreviousPage());
+        assertEquals("Mw==", pageInfo.getStartCursor());
+        assertEquals("NA==", pageInfo.getEndCursor());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.s3.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.MinioClient;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class PresignedUrlServiceTest {
+
+    // Nothing listens on the port: any request to MinIO, such as a lookup of the region, would fail
+    private final MinioService minioService = new MinioService(MinioClient.builder()
+            .endpoint("http://localhost:1")
+            .credentials("access-key", "secret-key")
+            .build());
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    // The tasks of the cache, such as the refreshes, run when the test says so
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    private PresignedUrlService service(Duration expiry, Duration minValidity, Duration refreshAhead) {
+        return new PresignedUrlService(minioService, registry, "eu-south-1", expiry, minValidity, refreshAhead, 100,
+                nanos::get, tasks::add);
+    }
+
+    private void runTasks() {
+        for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+            task.run();
+        }
+    }
+
+    @Test
+    void urlOf_signsLocallyOnceAndReusesTheUrl() {
+        PresignedUrlService service = service(Duration.ofHours(1), Duration.ofMinutes(10), Duration.ofMinutes(10));
+
+        String url = service.urlOf("book-cover", "front_cover.jpg");
+        assertTrue(url.startsWith("http://localhost:1/book-cover/front_cover.jpg?"), url);
+        assertTrue(url.contains("X-Amz-Expires=3600"), url);
+        assertTrue(url.contains("%2Feu-south-1%2Fs3%2F"), url);
+
+        for (int i = 0; i < 99; i++) {
+            assertSame(url, service.urlOf("book-cover", "front_cover.jpg"));
+        }
+        assertEquals(99, registry.get("cache.gets").tag("cache", "s3.presigned-urls").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "s3.presigned-urls").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void urlOf_signsTheUrlAgainBeforeItsMinimumValidity() {
+        PresignedUrlService service = service(Duration.ofHours(1), Duration.ofMinutes(10), Duration.ofMinutes(10));
+        String url = service.urlOf("book-cover", "front_cover.jpg");
+
+        // Valid for 15 minutes more: served while it is signed again in the background
+        nanos.set(Duration.ofMinutes(45).toNanos());
+        assertSame(url, service.urlOf("book-cover", "front_cover.jpg"));
+        assertSame(url, service.urlOf("book-cover", "front_cover.jpg"));
+        runTasks();
+        String refreshed = service.urlOf("book-cover", "front_cover.jpg");
+        assertNotSame(url, refreshed);
+
+        // Never read while valid for at least 10 minutes more: signed again while reading it
+        nanos.addAndGet(Duration.ofMinutes(51).toNanos());
+        assertNotSame(refreshed, service.urlOf("book-cover", "front_cover.jpg"));
+    }
+
+    @Test
+    void urlOf_forgetsTheInvalidatedUrl() {
+        PresignedUrlService service = service(Duration.ofHours(1), Duration.ofMinutes(10), Duration.ofMinutes(10));
+        String url = service.urlOf("book-cover", "front_cover.jpg");
+
+        service.invalidate("book-cover", "front_cover.jpg");
+        assertNotSame(url, service.urlOf("book-cover", "front_cover.jpg"));
+    }
+
+    @Test
+    void constructor_rejectsAnExpiryShorterThanTheMinimumValidityAndTheRefresh() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service(Duration.ofMinutes(20), Duration.ofMinutes(10), Duration.ofMinutes(10)));
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.search;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import jakarta.inject.Inject;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class BookSearchIntegrationTest {
+
+    @Inject
+    BookSearchIndex bookSearchIndex;
+
+    private static String searchBooks(String arguments) {
+        return "{\"query\": \"{ searchBooks(" + arguments + ") { totalCount edges { cursor score "
+                + "highlights { field fragments } node { id title } } pageInfo { hasNextPage hasPreviousPage endCursor } } }\"}";
+    }
+
+    @BeforeEach
+    void awaitTheIndex() throws Exception {
+        // The index is updated after the commits, on a thread of its own
+        bookSearchIndex.awaitUpdates();
+    }
+
+    @Test
+    void searchBooks_ranksTheBooksByRelevanceAndHighlightsTheMatches() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(searchBooks("text: \\\"neural\\\""))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", is((Object) null))
+                .body("data.searchBooks.totalCount", is(1))
+                .body("data.searchBooks.edges[0].node.id", is(3))
+                .body("data.searchBooks.edges[0].score", greaterThan(0f))
+                .body("data.searchBooks.edges[0].highlights.field", hasItem("title"))
+                .body("data.searchBooks.edges[0].highlights.find { it.field == 'title' }.fragments",
+                        contains("Networked <b>neural</b> strategy"));
+    }
+
+    @Test
+    void searchBooks_pagesThroughTheResults() {
+        String text = "text: \\\"neural | quantum | multimedia\\\"";
+        String endCursor = given()
+                .contentType(ContentType.JSON)
+                .body(searchBooks(text + ", first: 2"))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.searchBooks.totalCount", is(3))
+                .body("data.searchBooks.edges", hasSize(2))
+                .body("data.searchBooks.pageInfo.hasNextPage", is(true))
+                .body("data.searchBooks.pageInfo.hasPreviousPage", is(false))
+                .extract().path("data.searchBooks.pageInfo.endCursor");
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(searchBooks(text + ", first: 2, after: \\\"" + endCursor + "\\\""))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.searchBooks.edges", hasSize(1))
+                .body("data.searchBooks.pageInfo.hasNextPage", is(false))
+                .body("data.searchBooks.pageInfo.hasPreviousPage", is(true));
+    }
+
+    @Test
+    void searchBooks_rejectsBlankText() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(searchBooks("text: \\\" \\\""))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors[0].message", equalTo("The searched text must not be blank"));
+    }
+
+    @Test
+    void search_findsTheCreatedBooksAndForgetsTheDeletedOnes() throws Exception {
+        String location = given()
+                .contentType(ContentType.JSON)
+                .body("{\"title\": \"Zymurgy for brewers\", \"isbn\": \"9781234567897\", \"pages\": 200, "
+                        + "\"summary\": \"Fermentation explained\", \"publication\": \"2024-05-01\", \"genre\": \"Science\"}")
+                .when()
+                .post("/api/books")
+                .then()
+                .statusCode(201)
+                .extract().header("Location");
+        long bookId = Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+        bookSearchIndex.awaitUpdates();
+
+        given()
+                .queryParam("q", "zymurgy")
+                .when()
+                .get("/api/books/search")
+                .then()
+                .statusCode(200)
+                .body("totalCount", is(1))
+                .body("edges[0].node.id", is((int) bookId))
+                .body("edges[0].node.title", equalTo("Zymurgy for brewers"));
+
+        given()
+                .when()
+                .delete("/api/books/" + bookId)
+                .then()
+                .statusCode(204);
+        bookSearchIndex.awaitUpdates();
+
+        given()
+                .queryParam("q", "zymurgy")
+                .when()
+                .get("/api/books/search")
+                .then()
+                .statusCode(200)
+                .body("totalCount", is(0))
+                .body("edges", empty());
+    }
+
+    @Test
+    void search_returnsBadRequestForAnInvalidCursor() {
+        given()
+                .queryParam("q", "quantum")
+                .queryParam("after", "not-a-cursor")
+                .when()
+                .get("/api/books/search")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void rebuildSearchIndex_indexesEveryBook() {
+        given()
+                .contentType(ContentType.JSON)
+                .when()
+                .post("/api/books/search/index")
+                .then()
+                .statusCode(200)
+                .body("indexed", greaterThanOrEqualTo(10));
+
+        given()
+                .queryParam("q", "quantum")
+                .when()
+                .get("/api/books/search")
+                .then()
+                .statusCode(200)
+                .body("edges.node.title", hasItem("Quantum cryptography in practice"))
+                .body("edges[0].highlights", not(empty()))
+                .body("edges[0].cursor", notNullValue());
+    }
+
+    @Test
+    void booksCreatedAndDeletedWithoutTheIndex_makeItStale() throws Exception {
+        // The other tests may change the books without the events
+        bookSearchIndex.rebuild();
+        assertFalse(bookSearchIndex.isStale());
+
+        // Created without an event, as while the application was stopped
+        Long bookId = QuarkusTransaction.requiringNew().call(() -> {
+            Book book = new Book();
+            book.title = "Xylography of the masters";
+            book.isbn = "9781234567880";
+            book.pages = 120;
+            book.summary = "Woodcuts explained";
+            book.publication = LocalDate.of(2024, 6, 1);
+            book.genre = "Art";
+            book.languages = List.of();
+            book.formats = List.of();
+            book.keywords = List.of();
+            book.persist();
+            return book.id;
+        });
+        assertTrue(bookSearchIndex.isStale());
+
+        bookSearchIndex.rebuild();
+        assertFalse(bookSearchIndex.isStale());
+        assertEquals(List.of(bookId), bookSearchIndex.search("xylography", 0, 10).hits().stream()
+                .map(BookSearchResult.Hit::id).toList());
+
+        QuarkusTransaction.requiringNew().run(() -> Book.deleteById(bookId));
+        assertTrue(bookSearchIndex.isStale());
+
+        bookSearchIndex.rebuild();
+        assertFalse(bookSearchIndex.isStale());
+    }
+}
@@ -95,4 +95,45 @@ class AuthorGraphQLIntegrationTest {
                 .statusCode(200)
                 .body("errors[0].message", containsString("Author not found with Id " + nonExistentAuthorId));
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(6)
+    void getAuthor_resolvesBooksWithBatchedResolver() {
+        Long authorId = 3L; // Assumes an author with ID 3 exists
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"query getAuthor { author(authorId: " + authorId + ") { id books { id } } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.author.books.id", hasItems(3, 9));
+    }
+
+    @Test
+    @Order(7)
+    void createAuthors_createsTheValidAuthorsAndReportsTheOthers() {
+        String query = "{\"query\": \"mutation { createAuthors(authors: ["
+                + "{ firstName: \\\"Ada\\\", lastName: \\\"Lovelace\\\", sex: \\\"F\\\", birthDate: \\\"1815-12-10\\\" }, "
+                + "{ firstName: \\\"Alan\\\", lastName: \\\"Turing\\\", sex: \\\"X\\\", birthDate: \\\"1912-06-23\\\" }, "
+                + "{ firstName: \\\"Grace\\\", lastName: \\\"Hopper\\\", sex: \\\"F\\\", birthDate: \\\"1906-12-09\\\" }"
+                + "]) { authors { id lastName } errors { index message } } }\"}";
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(query)
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.createAuthors.authors", hasSize(3))
+                .body("data.createAuthors.authors[0].lastName", equalTo("Lovelace"))
+                .body("data.createAuthors.authors[0].id", notNullValue())
+                .body("data.createAuthors.authors[1]", nullValue())
+                .body("data.createAuthors.authors[2].lastName", equalTo("Hopper"))
+                .body("data.createAuthors.errors", hasSize(1))
+                .body("data.createAuthors.errors[0].index", is(1))
+                .body("data.createAuthors.errors[0].message", containsString("sex"));
+    }
+}
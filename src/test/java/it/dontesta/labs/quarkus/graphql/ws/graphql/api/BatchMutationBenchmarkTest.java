@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.api;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.event.EntityChangedEvent;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import java.util.StringJoiner;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Ingests the same books with a {@code createBook} mutation for each book and with
+ * {@code createBooks} mutations of a batch of books. The throughput is logged, the assertions
+ * only check that every book is created, so that the benchmark does not depend on the speed of
+ * the machine. Tagged {@code benchmark}, it runs only with {@code -Dbenchmark}.
+ */
+@QuarkusTest
+@Tag("benchmark")
+class BatchMutationBenchmarkTest {
+
+    private static final Logger LOG = Logger.getLogger(BatchMutationBenchmarkTest.class);
+
+    private static final String GENRE = "Benchmark";
+    private static final int BOOKS = 200;
+    private static final int BATCH_SIZE = 100;
+    private static final int WARMUP_ROUNDS = 1;
+
+    @Inject
+    Event<EntityChangedEvent> entityChanged;
+
+    private static String book(int i) {
+        return ("{title: \\\"Benchmark book %d\\\", isbn: \\\"978%010d\\\", pages: 120, summary: \\\"Summary\\\", "
+                + "publication: \\\"2025-01-28\\\", genre: \\\"" + GENRE + "\\\", languages: [\\\"IT\\\", \\\"EN\\\"], "
+                + "formats: [\\\"PDF\\\"], keywords: [\\\"key%d\\\"], authors: [{id: 5}, {id: 6}], editor: {id: 5}}")
+                .formatted(i, i, i % 10);
+    }
+
+    private static long createOneByOne() {
+        long start = System.nanoTime();
+        for (int i = 0; i < BOOKS; i++) {
+            given()
+                    .contentType(ContentType.JSON)
+                    .body("{\"query\": \"mutation { createBook(book: " + book(i) + ") { id } }\"}")
+                    .when()
+                    .post("/api/graphql")
+                    .then()
+                    .statusCode(200)
+                    .body("data.createBook.id", notNullValue());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long createInBatches() {
+        long start = System.nanoTime();
+        for (int from = 0; from < BOOKS; from += BATCH_SIZE) {
+            StringJoiner books = new StringJoiner(", ", "[", "]");
+            for (int i = from; i < from + BATCH_SIZE; i++) {
+                // The ISBNs follow the ones of the books created one by one
+                books.add(book(BOOKS + i));
+            }
+            given()
+                    .contentType(ContentType.JSON)
+                    .body("{\"query\": \"mutation { createBooks(books: " + books + ") { books { id } errors { index } } }\"}")
+                    .when()
+                    .post("/api/graphql")
+                    .then()
+                    .statusCode(200)
+                    .body("errors", nullValue())
+                    .body("data.createBooks.books", hasSize(BATCH_SIZE))
+                    .body("data.createBooks.errors", empty());
+        }
+        return System.nanoTime() - start;
+    }
+
+    @AfterEach
+    void deleteTheBenchmarkBooks() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            // The editor is detached first, the removal would cascade to it
+            for (Book book : Book.<Book> list("genre", GENRE)) {
+                book.editor = null;
+                book.delete();
+            }
+            entityChanged.fire(EntityChangedEvent.created(Book.class));
+        });
+    }
+
+    @Test
+    void createBookAndCreateBooks_createEveryBook() {
+        long oneByOneNanos = 0;
+        long batchNanos = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            oneByOneNanos = createOneByOne();
+            batchNanos = createInBatches();
+            deleteTheBenchmarkBooks();
+        }
+
+        LOG.infof("Ingestion of %,d books: createBook %,d books/s, createBooks of %d %,d books/s (%.1fx)",
+                BOOKS, BOOKS * 1_000_000_000L / oneByOneNanos, BATCH_SIZE, BOOKS * 1_000_000_000L / batchNanos,
+                (double) oneByOneNanos / batchNanos);
+    }
+}
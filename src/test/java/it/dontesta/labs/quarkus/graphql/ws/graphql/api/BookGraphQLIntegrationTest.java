@@ -163,4 +163,326 @@ class BookGraphQLIntegrationTest {
                 .statusCode(200)
                 .body("errors[0].message", containsString("Author not found with Id 999"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(10)
+    void getBook_resolvesAssociationsWithBatchedResolvers() {
+        Long bookId = 3L; // Assumes a book with ID 3 exists
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"query getBook { book(bookId: " + bookId +
+                        ") { id editor { id } authors { id } languages formats keywords } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.book.editor.id", is(3))
+                .body("data.book.authors.id", containsInAnyOrder(3, 4))
+                .body("data.book.languages", containsInAnyOrder("eng", "deu"))
+                .body("data.book.formats", containsInAnyOrder("EPUB", "MOBI"))
+                .body("data.book.keywords", containsInAnyOrder("neural-networks", "big-data"));
+    }
+
+    @Test
+    @Order(11)
+    void allBooks_resolvesAssociationsOfEveryBook() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"{ allBooks { id editor { id } authors { id books { id } } languages } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.allBooks[0].editor.id", is(3))
+                .body("data.allBooks[0].authors.id", containsInAnyOrder(3, 4))
+                .body("data.allBooks[0].authors[0].books", not(empty()))
+                .body("data.allBooks[0].languages", containsInAnyOrder("eng", "deu"));
+    }
+
+    @Test
+    @Order(12)
+    void books_pagesForwardByTitleWithKeysetCursor() {
+        String firstPage = "{ books(first: 2, orderBy: TITLE) { edges { node { id title } cursor } pageInfo { hasNextPage hasPreviousPage endCursor } } }";
+        String endCursor = given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"" + firstPage.replace("\"", "\\\"") + "\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.books.edges", hasSize(2))
+                .body("data.books.pageInfo.hasNextPage", is(true))
+                .body("data.books.pageInfo.hasPreviousPage", is(false))
+                .extract().path("data.books.pageInfo.endCursor");
+
+        String lastTitle = given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"" + firstPage.replace("\"", "\\\"") + "\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .extract().path("data.books.edges[1].node.title");
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"{ books(first: 2, after: \\\"" + endCursor
+                        + "\\\", orderBy: TITLE) { edges { node { title } } pageInfo { hasPreviousPage } } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.books.edges", hasSize(2))
+                .body("data.books.edges[0].node.title", greaterThanOrEqualTo(lastTitle))
+                .body("data.books.pageInfo.hasPreviousPage", is(true));
+    }
+
+    @Test
+    @Order(13)
+    void books_pagesBackwardBeforeCursor() {
+        String before = "Ng=="; // Base64 encoded cursor of the book with ID 6
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"{ books(last: 2, before: \\\"" + before
+                        + "\\\") { edges { node { id } } pageInfo { hasNextPage hasPreviousPage startCursor } } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.books.edges.node.id", contains(4, 5))
+                .body("data.books.pageInfo.hasNextPage", is(true))
+                .body("data.books.pageInfo.hasPreviousPage", is(true))
+                .body("data.books.pageInfo.startCursor", is("NA=="));
+    }
+
+    @Test
+    @Order(14)
+    void books_throwsGraphQLExceptionForFirstAndLast() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"{ books(first: 2, last: 2) { edges { cursor } } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors[0].message", containsString("Exactly one of the arguments first or last"));
+    }
+
+    @Test
+    @Order(14)
+    void books_throwsGraphQLExceptionForAPageLargerThanTheMaximum() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"{ books(first: 101) { edges { cursor } } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors[0].message", is("The arguments first and last must be at most 100"));
+    }
+
+    @Test
+    @Order(15)
+    void books_throwsGraphQLExceptionForCursorOfAnotherSortField() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"{ books(first: 2, after: \\\"MA==\\\", orderBy: TITLE) { edges { cursor } } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors[0].message", containsString("Invalid cursor format"));
+    }
+
+    @Test
+    @Order(16)
+    void books_returnsTotalCountOnlyWhenSelected() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"{ books(first: 2) { totalCount edges { node { id } } } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.books.totalCount", greaterThanOrEqualTo(14))
+                .body("data.books.edges", hasSize(2));
+    }
+
+    @Test
+    @Order(17)
+    void getBook_readsOnlyTheSelectedFields() {
+        Long bookId = 15L; // Assumes a book with ID 15 exists
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"query getBook { book(bookId: " + bookId +
+                        ") { title isbn authors { lastName } } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.book.title", is("The Art of Software Engineering"))
+                .body("data.book.isbn", is("9780321967974"))
+                .body("data.book.authors", not(empty()));
+    }
+
+    @Test
+    @Order(18)
+    void getBook_returnsNullForNonExistentBook() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"query getBook { book(bookId: 999) { title } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.book", nullValue());
+    }
+
+    @Test
+    @Order(19)
+    void createBooks_createsTheValidBooksAndReportsTheOthers() {
+        String book = "{title: \\\"%s\\\", isbn: \\\"%s\\\", pages: 120, summary: \\\"Summary\\\", "
+                + "publication: \\\"2025-01-28\\\", genre: \\\"%s\\\", languages: [\\\"IT\\\"], formats: [\\\"PDF\\\"], "
+                + "keywords: [\\\"batch\\\"], authors: [{id: %d}], editor: {id: %d}}";
+        String query = "{\"query\": \"mutation { createBooks(books: ["
+                + book.formatted("First of the batch", "9780000000001", "Batch", 5, 5) + ", "
+                + book.formatted("Missing editor", "9780000000002", "Batch", 5, 999) + ", "
+                + book.formatted("Genre too long", "9780000000003", "A genre longer than twenty characters", 5, 5) + ", "
+                + book.formatted("Last of the batch", "9780000000004", "Batch", 6, 5)
+                + "]) { books { id title authors { id } editor { id } } errors { index message } } }\"}";
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(query)
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.createBooks.books", hasSize(4))
+                .body("data.createBooks.books[0].id", notNullValue())
+                .body("data.createBooks.books[0].title", is("First of the batch"))
+                .body("data.createBooks.books[0].authors.id", contains(5))
+                .body("data.createBooks.books[0].editor.id", is(5))
+                .body("data.createBooks.books[1]", nullValue())
+                .body("data.createBooks.books[2]", nullValue())
+                .body("data.createBooks.books[3].title", is("Last of the batch"))
+                .body("data.createBooks.books[3].authors.id", contains(6))
+                .body("data.createBooks.errors.index", contains(1, 2))
+                .body("data.createBooks.errors[0].message", is("Editor not found with Id 999"))
+                .body("data.createBooks.errors[1].message", containsString("genre must be at most 20 characters long"));
+    }
+
+    @Test
+    @Order(20)
+    void book_resolvesTheUrlsOfTheCoversFromTheirKeys() {
+        // The key of an external image is its URL, returned as it is instead of being presigned
+        String cover = "https://covers.example.org/9780000000020.jpg";
+        String query = "{\"query\": \"mutation { createBook(book: {title: \\\"Cover from elsewhere\\\", "
+                + "isbn: \\\"9780000000020\\\", pages: 120, summary: \\\"Summary\\\", publication: \\\"2025-01-28\\\", "
+                + "genre: \\\"Covers\\\", frontCoverImageKey: \\\"" + cover + "\\\", authors: [{id: 5}], editor: {id: 5}}) "
+                + "{ id frontCoverImageKey frontCoverImageUrl backCoverImageUrl } }\"}";
+
+        int bookId = given()
+                .contentType(ContentType.JSON)
+                .body(query)
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.createBook.frontCoverImageKey", is(cover))
+                .body("data.createBook.frontCoverImageUrl", is(cover))
+                .body("data.createBook.backCoverImageUrl", nullValue())
+                .extract().path("data.createBook.id");
+
+        // The projection reads the key of the cover for its URL
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"{ book(bookId: " + bookId + ") { frontCoverImageUrl } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.book.frontCoverImageUrl", is(cover));
+
+        given()
+                .when()
+                .get("/api/books/" + bookId)
+                .then()
+                .statusCode(200)
+                .body("frontCoverImageKey", is(cover))
+                .body("frontCoverImageUrl", is(cover))
+                .body("$", not(hasKey("backCoverImageUrl")));
+    }
+
+    @Test
+    @Order(21)
+    void createBook_rejectsTheKeyOfACoverOfAnotherBook() {
+        String query = "{\"query\": \"mutation { createBook(book: {title: \\\"Borrowed cover\\\", "
+                + "isbn: \\\"9780000000051\\\", pages: 120, summary: \\\"Summary\\\", publication: \\\"2025-01-28\\\", "
+                + "genre: \\\"Covers\\\", frontCoverImageKey: \\\"9780321967974_the_art_of_software_engineering_front_cover.jpg\\\", "
+                + "authors: [{id: 5}], editor: {id: 5}}) { id } }\"}";
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(query)
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.createBook", nullValue())
+                .body("errors[0].message", containsString(
+                        "frontCoverImageKey 9780321967974_the_art_of_software_engineering_front_cover.jpg"
+                                + " is not the front cover of the book with ISBN 9780000000051"));
+    }
+
+    @Test
+    @Order(22)
+    void createBook_rejectsTheUrlOfACover() {
+        String query = "{\"query\": \"mutation { createBook(book: {title: \\\"Cover by URL\\\", "
+                + "isbn: \\\"9780000000068\\\", pages: 120, summary: \\\"Summary\\\", publication: \\\"2025-01-28\\\", "
+                + "genre: \\\"Covers\\\", backCoverImageUrl: \\\"https://covers.example.org/9780000000068.jpg\\\", "
+                + "authors: [{id: 5}], editor: {id: 5}}) { id } }\"}";
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(query)
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.createBook", nullValue())
+                .body("errors[0].message", is("backCoverImageUrl is not supported anymore, set the backCoverImageKey"));
+    }
+
+    @Test
+    @Order(23)
+    void createBooks_reportsTheInvalidKeysOfTheCovers() {
+        String query = "{\"query\": \"mutation { createBooks(books: ["
+                + "{title: \\\"Own cover\\\", isbn: \\\"9780000000075\\\", pages: 120, summary: \\\"Summary\\\", "
+                + "publication: \\\"2025-01-28\\\", genre: \\\"Covers\\\", "
+                + "backCoverImageKey: \\\"9780000000075_own_cover_back_cover.jpg\\\", authors: [{id: 5}], editor: {id: 5}}, "
+                + "{title: \\\"Front as back\\\", isbn: \\\"9780000000082\\\", pages: 120, summary: \\\"Summary\\\", "
+                + "publication: \\\"2025-01-28\\\", genre: \\\"Covers\\\", "
+                + "backCoverImageKey: \\\"9780000000082_front_as_back_front_cover.jpg\\\", authors: [{id: 5}], editor: {id: 5}}"
+                + "]) { books { backCoverImageKey } errors { index message } } }\"}";
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(query)
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.createBooks.books[0].backCoverImageKey", is("9780000000075_own_cover_back_cover.jpg"))
+                .body("data.createBooks.books[1]", nullValue())
+                .body("data.createBooks.errors.index", contains(1))
+                .body("data.createBooks.errors[0].message", containsString(
+                        "backCoverImageKey 9780000000082_front_as_back_front_cover.jpg is not the back cover"));
+    }
+}
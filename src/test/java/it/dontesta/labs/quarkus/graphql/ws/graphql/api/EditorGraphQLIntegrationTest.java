@@ -79,4 +79,18 @@ class EditorGraphQLIntegrationTest {
                 .body("data.updateEditor.id", is(editorId.intValue()))
                 .body("data.updateEditor.name", equalTo(updatedName));
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(5)
+    void getEditor_resolvesBooksWithBatchedResolver() {
+        Long editorId = 3L; // Assumes an editor with ID 3 exists
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"query getEditor { editor(editorId: " + editorId + ") { id books { id } } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.editor.books.id", hasItem(3));
+    }
+}
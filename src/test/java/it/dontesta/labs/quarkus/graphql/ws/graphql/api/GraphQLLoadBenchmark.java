@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.api;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sends the same GraphQL queries from a growing number of concurrent clients, each sending its
+ * next query as soon as the previous one is answered, and logs the throughput and the
+ * latency percentiles of every level of concurrency. Tagged {@code benchmark}, it runs only
+ * with {@code -Dbenchmark}.
+ *
+ * <p>
+ * The levels run by default are 1,000 and 5,000 clients; other levels are given with
+ * {@code -Dbenchmark.graphql.clients=20,100}. The response cache is disabled, so that every
+ * query reaches the resolvers and the database. The assertions only check that every query is
+ * answered, so that the benchmark does not depend on the speed of the machine.
+ *
+ * <p>
+ * The benchmark runs with the resolvers on the platform threads of the worker pool, in
+ * {@link GraphQLLoadBenchmarkTest}, on virtual threads, in
+ * {@link VirtualThreadsGraphQLLoadBenchmarkTest}, and with the reactive execution, in
+ * {@link ReactiveGraphQLLoadBenchmarkTest}, to compare the execution modes.
+ */
+abstract class GraphQLLoadBenchmark {
+
+    private static final Logger LOG = Logger.getLogger(GraphQLLoadBenchmark.class);
+
+    private static final List<Integer> CLIENTS = Arrays.stream(
+            System.getProperty("benchmark.graphql.clients", "1000,5000").split(","))
+            .map(String::trim)
+            .map(Integer::valueOf)
+            .toList();
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("benchmark.graphql.requests-per-client", 5);
+
+    private static final List<String> QUERIES = List.of(
+            "{ books(first: 10) { edges { node { id title authors { lastName } editor { name } } } } }",
+            "{ book(bookId: 5) { id title isbn languages keywords authors { firstName lastName } } }",
+            "{ allAuthors { id firstName lastName } }",
+            "{ allEditors { id name } }");
+
+    /**
+     * The profile of the benchmark, with the response cache disabled, the threads the
+     * resolvers run on and the execution of the operations.
+     */
+    abstract static class BenchmarkProfile implements QuarkusTestProfile {
+
+        abstract boolean virtualThreads();
+
+        String execution() {
+            return "blocking";
+        }
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("app.graphql.response-cache.enabled", "false",
+                    "quarkus.hibernate-orm.log.sql", "false",
+                    "quarkus.virtual-threads.enabled", String.valueOf(virtualThreads()),
+                    "app.graphql.execution", execution());
+        }
+    }
+
+    @TestHTTPResource("/api/graphql")
+    URI endpoint;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    /**
+     * Returns the name of the execution mode, logged with the results.
+     *
+     * @return the name of the execution mode
+     */
+    abstract String mode();
+
+    private HttpRequest request(int i) {
+        String query = QUERIES.get(i % QUERIES.size()).replace("\"", "\\\"");
+        return HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofMinutes(2))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"query\": \"" + query + "\"}"))
+                .build();
+    }
+
+    /**
+     * Runs a client: every query is sent when the previous one is answered.
+     */
+    private CompletableFuture<Void> runClient(int clientId, List<Long> latencies, AtomicInteger failures) {
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+            HttpRequest request = request(clientId + i);
+            chain = chain.thenCompose(ignored -> {
+                long start = System.nanoTime();
+                return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                        .handle((response, failure) -> {
+                            latencies.add(System.nanoTime() - start);
+                            if (failure != null || response.statusCode() != 200 || response.body().contains("\"errors\"")) {
+                                failures.incrementAndGet();
+                            }
+                            return null;
+                        });
+            });
+        }
+        return chain;
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void queries_areAnsweredAtEveryLevelOfConcurrency() {
+        // Warm up the resolvers, the connection pool and the caches of Hibernate
+        List<Long> warmup = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger warmupFailures = new AtomicInteger();
+        CompletableFuture.allOf(IntStream.range(0, 20)
+                .mapToObj(i -> runClient(i, warmup, warmupFailures))
+                .toArray(CompletableFuture[]::new)).join();
+        assertEquals(0, warmupFailures.get());
+
+        for (int clients : CLIENTS) {
+            List<Long> latencies = Collections.synchronizedList(new ArrayList<>(clients * REQUESTS_PER_CLIENT));
+            AtomicInteger failures = new AtomicInteger();
+
+            long start = System.nanoTime();
+            List<CompletableFuture<Void>> running = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                running.add(runClient(i, latencies, failures));
+            }
+            CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+            long elapsed = System.nanoTime() - start;
+
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            LOG.infof("GraphQL load in %s mode, %,d clients, %,d queries: %,d queries/s, "
+                    + "p50 %,d ms, p99 %,d ms, max %,d ms, %d failed", mode(), clients, sorted.size(),
+                    sorted.size() * 1_000_000_000L / elapsed, percentile(sorted, 50) / 1_000_000,
+                    percentile(sorted, 99) / 1_000_000, sorted.getLast() / 1_000_000, failures.get());
+
+            assertEquals(clients * REQUESTS_PER_CLIENT, sorted.size());
+            assertEquals(0, failures.get());
+        }
+    }
+}
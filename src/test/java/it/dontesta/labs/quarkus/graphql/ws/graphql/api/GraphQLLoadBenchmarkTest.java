@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.api;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+
+/**
+ * The {@link GraphQLLoadBenchmark} with the resolvers on the platform threads of the worker pool.
+ */
+@QuarkusTest
+@TestProfile(GraphQLLoadBenchmarkTest.PlatformThreadsProfile.class)
+class GraphQLLoadBenchmarkTest extends GraphQLLoadBenchmark {
+
+    public static class PlatformThreadsProfile extends BenchmarkProfile {
+
+        @Override
+        boolean virtualThreads() {
+            return false;
+        }
+    }
+
+    @Override
+    String mode() {
+        return "platform";
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.api;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The {@link GraphQLLoadBenchmark} with the reactive execution, that admits at most as many
+ * operations as the connections of the pool and keeps the others waiting without a thread.
+ */
+@QuarkusTest
+@TestProfile(ReactiveGraphQLLoadBenchmarkTest.ReactiveProfile.class)
+class ReactiveGraphQLLoadBenchmarkTest extends GraphQLLoadBenchmark {
+
+    public static class ReactiveProfile extends BenchmarkProfile {
+
+        @Override
+        boolean virtualThreads() {
+            return false;
+        }
+
+        @Override
+        String execution() {
+            return "reactive";
+        }
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    @Override
+    String mode() {
+        return "reactive";
+    }
+
+    private long admittedOperations() {
+        // Registered when the GraphQL instance is built, by the first operation
+        Timer wait = registry.find("graphql.execution.wait").timer();
+        return wait == null ? 0 : wait.count();
+    }
+
+    @Test
+    void queries_areAdmittedByTheReactiveExecution() {
+        long before = admittedOperations();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"{ book(bookId: 5) { id title authors { lastName } editor { name } } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.book.id", is(5))
+                .body("data.book.authors", notNullValue());
+
+        assertEquals(before + 1, admittedOperations());
+        assertEquals(0.0, registry.get("graphql.execution.active").gauge().value());
+    }
+
+    @Test
+    void mutations_areAdmittedByTheReactiveExecution() {
+        long before = admittedOperations();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"mutation { createEditor(editor: {name: \\\"Reactive Editor\\\"}) { id name } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.createEditor.name", is("Reactive Editor"));
+
+        assertEquals(before + 1, admittedOperations());
+    }
+}
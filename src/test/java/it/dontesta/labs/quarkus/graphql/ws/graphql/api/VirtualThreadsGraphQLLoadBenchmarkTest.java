@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.api;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The {@link GraphQLLoadBenchmark} with the resolvers on virtual threads, limited by the
+ * concurrency limiter to the size of the connection pool.
+ */
+@QuarkusTest
+@TestProfile(VirtualThreadsGraphQLLoadBenchmarkTest.VirtualThreadsProfile.class)
+class VirtualThreadsGraphQLLoadBenchmarkTest extends GraphQLLoadBenchmark {
+
+    public static class VirtualThreadsProfile extends BenchmarkProfile {
+
+        @Override
+        boolean virtualThreads() {
+            return true;
+        }
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    @Override
+    String mode() {
+        return "virtual";
+    }
+
+    private long limitedInvocations() {
+        // Only the invocations on virtual threads wait for a permit of the limiter, registered by its first use
+        Timer wait = registry.find("concurrency.limiter.wait").timer();
+        return wait == null ? 0 : wait.count();
+    }
+
+    @Test
+    void graphQLResolvers_runOnVirtualThreads() {
+        long before = limitedInvocations();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"{ book(bookId: 5) { id title } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.book.id", notNullValue());
+
+        assertEquals(before + 1, limitedInvocations());
+    }
+
+    @Test
+    void restResources_runOnVirtualThreads() {
+        long before = limitedInvocations();
+
+        given()
+                .when()
+                .get("/api/books/5")
+                .then()
+                .statusCode(200)
+                .body("id", notNullValue());
+
+        assertEquals(before + 1, limitedInvocations());
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.cache;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import it.dontesta.labs.quarkus.graphql.s3.service.BookCoverUrlService;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ResponseCacheIntegrationTest {
+
+    private static final Long EDITOR_ID = 6L; // Assumes an editor with ID 6 exists
+
+    private static final String EDITOR_QUERY = "{\"query\": \"query cachedEditor { editor(editorId: " + EDITOR_ID
+            + ") { id name } }\"}";
+
+    private static final String FRONT_COVER_QUERY =
+            "{\"query\": \"query frontCover { book(bookId: 5) { id frontCoverImageUrl } }\"}";
+
+    private static final String ALL_EDITORS_QUERY = "{\"query\": \"query cachedEditors { allEditors { id name } }\"}";
+
+    @InjectMock
+    BookCoverUrlService bookCoverUrls;
+
+    private static void updateEditorName(String name) {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"mutation { updateEditor(editorId: " + EDITOR_ID + ", editorData: { name: \\\""
+                        + name + "\\\" }) { id name } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.updateEditor.name", equalTo(name));
+    }
+
+    @Test
+    @Order(1)
+    void repeatedQuery_isServedFromTheCache() {
+        for (int i = 0; i < 2; i++) {
+            given()
+                    .contentType(ContentType.JSON)
+                    .body(EDITOR_QUERY)
+                    .when()
+                    .post("/api/graphql")
+                    .then()
+                    .statusCode(200)
+                    .body("errors", nullValue())
+                    .body("data.editor.id", is(EDITOR_ID.intValue()));
+        }
+
+        given()
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .body(containsString("cache_gets_total{cache=\"graphql.responses\",result=\"hit\"}"));
+    }
+
+    @Test
+    @Order(2)
+    void graphQLMutation_invalidatesTheCachedResponse() {
+        updateEditorName("Nova Scientific Cached");
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(EDITOR_QUERY)
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.editor.name", equalTo("Nova Scientific Cached"));
+    }
+
+    @Test
+    @Order(3)
+    void restUpdate_invalidatesTheCachedResponse() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"name\": \"Nova Scientific\"}")
+                .when()
+                .put("/api/editors/" + EDITOR_ID)
+                .then()
+                .statusCode(200);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(EDITOR_QUERY)
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.editor.name", equalTo("Nova Scientific"));
+    }
+
+    @Test
+    @Order(4)
+    void creation_invalidatesTheCachedLists() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(ALL_EDITORS_QUERY)
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.allEditors.name", not(hasItem("Response Cache Editor")));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"mutation { createEditor(editor: { name: \\\"Response Cache Editor\\\" }) { id } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.createEditor.id", notNullValue());
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(ALL_EDITORS_QUERY)
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.allEditors.name", hasItem("Response Cache Editor"));
+    }
+
+    @Test
+    @Order(5)
+    void schema_exposesTheNoResponseCacheDirective() {
+        given()
+                .when()
+                .get("/api/graphql/schema.graphql")
+                .then()
+                .statusCode(200)
+                .body(containsString("directive @noResponseCache"))
+                .body(containsString("@noResponseCache"));
+    }
+
+    @Test
+    @Order(6)
+    void errorOfANestedResolver_isMaskedAndNotCached() {
+        when(bookCoverUrls.frontCoverUrlsOf(anyList())).thenThrow(new IllegalStateException("Cannot sign the cover"));
+
+        for (int i = 0; i < 2; i++) {
+            given()
+                    .contentType(ContentType.JSON)
+                    .body(FRONT_COVER_QUERY)
+                    .when()
+                    .post("/api/graphql")
+                    .then()
+                    .statusCode(200)
+                    .body("data.book.id", is(5))
+                    .body("data.book.frontCoverImageUrl", nullValue())
+                    .body("errors[0].message", is("System error"))
+                    .body("errors[0].path", contains("book", "frontCoverImageUrl"))
+                    .body(not(containsString("Cannot sign the cover")));
+        }
+
+        verify(bookCoverUrls, times(2)).frontCoverUrlsOf(anyList());
+    }
+}
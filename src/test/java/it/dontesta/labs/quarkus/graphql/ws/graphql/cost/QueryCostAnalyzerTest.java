@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.cost;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import graphql.execution.CoercedVariables;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class QueryCostAnalyzerTest {
+
+    private static final String SDL = """
+            type Query {
+              allBooks: [Book]
+              books(first: Int, after: String): BookConnection
+            }
+            type BookConnection { edges: [BookEdge] totalCount: Int }
+            type BookEdge { cursor: String node: Book }
+            type Book { id: ID title: String keywords: [String] authors: [Author] }
+            type Author { id: ID books: [Book] }
+            """;
+
+    private static final GraphQLSchema SCHEMA = new SchemaGenerator().makeExecutableSchema(
+            new SchemaParser().parse(SDL), RuntimeWiring.MOCKED_WIRING);
+
+    private final QueryCostAnalyzer analyzer = new QueryCostAnalyzer(10);
+
+    private QueryCost analyze(String query, Map<String, Object> variables) {
+        return analyzer.analyze(SCHEMA, Parser.parse(query), null, CoercedVariables.of(variables));
+    }
+
+    @Test
+    void scalarFieldsAreFreeAndListsUseTheExpectedSize() {
+        QueryCost cost = analyze("{ allBooks { id title } }", Map.of());
+
+        assertEquals(2, cost.depth());
+        assertEquals(1, cost.cost());
+        assertEquals(30, cost.nodes());
+    }
+
+    @Test
+    void nestedListsMultiplyTheCost() {
+        QueryCost cost = analyze("{ allBooks { authors { books { keywords } } } }", Map.of());
+
+        // allBooks 1, authors 10, books 10 * 10, keywords 10 * 10 * 10
+        assertEquals(4, cost.depth());
+        assertEquals(1 + 10 + 100 + 1000, cost.cost());
+    }
+
+    @Test
+    void connectionEdgesAreWeightedByTheFirstArgument() {
+        QueryCost cost = analyze("query($n: Int) { books(first: $n) { edges { node { authors { id } } } } }",
+                Map.of("n", 3));
+
+        // books 1, edges 1, node 3, authors 3
+        assertEquals(5, cost.depth());
+        assertEquals(8, cost.cost());
+    }
+
+    @Test
+    void introspectionFieldsAreNotCounted() {
+        QueryCost cost = analyze("{ __schema { types { fields { type { ofType { name } } } } } }", Map.of());
+
+        assertEquals(0, cost.depth());
+        assertEquals(0, cost.cost());
+        assertEquals(0, cost.nodes());
+    }
+}
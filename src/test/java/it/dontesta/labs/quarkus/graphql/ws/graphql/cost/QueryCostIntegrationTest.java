@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.cost;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class QueryCostIntegrationTest {
+
+    @Test
+    @Order(1)
+    void cheapQuery_isExecuted() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"query cheapBooks { books(first: 2) { edges { node { id authors { id } } } } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.books.edges", hasSize(2));
+    }
+
+    @Test
+    @Order(2)
+    void cyclicQuery_isRejectedBeforeExecution() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"query cyclicBooks { allBooks { authors { books { editor { books { authors { id } } } } } } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data", nullValue())
+                .body("errors[0].message", containsString("cyclicBooks exceeds the maximum cost"))
+                .body("errors[0].extensions.code", equalTo("QUERY_COST_LIMIT_EXCEEDED"))
+                .body("errors[0].extensions.limit", equalTo("cost"))
+                .body("errors[0].extensions.maximum", equalTo(2000));
+    }
+
+    @Test
+    @Order(3)
+    void deepQuery_isRejectedBeforeExecution() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"{ book(bookId: 1) { editor { books { editor { books { editor { books { editor { books { editor { books { id } } } } } } } } } } } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors[0].extensions.code", equalTo("QUERY_COST_LIMIT_EXCEEDED"))
+                .body("errors[0].extensions.limit", equalTo("depth"));
+    }
+
+    @Test
+    @Order(4)
+    void operationCost_isExposedAsMetric() {
+        given()
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .body(containsString("graphql_operation_cost_count{type=\"query\""))
+                .body(containsString("graphql_operation_rejected_total{limit=\"cost\",type=\"query\""))
+                // The names of the operations, chosen by the clients, are not tags
+                .body(not(containsString("operation=\"cheapBooks\"")));
+    }
+}
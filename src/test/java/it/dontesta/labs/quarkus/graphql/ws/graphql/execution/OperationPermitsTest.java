@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.execution;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OperationPermitsTest {
+
+    @Test
+    void release_handsThePermitOverInOrderOfArrival() {
+        OperationPermits permits = new OperationPermits(1, Duration.ofMinutes(1));
+        assertTrue(permits.acquire().isDone());
+
+        CompletableFuture<Void> first = permits.acquire();
+        CompletableFuture<Void> second = permits.acquire();
+        assertFalse(first.isDone());
+        assertEquals(2, permits.waiting());
+
+        permits.release();
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        assertEquals(1, permits.active());
+
+        permits.release();
+        permits.release();
+        assertTrue(second.isDone());
+        assertEquals(0, permits.active());
+        assertEquals(0, permits.waiting());
+    }
+
+    @Test
+    void release_skipsTheOperationsThatTimedOut() {
+        OperationPermits permits = new OperationPermits(1, Duration.ofMillis(10));
+        permits.acquire();
+
+        CompletableFuture<Void> expired = permits.acquire();
+        CompletionException failure = assertThrows(CompletionException.class, expired::join);
+        assertInstanceOf(TimeoutException.class, failure.getCause());
+
+        permits.release();
+        assertEquals(0, permits.active());
+        assertTrue(permits.acquire().isDone());
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.incremental;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.vertx.core.json.JsonObject;
+import it.dontesta.labs.quarkus.graphql.s3.service.BookCoverUrlService;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+@TestProfile(IncrementalDeliveryIntegrationTest.WithoutResponseCacheProfile.class)
+class IncrementalDeliveryIntegrationTest {
+
+    /**
+     * Disables the response cache, whose strategy would wrap the one of the incremental delivery
+     * and execute the nested objects and the deferred fragments in its place.
+     */
+    public static class WithoutResponseCacheProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("app.graphql.response-cache.enabled", "false");
+        }
+    }
+
+    private static final String DEFERRED_AUTHORS =
+            "{ book(bookId: 5) { id title ... @defer(label: \\\"authors\\\") { authors { lastName } } } }";
+
+    private static final String DEFERRED_FRONT_COVER =
+            "{ book(bookId: 5) { id ... @defer(label: \\\"cover\\\") { frontCoverImageUrl } } }";
+
+    private static final String PART_HEADERS = "Content-Type: application/json; charset=utf-8\r\n\r\n";
+
+    @InjectMock
+    BookCoverUrlService bookCoverUrls;
+
+    /**
+     * Returns the JSON payloads of the parts of a multipart/mixed response.
+     */
+    private static List<JsonObject> parts(String body) {
+        assertTrue(body.endsWith("\r\n-----\r\n"));
+        return Arrays.stream(body.substring(0, body.length() - "\r\n-----\r\n".length()).split("\r\n---\r\n"))
+                .filter(part -> !part.isEmpty())
+                .map(part -> new JsonObject(part.substring(part.indexOf(PART_HEADERS) + PART_HEADERS.length())))
+                .toList();
+    }
+
+    @Test
+    void deferredFragment_isDeliveredAfterTheInitialResult() {
+        String body = given()
+                .contentType(ContentType.JSON)
+                .accept("multipart/mixed; deferSpec=20220824, application/json")
+                .body("{\"query\": \"" + DEFERRED_AUTHORS + "\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .contentType(startsWith("multipart/mixed"))
+                .extract().asString();
+
+        List<JsonObject> parts = parts(body);
+        assertEquals(2, parts.size());
+
+        JsonObject initial = parts.getFirst();
+        assertTrue(initial.getBoolean("hasNext"));
+        assertEquals(5, initial.getJsonObject("data").getJsonObject("book").getInteger("id"));
+        assertNull(initial.getJsonObject("data").getJsonObject("book").getValue("authors"));
+
+        JsonObject deferred = parts.get(1);
+        assertFalse(deferred.getBoolean("hasNext"));
+        JsonObject payload = deferred.getJsonArray("incremental").getJsonObject(0);
+        assertEquals("authors", payload.getString("label"));
+        assertEquals(List.of("book"), payload.getJsonArray("path").getList());
+        assertFalse(payload.getJsonObject("data").getJsonArray("authors").isEmpty());
+    }
+
+    @Test
+    void deferredFragmentsOfAList_areDeliveredForEveryItem() {
+        String body = given()
+                .contentType(ContentType.JSON)
+                .accept("multipart/mixed")
+                .body("{\"query\": \"{ allEditors { id ... @defer { books { title } } } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .extract().asString();
+
+        List<JsonObject> parts = parts(body);
+        int editors = parts.getFirst().getJsonObject("data").getJsonArray("allEditors").size();
+        long deferred = parts.stream().skip(1)
+                .mapToLong(part -> part.getJsonArray("incremental").size())
+                .sum();
+        assertEquals(editors, deferred);
+        assertFalse(parts.getLast().getBoolean("hasNext"));
+    }
+
+    @Test
+    void deferWithoutMultipartAccept_returnsTheWholeResult() {
+        given()
+                .contentType(ContentType.JSON)
+                .accept(ContentType.JSON)
+                .body("{\"query\": \"" + DEFERRED_AUTHORS + "\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.book.authors", not(empty()));
+    }
+
+    @Test
+    void errorOfADeferredResolver_isMaskedByTheExceptionHandlerOfSmallRye() {
+        when(bookCoverUrls.frontCoverUrlsOf(anyList())).thenThrow(new IllegalStateException("Cannot sign the cover"));
+
+        String body = given()
+                .contentType(ContentType.JSON)
+                .accept("multipart/mixed")
+                .body("{\"query\": \"" + DEFERRED_FRONT_COVER + "\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .extract().asString();
+
+        List<JsonObject> parts = parts(body);
+        assertEquals(2, parts.size());
+        assertFalse(body.contains("Cannot sign the cover"));
+
+        JsonObject payload = parts.get(1).getJsonArray("incremental").getJsonObject(0);
+        assertEquals("cover", payload.getString("label"));
+        JsonObject error = payload.getJsonArray("errors").getJsonObject(0);
+        assertEquals("System error", error.getString("message"));
+        assertEquals(List.of("book", "frontCoverImageUrl"), error.getJsonArray("path").getList());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.persisted;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+@TestProfile(PersistedQueryAllowListIntegrationTest.AllowListProfile.class)
+class PersistedQueryAllowListIntegrationTest {
+
+    private static final String ALLOWED_QUERY = "{ allEditors { id name } }";
+
+    private static final String NOT_ALLOWED_QUERY = "{ allAuthors { id lastName } }";
+
+    public static class AllowListProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "app.graphql.persisted-queries.manifest", "persisted-query-manifest.json",
+                    "app.graphql.persisted-queries.allow-list-only", "true",
+                    "quarkus.smallrye-graphql.http.get.enabled", "true");
+        }
+    }
+
+    @Test
+    void jsonQueryNotInTheManifest_isRejected() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"" + NOT_ALLOWED_QUERY + "\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data", nullValue())
+                .body("errors[0].extensions.code", equalTo("PERSISTED_QUERY_NOT_ALLOWED"));
+    }
+
+    @Test
+    void graphQLBodyNotInTheManifest_isRejected() {
+        given()
+                .contentType("application/graphql")
+                .body(NOT_ALLOWED_QUERY.getBytes(StandardCharsets.UTF_8))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data", nullValue())
+                .body("errors[0].extensions.code", equalTo("PERSISTED_QUERY_NOT_ALLOWED"));
+    }
+
+    @Test
+    void graphQLBodyOfTheManifest_isExecuted() {
+        given()
+                .contentType("application/graphql")
+                // The line breaks are removed by the GraphQL endpoint before the query is read
+                .body((ALLOWED_QUERY + "\n").getBytes(StandardCharsets.UTF_8))
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.allEditors", not(empty()));
+    }
+
+    @Test
+    void bodyThatIsNotAJsonObject_isRejectedAsUnsupported() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("[{\"query\": \"" + NOT_ALLOWED_QUERY + "\"}]")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(415)
+                .body("errors[0].extensions.code", equalTo("PERSISTED_QUERY_NOT_ALLOWED"));
+    }
+
+    @Test
+    void getQueryNotInTheManifest_isRejected() {
+        given()
+                .queryParam("query", NOT_ALLOWED_QUERY)
+                .when()
+                .get("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data", nullValue())
+                .body("errors[0].extensions.code", equalTo("PERSISTED_QUERY_NOT_ALLOWED"));
+    }
+
+    @Test
+    void getQueryOfTheManifest_isExecuted() {
+        given()
+                .queryParam("query", ALLOWED_QUERY)
+                .when()
+                .get("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.allEditors", not(empty()));
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.persisted;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class PersistedQueryHandlerTest {
+
+    @Test
+    void queryOfBodyRemovesTheLineBreaksAndTheTabs() {
+        assertEquals("{ allEditors {id name } }", PersistedQueryHandler.queryOfBody("{ allEditors {\n\tid name\r\n } }"));
+        assertNull(PersistedQueryHandler.queryOfBody(""));
+    }
+
+    @Test
+    void queryOfParameterDecodesTheParameterOnceMore() {
+        assertEquals("{ allEditors { id name } }", PersistedQueryHandler.queryOfParameter("{ allEditors { id%20name } }"));
+        assertNull(PersistedQueryHandler.queryOfParameter("{ allEditors { id%2 } }"));
+        assertNull(PersistedQueryHandler.queryOfParameter(null));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.persisted;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class PersistedQueryIntegrationTest {
+
+    private static final String QUERY = "query persistedEditor { editor(editorId: 3) { id name } }";
+
+    private static final String HASH = "b24251a2ed7221eadd1b93863a485f11c24445689efee7bbd27bf0b515bffaef";
+
+    private static String persistedQuery(String hash) {
+        return "\"extensions\": {\"persistedQuery\": {\"version\": 1, \"sha256Hash\": \"" + hash + "\"}}";
+    }
+
+    @Test
+    @Order(1)
+    void unknownHash_returnsPersistedQueryNotFound() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{" + persistedQuery(HASH) + "}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors[0].message", equalTo("PersistedQueryNotFound"))
+                .body("errors[0].extensions.code", equalTo("PERSISTED_QUERY_NOT_FOUND"));
+    }
+
+    @Test
+    @Order(2)
+    void hashWithQuery_registersAndExecutesTheQuery() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"" + QUERY + "\", " + persistedQuery(HASH) + "}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.editor.id", equalTo(3));
+    }
+
+    @Test
+    @Order(3)
+    void knownHash_executesThePersistedQuery() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{" + persistedQuery(HASH.toUpperCase()) + "}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("errors", nullValue())
+                .body("data.editor.id", equalTo(3))
+                .body("data.editor.name", notNullValue());
+    }
+
+    @Test
+    @Order(4)
+    void hashNotMatchingTheQuery_isRejected() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"{ allEditors { id } }\", " + persistedQuery(HASH) + "}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data", nullValue())
+                .body("errors[0].extensions.code", equalTo("PERSISTED_QUERY_HASH_MISMATCH"));
+    }
+
+    @Test
+    @Order(5)
+    void cacheHitsAndMisses_areExposedAsMetrics() {
+        given()
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .body(containsString("cache_gets_total{cache=\"graphql.persisted-queries\",result=\"hit\"}"))
+                .body(containsString("cache_gets_total{cache=\"graphql.persisted-queries\",result=\"miss\"}"))
+                .body(containsString("cache_gets_total{cache=\"graphql.documents\",result=\"hit\"}"));
+    }
+}
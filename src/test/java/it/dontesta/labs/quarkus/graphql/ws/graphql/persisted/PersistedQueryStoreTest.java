@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.persisted;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class PersistedQueryStoreTest {
+
+    private static final String MANIFEST = "persisted-query-manifest.json";
+
+    private static final String MANIFEST_QUERY = "{ allEditors { id name } }";
+
+    private static final String MANIFEST_HASH = "7da4ec3e345be420fed99196d81557c22662d98b10d5aa4df943d24505d1568a";
+
+    private static PersistedQueryStore store(boolean allowListOnly) {
+        return new PersistedQueryStore(new SimpleMeterRegistry(), 10, allowListOnly, Optional.of(MANIFEST));
+    }
+
+    @Test
+    void hashOfIsTheLowercaseHexSha256() {
+        assertEquals(MANIFEST_HASH, PersistedQueryStore.hashOf(MANIFEST_QUERY));
+    }
+
+    @Test
+    void registeredQueriesAreFoundByHash() {
+        PersistedQueryStore store = store(false);
+        String query = "{ allAuthors { id } }";
+        String hash = PersistedQueryStore.hashOf(query);
+
+        assertNull(store.lookup(hash));
+        store.register(hash, query);
+
+        assertEquals(query, store.lookup(hash));
+        assertEquals(MANIFEST_QUERY, store.lookup(MANIFEST_HASH));
+        assertTrue(store.isAllowed(query));
+    }
+
+    @Test
+    void registerRejectsAHashNotMatchingTheQuery() {
+        PersistedQueryStore store = store(false);
+
+        assertThrows(IllegalArgumentException.class, () -> store.register(MANIFEST_HASH, "{ allAuthors { id } }"));
+    }
+
+    @Test
+    void allowListModeKnowsOnlyTheQueriesOfTheManifest() {
+        PersistedQueryStore store = store(true);
+        String query = "{ allAuthors { id } }";
+        String hash = PersistedQueryStore.hashOf(query);
+
+        store.register(hash, query);
+
+        assertNull(store.lookup(hash));
+        assertFalse(store.isAllowed(query));
+        assertEquals(MANIFEST_QUERY, store.lookup(MANIFEST_HASH));
+        assertTrue(store.isAllowed(MANIFEST_QUERY));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.subscription;
+
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Dispatches new books to 50,000 filtered subscriptions, comparing the inverted index with a
+ * scan of all the filters. The timings are logged, the assertions only check that both find
+ * the same subscribers, so that the benchmark does not depend on the speed of the machine.
+ * Tagged {@code benchmark}, it runs only with {@code -Dbenchmark}.
+ */
+@Tag("benchmark")
+class BookFilterIndexBenchmarkTest {
+
+    private static final Logger LOG = Logger.getLogger(BookFilterIndexBenchmarkTest.class);
+
+    private static final int SUBSCRIPTIONS = 50_000;
+    private static final int BOOKS = 500;
+    private static final int WARMUP_ROUNDS = 2;
+
+    private static final List<String> GENRES = List.of("Fantasy", "Science", "History", "Romance", "Thriller",
+            "Biography", "Poetry", "Travel", "Cooking", "Art");
+    private static final List<String> LANGUAGES = List.of("en", "it", "fr", "de", "es");
+
+    private final Random random = new Random(42);
+
+    private BookCreatedFilter randomFilter() {
+        // Every subscriber cares about a genre or an editor, as in the typical dashboards
+        return switch (random.nextInt(4)) {
+            case 0 -> new BookCreatedFilter(pick(GENRES), null, null, null, null);
+            case 1 -> new BookCreatedFilter(null, (long) random.nextInt(500), null, null, null);
+            case 2 -> new BookCreatedFilter(pick(GENRES), null, null, List.of("k" + random.nextInt(200)), pick(LANGUAGES));
+            default -> new BookCreatedFilter(null, null, List.of((long) random.nextInt(5_000), (long) random.nextInt(5_000)),
+                    null, null);
+        };
+    }
+
+    private Book randomBook() {
+        return BookFilterIndexTest.book(pick(GENRES), (long) random.nextInt(500),
+                List.of((long) random.nextInt(5_000), (long) random.nextInt(5_000)),
+                List.of("k" + random.nextInt(200), "k" + random.nextInt(200)), List.of(pick(LANGUAGES)));
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static boolean matches(BookCreatedFilter filter, Book book) {
+        return (filter.genre() == null || filter.genre().equals(book.genre))
+                && (filter.editorId() == null || filter.editorId().equals(book.editor.id))
+                && (filter.authorIds().isEmpty()
+                        || book.authors.stream().anyMatch(author -> filter.authorIds().contains(author.id)))
+                && (filter.keywords().isEmpty() || filter.keywords().stream().anyMatch(book.keywords::contains))
+                && (filter.language() == null || book.languages.contains(filter.language()));
+    }
+
+    @Test
+    void dispatch_findsTheSameSubscribersAsAScan() {
+        BookFilterIndex<Integer> index = new BookFilterIndex<>();
+        List<BookCreatedFilter> filters = new ArrayList<>(SUBSCRIPTIONS);
+        for (int i = 0; i < SUBSCRIPTIONS; i++) {
+            BookCreatedFilter filter = randomFilter();
+            filters.add(filter);
+            index.add(filter, i);
+        }
+        List<Book> books = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(randomBook());
+        }
+
+        long indexNanos = 0;
+        long scanNanos = 0;
+        long delivered = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            indexNanos = 0;
+            scanNanos = 0;
+            delivered = 0;
+            for (Book book : books) {
+                Set<Integer> indexed = new HashSet<>();
+                long start = System.nanoTime();
+                index.forEachMatch(book, indexed::add);
+                indexNanos += System.nanoTime() - start;
+
+                Set<Integer> scanned = new HashSet<>();
+                start = System.nanoTime();
+                for (int i = 0; i < filters.size(); i++) {
+                    if (matches(filters.get(i), book)) {
+                        scanned.add(i);
+                    }
+                }
+                scanNanos += System.nanoTime() - start;
+
+                assertEquals(scanned, indexed);
+                delivered += indexed.size();
+            }
+        }
+
+        LOG.infof("bookCreated dispatch to %,d subscriptions, %,d books, %,d deliveries: "
+                + "index %,d us/book, scan %,d us/book", SUBSCRIPTIONS, BOOKS, delivered,
+                indexNanos / BOOKS / 1_000, scanNanos / BOOKS / 1_000);
+    }
+}
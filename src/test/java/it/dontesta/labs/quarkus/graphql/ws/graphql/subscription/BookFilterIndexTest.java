@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.subscription;
+
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Author;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Editor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookFilterIndexTest {
+
+    private BookFilterIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookFilterIndex<>();
+    }
+
+    static Book book(String genre, Long editorId, List<Long> authorIds, List<String> keywords,
+            List<String> languages) {
+        Book book = new Book();
+        book.genre = genre;
+        if (editorId != null) {
+            book.editor = new Editor();
+            book.editor.id = editorId;
+        }
+        book.authors = new ArrayList<>();
+        for (Long authorId : authorIds) {
+            Author author = new Author();
+            author.id = authorId;
+            book.authors.add(author);
+        }
+        book.keywords = keywords;
+        book.languages = languages;
+        return book;
+    }
+
+    private Set<String> matches(Book book) {
+        Set<String> matches = new TreeSet<>();
+        index.forEachMatch(book, subscriber -> assertTrue(matches.add(subscriber)));
+        return matches;
+    }
+
+    @Test
+    void forEachMatch_requiresEveryCriterion() {
+        index.add(new BookCreatedFilter("Fantasy", null, null, null, null), "genre");
+        index.add(new BookCreatedFilter("Fantasy", 3L, null, null, null), "genre-editor");
+        index.add(new BookCreatedFilter("Fantasy", 4L, null, null, null), "genre-other-editor");
+        index.add(new BookCreatedFilter(null, null, List.of(1L, 2L), List.of("magic"), "it"), "authors-keyword-language");
+        index.add(new BookCreatedFilter(null, null, null, null, null), "all");
+        index.add(null, "none");
+
+        Book book = book("Fantasy", 3L, List.of(1L, 2L), List.of("magic", "dragons"), List.of("en", "it"));
+
+        assertEquals(Set.of("all", "authors-keyword-language", "genre", "genre-editor", "none"), matches(book));
+    }
+
+    @Test
+    void forEachMatch_ignoresTheBooksWithoutTheCriteria() {
+        index.add(new BookCreatedFilter(null, 3L, null, null, null), "editor");
+        index.add(new BookCreatedFilter(null, null, null, List.of("magic"), "it"), "keyword-language");
+
+        Book book = book("Fantasy", null, List.of(), List.of("magic"), null);
+
+        assertEquals(Set.of(), matches(book));
+    }
+
+    @Test
+    void remove_stopsTheMatches() {
+        BookCreatedFilter filter = new BookCreatedFilter("Fantasy", null, List.of(1L), null, null);
+        index.add(filter, "subscriber");
+        Book book = book("Fantasy", null, List.of(1L), List.of(), List.of());
+        assertEquals(Set.of("subscriber"), matches(book));
+
+        index.remove(filter, "subscriber");
+
+        assertEquals(Set.of(), matches(book));
+    }
+}
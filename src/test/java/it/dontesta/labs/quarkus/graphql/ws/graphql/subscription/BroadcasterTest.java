@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.subscription;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.eclipse.microprofile.graphql.GraphQLException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BroadcasterTest {
+
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    private Broadcaster<Integer, Void> broadcaster(OverflowStrategy overflow, int maxSubscribers, Executor executor) {
+        return new Broadcaster<>("test", 2, overflow, maxSubscribers, executor, registry);
+    }
+
+    private static void publish(Broadcaster<Integer, Void> broadcaster, int count) {
+        for (int i = 1; i <= count; i++) {
+            broadcaster.publish(i);
+        }
+    }
+
+    @Test
+    void publish_deliversTheEventsAsTheyAreRequested() {
+        Broadcaster<Integer, Void> broadcaster = broadcaster(OverflowStrategy.DROP_OLDEST, 10, Runnable::run);
+        AssertSubscriber<Integer> subscriber = broadcaster.subscribe().subscribe().withSubscriber(AssertSubscriber.create(1));
+
+        broadcaster.publish(1);
+        broadcaster.publish(2);
+        subscriber.assertItems(1);
+
+        subscriber.request(1);
+        subscriber.assertItems(1, 2);
+        assertEquals(2, registry.get("graphql.subscription.lag").timer().count());
+    }
+
+    @Test
+    void dropOldest_keepsTheNewestEventsOfTheBuffer() {
+        Broadcaster<Integer, Void> broadcaster = broadcaster(OverflowStrategy.DROP_OLDEST, 10, Runnable::run);
+        AssertSubscriber<Integer> subscriber = broadcaster.subscribe().subscribe().withSubscriber(AssertSubscriber.create());
+
+        publish(broadcaster, 5);
+        subscriber.request(10);
+
+        subscriber.assertItems(4, 5);
+        assertEquals(3, registry.get("graphql.subscription.dropped").counter().count());
+    }
+
+    @Test
+    void keepLatest_keepsOnlyTheLatestEvent() {
+        Broadcaster<Integer, Void> broadcaster = broadcaster(OverflowStrategy.KEEP_LATEST, 10, Runnable::run);
+        AssertSubscriber<Integer> subscriber = broadcaster.subscribe().subscribe().withSubscriber(AssertSubscriber.create());
+
+        publish(broadcaster, 5);
+        subscriber.request(10);
+
+        subscriber.assertItems(5);
+        assertEquals(4, registry.get("graphql.subscription.dropped").counter().count());
+    }
+
+    @Test
+    void disconnect_failsTheSlowSubscriberOnly() {
+        Broadcaster<Integer, Void> broadcaster = broadcaster(OverflowStrategy.DISCONNECT, 10, Runnable::run);
+        AssertSubscriber<Integer> slow = broadcaster.subscribe().subscribe().withSubscriber(AssertSubscriber.create());
+        AssertSubscriber<Integer> fast = broadcaster.subscribe().subscribe().withSubscriber(AssertSubscriber.create(10));
+
+        publish(broadcaster, 3);
+
+        slow.assertFailedWith(GraphQLException.class);
+        fast.assertItems(1, 2, 3);
+        assertEquals(1, broadcaster.subscriberCount());
+        assertEquals(1, registry.get("graphql.subscription.disconnected").counter().count());
+    }
+
+    @Test
+    void subscribe_rejectsTheSubscribersOverTheLimit() {
+        Broadcaster<Integer, Void> broadcaster = broadcaster(OverflowStrategy.DROP_OLDEST, 1, Runnable::run);
+        AssertSubscriber<Integer> first = broadcaster.subscribe().subscribe().withSubscriber(AssertSubscriber.create(1));
+        AssertSubscriber<Integer> second = broadcaster.subscribe().subscribe().withSubscriber(AssertSubscriber.create(1));
+
+        second.assertFailedWith(GraphQLException.class);
+        first.cancel();
+        assertEquals(0, broadcaster.subscriberCount());
+
+        broadcaster.subscribe().subscribe().withSubscriber(AssertSubscriber.create(1)).assertNotTerminated();
+        assertEquals(1, registry.get("graphql.subscription.rejected").counter().count());
+    }
+
+    @Test
+    void publish_doesNotWaitForTheDelivery() {
+        List<Runnable> pending = new ArrayList<>();
+        Broadcaster<Integer, Void> broadcaster = broadcaster(OverflowStrategy.DROP_OLDEST, 10, pending::add);
+        AssertSubscriber<Integer> subscriber = broadcaster.subscribe().subscribe().withSubscriber(AssertSubscriber.create(10));
+
+        publish(broadcaster, 2);
+        subscriber.assertHasNotReceivedAnyItem();
+        assertEquals(2.0, registry.get("graphql.subscription.buffered").gauge().value());
+
+        pending.forEach(Runnable::run);
+        subscriber.assertItems(1, 2);
+    }
+}
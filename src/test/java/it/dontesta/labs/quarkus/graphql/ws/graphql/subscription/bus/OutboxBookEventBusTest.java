@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2025 Antonio Musarra's Blog.
+ * SPDX-License-Identifier: MIT
+ */
+package it.dontesta.labs.quarkus.graphql.ws.graphql.subscription.bus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
+import it.dontesta.labs.quarkus.graphql.orm.panache.entity.BookCreatedOutbox;
+import it.dontesta.labs.quarkus.graphql.search.BookSearchIndex;
+import it.dontesta.labs.quarkus.graphql.search.BookSearchResult;
+import it.dontesta.labs.quarkus.graphql.ws.graphql.subscription.BookCreatedBroadcaster;
+import it.dontesta.labs.quarkus.graphql.ws.graphql.subscription.BookCreatedFilter;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@TestProfile(OutboxBookEventBusTest.OutboxProfile.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class OutboxBookEventBusTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(15);
+
+    public static class OutboxProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "app.graphql.subscriptions.book-created.bus", "outbox",
+                    "app.graphql.subscriptions.book-created.outbox.node-id", "test-node",
+                    "app.graphql.subscriptions.book-created.outbox.poll-interval", "1s");
+        }
+    }
+
+    @Inject
+    BookCreatedBroadcaster broadcaster;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    BookSearchIndex bookSearchIndex;
+
+    private AssertSubscriber<Book> subscribe(String genre) {
+        return broadcaster.subscribe(new BookCreatedFilter(genre, null, null, null, null))
+                .subscribe().withSubscriber(AssertSubscriber.create(10));
+    }
+
+    private double counter(String name) {
+        return registry.get(name).tag("bus", "outbox").counter().count();
+    }
+
+    private void awaitCounter(String name, double value) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (counter(name) < value && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    private String payload(long id, String title, String genre) throws Exception {
+        Book book = new Book();
+        book.id = id;
+        book.title = title;
+        book.genre = genre;
+        book.publication = LocalDate.of(2025, 1, 28);
+        book.languages = List.of("IT");
+        return objectMapper.writeValueAsString(BookCreatedMessage.of(book));
+    }
+
+    private static void write(String nodeId, String payload) {
+        write(nodeId, BookCreatedOutbox.Kind.CREATED, payload);
+    }
+
+    private static void write(String nodeId, BookCreatedOutbox.Kind kind, String payload) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            BookCreatedOutbox event = new BookCreatedOutbox();
+            event.nodeId = nodeId;
+            event.createdAt = Instant.now();
+            event.kind = kind;
+            event.payload = payload;
+            event.persist();
+        });
+    }
+
+    private List<Long> search(String text) {
+        return bookSearchIndex.search(text, 0, 10).hits().stream().map(BookSearchResult.Hit::id).toList();
+    }
+
+    @Test
+    @Order(1)
+    void bookOfAnotherNode_isDeliveredOnce() throws Exception {
+        AssertSubscriber<Book> subscriber = subscribe("outbox-remote");
+        double duplicates = counter("graphql.subscription.bus.duplicates");
+
+        write("other-node", payload(10_000L, "Created on another replica", "outbox-remote"));
+
+        subscriber.awaitItems(1, TIMEOUT);
+        assertEquals("Created on another replica", subscriber.getItems().getFirst().title);
+        assertEquals(LocalDate.of(2025, 1, 28), subscriber.getItems().getFirst().publication);
+
+        // Wait for the later polls, that read the events of the lookback window again
+        awaitCounter("graphql.subscription.bus.duplicates", duplicates + 2);
+        assertEquals(1, subscriber.getItems().size());
+        subscriber.cancel();
+    }
+
+    @Test
+    @Order(2)
+    void booksOfARestartedNode_areAllDelivered() throws Exception {
+        AssertSubscriber<Book> subscriber = subscribe("outbox-restarted");
+
+        // The node keeps its ID across the restart, as with the host name of a stable replica
+        write("restarted-node", payload(10_001L, "Created before the restart", "outbox-restarted"));
+        subscriber.awaitItems(1, TIMEOUT);
+        write("restarted-node", payload(10_002L, "Created after the restart", "outbox-restarted"));
+
+        subscriber.awaitItems(2, TIMEOUT);
+        assertEquals(List.of("Created before the restart", "Created after the restart"),
+                subscriber.getItems().stream().map(book -> book.title).toList());
+        subscriber.cancel();
+    }
+
+    @Test
+    @Order(3)
+    void bookOfThisNode_isDeliveredOnceAfterTheCommit() throws Exception {
+        AssertSubscriber<Book> subscriber = subscribe("outbox-local");
+        double published = counter("graphql.subscription.bus.published");
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"mutation { createBook(book: {title: \\\"Created on this replica\\\", isbn: \\\"7650986575646\\\", pages: 100, summary: \\\"Summary\\\", publication: \\\"2025-01-28\\\", genre: \\\"outbox-local\\\", languages: [\\\"IT\\\"], formats: [\\\"PDF\\\"], keywords: [\\\"key1\\\"], authors: [{id: 5}], editor: {id: 5}}) { id }}\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.createBook.id", notNullValue());
+
+        subscriber.awaitItems(1, TIMEOUT);
+        assertEquals(published + 1, counter("graphql.subscription.bus.published"));
+
+        // The polls skip the events of this node
+        double received = counter("graphql.subscription.bus.received");
+        Thread.sleep(2_500);
+        assertEquals(received, counter("graphql.subscription.bus.received"));
+        assertEquals(1, subscriber.getItems().size());
+        subscriber.cancel();
+    }
+
+    @Test
+    @Order(4)
+    void bookChangedOnThisNode_isWrittenToTheOutbox() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"mutation { addAuthorsToBook(bookId: 4, authorIds: [3]) { id } }\"}")
+                .when()
+                .post("/api/graphql")
+                .then()
+                .statusCode(200)
+                .body("data.addAuthorsToBook.id", notNullValue());
+
+        List<BookCreatedOutbox> events = QuarkusTransaction.requiringNew().call(() -> BookCreatedOutbox
+                .<BookCreatedOutbox> list("kind = ?1 and nodeId = ?2", BookCreatedOutbox.Kind.CHANGED, "test-node"));
+        assertTrue(events.stream().anyMatch(event -> event.payload.equals("[4]")));
+    }
+
+    @Test
+    @Order(5)
+    void bookChangedByAnotherNode_isIndexedAgain() throws Exception {
+        String title = QuarkusTransaction.requiringNew().call(() -> {
+            Book book = Book.findById(3L);
+            String previous = book.title;
+            // Changed without an event, as by another replica
+            book.title = "Outbox vexillology";
+            return previous;
+        });
+
+        try {
+            write("other-node", BookCreatedOutbox.Kind.CHANGED, "[3]");
+
+            long deadline = System.nanoTime() + TIMEOUT.toNanos();
+            while (search("vexillology").isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            assertEquals(List.of(3L), search("vexillology"));
+        } finally {
+            QuarkusTransaction.requiringNew().run(() -> Book.<Book> findById(3L).title = title);
+            bookSearchIndex.rebuild();
+        }
+    }
+}
@@ -4,6 +4,8 @@
  */
 package it.dontesta.labs.quarkus.graphql.ws.resources.endpoint.repository.v1;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.test.junit.QuarkusTest;
 import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Book;
 import it.dontesta.labs.quarkus.graphql.orm.panache.entity.Editor;
@@ -11,11 +13,17 @@ import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 class BookResourceIntegrationTest {
@@ -29,6 +37,69 @@ class BookResourceIntegrationTest {
                 .body(notNullValue());
     }
 
+    @Test
+    void export_streamsEveryBookAsNdjson() throws Exception {
+        List<Integer> ids = given()
+                .when().get("/api/books")
+                .then()
+                .statusCode(200)
+                .extract().jsonPath().getList("id", Integer.class);
+
+        String export = given()
+                .when().get("/api/books/export")
+                .then()
+                .statusCode(200)
+                .contentType(startsWith("application/x-ndjson"))
+                .extract().asString();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<Integer> exportedIds = new ArrayList<>();
+        for (String line : export.split("\n")) {
+            JsonNode book = objectMapper.readTree(line);
+            exportedIds.add(book.get("id").asInt());
+            assertTrue(book.hasNonNull("title"));
+            assertTrue(book.get("authors").isArray());
+            assertTrue(book.get("languages").isArray());
+        }
+        assertEquals(ids.stream().sorted().toList(), exportedIds);
+
+        // The associations are the same of the single book
+        JsonNode exported = objectMapper.readTree(export.split("\n")[2]);
+        int bookId = exported.get("id").asInt();
+        given()
+                .when().get("/api/books/" + bookId)
+                .then()
+                .statusCode(200)
+                .body("editor.id", is(exported.get("editor").get("id").asInt()))
+                .body("authors.size()", is(exported.get("authors").size()))
+                .body("keywords.size()", is(exported.get("keywords").size()));
+    }
+
+    @Test
+    void export_streamsEveryBookAsJsonArray() {
+        int books = given()
+                .when().get("/api/books")
+                .then()
+                .statusCode(200)
+                .extract().jsonPath().getList("id").size();
+
+        given()
+                .when().get("/api/books/export?format=json")
+                .then()
+                .statusCode(200)
+                .contentType(startsWith("application/json"))
+                .body("size()", is(books))
+                .body("[0].editor.name", notNullValue());
+    }
+
+    @Test
+    void export_returnsBadRequestForUnknownFormat() {
+        given()
+                .when().get("/api/books/export?format=xml")
+                .then()
+                .statusCode(400);
+    }
+
     @Test
     @Transactional
     void create_createsNewBook() {
@@ -159,4 +230,72 @@ class BookResourceIntegrationTest {
                 .then()
                 .statusCode(204);
     }
-}
\ No newline at end of file
+
+    @Test
+    void update_returnsBadRequestForMissingReferences() {
+        Long bookId = 6L; // Assumes a book with ID 6 exists
+        String book = """
+                {"title": "Missing references", "editor": {"id": 999},
+                 "authors": [{"id": 3}, {"id": 998}]}
+                """;
+
+        given()
+                .contentType("application/json")
+                .body(book)
+                .when().put("/api/books/" + bookId)
+                .then()
+                .statusCode(400)
+                .body("error", is("Editor not found with Id 999; Author not found with Id 998"))
+                .body("missing.size()", is(2));
+
+        given()
+                .when().get("/api/books/" + bookId)
+                .then()
+                .statusCode(200)
+                .body("title", not("Missing references"));
+    }
+
+    @Test
+    void create_returnsBadRequestForTheKeyOfAnotherObject() {
+        // The key of the cover of another book, that would be presigned for this one
+        String book = """
+                {"title": "Borrowed cover", "isbn": "9780000000037", "pages": 100, "summary": "Summary",
+                 "publication": "2025-01-28", "genre": "Covers",
+                 "frontCoverImageKey": "9780321967974_the_art_of_software_engineering_front_cover.jpg",
+                 "backCoverImageKey": "../9780000000037_borrowed_cover_back_cover.jpg"}
+                """;
+
+        given()
+                .contentType("application/json")
+                .body(book)
+                .when().post("/api/books")
+                .then()
+                .statusCode(400)
+                .body("error", containsString("frontCoverImageKey 9780321967974_the_art_of_software_engineering"
+                        + "_front_cover.jpg is not the front cover of the book with ISBN 9780000000037"))
+                .body("error", containsString("backCoverImageKey ../9780000000037_borrowed_cover_back_cover.jpg"
+                        + " is not the back cover of the book with ISBN 9780000000037"));
+
+        given()
+                .when().get("/api/books/isbn/9780000000037")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    void create_returnsBadRequestForTheUrlOfACover() {
+        String book = """
+                {"title": "Cover by URL", "isbn": "9780000000044", "pages": 100, "summary": "Summary",
+                 "publication": "2025-01-28", "genre": "Covers",
+                 "frontCoverImageUrl": "https://covers.example.org/9780000000044.jpg"}
+                """;
+
+        given()
+                .contentType("application/json")
+                .body(book)
+                .when().post("/api/books")
+                .then()
+                .statusCode(400)
+                .body("error", is("frontCoverImageUrl is not supported anymore, set the frontCoverImageKey"));
+    }
+}